@@ -0,0 +1,72 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks;
+
+import org.adamalang.runtime.contracts.Perspective;
+import org.adamalang.runtime.natives.NtClient;
+import org.adamalang.runtime.sys.LivingDocumentChange;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** measure the broadcast fan-out (LivingDocument.__buildBroadcastList) as the number of private views grows */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BroadcastBenchmark {
+  private static final NtClient SENDER = new NtClient("sender", "benchmark");
+
+  /** how many distinct viewers are watching the document */
+  @Param({"1", "10", "100", "500"})
+  public int viewers;
+
+  /** how many views each viewer holds open (i.e. multiple tabs/devices) */
+  @Param({"1", "4"})
+  public int viewsPerViewer;
+
+  private DocumentHarness chat;
+  private int counter;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    chat = new DocumentHarness(Scripts.CHAT);
+    chat.transact(chat.connect(SENDER)).complete();
+    for (int k = 0; k < viewers; k++) {
+      NtClient viewer = new NtClient("viewer-" + k, "benchmark");
+      chat.transact(chat.connect(viewer)).complete();
+      for (int j = 0; j < viewsPerViewer; j++) {
+        chat.document.__createView(viewer, Perspective.DEAD, null);
+      }
+    }
+    // flush the initial view state so each iteration measures a delta
+    chat.transact(chat.invalidate()).complete();
+    counter = 0;
+  }
+
+  /** a direct message commits and builds a broadcast for every view */
+  @Benchmark
+  public LivingDocumentChange sendWithBroadcast() throws Exception {
+    counter++;
+    LivingDocumentChange change = chat.transact(chat.send(SENDER, "say", "{\"what\":\"message " + counter + "\",\"score\":" + (counter % 100) + "}"));
+    change.complete();
+    return change;
+  }
+
+  /** an invalidation without any data change still visits every view */
+  @Benchmark
+  public LivingDocumentChange invalidateWithBroadcast() throws Exception {
+    LivingDocumentChange change = chat.transact(chat.invalidate());
+    change.complete();
+    return change;
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks;
+
+import org.adamalang.runtime.data.RemoteDocumentUpdate;
+import org.adamalang.runtime.data.UpdateType;
+import org.adamalang.runtime.natives.NtClient;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** measure RemoteDocumentUpdate.compact which folds trailing invalidations into the prior update */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompactBenchmark {
+  /** how many updates are in the batch handed to the data service */
+  @Param({"2", "8", "32"})
+  public int updates;
+
+  /** how many fields each update touches */
+  @Param({"4", "64"})
+  public int fields;
+
+  private RemoteDocumentUpdate[] batch;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    batch = new RemoteDocumentUpdate[updates];
+    for (int k = 0; k < updates; k++) {
+      StringBuilder redo = new StringBuilder("{\"__seq\":").append(k + 1);
+      StringBuilder undo = new StringBuilder("{\"__seq\":").append(k);
+      for (int f = 0; f < fields; f++) {
+        redo.append(",\"f").append(f).append("\":{\"v\":").append(k * fields + f).append(",\"name\":\"value-").append(k).append("\"}");
+        undo.append(",\"f").append(f).append("\":{\"v\":").append((k - 1) * fields + f).append("}");
+      }
+      redo.append("}");
+      undo.append("}");
+      UpdateType type = k == 0 ? UpdateType.DirectMessageExecute : UpdateType.Invalidate;
+      batch[k] = new RemoteDocumentUpdate(k + 1, k + 1, NtClient.NO_ONE, "{}", redo.toString(), undo.toString(), true, 0, 0L, type);
+    }
+  }
+
+  @Benchmark
+  public RemoteDocumentUpdate[] compact() {
+    return RemoteDocumentUpdate.compact(batch);
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks;
+
+import org.adamalang.caravan.CaravanDataService;
+import org.adamalang.caravan.data.DurableListStore;
+import org.adamalang.caravan.data.DurableListStoreMetrics;
+import org.adamalang.common.Callback;
+import org.adamalang.common.ErrorCodeException;
+import org.adamalang.common.SimpleExecutor;
+import org.adamalang.common.TimeSource;
+import org.adamalang.common.metrics.NoOpMetricsFactory;
+import org.adamalang.disk.DiskBase;
+import org.adamalang.disk.DiskDataMetrics;
+import org.adamalang.disk.DiskDataService;
+import org.adamalang.disk.WriteAheadLog;
+import org.adamalang.runtime.data.*;
+import org.adamalang.runtime.natives.NtClient;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/** measure the persistence hot paths (patch, get, snapshot) of each DataService */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataServiceBenchmark {
+  private static final Key KEY = new Key("space", "1");
+  private static final int SNAPSHOT_EVERY = 128;
+  private static final int HISTORY = 64;
+
+  /** which data service to measure */
+  @Param({"memory", "caravan", "disk"})
+  public String backend;
+
+  /** how many bytes of payload each patch carries */
+  @Param({"64", "1024"})
+  public int payload;
+
+  private File root;
+  private SimpleExecutor executor;
+  private DataService service;
+  private CaravanDataService caravan;
+  private DurableListStore store;
+  private DiskBase diskBase;
+  private WriteAheadLog wal;
+  private String filler;
+  private int seq;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    root = Files.createTempDirectory("adama-benchmark-").toFile();
+    executor = SimpleExecutor.create("benchmark-data");
+    switch (backend) {
+      case "memory":
+        service = new InMemoryDataService((r) -> r.run(), TimeSource.REAL_TIME);
+        break;
+      case "caravan": {
+        store = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(root, "STORE"), root, 256L * 1024 * 1024, 64 * 1024, 32 * 1024 * 1024);
+        caravan = new CaravanDataService(new IdentityFinder(), store, executor);
+        service = caravan;
+      }
+      break;
+      case "disk": {
+        diskBase = new DiskBase(new DiskDataMetrics(new NoOpMetricsFactory()), executor, root);
+        diskBase.start();
+        wal = new WriteAheadLog(diskBase, 8196, 50000, 32 * 1024 * 1024);
+        service = new DiskDataService(diskBase, wal);
+      }
+      break;
+      default:
+        throw new IllegalArgumentException("unknown backend:" + backend);
+    }
+    StringBuilder sb = new StringBuilder();
+    while (sb.length() < payload) {
+      sb.append("0123456789abcdef");
+    }
+    filler = sb.substring(0, payload);
+    seq = 1;
+    Blocker<Void> init = new Blocker<>();
+    service.initialize(KEY, update(seq, "{\"x\":0,\"text\":\"" + filler + "\"}", "{}"), init);
+    flush();
+    init.await();
+  }
+
+  @TearDown(Level.Trial)
+  public void teardown() throws Exception {
+    if (wal != null) {
+      wal.close().run();
+    }
+    if (store != null) {
+      caravan.flush(true).await(5000, TimeUnit.MILLISECONDS);
+      store.shutdown();
+    }
+    executor.shutdown().await(5000, TimeUnit.MILLISECONDS);
+    Files.walk(root.toPath()).sorted(Comparator.reverseOrder()).map(java.nio.file.Path::toFile).forEach(File::delete);
+  }
+
+  private static RemoteDocumentUpdate update(int seq, String redo, String undo) {
+    return new RemoteDocumentUpdate(seq, seq, NtClient.NO_ONE, "{\"command\":\"invalidate\",\"timestamp\":" + seq + "}", redo, undo, false, 0, 0L, UpdateType.AddUserData);
+  }
+
+  /** caravan only releases notifications on a flush, so force it after each write */
+  private void flush() {
+    if (caravan != null) {
+      caravan.flush(false);
+    }
+  }
+
+  /** one patch, made durable; every SNAPSHOT_EVERY patches the document is snapshot to keep the history bounded */
+  @Benchmark
+  public void patch() throws Exception {
+    int next = seq + 1;
+    Blocker<Void> patched = new Blocker<>();
+    service.patch(KEY, new RemoteDocumentUpdate[]{update(next, "{\"x\":" + next + ",\"text\":\"" + filler + "\"}", "{\"x\":" + seq + "}")}, patched);
+    flush();
+    patched.await();
+    seq = next;
+    if (seq % SNAPSHOT_EVERY == 0) {
+      Blocker<Integer> snapshot = new Blocker<>();
+      service.snapshot(KEY, seq, "{\"x\":" + seq + ",\"text\":\"" + filler + "\"}", HISTORY, snapshot);
+      flush();
+      snapshot.await();
+    }
+  }
+
+  /** load the entire document */
+  @Benchmark
+  public LocalDocumentChange get() throws Exception {
+    Blocker<LocalDocumentChange> got = new Blocker<>();
+    service.get(KEY, got);
+    return got.await();
+  }
+
+  /** a finder which maps the key directly into the caravan id space */
+  private static class IdentityFinder implements FinderService {
+    @Override
+    public void create(Key key, Callback<Void> callback) {
+      callback.success(null);
+    }
+
+    @Override
+    public void find(Key key, Callback<Result> callback) {
+      callback.success(new Result(Long.parseLong(key.key), Location.Machine, null));
+    }
+
+    @Override
+    public void takeover(Key key, Callback<Void> callback) {
+      callback.success(null);
+    }
+
+    @Override
+    public void archive(Key key, String archiveKey, Callback<Void> callback) {
+      callback.success(null);
+    }
+
+    @Override
+    public void delete(Key key, Callback<Void> callback) {
+      callback.success(null);
+    }
+
+    @Override
+    public void update(Key key, long deltaSize, long assetSize, Callback<Void> callback) {
+      callback.success(null);
+    }
+  }
+
+  /** convert the async callback into a blocking wait */
+  private static class Blocker<T> implements Callback<T> {
+    private final CountDownLatch latch;
+    private T value;
+    private ErrorCodeException failure;
+
+    private Blocker() {
+      this.latch = new CountDownLatch(1);
+    }
+
+    @Override
+    public void success(T value) {
+      this.value = value;
+      latch.countDown();
+    }
+
+    @Override
+    public void failure(ErrorCodeException ex) {
+      this.failure = ex;
+      latch.countDown();
+    }
+
+    public T await() throws Exception {
+      if (!latch.await(5000, TimeUnit.MILLISECONDS)) {
+        throw new IllegalStateException("data service timed out");
+      }
+      if (failure != null) {
+        throw failure;
+      }
+      return value;
+    }
+  }
+}
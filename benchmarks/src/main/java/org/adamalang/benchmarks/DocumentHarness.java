@@ -0,0 +1,60 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks;
+
+import org.adamalang.common.ErrorCodeException;
+import org.adamalang.runtime.natives.NtClient;
+import org.adamalang.runtime.sys.CoreRequestContext;
+import org.adamalang.runtime.sys.LivingDocument;
+import org.adamalang.runtime.sys.LivingDocumentChange;
+import org.adamalang.runtime.sys.LivingDocumentRequest;
+import org.adamalang.translator.jvm.LivingDocumentFactory;
+
+/** drives a raw LivingDocument via __transact with the same typed requests that DurableLivingDocument ingests */
+public class DocumentHarness {
+  public final LivingDocumentFactory factory;
+  public final LivingDocument document;
+  private long time;
+
+  public DocumentHarness(String code) throws Exception {
+    this.factory = Scripts.compile(code);
+    this.document = factory.create(null);
+    this.document.__setKey("benchmark");
+    this.time = 1000;
+    transact(construct(NtClient.NO_ONE)).complete();
+    transact(invalidate()).complete();
+  }
+
+  /** execute the given request and return the change */
+  public LivingDocumentChange transact(LivingDocumentRequest request) throws ErrorCodeException {
+    return document.__transact(request, factory);
+  }
+
+  /** the clock advances by one millisecond per request */
+  public LivingDocumentRequest construct(NtClient who) {
+    return LivingDocumentRequest.construct(time++, who, "{}", "42");
+  }
+
+  public LivingDocumentRequest invalidate() {
+    return LivingDocumentRequest.invalidate(time++);
+  }
+
+  public LivingDocumentRequest connect(NtClient who) {
+    return LivingDocumentRequest.connect(time++, who);
+  }
+
+  public LivingDocumentRequest disconnect(NtClient who) {
+    return LivingDocumentRequest.disconnect(time++, who);
+  }
+
+  public LivingDocumentRequest send(NtClient who, String channel, String message) {
+    return LivingDocumentRequest.send(time++, new CoreRequestContext(who, "origin", "127.0.0.1", "benchmark"), null, channel, message);
+  }
+}
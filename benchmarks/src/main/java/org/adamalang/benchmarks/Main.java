@@ -0,0 +1,38 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * runs the JMH suites with the allocation profiler always attached such that every run reports
+ * both ops/sec and gc.alloc.rate.norm (bytes/op). Usage:
+ *
+ * java -jar benchmarks-0.2-jar-with-dependencies.jar [jmh options] [benchmark regex]
+ *
+ * results are written as JSON to jmh-result.json (override with -rff) for regression gating.
+ */
+public class Main {
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions cli = new CommandLineOptions(args);
+    Options options = new OptionsBuilder() //
+        .parent(cli) //
+        .addProfiler(GCProfiler.class) //
+        .resultFormat(cli.getResultFormat().orElse(ResultFormatType.JSON)) //
+        .result(cli.getResult().orElse("jmh-result.json")) //
+        .build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks;
+
+import org.adamalang.common.Hashing;
+import org.adamalang.net.client.routing.SpaceState;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/** measure picking a target for a key: the prior MD5 rendezvous against the seeded 64-bit rendezvous (with and without a warm cache) */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoutingBenchmark {
+  /** how many targets host the space */
+  @Param({"3", "50"})
+  public int targets;
+
+  /** how many distinct keys are looked up; more keys than the cache holds measures the miss path */
+  @Param({"100", "100000"})
+  public int keys;
+
+  private TreeSet<String> targetSet;
+  private SpaceState state;
+  private String[] keySet;
+  private int at;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    targetSet = new TreeSet<>();
+    state = new SpaceState();
+    for (int k = 0; k < targets; k++) {
+      String target = "10.0.0." + k + ":8001";
+      targetSet.add(target);
+      state.add(target);
+    }
+    keySet = new String[keys];
+    for (int k = 0; k < keys; k++) {
+      keySet[k] = "document-" + k;
+    }
+    at = 0;
+  }
+
+  private String nextKey() {
+    String key = keySet[at];
+    at = (at + 1) % keySet.length;
+    return key;
+  }
+
+  @Benchmark
+  public String md5() {
+    return md5Pick(targetSet, nextKey());
+  }
+
+  @Benchmark
+  public String rendezvous() {
+    return state.pick(nextKey());
+  }
+
+  /** the prior implementation of SpaceState.pick */
+  private static String md5Pick(TreeSet<String> targets, String key) {
+    String winner = null;
+    String winningHash = "";
+    byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+    for (String target : targets) {
+      MessageDigest digest = Hashing.md5();
+      digest.update(target.getBytes(StandardCharsets.UTF_8));
+      digest.update(keyBytes);
+      String targetHash = Hashing.finishAndEncode(digest);
+      if (targetHash.compareTo(winningHash) > 0) {
+        winner = target;
+        winningHash = targetHash;
+      }
+    }
+    return winner;
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks;
+
+import org.adamalang.common.ErrorCodeException;
+import org.adamalang.runtime.deploy.DeploymentFactory;
+import org.adamalang.translator.jvm.LivingDocumentFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** representative Adama scripts which the benchmarks drive */
+public class Scripts {
+  private static final AtomicInteger CLASS_ID = new AtomicInteger(0);
+
+  /** a chat room with a bounded table, a shared formula, and a per-viewer bubble */
+  public static final String CHAT = "" + //
+      "@static { create(who) { return true; } invent(who) { return true; } maximum_history = 100; }\n" + //
+      "@connected (who) { return true; }\n" + //
+      "record Line { public client who; public string what; public long when; public int score; }\n" + //
+      "table<Line> _chat;\n" + //
+      "public int messages;\n" + //
+      "message Say { string what; int score; }\n" + //
+      "channel say(client who, Say what) {\n" + //
+      "  _chat <- {who:who, what:what.what, when: Time.now(), score:what.score};\n" + //
+      "  messages++;\n" + //
+      "  (iterate _chat order by when desc offset 25).delete();\n" + //
+      "}\n" + //
+      "public formula top = iterate _chat order by score desc limit 10;\n" + //
+      "bubble<me> mine = iterate _chat where who == me;\n";
+
+  /** a state machine document which re-arms a timer on every invalidation */
+  public static final String TICKER = "" + //
+      "@static { create(who) { return true; } }\n" + //
+      "@connected (who) { return true; }\n" + //
+      "public int ticks;\n" + //
+      "@construct { transition #tick; }\n" + //
+      "#tick { ticks++; transition #tick in 0.001; }\n";
+
+  /** compile the given Adama code the same way a deployment would */
+  public static LivingDocumentFactory compile(String code) throws ErrorCodeException {
+    return DeploymentFactory.compile("Benchmark_" + CLASS_ID.getAndIncrement(), code);
+  }
+}
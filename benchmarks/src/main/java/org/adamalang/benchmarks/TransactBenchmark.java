@@ -0,0 +1,69 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.benchmarks;
+
+import org.adamalang.runtime.natives.NtClient;
+import org.adamalang.runtime.sys.LivingDocumentChange;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** measure LivingDocument.__transact for the commands that dominate production traffic */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactBenchmark {
+  private static final NtClient SENDER = new NtClient("sender", "benchmark");
+  private static final NtClient VISITOR = new NtClient("visitor", "benchmark");
+  private DocumentHarness chat;
+  private DocumentHarness ticker;
+  private int counter;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    chat = new DocumentHarness(Scripts.CHAT);
+    chat.transact(chat.connect(SENDER)).complete();
+    ticker = new DocumentHarness(Scripts.TICKER);
+    counter = 0;
+  }
+
+  @Benchmark
+  public LivingDocumentChange send() throws Exception {
+    counter++;
+    LivingDocumentChange change = chat.transact(chat.send(SENDER, "say", "{\"what\":\"message " + counter + "\",\"score\":" + (counter % 100) + "}"));
+    change.complete();
+    return change;
+  }
+
+  @Benchmark
+  public LivingDocumentChange connectThenDisconnect() throws Exception {
+    chat.transact(chat.connect(VISITOR)).complete();
+    LivingDocumentChange change = chat.transact(chat.disconnect(VISITOR));
+    change.complete();
+    return change;
+  }
+
+  @Benchmark
+  public LivingDocumentChange invalidateIdle() throws Exception {
+    LivingDocumentChange change = chat.transact(chat.invalidate());
+    change.complete();
+    return change;
+  }
+
+  @Benchmark
+  public LivingDocumentChange invalidateStateMachine() throws Exception {
+    LivingDocumentChange change = ticker.transact(ticker.invalidate());
+    change.complete();
+    return change;
+  }
+}
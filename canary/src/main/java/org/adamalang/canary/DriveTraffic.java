@@ -34,6 +34,9 @@ public class DriveTraffic {
     if ("diskbench".equals(mode)) {
       DiskBenchmark.go();
     }
+    if ("recoverybench".equals(mode)) {
+      DiskBenchmark.recovery(config.intOf("megabytes", 2048));
+    }
     if ("caravan".equals(mode)) {
       CaravanBenchmark.go();
     }
@@ -11,12 +11,22 @@ package org.adamalang.canary.agents.diskbench;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import org.adamalang.common.SimpleExecutor;
+import org.adamalang.common.metrics.NoOpMetricsFactory;
+import org.adamalang.disk.DiskBase;
+import org.adamalang.disk.DiskDataMetrics;
+import org.adamalang.disk.DocumentMemoryLog;
+import org.adamalang.disk.Startup;
 import org.adamalang.disk.wal.WriteAheadMessage;
 import org.adamalang.disk.wal.WriteAheadMessageCodec;
+import org.adamalang.runtime.data.Key;
 
 import java.io.File;
+import java.io.DataOutputStream;
 import java.io.FileOutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.TreeSet;
 
 public class DiskBenchmark {
   public static void go() throws Exception {
@@ -35,6 +45,43 @@ public class DiskBenchmark {
       int qps = (int) (warmup.messages * 1000.0 / ms);
       System.out.println(cutoff + "," + ms + "," + rate + "," + qps);
     }
+    snapshots(root);
+  }
+
+  /** measure the write amplification of flushing a document after every small patch */
+  private static void snapshots(File root) throws Exception {
+    int patches = 1000;
+    System.out.println("document-kb,patches,ms,MB-written,bytes/patch");
+    for (int kb : new int[]{16, 256, 2048}) {
+      File path = new File(root, "diskbench-snapshots");
+      path.mkdirs();
+      DocumentMemoryLog log = new DocumentMemoryLog(new Key("space", "key-" + kb), path);
+      WriteAheadMessage.Initialize init = new WriteAheadMessage.Initialize();
+      init.initialize = new WriteAheadMessage.Change();
+      init.initialize.redo = "{\"x\":1,\"blob\":\"" + "x".repeat(kb * 1024) + "\"}";
+      init.initialize.seq_end = 1;
+      log.apply(init);
+      log.flush();
+      long written = 0;
+      long started = System.currentTimeMillis();
+      for (int seq = 2; seq < patches + 2; seq++) {
+        WriteAheadMessage.Patch patch = new WriteAheadMessage.Patch();
+        patch.changes = new WriteAheadMessage.Change[1];
+        patch.changes[0] = new WriteAheadMessage.Change();
+        patch.changes[0].seq_begin = seq;
+        patch.changes[0].seq_end = seq;
+        patch.changes[0].redo = "{\"x\":" + seq + "}";
+        patch.changes[0].undo = "{\"x\":" + (seq - 1) + "}";
+        patch.changes[0].active = true;
+        log.apply(patch);
+        written += log.flush();
+      }
+      long ms = System.currentTimeMillis() - started;
+      System.out.println(kb + "," + patches + "," + ms + "," + (written / (1024 * 1024)) + "," + (written / patches));
+      log.delete();
+      log.flush();
+      path.delete();
+    }
   }
 
   private static Sample sample(File root, int cutoff, long bytesToWrite) throws Exception {
@@ -75,6 +122,90 @@ public class DiskBenchmark {
     return sample;
   }
 
+  /** measure how long it takes to recover a synthetic write ahead log of the given size with various thread counts */
+  public static void recovery(int megabytes) throws Exception {
+    File root = new File("diskbench-recovery");
+    int processors = Runtime.getRuntime().availableProcessors();
+    System.out.println("threads,wal-MB,ms,MB/sec");
+    TreeSet<Integer> threadCounts = new TreeSet<>(Arrays.asList(1, Math.max(1, processors / 2), processors));
+    for (int threads : threadCounts) {
+      nuke(root);
+      DiskBase base = new DiskBase(new DiskDataMetrics(new NoOpMetricsFactory()), SimpleExecutor.NOW, root);
+      long bytes = synthesizeWal(base.walWorkingDirectory, megabytes * 1024L * 1024L, 10000);
+      long started = System.currentTimeMillis();
+      Startup.transfer(base, threads);
+      long ms = Math.max(1, System.currentTimeMillis() - started);
+      System.out.println(threads + "," + (bytes / (1024 * 1024)) + "," + ms + "," + (bytes * 1000L / (1024 * 1024 * ms)));
+    }
+    nuke(root);
+  }
+
+  /** write logs (in the format of WriteAheadLog) which initialize and then patch the given number of documents */
+  private static long synthesizeWal(File walDirectory, long bytesToWrite, int documents) throws Exception {
+    long bytesWritten = 0;
+    int file = 0;
+    int[] seqs = new int[documents];
+    int next = 0;
+    while (bytesWritten < bytesToWrite) {
+      DataOutputStream output = new DataOutputStream(new FileOutputStream(new File(walDirectory, "WAL-" + file)));
+      file++;
+      try {
+        long fileBytes = 0;
+        while (fileBytes < 64 * 1024 * 1024 && bytesWritten < bytesToWrite) {
+          ByteBuf page = Unpooled.buffer();
+          while (page.readableBytes() < 64 * 1024) {
+            int doc = next;
+            next = (next + 1) % documents;
+            if (seqs[doc] == 0) {
+              WriteAheadMessage.Initialize init = new WriteAheadMessage.Initialize();
+              init.space = "space";
+              init.key = "key-" + doc;
+              init.initialize = new WriteAheadMessage.Change();
+              init.initialize.redo = "{\"x\":0,\"blob\":\"" + "x".repeat(1024) + "\"}";
+              init.initialize.seq_end = 1;
+              WriteAheadMessageCodec.write(page, init);
+              seqs[doc] = 1;
+            } else {
+              int seq = ++seqs[doc];
+              WriteAheadMessage.Patch patch = new WriteAheadMessage.Patch();
+              patch.space = "space";
+              patch.key = "key-" + doc;
+              patch.changes = new WriteAheadMessage.Change[1];
+              patch.changes[0] = new WriteAheadMessage.Change();
+              patch.changes[0].seq_begin = seq;
+              patch.changes[0].seq_end = seq;
+              patch.changes[0].request = "{\"command\":\"send\",\"channel\":\"foo\",\"message\":{\"z\":" + seq + "}}";
+              patch.changes[0].redo = "{\"x\":" + seq + ",\"y" + (seq % 16) + "\":\"" + "y".repeat(64) + "\"}";
+              patch.changes[0].undo = "{\"x\":" + (seq - 1) + "}";
+              patch.changes[0].active = true;
+              WriteAheadMessageCodec.write(page, patch);
+            }
+          }
+          byte[] bytes = new byte[page.readableBytes()];
+          page.readBytes(bytes);
+          output.write(0x42);
+          output.writeInt(bytes.length);
+          output.write(bytes);
+          fileBytes += 5 + bytes.length;
+          bytesWritten += 5 + bytes.length;
+        }
+      } finally {
+        output.close();
+      }
+    }
+    return bytesWritten;
+  }
+
+  private static void nuke(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        nuke(child);
+      }
+    }
+    file.delete();
+  }
+
   public static class Sample {
     public int latency;
     public long bytesWritten;
@@ -99,6 +99,7 @@ public class LocalDrive {
         }
       };
       CaravanDataService service = new CaravanDataService(finder, dls, executor);
+      service.kickOffDefragmentation(1000, 1024 * 1024);
       dataService = service;
       Thread flusher = new Thread(new Runnable() {
         @Override
@@ -53,10 +53,13 @@ import org.adamalang.overlord.html.ConcurrentCachedHttpHandler;
 import org.adamalang.runtime.contracts.DeploymentMonitor;
 import org.adamalang.runtime.data.InMemoryDataService;
 import org.adamalang.runtime.data.Key;
+import org.adamalang.runtime.data.PooledDataService;
 import org.adamalang.runtime.data.PrefixSplitDataService;
 import org.adamalang.runtime.deploy.DeploymentFactoryBase;
 import org.adamalang.runtime.deploy.DeploymentPlan;
+import org.adamalang.runtime.deploy.DiskByteCodeCache;
 import org.adamalang.runtime.natives.NtAsset;
+import org.adamalang.runtime.sys.BalancedDocumentScheduler;
 import org.adamalang.runtime.sys.CoreMetrics;
 import org.adamalang.runtime.sys.CoreService;
 import org.adamalang.runtime.sys.metering.DiskMeteringBatchMaker;
@@ -161,11 +164,14 @@ public class Service {
     MachineIdentity identity = MachineIdentity.fromFile(identityFileName);
     Engine engine = new Engine(identity, TimeSource.REAL_TIME, new HashSet<>(config.get_str_list("bootstrap")), gossipPort, monitoringPort, new GossipMetricsImpl(prometheusMetricsFactory), EngineRole.Node);
     engine.start();
-    DeploymentFactoryBase deploymentFactoryBase = new DeploymentFactoryBase();
-    DataBase dataBaseBackend = new DataBase(new DataBaseConfig(new ConfigObject(config.read()), "backend"), new DataBaseMetrics(prometheusMetricsFactory, "backend"));
+    int compileThreads = config.get_int("deployment_compile_thread_count", 4);
+    File byteCodeCacheDirectory = new File(config.get_string("bytecode_cache_directory", "bytecode-cache"));
+    DeploymentFactoryBase deploymentFactoryBase = new DeploymentFactoryBase(new DiskByteCodeCache(byteCodeCacheDirectory), compileThreads);
+    DataBaseConfig dataBaseBackendConfig = new DataBaseConfig(new ConfigObject(config.read()), "backend");
+    DataBase dataBaseBackend = new DataBase(dataBaseBackendConfig, new DataBaseMetrics(prometheusMetricsFactory, "backend"));
     DataBase dataBaseDeployments = new DataBase(new DataBaseConfig(new ConfigObject(config.read()), "deployed"), new DataBaseMetrics(prometheusMetricsFactory, "deployed"));
     BackendMetrics backendMetrics = new BackendMetrics(prometheusMetricsFactory);
-    ThreadedDataService dbDataService = new ThreadedDataService(dataThreads, () -> new BlockingDataService(backendMetrics, dataBaseBackend));
+    PooledDataService dbDataService = new PooledDataService(dataBaseBackendConfig.maxPoolSize, () -> new BlockingDataService(backendMetrics, dataBaseBackend), prometheusMetricsFactory);
     PrefixSplitDataService carveMemoryOff = new PrefixSplitDataService(dbDataService, "mem_", new ThreadedDataService(dataThreads, () -> new InMemoryDataService((r) -> r.run(), TimeSource.REAL_TIME)));
 
     final DiskDataService diskDataService;
@@ -187,7 +193,14 @@ public class Service {
 
     MeteringPubSub meteringPubSub = new MeteringPubSub(TimeSource.REAL_TIME, deploymentFactoryBase);
     CoreMetrics coreMetrics = new CoreMetrics(prometheusMetricsFactory);
-    CoreService service = new CoreService(coreMetrics, deploymentFactoryBase, meteringPubSub.publisher(), carveDiskOff, TimeSource.REAL_TIME, coreThreads);
+    final CoreService service;
+    if ("balanced".equals(config.get_string("document_scheduler", "hash"))) {
+      int isolatedThreads = config.get_int("service_isolated_thread_count", 1);
+      int hotCodeCost = config.get_int("service_hot_code_cost", 1000000);
+      service = new CoreService(coreMetrics, deploymentFactoryBase, meteringPubSub.publisher(), carveDiskOff, TimeSource.REAL_TIME, coreThreads, (bases) -> new BalancedDocumentScheduler(coreMetrics, bases, isolatedThreads, hotCodeCost));
+    } else {
+      service = new CoreService(coreMetrics, deploymentFactoryBase, meteringPubSub.publisher(), carveDiskOff, TimeSource.REAL_TIME, coreThreads);
+    }
 
     engine.newApp("adama", port, (hb) -> {
       meteringPubSub.subscribe((bills) -> {
@@ -257,6 +270,7 @@ public class Service {
         // TODO: for each connection, remove from routing table, stop
         handle.kill();
         netBase.shutdown();
+        deploymentFactoryBase.shutdown();
       }
     })));
   }
@@ -270,7 +284,8 @@ public class Service {
     PrometheusMetricsFactory prometheusMetricsFactory = new PrometheusMetricsFactory(monitoringPort);
     DataBase dataBaseDeployments = new DataBase(new DataBaseConfig(new ConfigObject(config.read()), "deployed"), new DataBaseMetrics(prometheusMetricsFactory, "deployed"));
     DataBase dataBaseFront = new DataBase(new DataBaseConfig(new ConfigObject(config.read()), "frontend"), new DataBaseMetrics(prometheusMetricsFactory, "frontend"));
-    DataBase dataBaseBackend = new DataBase(new DataBaseConfig(new ConfigObject(config.read()), "backend"), new DataBaseMetrics(prometheusMetricsFactory, "backend"));
+    DataBaseConfig dataBaseBackendConfig = new DataBaseConfig(new ConfigObject(config.read()), "backend");
+    DataBase dataBaseBackend = new DataBase(dataBaseBackendConfig, new DataBaseMetrics(prometheusMetricsFactory, "backend"));
 
     String identityFileName = config.get_string("identity_filename", "me.identity");
     File targetsPath = new File(config.get_string("targets_filename", "targets.json"));
@@ -310,7 +325,8 @@ public class Service {
     PrometheusMetricsFactory prometheusMetricsFactory = new PrometheusMetricsFactory(monitoringPort);
     DataBase dataBaseFront = new DataBase(new DataBaseConfig(new ConfigObject(config.read()), "frontend"), new DataBaseMetrics(prometheusMetricsFactory, "frontend"));
     DataBase dataBaseDeployments = new DataBase(new DataBaseConfig(new ConfigObject(config.read()), "deployed"), new DataBaseMetrics(prometheusMetricsFactory, "deployed"));
-    DataBase dataBaseBackend = new DataBase(new DataBaseConfig(new ConfigObject(config.read()), "backend"), new DataBaseMetrics(prometheusMetricsFactory, "backend"));
+    DataBaseConfig dataBaseBackendConfig = new DataBaseConfig(new ConfigObject(config.read()), "backend");
+    DataBase dataBaseBackend = new DataBase(dataBaseBackendConfig, new DataBaseMetrics(prometheusMetricsFactory, "backend"));
     System.err.println("using databases: " + dataBaseFront.databaseName + ", " + dataBaseDeployments.databaseName + ", and " + dataBaseBackend.databaseName);
     System.err.println("identity: " + identity.ip);
     Engine engine = new Engine(identity, TimeSource.REAL_TIME, new HashSet<>(config.get_str_list("bootstrap")), gossipPort, monitoringPort, new GossipMetricsImpl(prometheusMetricsFactory), EngineRole.Node);
@@ -320,6 +336,7 @@ public class Service {
     System.err.println("standing up http on:" + webConfig.port);
     NetBase netBase = new NetBase(identity, 1, 2);
     ClientConfig clientConfig = new ClientConfig();
+    clientConfig.setLegacyRouting(config.get_int("routing_legacy_hash", 1) != 0);
     Client client = new Client(netBase, clientConfig, new ClientMetrics(prometheusMetricsFactory), null);
     Consumer<Collection<String>> targetPublisher = client.getTargetPublisher();
 
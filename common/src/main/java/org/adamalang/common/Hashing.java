@@ -29,4 +29,24 @@ public class Hashing {
   public static String finishAndEncode(MessageDigest digest) {
     return new String(Base64.getEncoder().encode(digest.digest()));
   }
+
+  /** a fast (non-cryptographic) 64-bit hash of a string: FNV-1a over the chars, then mixed */
+  public static long hash64(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (int k = 0; k < value.length(); k++) {
+      hash ^= value.charAt(k);
+      hash *= 0x100000001b3L;
+    }
+    return mix64(hash);
+  }
+
+  /** the murmur3 finalizer; spreads every input bit across the output */
+  public static long mix64(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
 }
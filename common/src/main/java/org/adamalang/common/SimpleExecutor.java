@@ -9,6 +9,8 @@
  */
 package org.adamalang.common;
 
+import org.adamalang.common.metrics.ExecutorMetrics;
+
 import java.util.concurrent.*;
 
 /** wraps Java executor for time and simplifies for Adama */
@@ -38,7 +40,6 @@ public interface SimpleExecutor {
     }
   };
 
-  // TODO: INSTRUMENT THIS
   static SimpleExecutor create(String name) {
     ScheduledExecutorService realExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory(name));
     return new SimpleExecutor() {
@@ -61,16 +62,49 @@ public interface SimpleExecutor {
 
       @Override
       public CountDownLatch shutdown() {
-        CountDownLatch latch = new CountDownLatch(1);
-        realExecutor.execute(() -> {
-          latch.countDown();
-          realExecutor.shutdown();
-        });
-        return latch;
+        return SimpleExecutor.shutdown(realExecutor);
       }
     };
   }
 
+  /** create an executor which measures queue depth, wait time, and run time of every command */
+  static SimpleExecutor create(String name, ExecutorMetrics metrics) {
+    ScheduledExecutorService realExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory(name));
+    return new SimpleExecutor() {
+      @Override
+      public void execute(NamedRunnable command) {
+        realExecutor.execute(metrics.queued(command));
+      }
+
+      @Override
+      public Runnable schedule(NamedRunnable command, long milliseconds) {
+        ScheduledFuture<?> future = realExecutor.schedule(metrics.timed(command), milliseconds, TimeUnit.MILLISECONDS);
+        return () -> future.cancel(false);
+      }
+
+      @Override
+      public Runnable scheduleNano(NamedRunnable command, long nanoseconds) {
+        ScheduledFuture<?> future = realExecutor.schedule(metrics.timed(command), nanoseconds, TimeUnit.NANOSECONDS);
+        return () -> future.cancel(false);
+      }
+
+      @Override
+      public CountDownLatch shutdown() {
+        return SimpleExecutor.shutdown(realExecutor);
+      }
+    };
+  }
+
+  /** internal: shutdown the real executor after everything queued runs */
+  private static CountDownLatch shutdown(ScheduledExecutorService realExecutor) {
+    CountDownLatch latch = new CountDownLatch(1);
+    realExecutor.execute(() -> {
+      latch.countDown();
+      realExecutor.shutdown();
+    });
+    return latch;
+  }
+
   /** execute the given command in the executor */
   void execute(NamedRunnable command);
 
@@ -9,6 +9,9 @@
  */
 package org.adamalang.common;
 
+import org.adamalang.common.metrics.ExecutorMetrics;
+import org.adamalang.common.metrics.MetricsFactory;
+
 public interface SimpleExecutorFactory {
   SimpleExecutorFactory DEFAULT = new SimpleExecutorFactory() {
     @Override
@@ -20,12 +23,31 @@ public interface SimpleExecutorFactory {
     public SimpleExecutor[] makeMany(String prefix, int nThreads) {
       SimpleExecutor[] executors = new SimpleExecutor[nThreads];
       for (int k = 0; k < nThreads; k++) {
-        executors[k] = SimpleExecutor.create(prefix + "-" + nThreads);
+        executors[k] = SimpleExecutor.create(prefix + "-" + k);
       }
       return executors;
     }
   };
 
+  /** a factory where every executor reports metrics under its name */
+  static SimpleExecutorFactory instrumented(MetricsFactory metrics) {
+    return new SimpleExecutorFactory() {
+      @Override
+      public SimpleExecutor makeSingle(String name) {
+        return SimpleExecutor.create(name, new ExecutorMetrics(name, metrics));
+      }
+
+      @Override
+      public SimpleExecutor[] makeMany(String prefix, int nThreads) {
+        SimpleExecutor[] executors = new SimpleExecutor[nThreads];
+        for (int k = 0; k < nThreads; k++) {
+          executors[k] = makeSingle(prefix + "-" + k);
+        }
+        return executors;
+      }
+    };
+  }
+
   SimpleExecutor makeSingle(String name);
 
   SimpleExecutor[] makeMany(String name, int nThreads);
@@ -9,6 +9,7 @@
  */
 package org.adamalang.common.codec;
 
+import io.netty.buffer.ByteBuf;
 import org.adamalang.common.DefaultCopyright;
 
 import java.lang.reflect.Field;
@@ -264,6 +265,9 @@ public class CodecCodeGen {
     if (field.getType() == String[].class) {
       return "Helper.readStringArray(buf)";
     }
+    if (field.getType() == ByteBuf.class) {
+      return "Helper.readBuffer(buf)";
+    }
     if (field.getType().getAnnotation(TypeId.class) != null) {
       return "read_" + field.getType().getSimpleName() + "(buf)";
     }
@@ -296,6 +300,9 @@ public class CodecCodeGen {
     if (field.getType() == String[].class) {
       return "Helper.writeStringArray(buf, " + value + ");";
     }
+    if (field.getType() == ByteBuf.class) {
+      return "Helper.writeBuffer(buf, " + value + ");";
+    }
     if (field.getType().getAnnotation(TypeId.class) != null) {
       return "write(buf, " + value + ");";
     }
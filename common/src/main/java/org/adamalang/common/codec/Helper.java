@@ -10,6 +10,8 @@
 package org.adamalang.common.codec;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 
 import java.nio.charset.StandardCharsets;
 import java.util.function.Consumer;
@@ -54,13 +56,23 @@ public class Helper {
   }
 
   public static String readString(ByteBuf buf) {
+    int count = buf.readIntLE();
+    if (count == 0) {
+      return null;
+    }
+    // decode straight out of the buffer rather than copying into a temporary byte[] first
+    return buf.readCharSequence(count - 1, StandardCharsets.UTF_8).toString();
+  }
+
+  /** read bytes framed like a string into a buffer of their own (such that they outlive the message) without decoding them */
+  public static ByteBuf readBuffer(ByteBuf buf) {
     int count = buf.readIntLE();
     if (count == 0) {
       return null;
     }
     byte[] bytes = new byte[count - 1];
     buf.readBytes(bytes);
-    return new String(bytes, StandardCharsets.UTF_8);
+    return Unpooled.wrappedBuffer(bytes);
   }
 
   public static void writeStringArray(ByteBuf buf, String[] strs) {
@@ -79,8 +91,18 @@ public class Helper {
       buf.writeIntLE(0);
       return;
     }
-    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
-    buf.writeIntLE(bytes.length + 1);
-    buf.writeBytes(bytes);
+    // encode straight into the (typically pooled) buffer rather than through a temporary byte[]
+    buf.writeIntLE(ByteBufUtil.utf8Bytes(str) + 1);
+    ByteBufUtil.writeUtf8(buf, str);
+  }
+
+  /** write the readable bytes of the buffer framed like a string; the buffer's indices are left alone */
+  public static void writeBuffer(ByteBuf buf, ByteBuf value) {
+    if (value == null) {
+      buf.writeIntLE(0);
+      return;
+    }
+    buf.writeIntLE(value.readableBytes() + 1);
+    buf.writeBytes(value, value.readerIndex(), value.readableBytes());
   }
 }
@@ -9,10 +9,141 @@
  */
 package org.adamalang.common.metrics;
 
+import org.adamalang.common.NamedRunnable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * metrics for an executor: queue depth, the wait between enqueue and start, run time (per runnable name), and slow tasks. The
+ * run time per runnable kind is exported as a callback monitor made as each kind is first seen.
+ */
 public class ExecutorMetrics {
+  private static final Logger LOGGER = LoggerFactory.getLogger("slow-task");
+  public final String name;
   public final Runnable enqueue;
+  public final ItemActionMonitor wait;
+  public final CallbackMonitor run;
+  public final Runnable slow;
+  private final MetricsFactory factory;
+  private final ConcurrentHashMap<String, RunTime> runtimes;
+  private long slowNanoseconds;
 
   public ExecutorMetrics(String name, MetricsFactory factory) {
-    enqueue = factory.counter("executor_" + name + "_enqueue");
+    this.name = name;
+    this.factory = factory;
+    String prefix = "executor_" + metricNameOf(name);
+    enqueue = factory.counter(prefix + "_enqueue");
+    wait = factory.makeItemActionMonitor(prefix + "_wait");
+    run = factory.makeCallbackMonitor(prefix + "_run");
+    slow = factory.counter(prefix + "_slow");
+    runtimes = new ConcurrentHashMap<>();
+    slowNanoseconds = 100 * 1000000L;
+  }
+
+  /** executor and runnable names use '-' and other characters which metric systems reject */
+  public static String metricNameOf(String name) {
+    return name.replaceAll("[^A-Za-z0-9_]", "_");
+  }
+
+  /** tasks which run longer than this are logged */
+  public void setSlowMilliseconds(long ms) {
+    this.slowNanoseconds = ms * 1000000L;
+  }
+
+  /** wrap a command which is being queued now such that the wait and run are measured */
+  public NamedRunnable queued(NamedRunnable command) {
+    enqueue.run();
+    ItemActionMonitor.ItemActionMonitorInstance waiting = wait.start();
+    return new NamedRunnable(command.name) {
+      @Override
+      public void execute() throws Exception {
+        waiting.executed();
+        measure(command);
+      }
+    };
+  }
+
+  /** wrap a command which is scheduled for later such that the run is measured */
+  public NamedRunnable timed(NamedRunnable command) {
+    return new NamedRunnable(command.name) {
+      @Override
+      public void execute() throws Exception {
+        measure(command);
+      }
+    };
+  }
+
+  private void measure(NamedRunnable command) {
+    CallbackMonitor.CallbackMonitorInstance instance = run.start();
+    RunTime runtime = runtimeOf(command.name);
+    CallbackMonitor.CallbackMonitorInstance kindInstance = runtime.monitor.start();
+    long started = System.nanoTime();
+    try {
+      command.run();
+    } finally {
+      long elapsed = System.nanoTime() - started;
+      instance.success();
+      kindInstance.success();
+      runtime.record(elapsed);
+      if (elapsed > slowNanoseconds) {
+        slow.run();
+        LOGGER.warn("slow-task:" + name + ":" + command.name + " took " + (elapsed / 1000000L) + "ms");
+      }
+    }
+  }
+
+  /** runtimes are grouped by the first fragment of the name since the rest are arguments */
+  private RunTime runtimeOf(String commandName) {
+    int slash = commandName.indexOf('/');
+    String kind = slash < 0 ? commandName : commandName.substring(0, slash);
+    RunTime runtime = runtimes.get(kind);
+    if (runtime == null) {
+      runtime = runtimes.computeIfAbsent(kind, (k) -> new RunTime(factory.makeCallbackMonitor("executor_" + metricNameOf(name) + "_run_" + metricNameOf(k))));
+    }
+    return runtime;
+  }
+
+  /** the run times by the kind of runnable */
+  public Map<String, RunTime> runtimes() {
+    return Collections.unmodifiableMap(runtimes);
+  }
+
+  /** the aggregate run time of a kind of runnable */
+  public static class RunTime {
+    private final LongAdder count;
+    private final LongAdder nanoseconds;
+    private final AtomicLong max;
+    private final CallbackMonitor monitor;
+
+    private RunTime(CallbackMonitor monitor) {
+      this.monitor = monitor;
+      this.count = new LongAdder();
+      this.nanoseconds = new LongAdder();
+      this.max = new AtomicLong(0);
+    }
+
+    private void record(long elapsed) {
+      count.increment();
+      nanoseconds.add(elapsed);
+      max.accumulateAndGet(elapsed, Math::max);
+    }
+
+    public long count() {
+      return count.sum();
+    }
+
+    public long totalNanoseconds() {
+      return nanoseconds.sum();
+    }
+
+    public long maxNanoseconds() {
+      return max.get();
+    }
   }
 }
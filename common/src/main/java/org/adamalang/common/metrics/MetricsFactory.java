@@ -29,6 +29,9 @@ public interface MetricsFactory {
   /** produce an inflight measurement */
   Inflight inflight(String name);
 
+  /** produce a gauge */
+  Gauge gauge(String name);
+
   /** produce a monitor for an item action queue */
   ItemActionMonitor makeItemActionMonitor(String name);
 
@@ -101,6 +101,12 @@ public class NoOpMetricsFactory implements MetricsFactory {
     };
   }
 
+  @Override
+  public Gauge gauge(String name) {
+    return (value) -> {
+    };
+  }
+
   @Override
   public ItemActionMonitor makeItemActionMonitor(String name) {
     return new ItemActionMonitor() {
@@ -60,6 +60,18 @@ public abstract class ChannelCommon extends ChannelInboundHandlerAdapter {
     });
   }
 
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+    if (ctx.channel().isWritable()) {
+      for (ByteStream stream : streams.values()) {
+        if (stream instanceof WritabilityListener) {
+          ((WritabilityListener) stream).writable();
+        }
+      }
+    }
+    super.channelWritabilityChanged(ctx);
+  }
+
   protected void routeCommon(byte type, int id, ByteBuf inBuffer, ChannelHandlerContext ctx) {
     switch (type) {
       case 0x20: {
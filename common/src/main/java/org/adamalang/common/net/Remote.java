@@ -29,6 +29,11 @@ public class Remote implements ByteStream {
     this.requestFlush = requestFlush;
   }
 
+  /** can the channel take more bytes without buffering them in memory */
+  public boolean isWritable() {
+    return context.channel().isWritable();
+  }
+
   @Override
   public void request(int bytes) {
     context.executor().execute(() -> {
@@ -43,7 +48,8 @@ public class Remote implements ByteStream {
 
   @Override
   public ByteBuf create(int bestGuessForSize) {
-    ByteBuf request = Unpooled.buffer();
+    // pooled by the channel's allocator; the write in next() releases it
+    ByteBuf request = context.alloc().buffer(bestGuessForSize + 5);
     request.writeByte(0x20);
     request.writeIntLE(id);
     return request;
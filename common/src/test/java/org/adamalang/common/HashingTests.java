@@ -23,6 +23,14 @@ public class HashingTests {
     Assert.assertEquals("AhKbuGEGHRoFLFkuLcazgw==", Hashing.finishAndEncode(digest));
   }
 
+  @Test
+  public void fast() {
+    Assert.assertEquals(6330515963426626164L, Hashing.hash64("X"));
+    Assert.assertEquals(-1166397803181037274L, Hashing.hash64(""));
+    Assert.assertEquals(0L, Hashing.mix64(0));
+    Assert.assertEquals(-5451962507482445012L, Hashing.mix64(1));
+  }
+
   @Test
   public void fail() {
     try {
@@ -9,6 +9,7 @@
  */
 package org.adamalang.common;
 
+import org.adamalang.common.metrics.NoOpMetricsFactory;
 import org.junit.Test;
 
 public class SimpleExecutorFactoryTests {
@@ -19,4 +20,13 @@ public class SimpleExecutorFactoryTests {
       executor.shutdown();
     }
   }
+
+  @Test
+  public void instrumented() {
+    SimpleExecutorFactory factory = SimpleExecutorFactory.instrumented(new NoOpMetricsFactory());
+    factory.makeSingle("one").shutdown();
+    for (SimpleExecutor executor : factory.makeMany("whoop", 2)) {
+      executor.shutdown();
+    }
+  }
 }
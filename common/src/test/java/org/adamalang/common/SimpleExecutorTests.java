@@ -9,6 +9,8 @@
  */
 package org.adamalang.common;
 
+import org.adamalang.common.metrics.ExecutorMetrics;
+import org.adamalang.common.metrics.NoOpMetricsFactory;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -52,4 +54,44 @@ public class SimpleExecutorTests {
     Assert.assertTrue(latchExec.await(1000, TimeUnit.MILLISECONDS));
     Assert.assertTrue(executor.shutdown().await(1000, TimeUnit.MILLISECONDS));
   }
+
+  @Test
+  public void instrumented() throws Exception {
+    ExecutorMetrics metrics = new ExecutorMetrics("base", new NoOpMetricsFactory());
+    metrics.setSlowMilliseconds(5);
+    SimpleExecutor executor = SimpleExecutor.create("base", metrics);
+    CountDownLatch latchExec = new CountDownLatch(4);
+    executor.execute(new NamedRunnable("fast", "arg") {
+      @Override
+      public void execute() throws Exception {
+        latchExec.countDown();
+      }
+    });
+    executor.execute(new NamedRunnable("slow", "arg") {
+      @Override
+      public void execute() throws Exception {
+        Thread.sleep(10);
+        latchExec.countDown();
+      }
+    });
+    executor.schedule(new NamedRunnable("fast") {
+      @Override
+      public void execute() throws Exception {
+        latchExec.countDown();
+      }
+    }, 10);
+    Runnable cancel = executor.scheduleNano(new NamedRunnable("fast") {
+      @Override
+      public void execute() throws Exception {
+        latchExec.countDown();
+      }
+    }, 10000);
+    Assert.assertTrue(latchExec.await(1000, TimeUnit.MILLISECONDS));
+    cancel.run();
+    Assert.assertTrue(executor.shutdown().await(1000, TimeUnit.MILLISECONDS));
+    Assert.assertEquals(3, metrics.runtimes().get("fast").count());
+    Assert.assertEquals(1, metrics.runtimes().get("slow").count());
+    Assert.assertTrue(metrics.runtimes().get("slow").maxNanoseconds() >= 10000000L);
+    Assert.assertTrue(metrics.runtimes().get("slow").totalNanoseconds() >= 10000000L);
+  }
 }
@@ -9,6 +9,7 @@
  */
 package org.adamalang.common.codec;
 
+import io.netty.buffer.ByteBuf;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -58,6 +59,9 @@ public class CodecCodeGenTests {
 
     @FieldOrder(4)
     public TestClassA[] arr;
+
+    @FieldOrder(5)
+    public ByteBuf blob;
   }
 
 
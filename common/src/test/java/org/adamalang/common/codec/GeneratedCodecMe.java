@@ -154,6 +154,7 @@ public class GeneratedCodecMe {
     o.embed = read_TestClassA(buf);
     o.lng = buf.readLongLE();
     o.arr = Helper.readArray(buf, (n) -> new TestClassA[n], () -> read_TestClassA(buf));
+    o.blob = Helper.readBuffer(buf);
     return o;
   }
 
@@ -181,5 +182,6 @@ public class GeneratedCodecMe {
     write(buf, o.embed);;
     buf.writeLongLE(o.lng);
     Helper.writeArray(buf, o.arr, (item) -> write(buf, item));
+    Helper.writeBuffer(buf, o.blob);;
   }
 }
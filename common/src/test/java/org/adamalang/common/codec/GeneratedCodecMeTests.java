@@ -14,6 +14,8 @@ import io.netty.buffer.Unpooled;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
+
 public class GeneratedCodecMeTests {
   @Test
   public void flowA() {
@@ -60,7 +62,10 @@ public class GeneratedCodecMeTests {
       b.embed.bbb = false;
       b.embed.strarr = null;
       b.arr = new CodecCodeGenTests.TestClassA[] { b.embed };
+      b.blob = Unpooled.wrappedBuffer("xx{\"json\":true}".getBytes(StandardCharsets.UTF_8));
+      b.blob.readerIndex(2);
       GeneratedCodecMe.write(buf, b);
+      Assert.assertEquals(2, b.blob.readerIndex());
     }
     {
       CodecCodeGenTests.TestClassB b = GeneratedCodecMe.read_TestClassB(buf);
@@ -74,6 +79,7 @@ public class GeneratedCodecMeTests {
       Assert.assertEquals(0.0, a.z, 0.00001);
       Assert.assertFalse(a.bbb);
       Assert.assertNull(a.strarr);
+      Assert.assertEquals("{\"json\":true}", b.blob.toString(StandardCharsets.UTF_8));
     }
   }
 
@@ -120,6 +126,22 @@ public class GeneratedCodecMeTests {
       Assert.assertEquals(40, b.x);
       Assert.assertNull(b.embed);
       Assert.assertEquals(-124, b.lng);
+      Assert.assertNull(b.blob);
     }
   }
+
+  @Test
+  public void utf8_strings() {
+    String str = "Howdy \u733f\u3082 \ud83d\ude00";
+    ByteBuf buf = Unpooled.directBuffer();
+    Helper.writeString(buf, str);
+    byte[] expected = str.getBytes(StandardCharsets.UTF_8);
+    Assert.assertEquals(expected.length + 1, buf.getIntLE(0));
+    byte[] written = new byte[expected.length];
+    buf.getBytes(4, written);
+    Assert.assertArrayEquals(expected, written);
+    Assert.assertEquals(str, Helper.readString(buf));
+    Assert.assertFalse(buf.isReadable());
+    buf.release();
+  }
 }
@@ -0,0 +1,160 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.data;
+
+import org.adamalang.common.Callback;
+import org.adamalang.common.NamedThreadFactory;
+import org.adamalang.common.metrics.Inflight;
+import org.adamalang.common.metrics.ItemActionMonitor;
+import org.adamalang.common.metrics.MetricsFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * an implementation of data service for blocking data services (i.e. a database) which runs calls on a
+ * bounded pool of threads (sized to the connection pool) while keeping the calls for a key in order via
+ * a serial queue per key. Unlike ThreadedDataService, a slow key only holds the thread it is running on.
+ * Since any thread may run any key, each thread has its own instance of the service, so this is only
+ * for services which are views onto shared storage.
+ */
+public class PooledDataService implements DataService {
+  private static final Logger LOGGER = LoggerFactory.getLogger(PooledDataService.class);
+  /** how many calls for a key run before the key yields the thread to other keys */
+  private static final int YIELD_AFTER = 16;
+  private final ExecutorService pool;
+  private final ThreadLocal<DataService> services;
+  private final HashMap<Key, ArrayDeque<Consumer<DataService>>> queues;
+  private final Inflight inflight;
+  private final Inflight keys;
+  private final ItemActionMonitor wait;
+
+  public PooledDataService(int nThreads, Supplier<DataService> dataServiceSupplier, MetricsFactory metrics) {
+    this.pool = Executors.newFixedThreadPool(nThreads, new NamedThreadFactory("pooled-dataservice"));
+    this.services = ThreadLocal.withInitial(dataServiceSupplier);
+    this.queues = new HashMap<>();
+    this.inflight = metrics.inflight("data_pooled_inflight");
+    this.keys = metrics.inflight("data_pooled_keys");
+    this.wait = metrics.makeItemActionMonitor("data_pooled_wait");
+  }
+
+  public CountDownLatch shutdown() {
+    CountDownLatch latch = new CountDownLatch(1);
+    pool.shutdown();
+    new Thread(() -> {
+      try {
+        if (pool.awaitTermination(30, TimeUnit.SECONDS)) {
+          latch.countDown();
+        }
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+      }
+    }).start();
+    return latch;
+  }
+
+  /** internal: queue the call for the given key, and start draining the key if it was idle */
+  private void at(Key key, Consumer<DataService> next) {
+    ItemActionMonitor.ItemActionMonitorInstance waiting = wait.start();
+    Consumer<DataService> call = (service) -> {
+      waiting.executed();
+      next.accept(service);
+    };
+    boolean idle;
+    synchronized (queues) {
+      ArrayDeque<Consumer<DataService>> queue = queues.get(key);
+      idle = queue == null;
+      if (idle) {
+        queue = new ArrayDeque<>();
+        queues.put(key, queue);
+        keys.up();
+      }
+      queue.add(call);
+    }
+    if (idle) {
+      pool.execute(() -> drain(key));
+    }
+  }
+
+  /** internal: run the calls for the key in order; the key owns the queue until it is empty */
+  private void drain(Key key) {
+    DataService service = services.get();
+    for (int k = 0; k < YIELD_AFTER; k++) {
+      Consumer<DataService> call;
+      synchronized (queues) {
+        ArrayDeque<Consumer<DataService>> queue = queues.get(key);
+        call = queue.poll();
+        if (call == null) {
+          queues.remove(key);
+          keys.down();
+          return;
+        }
+      }
+      inflight.up();
+      try {
+        call.accept(service);
+      } catch (Exception ex) {
+        LOGGER.error("pooled-data-service-call-failed:" + key.space + "/" + key.key, ex);
+      } finally {
+        inflight.down();
+      }
+    }
+    // let other keys have a turn
+    pool.execute(() -> drain(key));
+  }
+
+  @Override
+  public void get(Key key, Callback<LocalDocumentChange> callback) {
+    at(key, (service) -> service.get(key, callback));
+  }
+
+  @Override
+  public void initialize(Key key, RemoteDocumentUpdate patch, Callback<Void> callback) {
+    at(key, (service) -> service.initialize(key, patch, callback));
+  }
+
+  @Override
+  public void patch(Key key, RemoteDocumentUpdate[] patches, Callback<Void> callback) {
+    at(key, (service) -> service.patch(key, patches, callback));
+  }
+
+  @Override
+  public void compute(Key key, ComputeMethod method, int seq, Callback<LocalDocumentChange> callback) {
+    at(key, (service) -> service.compute(key, method, seq, callback));
+  }
+
+  @Override
+  public void delete(Key key, Callback<Void> callback) {
+    at(key, (service) -> service.delete(key, callback));
+  }
+
+  @Override
+  public void snapshot(Key key, int seq, String snapshot, int history, Callback<Integer> callback) {
+    at(key, (service) -> service.snapshot(key, seq, snapshot, history, callback));
+  }
+
+  @Override
+  public void close(Key key, Callback<Void> callback) {
+    at(key, (service) -> service.close(key, callback));
+  }
+
+  @Override
+  public void archive(Key key, ArchiveWriter writer) {
+    at(key, (service) -> service.archive(key, writer));
+  }
+}
@@ -9,17 +9,20 @@
  */
 package org.adamalang.runtime.data;
 
+import org.adamalang.runtime.contracts.AutoMorphicAccumulator;
 import org.adamalang.runtime.json.JsonAlgebra;
-import org.adamalang.runtime.json.JsonStreamReader;
-import org.adamalang.runtime.json.JsonStreamWriter;
 import org.adamalang.runtime.natives.NtClient;
 
 import java.util.ArrayList;
+import java.util.function.Supplier;
 
 /** the remote copy should change */
 public class RemoteDocumentUpdate {
-  /** the request that is changing the document */
-  public final String request;
+  /** the request that is changing the document; this is produced lazily via request() */
+  private String request;
+
+  /** how to produce the request when it is first asked for */
+  private Supplier<String> lazyRequest;
 
   /** the request as as redo patch */
   public final String redo;
@@ -62,6 +65,7 @@ public class RemoteDocumentUpdate {
     this.seqEnd = seqEnd;
     this.who = who;
     this.request = request;
+    this.lazyRequest = null;
     this.redo = redo;
     this.undo = undo;
     this.requiresFutureInvalidation = requiresFutureInvalidation;
@@ -70,6 +74,22 @@ public class RemoteDocumentUpdate {
     this.updateType = updateType;
   }
 
+  /** build an update where the request is serialized only when (and if) the update is persisted */
+  public static RemoteDocumentUpdate lazy(final int seqBegin, final int seqEnd, NtClient who, final Supplier<String> request, final String redo, final String undo, final boolean requiresFutureInvalidation, int whenToInvalidateMilliseconds, long assetBytes, UpdateType updateType) {
+    RemoteDocumentUpdate update = new RemoteDocumentUpdate(seqBegin, seqEnd, who, null, redo, undo, requiresFutureInvalidation, whenToInvalidateMilliseconds, assetBytes, updateType);
+    update.lazyRequest = request;
+    return update;
+  }
+
+  /** the request that is changing the document */
+  public String request() {
+    if (lazyRequest != null) {
+      request = lazyRequest.get();
+      lazyRequest = null;
+    }
+    return request;
+  }
+
   public static RemoteDocumentUpdate[] compact(RemoteDocumentUpdate[] updates) {
     if (updates.length == 1) {
       return updates;
@@ -89,18 +109,17 @@ public class RemoteDocumentUpdate {
   }
 
   private static RemoteDocumentUpdate merge(RemoteDocumentUpdate a, RemoteDocumentUpdate b) {
-    return new RemoteDocumentUpdate(a.seqBegin, b.seqEnd, //
-        a.who, a.request, //
+    return lazy(a.seqBegin, b.seqEnd, //
+        a.who, a::request, //
         mergeJson(a.redo, b.redo), //
         mergeJson(b.undo, a.undo), b.requiresFutureInvalidation, b.whenToInvalidateMilliseconds, //
         a.assetBytes + b.assetBytes, a.updateType);
   }
 
   private static String mergeJson(String a, String b) {
-    JsonStreamReader readerA = new JsonStreamReader(a);
-    JsonStreamReader readerB = new JsonStreamReader(b);
-    JsonStreamWriter writer = new JsonStreamWriter();
-    writer.writeTree(JsonAlgebra.merge(readerA.readJavaTree(), readerB.readJavaTree(), true));
-    return writer.toString();
+    AutoMorphicAccumulator<String> merge = JsonAlgebra.mergeAccumulator(true);
+    merge.next(a);
+    merge.next(b);
+    return merge.finish();
   }
 }
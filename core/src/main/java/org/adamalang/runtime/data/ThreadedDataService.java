@@ -90,6 +90,6 @@ public class ThreadedDataService implements DataService {
 
   @Override
   public void archive(Key key, ArchiveWriter writer) {
-    at(key, (service) -> archive(key, writer));
+    at(key, (service) -> service.archive(key, writer));
   }
 }
@@ -0,0 +1,185 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.delta;
+
+import org.adamalang.runtime.json.JsonAlgebra;
+import org.adamalang.runtime.json.JsonStreamReader;
+import org.adamalang.runtime.json.JsonStreamWriter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * coalesces a run of deltas for a viewer such that a lagging viewer gets one merged delta rather than the entire backlog. This
+ * is JsonAlgebra.merge with two exceptions: list orderings (@o) are composed since they are relative to the prior ordering,
+ * and an object arriving at a field which was nulled can't be merged (the client would merge it with stale data), so the
+ * backlog is cut into a new segment.
+ */
+public class DeltaCoalescer {
+  private final ArrayList<HashMap<String, Object>> segments;
+  private int absorbed;
+
+  public DeltaCoalescer() {
+    this.segments = new ArrayList<>();
+    this.absorbed = 0;
+  }
+
+  /** add a delta to the backlog */
+  @SuppressWarnings("unchecked")
+  public void add(String delta) {
+    Object tree = new JsonStreamReader(delta).readJavaTree();
+    if (!(tree instanceof HashMap)) {
+      return;
+    }
+    HashMap<String, Object> patch = (HashMap<String, Object>) tree;
+    if (segments.size() > 0) {
+      HashMap<String, Object> last = segments.get(segments.size() - 1);
+      if (canMerge(last, patch)) {
+        merge(last, patch);
+        absorbed++;
+        return;
+      }
+    }
+    segments.add(patch);
+  }
+
+  /** is the backlog empty */
+  public boolean isEmpty() {
+    return segments.isEmpty();
+  }
+
+  /** how many deltas were merged into a prior delta (i.e. not sent) */
+  public int absorbed() {
+    return absorbed;
+  }
+
+  /** take the backlog as the (few) deltas to send */
+  public ArrayList<String> drain() {
+    ArrayList<String> result = new ArrayList<>(segments.size());
+    for (HashMap<String, Object> segment : segments) {
+      JsonStreamWriter writer = new JsonStreamWriter();
+      writer.writeTree(segment);
+      result.add(writer.toString());
+    }
+    segments.clear();
+    return result;
+  }
+
+  /** can the patch be merged into the target without losing information */
+  @SuppressWarnings("unchecked")
+  private static boolean canMerge(HashMap<String, Object> target, HashMap<String, Object> patch) {
+    for (Map.Entry<String, Object> entry : patch.entrySet()) {
+      Object patchValue = entry.getValue();
+      if (!(patchValue instanceof HashMap)) {
+        if ("@o".equals(entry.getKey()) && target.get("@o") instanceof ArrayList && patchValue instanceof ArrayList) {
+          if (compose((ArrayList<Object>) target.get("@o"), (ArrayList<Object>) patchValue) == null) {
+            return false;
+          }
+        }
+        continue;
+      }
+      if (target.containsKey(entry.getKey())) {
+        Object targetValue = target.get(entry.getKey());
+        if (targetValue == null) {
+          return false;
+        }
+        if (targetValue instanceof HashMap && !canMerge((HashMap<String, Object>) targetValue, (HashMap<String, Object>) patchValue)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /** merge the patch into the target (which canMerge approved) */
+  @SuppressWarnings("unchecked")
+  private static void merge(HashMap<String, Object> target, HashMap<String, Object> patch) {
+    for (Map.Entry<String, Object> entry : patch.entrySet()) {
+      String key = entry.getKey();
+      Object patchValue = entry.getValue();
+      Object targetValue = target.get(key);
+      if ("@o".equals(key) && targetValue instanceof ArrayList && patchValue instanceof ArrayList) {
+        target.put(key, compose((ArrayList<Object>) targetValue, (ArrayList<Object>) patchValue));
+      } else if (patchValue instanceof HashMap && targetValue instanceof HashMap) {
+        merge((HashMap<String, Object>) targetValue, (HashMap<String, Object>) patchValue);
+      } else {
+        target.put(key, JsonAlgebra.merge(null, patchValue, true));
+      }
+    }
+  }
+
+  /**
+   * compose two orderings where the first is relative to the client's ordering and the second is relative to the ordering
+   * produced by the first. An ordering is a list of keys and [start, end] ranges of positions within the prior ordering. Returns
+   * null if the second ordering refers to a position which the first ordering doesn't have.
+   */
+  private static ArrayList<Object> compose(ArrayList<Object> first, ArrayList<Object> second) {
+    // expand the first ordering into items which are either keys or positions (int[]) within the client's ordering
+    ArrayList<Object> items = new ArrayList<>();
+    for (Object element : first) {
+      int[] range = rangeOf(element);
+      if (range != null) {
+        for (int k = range[0]; k <= range[1]; k++) {
+          items.add(new int[]{k});
+        }
+      } else {
+        items.add(element);
+      }
+    }
+    ArrayList<Object> composed = new ArrayList<>();
+    for (Object element : second) {
+      int[] range = rangeOf(element);
+      if (range != null) {
+        if (range[0] < 0 || range[1] >= items.size()) {
+          return null;
+        }
+        for (int k = range[0]; k <= range[1]; k++) {
+          composed.add(items.get(k));
+        }
+      } else {
+        composed.add(element);
+      }
+    }
+    // compress runs of positions back into ranges
+    ArrayList<Object> result = new ArrayList<>();
+    int k = 0;
+    while (k < composed.size()) {
+      Object item = composed.get(k);
+      if (item instanceof int[]) {
+        int start = ((int[]) item)[0];
+        int end = start;
+        while (k + 1 < composed.size() && composed.get(k + 1) instanceof int[] && ((int[]) composed.get(k + 1))[0] == end + 1) {
+          end++;
+          k++;
+        }
+        ArrayList<Object> range = new ArrayList<>();
+        range.add(start);
+        range.add(end);
+        result.add(range);
+      } else {
+        result.add(item);
+      }
+      k++;
+    }
+    return result;
+  }
+
+  /** if the ordering element is a range, then return it */
+  private static int[] rangeOf(Object element) {
+    if (element instanceof ArrayList) {
+      ArrayList<?> range = (ArrayList<?>) element;
+      if (range.size() == 2 && range.get(0) instanceof Integer && range.get(1) instanceof Integer) {
+        return new int[]{(Integer) range.get(0), (Integer) range.get(1)};
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,31 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.deploy;
+
+/** a content-addressed cache of compiled Adama; keys come from DeploymentFactory.cacheKeyOf */
+public interface ByteCodeCache {
+  /** a cache which never remembers anything */
+  ByteCodeCache NONE = new ByteCodeCache() {
+    @Override
+    public CachedByteCode get(String key) {
+      return null;
+    }
+
+    @Override
+    public void put(String key, CachedByteCode code) {
+    }
+  };
+
+  /** fetch the compiled code for the given key; returns null if not available */
+  CachedByteCode get(String key);
+
+  /** remember the compiled code for the given key */
+  void put(String key, CachedByteCode code);
+}
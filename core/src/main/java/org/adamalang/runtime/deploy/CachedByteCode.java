@@ -0,0 +1,79 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.deploy;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** the output of compiling Adama: the java class bytes and reflection which are sufficient to build a LivingDocumentFactory without javac */
+public class CachedByteCode {
+  private static final int MAGIC = 0x4164416d;
+  public final String className;
+  public final String reflection;
+  public final Map<String, byte[]> classBytes;
+
+  public CachedByteCode(String className, String reflection, Map<String, byte[]> classBytes) {
+    this.className = className;
+    this.reflection = reflection;
+    this.classBytes = classBytes;
+  }
+
+  /** convert into a byte array for storage */
+  public byte[] pack() throws IOException {
+    ByteArrayOutputStream memory = new ByteArrayOutputStream();
+    try (DataOutputStream output = new DataOutputStream(memory)) {
+      output.writeInt(MAGIC);
+      writeString(output, className);
+      writeString(output, reflection);
+      output.writeInt(classBytes.size());
+      for (Map.Entry<String, byte[]> entry : classBytes.entrySet()) {
+        writeString(output, entry.getKey());
+        output.writeInt(entry.getValue().length);
+        output.write(entry.getValue());
+      }
+    }
+    return memory.toByteArray();
+  }
+
+  /** convert from a byte array produced by pack() */
+  public static CachedByteCode unpack(byte[] bytes) throws IOException {
+    try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+      if (input.readInt() != MAGIC) {
+        throw new IOException("not cached byte code");
+      }
+      String className = readString(input);
+      String reflection = readString(input);
+      int count = input.readInt();
+      TreeMap<String, byte[]> classBytes = new TreeMap<>();
+      for (int k = 0; k < count; k++) {
+        String name = readString(input);
+        byte[] code = new byte[input.readInt()];
+        input.readFully(code);
+        classBytes.put(name, code);
+      }
+      return new CachedByteCode(className, reflection, classBytes);
+    }
+  }
+
+  /** DataOutputStream.writeUTF is limited to 64KB which reflection can easily exceed */
+  private static void writeString(DataOutputStream output, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static String readString(DataInputStream input) throws IOException {
+    byte[] bytes = new byte[input.readInt()];
+    input.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
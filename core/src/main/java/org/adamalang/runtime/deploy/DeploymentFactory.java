@@ -12,6 +12,7 @@ package org.adamalang.runtime.deploy;
 import org.adamalang.ErrorCodes;
 import org.adamalang.common.Callback;
 import org.adamalang.common.ErrorCodeException;
+import org.adamalang.common.Hashing;
 import org.adamalang.runtime.contracts.LivingDocumentFactoryFactory;
 import org.adamalang.runtime.data.Key;
 import org.adamalang.runtime.json.JsonStreamWriter;
@@ -23,18 +24,32 @@ import org.adamalang.translator.parser.Parser;
 import org.adamalang.translator.parser.exceptions.AdamaLangException;
 import org.adamalang.translator.parser.token.TokenEngine;
 import org.adamalang.translator.tree.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * converts a DeploymentPlan into a LivingDocumentFactoryFactory; if this can be created, then it is
  * in good order
  */
 public class DeploymentFactory implements LivingDocumentFactoryFactory {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DeploymentFactory.class);
+  /** bump the revision when the translator changes in a way that alters the produced byte code */
+  private static final String COMPILER_VERSION = "adama-r1/" + buildFingerprint() + "/java-" + Runtime.version().feature();
   public final String name;
   public final DeploymentPlan plan;
   private final HashMap<String, LivingDocumentFactory> factories;
@@ -47,8 +62,23 @@ public class DeploymentFactory implements LivingDocumentFactoryFactory {
    * @throws ErrorCodeException
    */
   public DeploymentFactory(String name, String spacePrefix, AtomicInteger newClassId, DeploymentFactory prior, DeploymentPlan plan) throws ErrorCodeException {
+    this(name, spacePrefix, newClassId, prior, plan, ByteCodeCache.NONE, null);
+  }
+
+  /**
+   * @param spacePrefix - used for debugging by generating a relevant class name
+   * @param newClassId - generates a unique number for the class name
+   * @param prior - a prior deployment plan; this caches compilation between updates
+   * @param plan - the plan to compile
+   * @param cache - the cache of byte code which survives between process restarts
+   * @param compiler - when not null, versions are compiled in parallel on this pool
+   * @throws ErrorCodeException
+   */
+  public DeploymentFactory(String name, String spacePrefix, AtomicInteger newClassId, DeploymentFactory prior, DeploymentPlan plan, ByteCodeCache cache, ExecutorService compiler) throws ErrorCodeException {
     this.name = name;
     this.factories = new HashMap<>();
+    // versions which share code share a factory, so only compile each unique script once
+    TreeMap<String, ArrayList<String>> pending = new TreeMap<>();
     for (Map.Entry<String, String> entry : plan.versions.entrySet()) {
       LivingDocumentFactory factory = null;
       if (prior != null) {
@@ -59,14 +89,119 @@ public class DeploymentFactory implements LivingDocumentFactoryFactory {
         }
       }
       if (factory == null) {
-        factory = compile(spacePrefix + newClassId.getAndIncrement(), entry.getValue());
+        ArrayList<String> versions = pending.get(entry.getValue());
+        if (versions == null) {
+          versions = new ArrayList<>();
+          pending.put(entry.getValue(), versions);
+        }
+        versions.add(entry.getKey());
+      } else {
+        factories.put(entry.getKey(), factory);
+      }
+    }
+    if (compiler == null || pending.size() <= 1) {
+      for (Map.Entry<String, ArrayList<String>> entry : pending.entrySet()) {
+        LivingDocumentFactory factory = compile(spacePrefix + newClassId.getAndIncrement(), entry.getKey(), cache);
+        for (String version : entry.getValue()) {
+          factories.put(version, factory);
+        }
+      }
+    } else {
+      ArrayList<Future<LivingDocumentFactory>> futures = new ArrayList<>();
+      for (Map.Entry<String, ArrayList<String>> entry : pending.entrySet()) {
+        String className = spacePrefix + newClassId.getAndIncrement();
+        String code = entry.getKey();
+        futures.add(compiler.submit(() -> compile(className, code, cache)));
+      }
+      try {
+        int at = 0;
+        for (Map.Entry<String, ArrayList<String>> entry : pending.entrySet()) {
+          LivingDocumentFactory factory = futures.get(at).get();
+          at++;
+          for (String version : entry.getValue()) {
+            factories.put(version, factory);
+          }
+        }
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw new ErrorCodeException(ErrorCodes.DEPLOYMENT_COMPILE_INTERRUPTED, ie);
+      } catch (ExecutionException ee) {
+        if (ee.getCause() instanceof ErrorCodeException) {
+          throw (ErrorCodeException) ee.getCause();
+        }
+        throw new ErrorCodeException(ErrorCodes.DEPLOYMENT_COMPILE_UNKNOWN_EXCEPTION, ee.getCause());
+      } finally {
+        for (Future<LivingDocumentFactory> future : futures) {
+          future.cancel(true);
+        }
       }
-      factories.put(entry.getKey(), factory);
     }
     this.plan = plan;
   }
 
+  /** fingerprint the build holding the translator and runtime such that cached byte code never outlives either */
+  static String buildFingerprint() {
+    try {
+      File location = new File(DeploymentFactory.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+      MessageDigest digest = Hashing.forKnownAlgorithm("SHA-256");
+      if (location.isFile()) {
+        // the jar; hash every byte
+        try (InputStream input = new FileInputStream(location)) {
+          byte[] buffer = new byte[64 * 1024];
+          int read;
+          while ((read = input.read(buffer)) >= 0) {
+            digest.update(buffer, 0, read);
+          }
+        }
+      } else {
+        // a class directory (i.e. development); hash the shape of every class file
+        try (Stream<Path> paths = Files.walk(location.toPath())) {
+          for (Path path : paths.filter((p) -> p.toString().endsWith(".class")).sorted().collect(Collectors.toList())) {
+            digest.update((path + ":" + Files.size(path) + ":" + Files.getLastModifiedTime(path).toMillis()).getBytes(StandardCharsets.UTF_8));
+          }
+        }
+      }
+      return Hashing.finishAndEncode(digest);
+    } catch (Exception ex) {
+      // without a fingerprint, the cache must not be shared between processes
+      LOGGER.error("failed-fingerprinting-build", ex);
+      return "unknown-" + UUID.randomUUID();
+    }
+  }
+
+  /** the cache key is the hash of the code and everything which may influence the generated byte code */
+  public static String cacheKeyOf(String code) {
+    MessageDigest digest = Hashing.forKnownAlgorithm("SHA-256");
+    digest.update(COMPILER_VERSION.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+    digest.update(code.getBytes(StandardCharsets.UTF_8));
+    StringBuilder hex = new StringBuilder();
+    for (byte b : digest.digest()) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
   public static LivingDocumentFactory compile(String className, final String code) throws ErrorCodeException {
+    return compile(className, code, ByteCodeCache.NONE);
+  }
+
+  /**
+   * compile the code, or bind to cached byte code. A cache hit keeps the class name it was first compiled under (rather than
+   * the given className) since the name is baked into the byte code. This is safe as every LivingDocumentFactory binds its
+   * classes within its own class loader, so two deployments sharing a name still get distinct classes (and static state);
+   * the name is only seen in stack traces.
+   */
+  public static LivingDocumentFactory compile(String className, final String code, ByteCodeCache cache) throws ErrorCodeException {
+    String key = cacheKeyOf(code);
+    CachedByteCode cached = cache.get(key);
+    if (cached != null) {
+      try {
+        return new LivingDocumentFactory(cached.className, cached.classBytes, cached.reflection);
+      } catch (ErrorCodeException ex) {
+        LOGGER.error("failed-binding-cached-byte-code:" + key, ex);
+      }
+    }
     try {
       final var options = CompilerOptions.start().make();
       final var globals = GlobalObjectPool.createPoolWithStdLib();
@@ -82,7 +217,10 @@ public class DeploymentFactory implements LivingDocumentFactoryFactory {
       final var java = document.compileJava(state);
       JsonStreamWriter reflection = new JsonStreamWriter();
       document.writeTypeReflectionJson(reflection);
-      return new LivingDocumentFactory(className, java, reflection.toString());
+      Map<String, byte[]> classBytes = LivingDocumentFactory.compile(className, java);
+      LivingDocumentFactory factory = new LivingDocumentFactory(className, classBytes, reflection.toString());
+      cache.put(key, new CachedByteCode(className, reflection.toString(), classBytes));
+      return factory;
     } catch (AdamaLangException ex) {
       throw new ErrorCodeException(ErrorCodes.DEPLOYMENT_CANT_PARSE_LANGUAGE, ex);
     }
@@ -12,22 +12,44 @@ package org.adamalang.runtime.deploy;
 import org.adamalang.ErrorCodes;
 import org.adamalang.common.Callback;
 import org.adamalang.common.ErrorCodeException;
+import org.adamalang.common.NamedThreadFactory;
 import org.adamalang.runtime.contracts.LivingDocumentFactoryFactory;
 import org.adamalang.runtime.data.Key;
 import org.adamalang.translator.jvm.LivingDocumentFactory;
 
 import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /** this is the base for all spaces to resolve against */
 public class DeploymentFactoryBase implements LivingDocumentFactoryFactory {
   private final AtomicInteger newClassId;
   private final ConcurrentHashMap<String, DeploymentFactory> spaces;
+  private final ByteCodeCache cache;
+  private final ExecutorService compiler;
 
   public DeploymentFactoryBase() {
     this.newClassId = new AtomicInteger(0);
     this.spaces = new ConcurrentHashMap<>();
+    this.cache = ByteCodeCache.NONE;
+    this.compiler = null;
+  }
+
+  /** compile the versions of a plan in parallel on a bounded pool and reuse byte code from the given cache */
+  public DeploymentFactoryBase(ByteCodeCache cache, int compileThreads) {
+    this.newClassId = new AtomicInteger(0);
+    this.spaces = new ConcurrentHashMap<>();
+    this.cache = cache;
+    this.compiler = compileThreads > 1 ? Executors.newFixedThreadPool(compileThreads, new NamedThreadFactory("deploy-compiler")) : null;
+  }
+
+  /** stop the compile pool (its threads are daemons, so this is only needed for an orderly exit) */
+  public void shutdown() {
+    if (compiler != null) {
+      compiler.shutdownNow();
+    }
   }
 
   public String hashOf(String space) {
@@ -39,7 +61,7 @@ public class DeploymentFactoryBase implements LivingDocumentFactoryFactory {
   }
 
   public void deploy(String space, DeploymentPlan plan) throws ErrorCodeException {
-    spaces.put(space, new DeploymentFactory(space, getSpaceClassNamePrefix(space), newClassId, spaces.get(space), plan));
+    spaces.put(space, new DeploymentFactory(space, getSpaceClassNamePrefix(space), newClassId, spaces.get(space), plan, cache, compiler));
   }
 
   /** issue #108; expose this internal bit for others to use to keep sanity in check */
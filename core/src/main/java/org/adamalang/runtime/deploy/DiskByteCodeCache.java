@@ -0,0 +1,64 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.deploy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/** a ByteCodeCache which holds one file per key within a directory; writes are atomic such that a crash never leaves a partial entry behind */
+public class DiskByteCodeCache implements ByteCodeCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(DiskByteCodeCache.class);
+  private final File root;
+
+  public DiskByteCodeCache(File root) {
+    this.root = root;
+    root.mkdirs();
+  }
+
+  private File fileOf(String key) {
+    return new File(root, key + ".class-cache");
+  }
+
+  @Override
+  public CachedByteCode get(String key) {
+    File file = fileOf(key);
+    if (!file.exists()) {
+      return null;
+    }
+    try {
+      return CachedByteCode.unpack(Files.readAllBytes(file.toPath()));
+    } catch (Exception ex) {
+      LOGGER.error("corrupt-byte-code-cache-entry:" + key, ex);
+      file.delete();
+      return null;
+    }
+  }
+
+  @Override
+  public void put(String key, CachedByteCode code) {
+    File file = fileOf(key);
+    try {
+      File temp = File.createTempFile(key, ".tmp", root);
+      try {
+        Files.write(temp.toPath(), code.pack());
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        temp.delete();
+      }
+    } catch (IOException ex) {
+      LOGGER.error("failed-writing-byte-code-cache-entry:" + key, ex);
+    }
+  }
+}
@@ -0,0 +1,397 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.index;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * a compressed set of integers (roaring-style); values are split by their upper 16 bits into chunks
+ * which are either a sorted array (sparse) or a bitset (dense). Iteration is in signed order.
+ */
+public class IntBitmap {
+  /** chunks with more than this many values are dense */
+  private static final int DENSE_THRESHOLD = 4096;
+  private int[] keys;
+  private Chunk[] chunks;
+  private int used;
+  private int size;
+
+  public IntBitmap() {
+    this.keys = new int[2];
+    this.chunks = new Chunk[2];
+    this.used = 0;
+    this.size = 0;
+  }
+
+  /** the upper 16 bits with the sign flipped such that unsigned chunk order is signed value order */
+  private static int high(int value) {
+    return (value ^ Integer.MIN_VALUE) >>> 16;
+  }
+
+  private static char low(int value) {
+    return (char) (value & 0xFFFF);
+  }
+
+  private static int value(int high, int low) {
+    return ((high << 16) | low) ^ Integer.MIN_VALUE;
+  }
+
+  /** add the value; returns true if it was not already present */
+  public boolean add(int value) {
+    int high = high(value);
+    int idx = Arrays.binarySearch(keys, 0, used, high);
+    if (idx < 0) {
+      insertChunk(-idx - 1, high, new Chunk());
+      idx = -idx - 1;
+    }
+    if (chunks[idx].add(low(value))) {
+      size++;
+      return true;
+    }
+    return false;
+  }
+
+  /** remove the value; returns true if it was present */
+  public boolean remove(int value) {
+    int idx = Arrays.binarySearch(keys, 0, used, high(value));
+    if (idx < 0) {
+      return false;
+    }
+    if (chunks[idx].remove(low(value))) {
+      size--;
+      if (chunks[idx].count == 0) {
+        removeChunk(idx);
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /** is the value within the set */
+  public boolean contains(int value) {
+    int idx = Arrays.binarySearch(keys, 0, used, high(value));
+    return idx >= 0 && chunks[idx].contains(low(value));
+  }
+
+  /** how many values are in the set */
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** make an independent copy */
+  public IntBitmap copy() {
+    IntBitmap result = new IntBitmap();
+    result.keys = Arrays.copyOf(keys, Math.max(2, used));
+    result.chunks = new Chunk[result.keys.length];
+    for (int k = 0; k < used; k++) {
+      result.chunks[k] = chunks[k].copy();
+    }
+    result.used = used;
+    result.size = size;
+    return result;
+  }
+
+  /** union the other set into this set */
+  public void or(IntBitmap other) {
+    int a = 0;
+    int b = 0;
+    while (b < other.used) {
+      if (a >= used || other.keys[b] < keys[a]) {
+        insertChunk(a, other.keys[b], other.chunks[b].copy());
+        size += other.chunks[b].count;
+        a++;
+        b++;
+      } else if (other.keys[b] == keys[a]) {
+        int before = chunks[a].count;
+        chunks[a].or(other.chunks[b]);
+        size += chunks[a].count - before;
+        a++;
+        b++;
+      } else {
+        a++;
+      }
+    }
+  }
+
+  /** produce a new set which is the intersection of the two given sets */
+  public static IntBitmap and(IntBitmap x, IntBitmap y) {
+    IntBitmap result = new IntBitmap();
+    int a = 0;
+    int b = 0;
+    while (a < x.used && b < y.used) {
+      if (x.keys[a] < y.keys[b]) {
+        a++;
+      } else if (y.keys[b] < x.keys[a]) {
+        b++;
+      } else {
+        Chunk chunk = Chunk.and(x.chunks[a], y.chunks[b]);
+        if (chunk.count > 0) {
+          result.insertChunk(result.used, x.keys[a], chunk);
+          result.size += chunk.count;
+        }
+        a++;
+        b++;
+      }
+    }
+    return result;
+  }
+
+  /** iterate the values in (signed) order */
+  public PrimitiveIterator.OfInt iterator() {
+    return new PrimitiveIterator.OfInt() {
+      private int chunk = 0;
+      private int at = -1;
+
+      @Override
+      public boolean hasNext() {
+        return chunk < used && chunks[chunk].next(at) >= 0 || chunk + 1 < used;
+      }
+
+      @Override
+      public int nextInt() {
+        while (chunk < used) {
+          int next = chunks[chunk].next(at);
+          if (next >= 0) {
+            at = next;
+            return value(keys[chunk], chunks[chunk].valueAt(next));
+          }
+          chunk++;
+          at = -1;
+        }
+        throw new NoSuchElementException();
+      }
+    };
+  }
+
+  /** (approx) how many bytes of memory does this set use */
+  public long memory() {
+    long sum = 32 + keys.length * 12L;
+    for (int k = 0; k < used; k++) {
+      sum += chunks[k].memory();
+    }
+    return sum;
+  }
+
+  private void insertChunk(int idx, int high, Chunk chunk) {
+    if (used == keys.length) {
+      keys = Arrays.copyOf(keys, used * 2);
+      chunks = Arrays.copyOf(chunks, used * 2);
+    }
+    System.arraycopy(keys, idx, keys, idx + 1, used - idx);
+    System.arraycopy(chunks, idx, chunks, idx + 1, used - idx);
+    keys[idx] = high;
+    chunks[idx] = chunk;
+    used++;
+  }
+
+  private void removeChunk(int idx) {
+    System.arraycopy(keys, idx + 1, keys, idx, used - idx - 1);
+    System.arraycopy(chunks, idx + 1, chunks, idx, used - idx - 1);
+    used--;
+    chunks[used] = null;
+  }
+
+  /** the lower 16 bits of the values which share the upper 16 bits */
+  private static class Chunk {
+    private char[] sparse;
+    private long[] dense;
+    private int count;
+
+    private Chunk() {
+      this.sparse = new char[4];
+      this.dense = null;
+      this.count = 0;
+    }
+
+    private boolean add(char low) {
+      if (dense == null) {
+        int idx = Arrays.binarySearch(sparse, 0, count, low);
+        if (idx >= 0) {
+          return false;
+        }
+        if (count < DENSE_THRESHOLD) {
+          idx = -idx - 1;
+          if (count == sparse.length) {
+            sparse = Arrays.copyOf(sparse, Math.min(DENSE_THRESHOLD, count * 2));
+          }
+          System.arraycopy(sparse, idx, sparse, idx + 1, count - idx);
+          sparse[idx] = low;
+          count++;
+          return true;
+        }
+        toDense();
+      }
+      long bit = 1L << low;
+      if ((dense[low >>> 6] & bit) != 0) {
+        return false;
+      }
+      dense[low >>> 6] |= bit;
+      count++;
+      return true;
+    }
+
+    private boolean remove(char low) {
+      if (dense == null) {
+        int idx = Arrays.binarySearch(sparse, 0, count, low);
+        if (idx < 0) {
+          return false;
+        }
+        System.arraycopy(sparse, idx + 1, sparse, idx, count - idx - 1);
+        count--;
+        return true;
+      }
+      long bit = 1L << low;
+      if ((dense[low >>> 6] & bit) == 0) {
+        return false;
+      }
+      dense[low >>> 6] &= ~bit;
+      count--;
+      if (count < DENSE_THRESHOLD / 2) {
+        toSparse();
+      }
+      return true;
+    }
+
+    private boolean contains(char low) {
+      if (dense == null) {
+        return Arrays.binarySearch(sparse, 0, count, low) >= 0;
+      }
+      return (dense[low >>> 6] & (1L << low)) != 0;
+    }
+
+    /** the position after the given position (-1 for the start) which holds a value, or -1 if exhausted */
+    private int next(int at) {
+      if (dense == null) {
+        return at + 1 < count ? at + 1 : -1;
+      }
+      int from = at + 1;
+      int word = from >>> 6;
+      if (word >= dense.length) {
+        return -1;
+      }
+      long bits = dense[word] & (-1L << from);
+      while (true) {
+        if (bits != 0) {
+          return word * 64 + Long.numberOfTrailingZeros(bits);
+        }
+        word++;
+        if (word == dense.length) {
+          return -1;
+        }
+        bits = dense[word];
+      }
+    }
+
+    /** the lower 16 bits at the position returned by next */
+    private int valueAt(int position) {
+      return dense == null ? sparse[position] : position;
+    }
+
+    private void or(Chunk other) {
+      if (dense == null && other.dense == null && count + other.count <= DENSE_THRESHOLD) {
+        char[] merged = new char[Math.max(4, count + other.count)];
+        int a = 0;
+        int b = 0;
+        int n = 0;
+        while (a < count || b < other.count) {
+          if (b >= other.count || a < count && sparse[a] < other.sparse[b]) {
+            merged[n++] = sparse[a++];
+          } else if (a >= count || other.sparse[b] < sparse[a]) {
+            merged[n++] = other.sparse[b++];
+          } else {
+            merged[n++] = sparse[a++];
+            b++;
+          }
+        }
+        sparse = merged;
+        count = n;
+        return;
+      }
+      if (dense == null) {
+        toDense();
+      }
+      if (other.dense == null) {
+        for (int k = 0; k < other.count; k++) {
+          add(other.sparse[k]);
+        }
+      } else {
+        count = 0;
+        for (int k = 0; k < dense.length; k++) {
+          dense[k] |= other.dense[k];
+          count += Long.bitCount(dense[k]);
+        }
+      }
+    }
+
+    private static Chunk and(Chunk x, Chunk y) {
+      Chunk result = new Chunk();
+      if (x.dense != null && y.dense != null) {
+        result.sparse = null;
+        result.dense = new long[1024];
+        for (int k = 0; k < 1024; k++) {
+          result.dense[k] = x.dense[k] & y.dense[k];
+          result.count += Long.bitCount(result.dense[k]);
+        }
+        if (result.count < DENSE_THRESHOLD / 2) {
+          result.toSparse();
+        }
+        return result;
+      }
+      Chunk scan = x.dense == null ? x : y;
+      Chunk probe = scan == x ? y : x;
+      result.sparse = new char[Math.max(4, scan.count)];
+      for (int k = 0; k < scan.count; k++) {
+        if (probe.contains(scan.sparse[k])) {
+          result.sparse[result.count++] = scan.sparse[k];
+        }
+      }
+      return result;
+    }
+
+    private void toDense() {
+      dense = new long[1024];
+      for (int k = 0; k < count; k++) {
+        dense[sparse[k] >>> 6] |= 1L << sparse[k];
+      }
+      sparse = null;
+    }
+
+    private void toSparse() {
+      sparse = new char[Math.max(4, count)];
+      int n = 0;
+      for (int word = 0; word < dense.length; word++) {
+        long bits = dense[word];
+        while (bits != 0) {
+          sparse[n++] = (char) (word * 64 + Long.numberOfTrailingZeros(bits));
+          bits &= bits - 1;
+        }
+      }
+      dense = null;
+    }
+
+    private Chunk copy() {
+      Chunk result = new Chunk();
+      result.sparse = sparse == null ? null : Arrays.copyOf(sparse, Math.max(4, count));
+      result.dense = dense == null ? null : Arrays.copyOf(dense, dense.length);
+      result.count = count;
+      return result;
+    }
+
+    private long memory() {
+      return dense == null ? 24 + sparse.length * 2L : 24 + dense.length * 8L;
+    }
+  }
+}
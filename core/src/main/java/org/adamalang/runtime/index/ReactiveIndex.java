@@ -12,12 +12,15 @@ package org.adamalang.runtime.index;
 import org.adamalang.runtime.contracts.IndexQuerySet;
 import org.adamalang.runtime.reactives.RxRecordBase;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.TreeSet;
 
-/** an index of a single column of data */
+/** an index of a single column of data; values are held as sorted primitive keys each with a bitmap of row ids */
 public class ReactiveIndex<Ty extends RxRecordBase> {
   /** a data structure which is precise; we know that the given item is in this bucket for SURE */
-  private final TreeMap<Integer, TreeSet<Ty>> index;
+  private int[] keys;
+  private IntBitmap[] buckets;
+  private int used;
   /**
    * as things change, we lose certainty of where items exist and have a grab-all bucket; this is an
    * optimization such that indexing happens between operations
@@ -25,18 +28,28 @@ public class ReactiveIndex<Ty extends RxRecordBase> {
   private final TreeSet<Ty> unknowns;
 
   public ReactiveIndex(final TreeSet<Ty> unknowns) {
-    this.index = new TreeMap<>();
+    this.keys = new int[4];
+    this.buckets = new IntBitmap[4];
+    this.used = 0;
     this.unknowns = unknowns;
   }
 
   /** add the item to the given index (via value `at`) */
   public void add(final int at, final Ty item) {
-    var set = index.get(at);
-    if (set == null) {
-      set = new TreeSet<>();
-      index.put(at, set);
+    int idx = Arrays.binarySearch(keys, 0, used, at);
+    if (idx < 0) {
+      idx = -idx - 1;
+      if (used == keys.length) {
+        keys = Arrays.copyOf(keys, used * 2);
+        buckets = Arrays.copyOf(buckets, used * 2);
+      }
+      System.arraycopy(keys, idx, keys, idx + 1, used - idx);
+      System.arraycopy(buckets, idx, buckets, idx + 1, used - idx);
+      keys[idx] = at;
+      buckets[idx] = new IntBitmap();
+      used++;
     }
-    set.add(item);
+    buckets[idx].add(item.__id());
   }
 
   /** remove the item from the unknowns */
@@ -44,66 +57,78 @@ public class ReactiveIndex<Ty extends RxRecordBase> {
     unknowns.remove(item);
   }
 
-  /** get the index */
-  public TreeSet<Ty> of(final int at, IndexQuerySet.LookupMode mode) {
+  /**
+   * get the row ids matching the value by the given mode; for Equals, this is the index's own bitmap
+   * (or null if there is no such value) and must not be mutated. Ranges produce a new bitmap.
+   */
+  public IntBitmap of(final int at, IndexQuerySet.LookupMode mode) {
     switch (mode) {
-      case LessThan: {
-        TreeSet<Ty> values = new TreeSet<>();
-        Iterator<Map.Entry<Integer, TreeSet<Ty>>> it = index.entrySet().iterator();
-        while (it.hasNext()) {
-          Map.Entry<Integer, TreeSet<Ty>> entry = it.next();
-          if (entry.getKey() < at) {
-            values.addAll(entry.getValue());
-          } else {
-            break;
-          }
-        }
-        return values;
-      }
-      case LessThanOrEqual: {
-        TreeSet<Ty> values = new TreeSet<>();
-        Iterator<Map.Entry<Integer, TreeSet<Ty>>> it = index.entrySet().iterator();
-        while (it.hasNext()) {
-          Map.Entry<Integer, TreeSet<Ty>> entry = it.next();
-          if (entry.getKey() <= at) {
-            values.addAll(entry.getValue());
-          } else {
-            break;
-          }
-        }
-        return values;
-      }
-      case GreaterThan: {
-        TreeSet<Ty> values = new TreeSet<>();
-        Iterator<Map.Entry<Integer, TreeSet<Ty>>> it = index.descendingMap().entrySet().iterator();
-        while (it.hasNext()) {
-          Map.Entry<Integer, TreeSet<Ty>> entry = it.next();
-          if (entry.getKey() > at) {
-            values.addAll(entry.getValue());
-          } else {
-            break;
-          }
+      case LessThan:
+        return union(0, lowerBound(at));
+      case LessThanOrEqual:
+        return union(0, upperBound(at));
+      case GreaterThan:
+        return union(upperBound(at), used);
+      case GreaterThanOrEqual:
+        return union(lowerBound(at), used);
+      default: {
+        int idx = Arrays.binarySearch(keys, 0, used, at);
+        if (idx < 0) {
+          return null;
         }
-        return values;
+        return buckets[idx];
       }
-      case GreaterThanOrEqual: {
-        TreeSet<Ty> values = new TreeSet<>();
-        Iterator<Map.Entry<Integer, TreeSet<Ty>>> it = index.descendingMap().entrySet().iterator();
-        while (it.hasNext()) {
-          Map.Entry<Integer, TreeSet<Ty>> entry = it.next();
-          if (entry.getKey() >= at) {
-            values.addAll(entry.getValue());
-          } else {
-            break;
-          }
-        }
-        return values;
+    }
+  }
+
+  /** how many rows match the value by the given mode without producing them; this is used to plan queries */
+  public int count(final int at, IndexQuerySet.LookupMode mode) {
+    switch (mode) {
+      case LessThan:
+        return count(0, lowerBound(at));
+      case LessThanOrEqual:
+        return count(0, upperBound(at));
+      case GreaterThan:
+        return count(upperBound(at), used);
+      case GreaterThanOrEqual:
+        return count(lowerBound(at), used);
+      default: {
+        int idx = Arrays.binarySearch(keys, 0, used, at);
+        return idx < 0 ? 0 : buckets[idx].size();
       }
-      default:
-        return index.get(at);
     }
   }
 
+  /** count the rows within the buckets within [from, to) */
+  private int count(final int from, final int to) {
+    int sum = 0;
+    for (int k = from; k < to; k++) {
+      sum += buckets[k].size();
+    }
+    return sum;
+  }
+
+  /** the first position with a key at or above the value */
+  private int lowerBound(final int at) {
+    int idx = Arrays.binarySearch(keys, 0, used, at);
+    return idx < 0 ? -idx - 1 : idx;
+  }
+
+  /** the first position with a key above the value */
+  private int upperBound(final int at) {
+    int idx = Arrays.binarySearch(keys, 0, used, at);
+    return idx < 0 ? -idx - 1 : idx + 1;
+  }
+
+  /** union the buckets within [from, to) */
+  private IntBitmap union(final int from, final int to) {
+    IntBitmap result = new IntBitmap();
+    for (int k = from; k < to; k++) {
+      result.or(buckets[k]);
+    }
+    return result;
+  }
+
   /** remove the item from the index */
   public void remove(final int at, final Ty item) {
     if (delete(at, item)) {
@@ -113,19 +138,25 @@ public class ReactiveIndex<Ty extends RxRecordBase> {
 
   /** delete the item from the given index (via value `at`) */
   public boolean delete(final int at, final Ty item) {
-    final var set = index.get(at);
-    final var result = set.remove(item);
-    if (set.size() == 0) {
-      index.remove(at);
+    final int idx = Arrays.binarySearch(keys, 0, used, at);
+    if (idx < 0) {
+      return false;
+    }
+    final var result = buckets[idx].remove(item.__id());
+    if (buckets[idx].isEmpty()) {
+      System.arraycopy(keys, idx + 1, keys, idx, used - idx - 1);
+      System.arraycopy(buckets, idx + 1, buckets, idx, used - idx - 1);
+      used--;
+      buckets[used] = null;
     }
     return result;
   }
 
   /** (approx) how many bytes of memory does this index use */
   public long memory() {
-    long sum = 64;
-    for (Map.Entry<Integer, TreeSet<Ty>> entry : index.entrySet()) {
-      sum += entry.getValue().size() * 20 + 20;
+    long sum = 64 + keys.length * 12L;
+    for (int k = 0; k < used; k++) {
+      sum += buckets[k].memory();
     }
     return sum;
   }
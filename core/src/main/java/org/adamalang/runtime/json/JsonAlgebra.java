@@ -11,11 +11,15 @@ package org.adamalang.runtime.json;
 
 import org.adamalang.runtime.contracts.AutoMorphicAccumulator;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 
 /** merge and roll-forward operations for JSON */
 public class JsonAlgebra {
+  /** the accumulator folds once the pending patches exceed this (or the folded state, whichever is larger) */
+  private static final int FOLD_PENDING_BYTES = 64 * 1024;
+
   /** RFC7396 for merging a patch into a target */
   @SuppressWarnings("unchecked")
   public static Object merge(final Object targetObject, final Object patchObject, boolean keepNulls) {
@@ -50,30 +54,66 @@ public class JsonAlgebra {
     return mergeAccumulator(true);
   }
 
+  /**
+   * the accumulator holds the patches and folds them with a streaming merge (see JsonStreamMerge) once enough bytes are pending.
+   * The values always equal those of JsonAlgebra.merge, and so does the field order until the first fold; after a fold, objects
+   * introduced by the folded patches keep the folded order (rather than hash order), so the field order may differ.
+   */
   public static AutoMorphicAccumulator<String> mergeAccumulator(boolean keepNulls) {
     return new AutoMorphicAccumulator<>() {
-      private Object state = null;
+      private final ArrayList<String> patches = new ArrayList<>();
+      // is the first patch the state (i.e. its nulls are values)
+      private boolean state = false;
+      private long pending = 0;
 
       @Override
       public boolean empty() {
-        return state == null;
+        return patches.isEmpty();
       }
 
       @Override
       public void next(String data) {
-        JsonStreamReader reader = new JsonStreamReader(data);
-        if (state == null) {
-          state = reader.readJavaTree();
-        } else {
-          state = merge(state, reader.readJavaTree(), keepNulls);
+        if (patches.isEmpty() || !JsonStreamMerge.isObject(data)) {
+          // the data becomes the state; a null state means the next data becomes the state
+          patches.clear();
+          pending = 0;
+          if (!JsonStreamMerge.isNull(data)) {
+            patches.add(data);
+            state = true;
+          }
+          return;
+        }
+        if (!JsonStreamMerge.isObject(patches.get(0))) {
+          // an object replaces a value which isn't an object
+          patches.clear();
+          patches.add(data);
+          state = false;
+          pending = 0;
+          return;
+        }
+        patches.add(data);
+        pending += data.length();
+        if (pending > Math.max(FOLD_PENDING_BYTES, patches.get(0).length())) {
+          fold();
         }
       }
 
+      private void fold() {
+        JsonStreamWriter writer = new JsonStreamWriter();
+        new JsonStreamMerge(patches, state, keepNulls).write(writer);
+        patches.clear();
+        patches.add(writer.toString());
+        state = true;
+        pending = 0;
+      }
+
       @Override
       public String finish() {
-        JsonStreamWriter writer = new JsonStreamWriter();
-        writer.writeTree(state);
-        return writer.toString();
+        if (patches.isEmpty()) {
+          return "null";
+        }
+        fold();
+        return patches.get(0);
       }
     };
   }
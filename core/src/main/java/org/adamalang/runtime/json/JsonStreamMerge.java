@@ -0,0 +1,134 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.json;
+
+import org.adamalang.runtime.json.token.JsonTokenType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * a streaming RFC7396 fold of a sequence of JSON patches into one JSON value. The patches are scanned in place and only the
+ * fields of the objects being merged are held (as offsets into the patches), so no object trees are built and only the
+ * object paths which multiple patches touch are revisited. The first patch may be the state being patched, in which case its
+ * nulls are values rather than deletions.
+ */
+class JsonStreamMerge {
+  private final JsonStreamReader[] readers;
+  private final boolean firstIsState;
+  private final boolean keepNulls;
+
+  JsonStreamMerge(ArrayList<String> patches, boolean firstIsState, boolean keepNulls) {
+    this.readers = new JsonStreamReader[patches.size()];
+    for (int k = 0; k < readers.length; k++) {
+      readers[k] = new JsonStreamReader(patches.get(k));
+    }
+    this.firstIsState = firstIsState;
+    this.keepNulls = keepNulls;
+  }
+
+  /** is the JSON an object; this only looks at the first token */
+  static boolean isObject(String json) {
+    return first(json) == '{';
+  }
+
+  /** is the JSON a null; this only looks at the first token */
+  static boolean isNull(String json) {
+    return first(json) == 'n';
+  }
+
+  private static char first(String json) {
+    for (int k = 0; k < json.length(); k++) {
+      char ch = json.charAt(k);
+      if (!Character.isWhitespace(ch)) {
+        return ch;
+      }
+    }
+    return ' ';
+  }
+
+  /** merge the patches (which are either one value or all objects) into the writer */
+  void write(JsonStreamWriter writer) {
+    ArrayList<Part> parts = new ArrayList<>(readers.length);
+    for (int k = 0; k < readers.length; k++) {
+      parts.add(new Part(k, 0, readers[k].peekType() == JsonTokenType.StartObject, k == 0 && firstIsState));
+    }
+    write(writer, parts);
+  }
+
+  /** write the merge of the parts which are either one value or a sequence of objects */
+  private void write(JsonStreamWriter writer, ArrayList<Part> parts) {
+    Part head = parts.get(0);
+    if (!head.object) {
+      JsonStreamReader reader = readers[head.patch];
+      reader.seek(head.offset);
+      reader.skipValue(writer);
+      return;
+    }
+    // the fields are ordered as JsonAlgebra.merge would order them: the state's objects are read in order while a patch introduces objects as hash maps
+    HashMap<String, ArrayList<Part>> fields = head.state ? new LinkedHashMap<>() : new HashMap<>();
+    for (Part part : parts) {
+      JsonStreamReader reader = readers[part.patch];
+      reader.seek(part.offset);
+      reader.startObject();
+      while (reader.notEndOfObject()) {
+        String field = reader.fieldName();
+        int offset = reader.offset();
+        JsonTokenType type = reader.peekType();
+        reader.skipValue();
+        Part value = new Part(part.patch, offset, type == JsonTokenType.StartObject, part.state);
+        ArrayList<Part> prior = fields.get(field);
+        if (type == JsonTokenType.Null && !part.state) {
+          // a deletion; when nulls are kept, the field moves to the end (as a remove then put would)
+          fields.remove(field);
+          if (keepNulls) {
+            fields.put(field, one(value));
+          }
+        } else if (prior == null) {
+          fields.put(field, one(value));
+        } else if (value.object && prior.get(0).object) {
+          prior.add(value);
+        } else {
+          prior.clear();
+          prior.add(value);
+        }
+      }
+    }
+    writer.beginObject();
+    for (Map.Entry<String, ArrayList<Part>> entry : fields.entrySet()) {
+      writer.writeObjectFieldIntro(entry.getKey());
+      write(writer, entry.getValue());
+    }
+    writer.endObject();
+  }
+
+  private static ArrayList<Part> one(Part part) {
+    ArrayList<Part> parts = new ArrayList<>(2);
+    parts.add(part);
+    return parts;
+  }
+
+  /** a value within a patch */
+  private static class Part {
+    private final int patch;
+    private final int offset;
+    private final boolean object;
+    private final boolean state;
+
+    private Part(int patch, int offset, boolean object, boolean state) {
+      this.patch = patch;
+      this.offset = offset;
+      this.object = object;
+      this.state = state;
+    }
+  }
+}
@@ -9,6 +9,7 @@
  */
 package org.adamalang.runtime.json;
 
+import io.netty.buffer.ByteBuf;
 import org.adamalang.runtime.json.token.JsonToken;
 import org.adamalang.runtime.json.token.JsonTokenType;
 import org.adamalang.runtime.natives.NtAsset;
@@ -16,89 +17,278 @@ import org.adamalang.runtime.natives.NtClient;
 import org.adamalang.runtime.natives.NtComplex;
 import org.adamalang.runtime.natives.NtDynamic;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
+/** a pull parser over JSON held either within a String or the UTF-8 bytes of a ByteBuf; tokens are scanned one at a time in place such that reading fields and numbers does not allocate */
 public class JsonStreamReader {
   private final String json;
+  private final ByteBuf bytes;
   private final int n;
-  private final HashMap<String, String> dedupeStrings;
   private final HashMap<NtClient, NtClient> dedupeClients;
-  ArrayDeque<JsonToken> tokens;
+  // an open addressed table of strings to reuse; probing compares against the input in place
+  private String[] interns;
+  private int internCount;
   private int index;
+  // the current token which has been scanned but not consumed
+  private boolean has;
+  private JsonTokenType type;
+  private int tokenStart;
+  private int tokenEnd;
+  private boolean tokenEscaped;
+  private boolean tokenDouble;
+  private String tokenData;
 
   public JsonStreamReader(final String json) {
     this.json = json;
-    n = json.length();
-    tokens = new ArrayDeque<>();
-    this.dedupeStrings = new HashMap<>();
+    this.bytes = null;
+    this.n = json.length();
+    this.interns = new String[32];
+    this.internCount = 0;
     this.dedupeClients = new HashMap<>();
     this.dedupeClients.put(NtClient.NO_ONE, NtClient.NO_ONE);
+    this.index = 0;
+    this.has = false;
+  }
+
+  /** read JSON directly from the readable UTF-8 bytes of the buffer without first converting them to a String; the buffer's indices are left alone */
+  public JsonStreamReader(final ByteBuf utf8) {
+    this.json = null;
+    this.bytes = utf8;
+    this.n = utf8.writerIndex();
+    this.interns = new String[32];
+    this.internCount = 0;
+    this.dedupeClients = new HashMap<>();
+    this.dedupeClients.put(NtClient.NO_ONE, NtClient.NO_ONE);
+    this.index = utf8.readerIndex();
+    this.has = false;
   }
 
   public void ingestDedupe(Set<String> strs) {
     for (String str : strs) {
-      dedupeStrings.put(str, str);
+      intern(str);
     }
   }
 
   public boolean end() {
-    return index >= n;
+    if (has) {
+      return false;
+    }
+    while (index < n) {
+      switch (at(index)) {
+        case ' ':
+        case '\n':
+        case '\r':
+        case '\t':
+        case ',':
+        case ':':
+          index++;
+          continue;
+        default:
+          return false;
+      }
+    }
+    return true;
   }
 
-  private void ensureQueueHappy(final int needs) {
-    if (tokens.size() > needs) {
-      return;
+  /** all structural characters are ASCII, so UTF-8 multi-byte sequences never collide with them */
+  private char at(final int k) {
+    if (json != null) {
+      return json.charAt(k);
     }
-    while (tokens.size() < 10 + needs) {
-      if (index < n) {
-        readToken();
-      } else {
-        if (tokens.size() < needs) {
-          throw new RuntimeException("Unable to satisfy minimum limit");
+    return (char) (bytes.getByte(k) & 0xFF);
+  }
+
+  private String region(final int start, final int end) {
+    if (json != null) {
+      return json.substring(start, end);
+    }
+    return bytes.toString(start, end - start, StandardCharsets.UTF_8);
+  }
+
+  private JsonTokenType peek() {
+    if (!has) {
+      readToken();
+      if (!has) {
+        throw new RuntimeException("Unable to satisfy minimum limit");
+      }
+    }
+    return type;
+  }
+
+  private void consume() {
+    has = false;
+    tokenData = null;
+  }
+
+  /** the token's data as a String (without dedupe) */
+  private String data() {
+    if (tokenData == null) {
+      switch (type) {
+        case StringLiteral:
+          tokenData = tokenEscaped ? unescape(tokenStart, tokenEnd) : region(tokenStart, tokenEnd);
+          break;
+        case NumberLiteralInteger:
+        case NumberLiteralDouble:
+          tokenData = region(tokenStart, tokenEnd);
+          break;
+        default:
+          return null;
+      }
+    }
+    return tokenData;
+  }
+
+  private String takeData() {
+    peek();
+    String result = data();
+    consume();
+    return result;
+  }
+
+  /** the token's data as a String, reusing a prior equal String when possible */
+  private String takeInterned() {
+    peek();
+    String result;
+    if (type == JsonTokenType.StringLiteral && !tokenEscaped) {
+      result = internRegion(tokenStart, tokenEnd);
+    } else {
+      result = data();
+      if (result != null) {
+        result = intern(result);
+      }
+    }
+    consume();
+    return result;
+  }
+
+  private String intern(String value) {
+    int mask = interns.length - 1;
+    int at = spread(value.hashCode()) & mask;
+    while (interns[at] != null) {
+      if (interns[at].equals(value)) {
+        return interns[at];
+      }
+      at = (at + 1) & mask;
+    }
+    interns[at] = value;
+    internCount++;
+    if (internCount * 2 > interns.length) {
+      growInterns();
+    }
+    return value;
+  }
+
+  /** find (or add) the string held within the given region of the input; only allocates on a miss */
+  private String internRegion(final int start, final int end) {
+    int hash = 0;
+    if (json != null) {
+      for (int k = start; k < end; k++) {
+        hash = 31 * hash + json.charAt(k);
+      }
+    } else {
+      for (int k = start; k < end; k++) {
+        int b = bytes.getByte(k);
+        if (b < 0) {
+          // not ASCII, so the byte hash won't match String.hashCode()
+          return intern(region(start, end));
         }
-        return;
+        hash = 31 * hash + b;
+      }
+    }
+    int length = end - start;
+    int mask = interns.length - 1;
+    int at = spread(hash) & mask;
+    while (interns[at] != null) {
+      String candidate = interns[at];
+      if (candidate.length() == length && regionMatches(candidate, start)) {
+        return candidate;
+      }
+      at = (at + 1) & mask;
+    }
+    return intern(region(start, end));
+  }
+
+  private boolean regionMatches(String candidate, int start) {
+    if (json != null) {
+      return json.regionMatches(start, candidate, 0, candidate.length());
+    }
+    for (int k = 0; k < candidate.length(); k++) {
+      if (candidate.charAt(k) != bytes.getByte(start + k)) {
+        return false;
       }
     }
+    return true;
+  }
+
+  private void growInterns() {
+    String[] prior = interns;
+    interns = new String[prior.length * 2];
+    int mask = interns.length - 1;
+    for (String value : prior) {
+      if (value != null) {
+        int at = spread(value.hashCode()) & mask;
+        while (interns[at] != null) {
+          at = (at + 1) & mask;
+        }
+        interns[at] = value;
+      }
+    }
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
   }
 
   public String fieldName() {
-    ensureQueueHappy(1);
-    return tokens.removeFirst().data;
+    return takeInterned();
   }
 
   public boolean notEndOfArray() {
-    ensureQueueHappy(1);
-    final var first = tokens.peekFirst();
-    if (first.type == JsonTokenType.EndArray) {
-      tokens.removeFirst();
+    if (peek() == JsonTokenType.EndArray) {
+      consume();
       return false;
     }
     return true;
   }
 
   public boolean notEndOfObject() {
-    ensureQueueHappy(1);
-    final var first = tokens.peekFirst();
-    if (first.type == JsonTokenType.EndObject) {
-      tokens.removeFirst();
+    if (peek() == JsonTokenType.EndObject) {
+      consume();
       return false;
     }
     return true;
   }
 
   public boolean readBoolean() {
-    ensureQueueHappy(1);
-    return tokens.removeFirst().type == JsonTokenType.True;
+    boolean result = peek() == JsonTokenType.True;
+    consume();
+    return result;
   }
 
   public double readDouble() {
-    ensureQueueHappy(1);
-    return Double.parseDouble(tokens.removeFirst().data);
+    peek();
+    if (type == JsonTokenType.NumberLiteralInteger && tokenEnd - tokenStart <= 15) {
+      // any integer with at most 15 digits is exactly representable as a double
+      long value = parseLongInPlace();
+      if (value != Long.MIN_VALUE && (value != 0 || at(tokenStart) != '-')) {
+        consume();
+        return value;
+      }
+    }
+    return Double.parseDouble(takeData());
   }
 
   public int readInteger() {
-    ensureQueueHappy(1);
-    String toParse = tokens.removeFirst().data;
+    peek();
+    if (!tokenDouble && !tokenEscaped && tokenEnd - tokenStart <= 10) {
+      long value = parseLongInPlace();
+      if (value != Long.MIN_VALUE && Integer.MIN_VALUE <= value && value <= Integer.MAX_VALUE) {
+        consume();
+        return (int) value;
+      }
+    }
+    String toParse = takeData();
     try {
       return Integer.parseInt(toParse);
     } catch (NumberFormatException nfe) {
@@ -107,8 +297,40 @@ public class JsonStreamReader {
   }
 
   public long readLong() {
-    ensureQueueHappy(1);
-    return Long.parseLong(tokens.removeFirst().data);
+    peek();
+    if (!tokenDouble && !tokenEscaped && tokenEnd - tokenStart <= 18) {
+      long value = parseLongInPlace();
+      if (value != Long.MIN_VALUE) {
+        consume();
+        return value;
+      }
+    }
+    return Long.parseLong(takeData());
+  }
+
+  /** parse the current token as a long without allocating; returns Long.MIN_VALUE if the token is not a simple integer (callers bound the length to avoid overflow) */
+  private long parseLongInPlace() {
+    int k = tokenStart;
+    boolean negative = false;
+    if (k < tokenEnd) {
+      char first = at(k);
+      if (first == '-' || first == '+') {
+        negative = first == '-';
+        k++;
+      }
+    }
+    if (k >= tokenEnd) {
+      return Long.MIN_VALUE;
+    }
+    long value = 0;
+    for (; k < tokenEnd; k++) {
+      char ch = at(k);
+      if (ch < '0' || ch > '9') {
+        return Long.MIN_VALUE;
+      }
+      value = value * 10 + (ch - '0');
+    }
+    return negative ? -value : value;
   }
 
   public NtClient readNtClient() {
@@ -190,15 +412,7 @@ public class JsonStreamReader {
   }
 
   public String readString() {
-    ensureQueueHappy(1);
-    String lookup = tokens.removeFirst().data;
-    String test = dedupeStrings.get(lookup);
-    if (test == null) {
-      dedupeStrings.put(lookup, lookup);
-      return lookup;
-    } else {
-      return test;
-    }
+    return takeInterned();
   }
 
   public Object readJavaTree() {
@@ -216,9 +430,10 @@ public class JsonStreamReader {
       }
       return arr;
     } else {
-      ensureQueueHappy(1);
-      JsonToken token = tokens.removeFirst();
-      switch (token.type) {
+      JsonTokenType tokenType = peek();
+      String data = data();
+      consume();
+      switch (tokenType) {
         case Null:
           return null;
         case False:
@@ -226,158 +441,173 @@ public class JsonStreamReader {
         case True:
           return true;
         case NumberLiteralDouble:
-          return Double.parseDouble(token.data);
+          return Double.parseDouble(data);
         case NumberLiteralInteger:
-          return Integer.parseInt(token.data);
+          return Integer.parseInt(data);
         case StringLiteral:
-          return token.data;
+          return data;
         default:
-          throw new RuntimeException("unexpected token: " + token);
+          throw new RuntimeException("unexpected token: " + new JsonToken(tokenType, data));
       }
     }
   }
 
+  private void token(JsonTokenType tokenType, int start, int end) {
+    has = true;
+    type = tokenType;
+    tokenStart = start;
+    tokenEnd = end;
+    tokenEscaped = false;
+    tokenDouble = tokenType == JsonTokenType.NumberLiteralDouble;
+    tokenData = null;
+  }
+
   private void readToken() {
-    if (index >= json.length()) {
-      return;
-    }
-    final var start = json.charAt(index);
-    switch (start) {
-      case ' ':
-      case '\n':
-      case '\r':
-      case '\t':
-      case ',':
-      case ':':
-        index++;
-        readToken();
-        return;
-      case '{':
-        index++;
-        tokens.addLast(new JsonToken(JsonTokenType.StartObject, null));
-        return;
-      case '}':
-        index++;
-        tokens.addLast(new JsonToken(JsonTokenType.EndObject, null));
-        return;
-      case '[':
-        index++;
-        tokens.addLast(new JsonToken(JsonTokenType.StartArray, null));
-        return;
-      case ']':
-        index++;
-        tokens.addLast(new JsonToken(JsonTokenType.EndArray, null));
-        return;
-      case '\"':
-        StringBuilder sb = null;
-        for (var j = index + 1; j < n; j++) {
-          var ch = json.charAt(j);
-          if (ch == '\\') {
-            if (sb == null) {
-              sb = new StringBuilder();
-              sb.append(json, index + 1, j);
+    while (index < n) {
+      final var start = at(index);
+      switch (start) {
+        case ' ':
+        case '\n':
+        case '\r':
+        case '\t':
+        case ',':
+        case ':':
+          index++;
+          continue;
+        case '{':
+          index++;
+          token(JsonTokenType.StartObject, index, index);
+          return;
+        case '}':
+          index++;
+          token(JsonTokenType.EndObject, index, index);
+          return;
+        case '[':
+          index++;
+          token(JsonTokenType.StartArray, index, index);
+          return;
+        case ']':
+          index++;
+          token(JsonTokenType.EndArray, index, index);
+          return;
+        case '\"': {
+          boolean escaped = false;
+          for (var j = index + 1; j < n; j++) {
+            var ch = at(j);
+            if (ch == '\\') {
+              escaped = true;
+              j++;
+            } else if (ch == '"') {
+              token(JsonTokenType.StringLiteral, index + 1, j);
+              tokenEscaped = escaped;
+              index = j + 1;
+              return;
             }
-            j++;
-            ch = json.charAt(j);
-            switch (ch) {
-              case 'n':
-                sb.append('\n');
-                break;
-              case 't':
-                sb.append('\t');
-                break;
-              case 'r':
-                sb.append('\r');
-                break;
-              case 'f':
-                sb.append('\f');
-                break;
-              case 'b':
-                sb.append('\b');
-                break;
-              case '\\':
-                sb.append('\\');
-                break;
-              case '"':
-                sb.append('\"');
+          }
+          throw new UnsupportedOperationException();
+        }
+        case '0':
+        case '1':
+        case '2':
+        case '3':
+        case '4':
+        case '5':
+        case '6':
+        case '7':
+        case '8':
+        case '9':
+        case '-':
+        case '+': {
+          boolean isDouble = false;
+          for (var j = index + 1; j < n; j++) {
+            final var ch2 = at(j);
+            switch (ch2) {
+              case 'E':
+              case 'e':
+              case '.':
+              case '-':
+              case '+':
+                isDouble = true;
+              case '0':
+              case '1':
+              case '2':
+              case '3':
+              case '4':
+              case '5':
+              case '6':
+              case '7':
+              case '8':
+              case '9':
                 break;
-              case 'u':
-                sb.append(Character.toString(Integer.parseInt(json.substring(j + 1, j + 5), 16)));
-                j += 4;
-            }
-          } else if (ch == '"') {
-            if (sb != null) {
-              tokens.addLast(new JsonToken(JsonTokenType.StringLiteral, sb.toString()));
-            } else {
-              tokens.addLast(new JsonToken(JsonTokenType.StringLiteral, json.substring(index + 1, j)));
-            }
-            index = j + 1;
-            return;
-          } else {
-            if (sb != null) {
-              sb.append(ch);
+              default:
+                token(isDouble ? JsonTokenType.NumberLiteralDouble : JsonTokenType.NumberLiteralInteger, index, j);
+                index = j;
+                return;
             }
           }
+          token(isDouble ? JsonTokenType.NumberLiteralDouble : JsonTokenType.NumberLiteralInteger, index, n);
+          index = n;
+          return;
         }
-        throw new UnsupportedOperationException();
-      case '0':
-      case '1':
-      case '2':
-      case '3':
-      case '4':
-      case '5':
-      case '6':
-      case '7':
-      case '8':
-      case '9':
-      case '-':
-      case '+': {
-        boolean isDouble = false;
-        for (var j = index + 1; j < n; j++) {
-          final var ch2 = json.charAt(j);
-          switch (ch2) {
-            case 'E':
-            case 'e':
-            case '.':
-            case '-':
-            case '+':
-              isDouble = true;
-            case '0':
-            case '1':
-            case '2':
-            case '3':
-            case '4':
-            case '5':
-            case '6':
-            case '7':
-            case '8':
-            case '9':
-              break;
-            default:
-              tokens.addLast(new JsonToken(isDouble ? JsonTokenType.NumberLiteralDouble : JsonTokenType.NumberLiteralInteger, json.substring(index, j)));
-              index = j;
-              return;
-          }
+        case 'n':
+          index += 4;
+          token(JsonTokenType.Null, index, index);
+          return;
+        case 't':
+          index += 4;
+          token(JsonTokenType.True, index, index);
+          return;
+        case 'f':
+          index += 5;
+          token(JsonTokenType.False, index, index);
+          return;
+        default:
+          throw new UnsupportedOperationException();
+      }
+    }
+  }
+
+  /** decode a string literal which has escape sequences */
+  private String unescape(final int start, final int end) {
+    final String raw = region(start, end);
+    final int len = raw.length();
+    final StringBuilder sb = new StringBuilder(len);
+    for (var j = 0; j < len; j++) {
+      var ch = raw.charAt(j);
+      if (ch == '\\') {
+        j++;
+        ch = raw.charAt(j);
+        switch (ch) {
+          case 'n':
+            sb.append('\n');
+            break;
+          case 't':
+            sb.append('\t');
+            break;
+          case 'r':
+            sb.append('\r');
+            break;
+          case 'f':
+            sb.append('\f');
+            break;
+          case 'b':
+            sb.append('\b');
+            break;
+          case '\\':
+            sb.append('\\');
+            break;
+          case '"':
+            sb.append('\"');
+            break;
+          case 'u':
+            sb.append(Character.toString(Integer.parseInt(raw.substring(j + 1, j + 5), 16)));
+            j += 4;
         }
-        tokens.addLast(new JsonToken(isDouble ? JsonTokenType.NumberLiteralDouble : JsonTokenType.NumberLiteralInteger, json.substring(index)));
-        index = n;
-        return;
+      } else {
+        sb.append(ch);
       }
-      case 'n':
-        index += 4;
-        tokens.addLast(new JsonToken(JsonTokenType.Null, null));
-        return;
-      case 't':
-        index += 4;
-        tokens.addLast(new JsonToken(JsonTokenType.True, null));
-        return;
-      case 'f':
-        index += 5;
-        tokens.addLast(new JsonToken(JsonTokenType.False, null));
-        return;
-      default:
-        throw new UnsupportedOperationException();
     }
+    return sb.toString();
   }
 
   public void skipValue() {
@@ -391,8 +621,8 @@ public class JsonStreamReader {
         skipValue();
       }
     } else {
-      ensureQueueHappy(1);
-      tokens.removeFirst();
+      peek();
+      consume();
     }
   }
 
@@ -421,47 +651,58 @@ public class JsonStreamReader {
       }
       writer.endArray();
     } else {
-      ensureQueueHappy(1);
-      final var token = tokens.removeFirst();
-      if (token.type == JsonTokenType.NumberLiteralInteger || token.type == JsonTokenType.NumberLiteralDouble) {
-        writer.injectJson(token.data);
-      } else if (token.type == JsonTokenType.StringLiteral) {
-        writer.writeString(token.data);
-      } else if (token.type == JsonTokenType.Null) {
+      final var tokenType = peek();
+      final var data = data();
+      consume();
+      if (tokenType == JsonTokenType.NumberLiteralInteger || tokenType == JsonTokenType.NumberLiteralDouble) {
+        writer.injectJson(data);
+      } else if (tokenType == JsonTokenType.StringLiteral) {
+        writer.writeString(data);
+      } else if (tokenType == JsonTokenType.Null) {
         writer.writeNull();
-      } else if (token.type == JsonTokenType.True) {
+      } else if (tokenType == JsonTokenType.True) {
         writer.writeBoolean(true);
-      } else if (token.type == JsonTokenType.False) {
+      } else if (tokenType == JsonTokenType.False) {
         writer.writeBoolean(false);
       }
     }
   }
 
   public boolean startArray() {
-    ensureQueueHappy(1);
-    final var first = tokens.peekFirst();
-    if (first.type == JsonTokenType.StartArray) {
-      tokens.removeFirst();
+    if (peek() == JsonTokenType.StartArray) {
+      consume();
       return true;
     }
     return false;
   }
 
   public boolean startObject() {
-    ensureQueueHappy(1);
-    final var first = tokens.peekFirst();
-    if (first.type == JsonTokenType.StartObject) {
-      tokens.removeFirst();
+    if (peek() == JsonTokenType.StartObject) {
+      consume();
       return true;
     }
     return false;
   }
 
+  /** where the reader is within the input; this is only meaningful between values (i.e. after a field name or value was read) */
+  int offset() {
+    return index;
+  }
+
+  /** move the reader back to an offset produced by offset() */
+  void seek(final int offset) {
+    index = offset;
+    consume();
+  }
+
+  /** the type of the next token without consuming it */
+  JsonTokenType peekType() {
+    return peek();
+  }
+
   public boolean testLackOfNull() {
-    ensureQueueHappy(1);
-    final var first = tokens.peekFirst();
-    if (first.type == JsonTokenType.Null) {
-      tokens.removeFirst();
+    if (peek() == JsonTokenType.Null) {
+      consume();
       return false;
     }
     return true;
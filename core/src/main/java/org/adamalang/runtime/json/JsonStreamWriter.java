@@ -72,6 +72,23 @@ public class JsonStreamWriter {
     return sb.toString();
   }
 
+  /** clear the writer for reuse while retaining the allocated buffer */
+  public void reset() {
+    sb.setLength(0);
+    commas.clear();
+    commaStateMachine = CommaStateMachine.None;
+  }
+
+  /** the number of characters buffered */
+  public int length() {
+    return sb.length();
+  }
+
+  /** the buffer's capacity (used by pools to avoid retaining giant buffers) */
+  public int capacity() {
+    return sb.capacity();
+  }
+
   public void writeBoolean(final boolean b) {
     maybe_comma();
     sb.append(b);
@@ -121,6 +138,16 @@ public class JsonStreamWriter {
     sb.append(s);
   }
 
+  /** inline the contents of another writer without converting it to a String */
+  public void inline(final JsonStreamWriter other) {
+    sb.append(other.sb);
+  }
+
+  /** does the buffer hold exactly the given JSON */
+  public boolean contentEquals(final String json) {
+    return json.contentEquals(sb);
+  }
+
   public void writeInteger(final int x) {
     maybe_comma();
     sb.append(x);
@@ -0,0 +1,52 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.json;
+
+import java.util.ArrayDeque;
+
+/** a pool of JsonStreamWriters such that their buffers are reused; this is not thread safe and is meant to be owned by a single thread (i.e. a DocumentThreadBase) */
+public class JsonStreamWriterPool {
+  private final ArrayDeque<JsonStreamWriter> available;
+  private final int maxPooled;
+  private final int maxRetainedCapacity;
+
+  /**
+   * @param maxPooled - the maximum number of idle writers to hold onto
+   * @param maxRetainedCapacity - writers whose buffers grew beyond this are dropped rather than pooled
+   */
+  public JsonStreamWriterPool(int maxPooled, int maxRetainedCapacity) {
+    this.available = new ArrayDeque<>();
+    this.maxPooled = maxPooled;
+    this.maxRetainedCapacity = maxRetainedCapacity;
+  }
+
+  /** get an empty writer */
+  public JsonStreamWriter borrow() {
+    JsonStreamWriter writer = available.pollLast();
+    if (writer == null) {
+      return new JsonStreamWriter();
+    }
+    return writer;
+  }
+
+  /** return a writer to the pool; the writer must not be used afterwards */
+  public void release(JsonStreamWriter writer) {
+    if (available.size() >= maxPooled || writer.capacity() > maxRetainedCapacity) {
+      return;
+    }
+    writer.reset();
+    available.addLast(writer);
+  }
+
+  /** how many writers are idle within the pool */
+  public int size() {
+    return available.size();
+  }
+}
@@ -59,6 +59,9 @@ public class ArrayNtList<Ty> implements NtList<Ty> {
 
   @Override
   public NtList<Ty> orderBy(final boolean done, final Comparator<Ty> cmp) {
+    if (!done) {
+      return new LazyNtList<>(list).orderBy(false, cmp);
+    }
     list.sort(cmp);
     return this;
   }
@@ -103,6 +106,9 @@ public class ArrayNtList<Ty> implements NtList<Ty> {
 
   @Override
   public NtList<Ty> skip(final boolean done, final int skip) {
+    if (!done) {
+      return new LazyNtList<>(list).skip(false, skip);
+    }
     final var next = new ArrayList<Ty>();
     final var it = iterator();
     for (var k = 0; k < skip && it.hasNext(); k++) {
@@ -116,6 +122,9 @@ public class ArrayNtList<Ty> implements NtList<Ty> {
 
   @Override
   public NtList<Ty> limit(final boolean done, final int limit) {
+    if (!done) {
+      return new LazyNtList<>(list).limit(false, limit);
+    }
     final var next = new ArrayList<Ty>(limit);
     final var it = iterator();
     for (var k = 0; k < limit && it.hasNext(); k++) {
@@ -146,6 +155,9 @@ public class ArrayNtList<Ty> implements NtList<Ty> {
 
   @Override
   public NtList<Ty> where(final boolean done, final WhereClause<Ty> filter) {
+    if (!done) {
+      return new LazyNtList<>(list).where(false, filter);
+    }
     final var next = new ArrayList<Ty>();
     for (final Ty item : list) {
       if (filter.test(item)) {
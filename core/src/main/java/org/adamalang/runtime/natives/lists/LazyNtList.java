@@ -0,0 +1,246 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.natives.lists;
+
+import org.adamalang.runtime.contracts.WhereClause;
+import org.adamalang.runtime.natives.NtList;
+import org.adamalang.runtime.natives.NtMap;
+import org.adamalang.runtime.natives.NtMaybe;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * an intermediate stage of a linq chain; where, orderBy, skip, and limit are fused and evaluated
+ * once the chain is done (or anything else touches the list). An orderBy followed by a limit is a
+ * top-K selection via a bounded heap.
+ */
+public class LazyNtList<Ty> implements NtList<Ty> {
+  private final Iterable<Ty> source;
+  private final ArrayList<Predicate<Ty>> filters;
+  private Comparator<Ty> order;
+  private int skip;
+  private int limit;
+  private ArrayNtList<Ty> materialized;
+
+  public LazyNtList(final Iterable<Ty> source) {
+    this.source = source;
+    this.filters = new ArrayList<>();
+    this.order = null;
+    this.skip = 0;
+    this.limit = -1;
+    this.materialized = null;
+  }
+
+  public LazyNtList(final Iterable<Ty> source, Predicate<Ty> filter) {
+    this(source);
+    this.filters.add(filter);
+  }
+
+  /** is there any pending work */
+  private boolean pristine() {
+    return order == null && skip == 0 && limit < 0;
+  }
+
+  /** if done, then evaluate the chain; otherwise, let the chain continue */
+  private NtList<Ty> next(final boolean done) {
+    if (done) {
+      return materialize();
+    }
+    return this;
+  }
+
+  /** evaluate the chain */
+  private ArrayNtList<Ty> materialize() {
+    if (materialized == null) {
+      ArrayList<Ty> result;
+      if (order == null) {
+        result = new ArrayList<>();
+        int skipped = 0;
+        for (final Ty item : source) {
+          if (limit >= 0 && result.size() >= limit) {
+            break;
+          }
+          if (test(item)) {
+            if (skipped < skip) {
+              skipped++;
+            } else {
+              result.add(item);
+            }
+          }
+        }
+      } else if (limit >= 0) {
+        result = top((int) Math.min(Integer.MAX_VALUE, (long) skip + limit));
+      } else {
+        result = new ArrayList<>();
+        for (final Ty item : source) {
+          if (test(item)) {
+            result.add(item);
+          }
+        }
+        result.sort(order);
+      }
+      if (order != null && skip > 0) {
+        result.subList(0, Math.min(skip, result.size())).clear();
+      }
+      materialized = new ArrayNtList<>(result);
+    }
+    return materialized;
+  }
+
+  /** the first k items by the order; ties are broken by position such that this agrees with a stable sort */
+  private ArrayList<Ty> top(final int k) {
+    if (k == 0) {
+      return new ArrayList<>();
+    }
+    final Comparator<Ranked<Ty>> ranking = (a, b) -> {
+      final var delta = order.compare(a.item, b.item);
+      if (delta != 0) {
+        return delta;
+      }
+      return Long.compare(a.position, b.position);
+    };
+    final var heap = new PriorityQueue<Ranked<Ty>>(Math.min(k, 64), ranking.reversed());
+    long position = 0;
+    for (final Ty item : source) {
+      if (!test(item)) {
+        continue;
+      }
+      final var ranked = new Ranked<>(item, position++);
+      if (heap.size() < k) {
+        heap.add(ranked);
+      } else if (ranking.compare(ranked, heap.peek()) < 0) {
+        heap.poll();
+        heap.add(ranked);
+      }
+    }
+    final var sorted = new ArrayList<>(heap);
+    sorted.sort(ranking);
+    final var result = new ArrayList<Ty>(sorted.size());
+    for (final Ranked<Ty> ranked : sorted) {
+      result.add(ranked.item);
+    }
+    return result;
+  }
+
+  private boolean test(final Ty item) {
+    for (final Predicate<Ty> filter : filters) {
+      if (!filter.test(item)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void __delete() {
+    materialize().__delete();
+  }
+
+  @Override
+  public NtList<Ty> get() {
+    return this;
+  }
+
+  @Override
+  public NtMaybe<Ty> lookup(final int k) {
+    return materialize().lookup(k);
+  }
+
+  @Override
+  public void map(final Consumer<Ty> t) {
+    materialize().map(t);
+  }
+
+  @Override
+  public NtList<Ty> orderBy(final boolean done, final Comparator<Ty> cmp) {
+    if (materialized != null || skip > 0 || limit >= 0) {
+      return new LazyNtList<>(materialize()).orderBy(done, cmp);
+    }
+    // sorting is stable, so a prior order breaks the ties of the new order
+    order = order == null ? cmp : cmp.thenComparing(order);
+    return next(done);
+  }
+
+  @Override
+  public <TIn, TOut> NtMap<TIn, TOut> reduce(final Function<Ty, TIn> domain, final Function<NtList<Ty>, TOut> reducer) {
+    return materialize().reduce(domain, reducer);
+  }
+
+  @Override
+  public NtList<Ty> shuffle(final boolean done, final Random rng) {
+    return materialize().shuffle(done, rng);
+  }
+
+  @Override
+  public int size() {
+    return materialize().size();
+  }
+
+  @Override
+  public NtList<Ty> skip(final boolean done, final int skip) {
+    if (materialized != null) {
+      return materialized.skip(done, skip);
+    }
+    final var amount = Math.max(0, skip);
+    this.skip = (int) Math.min(Integer.MAX_VALUE, (long) this.skip + amount);
+    if (limit >= 0) {
+      limit = Math.max(0, limit - amount);
+    }
+    return next(done);
+  }
+
+  @Override
+  public NtList<Ty> limit(final boolean done, final int limit) {
+    if (materialized != null) {
+      return materialized.limit(done, limit);
+    }
+    final var amount = Math.max(0, limit);
+    this.limit = this.limit < 0 ? amount : Math.min(this.limit, amount);
+    return next(done);
+  }
+
+  @Override
+  public Ty[] toArray(final Function<Integer, Object> arrayMaker) {
+    return materialize().toArray(arrayMaker);
+  }
+
+  @Override
+  public <Out> NtList<Out> transform(final Function<Ty, Out> t) {
+    return materialize().transform(t);
+  }
+
+  @Override
+  public NtList<Ty> where(final boolean done, final WhereClause<Ty> filter) {
+    if (materialized != null || !pristine()) {
+      return new LazyNtList<>(materialize()).where(done, filter);
+    }
+    filters.add(filter::test);
+    return next(done);
+  }
+
+  @Override
+  public Iterator<Ty> iterator() {
+    return materialize().iterator();
+  }
+
+  /** an item with its position in the source */
+  private static class Ranked<Ty> {
+    private final Ty item;
+    private final long position;
+
+    private Ranked(Ty item, long position) {
+      this.item = item;
+      this.position = position;
+    }
+  }
+}
@@ -93,6 +93,19 @@ public class SelectorRxObjectList<Ty extends RxRecordBase<Ty>> implements NtList
     }
   }
 
+  /** a lazy view of the selected rows such that a linq chain is evaluated once at the end */
+  private LazyNtList<Ty> lazy() {
+    if (finalized != null || table.document.__monitor != null && table.document.__monitor.shouldMeasureTableColumnIndexEffectiveness()) {
+      ensureFinalized();
+      return new LazyNtList<>(finalized);
+    }
+    final var clause = filter;
+    if (clause == null) {
+      return new LazyNtList<>(table, item -> !item.__isDying());
+    }
+    return new LazyNtList<>(table.scan(clause), item -> !item.__isDying() && clause.test(item));
+  }
+
   private static int[] makeEffectiveness(final int[] clause) {
     final var x = new int[clause.length / 2];
     for (var k = 0; k < x.length; k++) {
@@ -133,8 +146,7 @@ public class SelectorRxObjectList<Ty extends RxRecordBase<Ty>> implements NtList
 
   @Override
   public NtList<Ty> orderBy(final boolean done, final Comparator<Ty> cmp) {
-    ensureFinalized();
-    return new ArrayNtList<>(finalized).orderBy(true, cmp);
+    return lazy().orderBy(done, cmp);
   }
 
   @Override
@@ -158,14 +170,12 @@ public class SelectorRxObjectList<Ty extends RxRecordBase<Ty>> implements NtList
 
   @Override
   public NtList<Ty> skip(final boolean done, final int skip) {
-    ensureFinalized();
-    return new ArrayNtList<>(finalized).skip(true, skip);
+    return lazy().skip(done, skip);
   }
 
   @Override
   public NtList<Ty> limit(final boolean done, final int limit) {
-    ensureFinalized();
-    return new ArrayNtList<>(finalized).limit(true, limit);
+    return lazy().limit(done, limit);
   }
 
   @Override
@@ -194,6 +204,9 @@ public class SelectorRxObjectList<Ty extends RxRecordBase<Ty>> implements NtList
       }
     }
     this.filter = filter;
+    if (!done) {
+      return lazy();
+    }
     ensureFinalized();
     return new ArrayNtList<>(finalized);
   }
@@ -9,9 +9,11 @@
  */
 package org.adamalang.runtime.reactives;
 
+import org.adamalang.runtime.contracts.IndexQuerySet;
 import org.adamalang.runtime.contracts.RxChild;
 import org.adamalang.runtime.contracts.RxParent;
 import org.adamalang.runtime.contracts.WhereClause;
+import org.adamalang.runtime.index.IntBitmap;
 import org.adamalang.runtime.index.ReactiveIndex;
 import org.adamalang.runtime.json.JsonStreamReader;
 import org.adamalang.runtime.json.JsonStreamWriter;
@@ -20,7 +22,6 @@ import org.adamalang.runtime.natives.lists.SelectorRxObjectList;
 import org.adamalang.runtime.sys.LivingDocument;
 
 import java.util.*;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 /** a reactive table */
@@ -251,34 +252,90 @@ public class RxTable<Ty extends RxRecordBase<Ty>> extends RxBase implements Iter
     if (filter == null) {
       return this;
     }
-    final var prior = new AtomicReference<TreeSet<Ty>>(null);
+    final var primaryKey = filter.getPrimaryKey();
+    if (primaryKey != null) {
+      final var row = itemsByKey.get(primaryKey);
+      if (row == null) {
+        return Collections.emptyList();
+      }
+      return Collections.singletonList(row);
+    }
+    if (indices == null) {
+      return this;
+    }
+    // plan: collect the probes and count how many rows each would produce
+    final var probes = new ArrayList<IndexProbe>();
     filter.scopeByIndicies((column, value, mode) -> {
-      final var specific = indices[column].of(value, mode);
-      if (specific == null) { // no index available
-        prior.set(new TreeSet<>());
-        return;
+      probes.add(new IndexProbe(column, value, mode, indices[column].count(value, mode)));
+    });
+    if (probes.size() == 0) {
+      return this;
+    }
+    // the most selective column goes first
+    probes.sort(Comparator.comparingInt(probe -> probe.count));
+    // when a probe hits most of the table, walking the table is cheaper than resolving row ids
+    final var selective = itemsByKey.size() - itemsByKey.size() / 4;
+    if (probes.get(0).count > selective) {
+      // the indices are not selective, so just scan
+      return this;
+    }
+    IntBitmap prior = null;
+    for (final IndexProbe probe : probes) {
+      if (prior != null && (prior.isEmpty() || probe.count > selective)) {
+        // either nothing remains, or the probe would cost more than testing the remaining rows
+        break;
       }
-      if (prior.get() == null) {
+      final var specific = indices[probe.column].of(probe.value, probe.mode);
+      if (specific == null) { // no index available
+        prior = new IntBitmap();
+      } else if (prior == null) {
         // just use the index
-        prior.set(specific);
+        prior = specific;
       } else {
-        final var common = new TreeSet<Ty>();
-        if (specific != null) {
-          for (final Ty item : specific) {
-            if (prior.get().contains(item)) {
-              common.add(item);
-            }
-          }
+        prior = IntBitmap.and(prior, specific);
+      }
+    }
+    // the bitmap may be owned by the index, so the rows are pulled out prior to the caller touching anything
+    final var rows = new ArrayList<Ty>(prior.size() + unknowns.size());
+    final var it = prior.iterator();
+    final var extras = unknowns.iterator();
+    int id = it.hasNext() ? it.nextInt() : 0;
+    boolean hasId = prior.size() > 0;
+    Ty extra = extras.hasNext() ? extras.next() : null;
+    // merge the (ordered) row ids with the (ordered) unknowns
+    while (hasId || extra != null) {
+      if (extra != null && (!hasId || extra.__id() <= id)) {
+        if (hasId && extra.__id() == id) {
+          hasId = it.hasNext();
+          id = hasId ? it.nextInt() : 0;
         }
-        prior.set(common);
+        rows.add(extra);
+        extra = extras.hasNext() ? extras.next() : null;
+      } else {
+        final var row = itemsByKey.get(id);
+        if (row != null) {
+          rows.add(row);
+        }
+        hasId = it.hasNext();
+        id = hasId ? it.nextInt() : 0;
       }
-    });
-    if (prior.get() == null) {
-      return this;
     }
-    final var clone = new TreeSet<>(prior.get());
-    clone.addAll(unknowns);
-    return clone;
+    return rows;
+  }
+
+  /** a planned lookup against an index */
+  private static class IndexProbe {
+    private final int column;
+    private final int value;
+    private final IndexQuerySet.LookupMode mode;
+    private final int count;
+
+    private IndexProbe(int column, int value, IndexQuerySet.LookupMode mode, int count) {
+      this.column = column;
+      this.value = value;
+      this.mode = mode;
+      this.count = count;
+    }
   }
 
   public int size() {
@@ -0,0 +1,147 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.sys;
+
+import org.adamalang.runtime.data.Key;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * place documents on the least loaded base when they come into memory, and place documents which have
+ * proven to be expensive (by code cost) onto dedicated bases such that they don't starve their neighbors.
+ * Documents don't move while resident (a hot document which never unloads stays where it is); they move between bases when
+ * they are next placed. Only a bounded set of recently unloaded hot documents is remembered for that placement.
+ */
+public class BalancedDocumentScheduler implements DocumentScheduler {
+  /** how many unloaded hot documents to remember such that they are isolated when placed again */
+  private static final int RECENTLY_HOT_LIMIT = 1024;
+  private final CoreMetrics metrics;
+  private final DocumentThreadBase[] shared;
+  private final DocumentThreadBase[] isolated;
+  private final long hotCodeCost;
+  private final ConcurrentHashMap<Key, DocumentThreadBase> routes;
+  private final Set<Key> hot;
+  private final LinkedHashMap<Key, Boolean> recentlyHot;
+  private final IdentityHashMap<DocumentThreadBase, AtomicInteger> resident;
+
+  /**
+   * @param metrics metrics for the scheduler
+   * @param bases all the bases
+   * @param isolatedBases how many bases (from the end of bases) are dedicated to hot documents
+   * @param hotCodeCost the code cost (per inventory sample) at which a document is considered hot
+   */
+  public BalancedDocumentScheduler(CoreMetrics metrics, DocumentThreadBase[] bases, int isolatedBases, long hotCodeCost) {
+    this.metrics = metrics;
+    int split = Math.max(1, bases.length - Math.max(0, isolatedBases));
+    this.shared = Arrays.copyOfRange(bases, 0, split);
+    this.isolated = Arrays.copyOfRange(bases, split, bases.length);
+    this.hotCodeCost = hotCodeCost;
+    this.routes = new ConcurrentHashMap<>();
+    this.hot = ConcurrentHashMap.newKeySet();
+    this.recentlyHot = new LinkedHashMap<>() {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+        return size() > RECENTLY_HOT_LIMIT;
+      }
+    };
+    this.resident = new IdentityHashMap<>();
+    for (DocumentThreadBase base : bases) {
+      resident.put(base, new AtomicInteger(0));
+    }
+  }
+
+  /** pick the base with the fewest documents, breaking ties by the latency of the base */
+  private DocumentThreadBase pick(DocumentThreadBase[] candidates) {
+    DocumentThreadBase best = candidates[0];
+    int bestCount = resident.get(best).get();
+    for (int k = 1; k < candidates.length; k++) {
+      int count = resident.get(candidates[k]).get();
+      if (count < bestCount || count == bestCount && candidates[k].getProbeLatencyMilliseconds() < best.getProbeLatencyMilliseconds()) {
+        best = candidates[k];
+        bestCount = count;
+      }
+    }
+    return best;
+  }
+
+  @Override
+  public DocumentThreadBase route(Key key) {
+    return routes.computeIfAbsent(key, (k) -> {
+      DocumentThreadBase base;
+      boolean wasHot = takeRecentlyHot(k) || hot.contains(k);
+      if (isolated.length > 0 && wasHot) {
+        base = pick(isolated);
+        metrics.scheduler_isolated.run();
+      } else {
+        base = pick(shared);
+      }
+      resident.get(base).incrementAndGet();
+      return base;
+    });
+  }
+
+  @Override
+  public boolean owns(DocumentThreadBase base, Key key) {
+    return routes.get(key) == base;
+  }
+
+  @Override
+  public void release(DocumentThreadBase base, Key key) {
+    if (routes.remove(key, base)) {
+      resident.get(base).decrementAndGet();
+      // the document unloaded, so only remember it (bounded) if it was hot
+      if (hot.remove(key)) {
+        metrics.scheduler_hot_documents.down();
+        synchronized (recentlyHot) {
+          recentlyHot.put(key, true);
+        }
+      }
+    }
+  }
+
+  /** internal: was the document hot when it last unloaded; this forgets it */
+  private boolean takeRecentlyHot(Key key) {
+    synchronized (recentlyHot) {
+      return recentlyHot.remove(key) != null;
+    }
+  }
+
+  @Override
+  public void observe(DocumentThreadBase base, Key key, long codeCost) {
+    if (routes.get(key) != base) {
+      return;
+    }
+    if (codeCost >= hotCodeCost) {
+      if (hot.add(key)) {
+        metrics.scheduler_hot_documents.up();
+      }
+    } else if (codeCost < hotCodeCost / 2) {
+      if (hot.remove(key)) {
+        metrics.scheduler_hot_documents.down();
+      }
+    }
+  }
+
+  /** how many documents are currently resident and hot */
+  public int hotResident() {
+    return hot.size();
+  }
+
+  /** how many documents are bound to the given base */
+  public int residentOn(DocumentThreadBase base) {
+    return resident.get(base).get();
+  }
+}
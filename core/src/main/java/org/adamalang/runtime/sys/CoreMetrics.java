@@ -9,6 +9,7 @@
  */
 package org.adamalang.runtime.sys;
 
+import org.adamalang.common.SimpleExecutorFactory;
 import org.adamalang.common.metrics.CallbackMonitor;
 import org.adamalang.common.metrics.Inflight;
 import org.adamalang.common.metrics.MetricsFactory;
@@ -46,6 +47,12 @@ public class CoreMetrics {
   public final Runnable failed_invention;
   public final Runnable internal_seq_drift;
   public final Runnable document_collision;
+  public final Runnable broadcast_views;
+  public final SimpleExecutorFactory executors;
+  public final Runnable scheduler_isolated;
+  public final Inflight scheduler_hot_documents;
+  public final Runnable base_lagging;
+  public final Runnable broadcast_shared_deltas;
 
 
   public CoreMetrics(MetricsFactory metricsFactory) {
@@ -80,5 +87,11 @@ public class CoreMetrics {
     failed_invention = metricsFactory.counter("core_document_failed_invention");
     internal_seq_drift = metricsFactory.counter("core_document_internal_seq_drift");
     document_collision = metricsFactory.counter("core_document_document_collision");
+    broadcast_views = metricsFactory.counter("core_broadcast_views");
+    broadcast_shared_deltas = metricsFactory.counter("core_broadcast_shared_deltas");
+    executors = SimpleExecutorFactory.instrumented(metricsFactory);
+    scheduler_isolated = metricsFactory.counter("core_scheduler_isolated");
+    scheduler_hot_documents = metricsFactory.inflight("core_scheduler_hot_documents");
+    base_lagging = metricsFactory.counter("core_base_lagging");
   }
 }
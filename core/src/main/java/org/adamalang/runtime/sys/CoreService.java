@@ -34,6 +34,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /** The core service enables consumers to manage an in-process Adama */
 public class CoreService {
@@ -42,6 +43,7 @@ public class CoreService {
   private final CoreMetrics metrics;
   private final LivingDocumentFactoryFactory livingDocumentFactoryFactory;
   private final DocumentThreadBase[] bases;
+  private final DocumentScheduler scheduler;
   private final AtomicBoolean alive;
   private final Random rng;
 
@@ -52,14 +54,26 @@ public class CoreService {
    * @param nThreads the number of threads to use
    */
   public CoreService(CoreMetrics metrics, LivingDocumentFactoryFactory livingDocumentFactoryFactory, Consumer<HashMap<String, PredictiveInventory.MeteringSample>> meteringEvent, DataService dataService, TimeSource time, int nThreads) {
+    this(metrics, livingDocumentFactoryFactory, meteringEvent, dataService, time, nThreads, HashDocumentScheduler::new);
+  }
+
+  /**
+   * @param schedulerMaker how documents are placed onto the threads
+   */
+  public CoreService(CoreMetrics metrics, LivingDocumentFactoryFactory livingDocumentFactoryFactory, Consumer<HashMap<String, PredictiveInventory.MeteringSample>> meteringEvent, DataService dataService, TimeSource time, int nThreads, Function<DocumentThreadBase[], DocumentScheduler> schedulerMaker) {
     this.metrics = metrics;
     this.dataService = dataService;
     this.livingDocumentFactoryFactory = livingDocumentFactoryFactory;
     bases = new DocumentThreadBase[nThreads];
     this.alive = new AtomicBoolean(true);
     for (int k = 0; k < nThreads; k++) {
-      bases[k] = new DocumentThreadBase(dataService, metrics, SimpleExecutor.create("core-" + k), time);
+      bases[k] = new DocumentThreadBase(dataService, metrics, metrics.executors.makeSingle("core-" + k), time);
+    }
+    this.scheduler = schedulerMaker.apply(bases);
+    for (int k = 0; k < nThreads; k++) {
+      bases[k].setScheduler(scheduler);
       bases[k].kickOffInventory();
+      bases[k].kickOffProbe(1000);
     }
     rng = new Random();
     new NamedRunnable("metering-run") {
@@ -77,6 +91,9 @@ public class CoreService {
 
   public void shutdown() throws InterruptedException {
     alive.set(false);
+    for (DocumentThreadBase base : bases) {
+      base.stopProbe();
+    }
     CountDownLatch[] latches = new CountDownLatch[bases.length];
     for (int kThread = 0; kThread < bases.length; kThread++) {
       latches[kThread] = bases[kThread].executor.shutdown();
@@ -88,12 +105,20 @@ public class CoreService {
 
   /** reflect on the document's schema */
   public void reflect(Key key, Callback<String> callbackReal) {
-    Callback<String> callback = metrics.reflect.wrap(callbackReal);
-    int threadId = key.hashCode() % bases.length;
-    DocumentThreadBase base = bases[threadId];
+    reflectInternal(key, metrics.reflect.wrap(callbackReal));
+  }
+
+  /** internal: reflect on the base which owns the document */
+  private void reflectInternal(Key key, Callback<String> callback) {
+    DocumentThreadBase base = scheduler.route(key);
     base.executor.execute(new NamedRunnable("reflect", key.space) {
       @Override
       public void execute() throws Exception {
+        // the document moved to another base
+        if (!base.owns(key)) {
+          reflectInternal(key, callback);
+          return;
+        }
         livingDocumentFactoryFactory.fetch(key, new Callback<LivingDocumentFactory>() {
           @Override
           public void success(LivingDocumentFactory value) {
@@ -105,6 +130,8 @@ public class CoreService {
             callback.failure(ex);
           }
         });
+        // reflecting holds no state within the base
+        base.releaseIfIdle(key);
       }
     });
   }
@@ -117,11 +144,15 @@ public class CoreService {
   /** internal: actually create with the given callback */
   private void createInternal(CoreRequestContext context, Key key, String arg, String entropy, Callback<Void> callback) {
     // jump into thread caching which thread
-    int threadId = key.hashCode() % bases.length;
-    DocumentThreadBase base = bases[threadId];
+    DocumentThreadBase base = scheduler.route(key);
     base.executor.execute(new NamedRunnable("create", key.space) {
       @Override
       public void execute() throws Exception {
+        // the document moved to another base
+        if (!base.owns(key)) {
+          createInternal(context, key, arg, entropy, callback);
+          return;
+        }
         // the document already exists
         if (base.map.containsKey(key)) {
           callback.failure(new ErrorCodeException(ErrorCodes.SERVICE_DOCUMENT_ALREADY_CREATED));
@@ -142,6 +173,7 @@ public class CoreService {
               for (Runnable other : base.mapCreationsInflightRetryBuffer.remove(key)) {
                 other.run();
               }
+              base.releaseIfIdle(key);
             }
           });
         };
@@ -255,16 +287,23 @@ public class CoreService {
   }
 
   private void load(Key key, Callback<DurableLivingDocument> callbackReal) {
-    Callback<DurableLivingDocument> callbackToQueue = metrics.serviceLoad.wrap(callbackReal);
+    loadInternal(key, metrics.serviceLoad.wrap(callbackReal));
+  }
 
+  /** internal: load with the given callback */
+  private void loadInternal(Key key, Callback<DurableLivingDocument> callbackToQueue) {
     // bind to the thread
-    int threadId = key.hashCode() % bases.length;
-    DocumentThreadBase base = bases[threadId];
+    DocumentThreadBase base = scheduler.route(key);
 
     // jump into thread
     base.executor.execute(new NamedRunnable("load", key.space, key.key) {
       @Override
       public void execute() throws Exception {
+        // the document moved to another base
+        if (!base.owns(key)) {
+          loadInternal(key, callbackToQueue);
+          return;
+        }
 
         // is document already loaded?
         DurableLivingDocument documentFetch = base.map.get(key);
@@ -289,6 +328,7 @@ public class CoreService {
                 for (Callback<DurableLivingDocument> callbackToSignal : base.mapInsertsInflight.remove(key)) {
                   callbackToSignal.failure(ex);
                 }
+                base.releaseIfIdle(key);
               }
             });
           };
@@ -47,6 +47,7 @@ public class CoreStream {
       @Override
       public void execute() throws Exception {
         inventory.message();
+        document.document().__leaveSharedDelta(view);
         view.ingest(patch);
         document.invalidate(Callback.DONT_CARE_INTEGER);
         // TODO: for efficiency sake, we can recompute just the view. However, it does require no patch being inflight to not leak data.
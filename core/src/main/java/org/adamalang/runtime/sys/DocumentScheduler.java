@@ -0,0 +1,32 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.sys;
+
+import org.adamalang.runtime.data.Key;
+
+/**
+ * decides which DocumentThreadBase runs a document. A document is bound to one base while it has any
+ * state within that base, and the base tells the scheduler when that state is gone such that the next
+ * placement is free to pick another base. This is how documents move without breaking the guarantee
+ * that a document is only touched by one thread.
+ */
+public interface DocumentScheduler {
+  /** the base which owns (or will own) the document; this is callable from any thread */
+  DocumentThreadBase route(Key key);
+
+  /** within the base's thread, is the document still bound to the base */
+  boolean owns(DocumentThreadBase base, Key key);
+
+  /** within the base's thread, the base no longer holds any state for the document */
+  void release(DocumentThreadBase base, Key key);
+
+  /** within the base's thread, the base sampled the cost of running the document since the last sample */
+  void observe(DocumentThreadBase base, Key key, long codeCost);
+}
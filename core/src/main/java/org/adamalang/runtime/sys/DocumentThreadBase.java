@@ -15,6 +15,7 @@ import org.adamalang.common.SimpleExecutor;
 import org.adamalang.common.TimeSource;
 import org.adamalang.runtime.data.DataService;
 import org.adamalang.runtime.data.Key;
+import org.adamalang.runtime.json.JsonStreamWriterPool;
 
 import java.util.*;
 import java.util.function.Consumer;
@@ -31,18 +32,23 @@ public class DocumentThreadBase {
   public final HashMap<Key, ArrayList<Callback<DurableLivingDocument>>> mapInsertsInflight;
   public final HashMap<Key, ArrayList<Runnable>> mapCreationsInflightRetryBuffer;
   public final TimeSource time;
+  public final JsonStreamWriterPool writers;
   private final HashMap<String, PredictiveInventory> inventoryBySpace;
   private final Random rng;
   private int millisecondsForCleanupCheck;
   private int millisecondsAfterLoadForReconciliation;
   private int millisecondsToPerformInventory;
   private int millisecondsToPerformInventoryJitter;
+  private DocumentScheduler scheduler;
+  private volatile long probeLatencyMilliseconds;
+  private volatile boolean probing;
 
   public DocumentThreadBase(DataService service, CoreMetrics metrics, SimpleExecutor executor, TimeSource time) {
     this.service = service;
     this.metrics = metrics;
     this.executor = executor;
     this.time = time;
+    this.writers = new JsonStreamWriterPool(16, 4 * 1024 * 1024);
     this.map = new HashMap<>();
     this.mapInsertsInflight = new HashMap<>();
     this.mapCreationsInflightRetryBuffer = new HashMap<>();
@@ -52,6 +58,54 @@ public class DocumentThreadBase {
     this.rng = new Random();
     this.millisecondsToPerformInventory = 30000;
     this.millisecondsToPerformInventoryJitter = 15000;
+    this.scheduler = null;
+    this.probeLatencyMilliseconds = 0;
+    this.probing = true;
+  }
+
+  /** bind the scheduler which placed documents within this base */
+  public void setScheduler(DocumentScheduler scheduler) {
+    this.scheduler = scheduler;
+  }
+
+  /** the document may no longer be within this base, so let the scheduler know if nothing remains */
+  public void releaseIfIdle(Key key) {
+    if (scheduler != null && !map.containsKey(key) && !mapInsertsInflight.containsKey(key) && !mapCreationsInflightRetryBuffer.containsKey(key)) {
+      scheduler.release(this, key);
+    }
+  }
+
+  /** is the document bound to this base; work arriving for an unbound document must be routed again */
+  public boolean owns(Key key) {
+    return scheduler == null || scheduler.owns(this, key);
+  }
+
+  /** periodically measure how late the base is at running scheduled work */
+  public void kickOffProbe(int period) {
+    if (!probing) {
+      return;
+    }
+    long expected = System.nanoTime() + period * 1000000L;
+    executor.schedule(new NamedRunnable("base-probe") {
+      @Override
+      public void execute() throws Exception {
+        probeLatencyMilliseconds = Math.max(0, (System.nanoTime() - expected) / 1000000L);
+        if (probeLatencyMilliseconds > 100) {
+          metrics.base_lagging.run();
+        }
+        kickOffProbe(period);
+      }
+    }, period);
+  }
+
+  /** stop measuring the base; the probe no longer schedules itself */
+  public void stopProbe() {
+    probing = false;
+  }
+
+  /** how late (in milliseconds) was the most recent probe */
+  public long getProbeLatencyMilliseconds() {
+    return probeLatencyMilliseconds;
   }
 
   public void kickOffInventory() {
@@ -98,6 +152,9 @@ public class DocumentThreadBase {
       }
       accum.memory += document.getMemoryBytes();
       accum.ticks += document.getCodeCost();
+      if (scheduler != null) {
+        scheduler.observe(this, document.key, document.getCodeCost());
+      }
       document.zeroOutCodeCost();
       accum.connections += document.getConnectionsCount();
       accum.count++;
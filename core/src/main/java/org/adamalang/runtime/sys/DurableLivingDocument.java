@@ -58,6 +58,7 @@ public class DurableLivingDocument {
     this.document = document;
     this.currentFactory = currentFactory;
     this.base = base;
+    document.__setWriterPool(base.writers);
     this.requiresInvalidateMilliseconds = document.__computeRequiresInvalidateMilliseconds();
     this.pending = new ArrayDeque<>(8);
     this.inflightPatch = false;
@@ -81,16 +82,8 @@ public class DurableLivingDocument {
 
   private void construct(final NtClient who, final String arg, final String entropy, Callback<Integer> callback) {
     try {
-      final var writer = forge("construct", who);
-      writer.writeObjectFieldIntro("arg");
-      writer.injectJson(arg);
-      if (entropy != null) {
-        writer.writeObjectFieldIntro("entropy");
-        writer.writeFastString(entropy);
-      }
-      writer.endObject();
-      final var init = document.__transact(writer.toString(), currentFactory);
-      final var invalidate = document.__transact(forgeInvalidate(), currentFactory);
+      final var init = document.__transact(LivingDocumentRequest.construct(base.time.nowMilliseconds(), who, arg, entropy), currentFactory);
+      final var invalidate = document.__transact(LivingDocumentRequest.invalidate(base.time.nowMilliseconds()), currentFactory);
       final var setup = RemoteDocumentUpdate.compact(new RemoteDocumentUpdate[]{init.update, invalidate.update})[0];
       size.set(1);
       base.service.initialize(key, setup, Callback.handoff(callback, ErrorCodes.DURABLE_LIVING_DOCUMENT_STAGE_CONSTRUCT_PERSIST, () -> {
@@ -117,34 +110,6 @@ public class DurableLivingDocument {
     return writer;
   }
 
-  public JsonStreamWriter forgeWithContext(final String command, final CoreRequestContext context) {
-    final var writer = new JsonStreamWriter();
-    writer.beginObject();
-    writer.writeObjectFieldIntro("command");
-    writer.writeFastString(command);
-    writer.writeObjectFieldIntro("timestamp");
-    writer.writeLong(base.time.nowMilliseconds());
-    if (context != null) {
-      if (context.who != null) {
-        writer.writeObjectFieldIntro("who");
-        writer.writeNtClient(context.who);
-      }
-      writer.writeObjectFieldIntro("key");
-      writer.writeString(context.key);
-      writer.writeObjectFieldIntro("origin");
-      writer.writeString(context.origin);
-      writer.writeObjectFieldIntro("ip");
-      writer.writeString(context.ip);
-    }
-    return writer;
-  }
-
-  private String forgeInvalidate() {
-    final var request = forge("invalidate", null);
-    request.endObject();
-    return request.toString();
-  }
-
   public static void load(final Key key, final LivingDocumentFactory factory, final DocumentMonitor monitor, final DocumentThreadBase base, final Callback<DurableLivingDocument> callback) {
     try {
       LivingDocument doc = factory.create(monitor);
@@ -173,10 +138,12 @@ public class DurableLivingDocument {
         }
         inflightCompact = true;
         base.metrics.document_compacting.run();
-        JsonStreamWriter writer = new JsonStreamWriter();
+        JsonStreamWriter writer = base.writers.borrow();
         document.__dump(writer);
+        String snapshot = writer.toString();
+        base.writers.release(writer);
         int toCompactNow = size.get();
-        base.service.snapshot(key, document.__seq.get(), writer.toString(), currentFactory.maximum_history, new Callback<>() {
+        base.service.snapshot(key, document.__seq.get(), snapshot, currentFactory.maximum_history, new Callback<>() {
           @Override
           public void success(Integer value) {
             base.executor.execute(new NamedRunnable("compact-complete") {
@@ -222,6 +189,7 @@ public class DurableLivingDocument {
   public void deploy(LivingDocumentFactory factory, Callback<Integer> callback) throws ErrorCodeException {
     LivingDocument newDocument = factory.create(document.__monitor);
     newDocument.__setKey(key.key);
+    newDocument.__setWriterPool(base.writers);
     JsonStreamWriter writer = new JsonStreamWriter();
     document.__dump(writer);
     newDocument.__insert(new JsonStreamReader(writer.toString()));
@@ -265,6 +233,7 @@ public class DurableLivingDocument {
     document.__nukeViews();
     base.map.remove(key);
     base.metrics.inflight_documents.down();
+    base.releaseIfIdle(key);
     catastrophicFailureOccurred = true;
     while (pending.size() > 0) {
       pending.removeFirst().callback.failure(new ErrorCodeException(ErrorCodes.CATASTROPHIC_DOCUMENT_FAILURE_EXCEPTION));
@@ -326,7 +295,7 @@ public class DurableLivingDocument {
       while (last.update.requiresFutureInvalidation && last.update.whenToInvalidateMilliseconds == 0) {
         // inject an invalidation
         try {
-          last = document.__transact(forgeInvalidate(), currentFactory);
+          last = document.__transact(LivingDocumentRequest.invalidate(base.time.nowMilliseconds()), currentFactory);
           changes.add(last);
         } catch (ErrorCodeException ex) {
           triggerFailure.accept(ex);
@@ -339,6 +308,7 @@ public class DurableLivingDocument {
       int at = 0;
       for (LivingDocumentChange change : changes) {
         patches[at] = change.update;
+        change.measure(base.metrics);
         at++;
         if (trackingSeq + 1 != change.update.seqBegin) {
           base.metrics.internal_seq_drift.run();
@@ -392,7 +362,7 @@ public class DurableLivingDocument {
                       public void execute() throws Exception {
                         document.__insert(new JsonStreamReader(value.patch));
                         IngestRequest[] requestsAfterCatchUp = new IngestRequest[requests.length + 1];
-                        requestsAfterCatchUp[0] = new IngestRequest(NtClient.NO_ONE, forgeInvalidate(), Callback.DONT_CARE_INTEGER, false);
+                        requestsAfterCatchUp[0] = new IngestRequest(NtClient.NO_ONE, LivingDocumentRequest.invalidate(base.time.nowMilliseconds()), Callback.DONT_CARE_INTEGER, false);
                         for (int j = 0; j < requests.length; j++) {
                           requestsAfterCatchUp[j + 1] = requests[j];
                         }
@@ -422,11 +392,8 @@ public class DurableLivingDocument {
             @Override
             public void execute() throws Exception {
               revert.run();
-              final var writer = forge("apply", requestToActOn.who);
-              writer.writeObjectFieldIntro("patch");
-              writer.injectJson(value.patch);
-              writer.endObject();
-              executeNow(new IngestRequest[]{new IngestRequest(requestToActOn.who, writer.toString(), requestToActOn.callback, false)});
+              final var request = LivingDocumentRequest.apply(base.time.nowMilliseconds(), requestToActOn.who, value.patch);
+              executeNow(new IngestRequest[]{new IngestRequest(requestToActOn.who, request, requestToActOn.callback, false)});
             }
           });
         }
@@ -475,8 +442,8 @@ public class DurableLivingDocument {
     }
   }
 
-  private void ingest(NtClient who, String requestJson, Callback<Integer> callback, boolean cleanupTest, boolean forceIntoQueue) {
-    IngestRequest request = new IngestRequest(who, requestJson, callback, cleanupTest);
+  private void ingest(NtClient who, LivingDocumentRequest documentRequest, Callback<Integer> callback, boolean cleanupTest, boolean forceIntoQueue) {
+    IngestRequest request = new IngestRequest(who, documentRequest, callback, cleanupTest);
     if (catastrophicFailureOccurred) {
       request.callback.failure(new ErrorCodeException(ErrorCodes.CATASTROPHIC_DOCUMENT_FAILURE_EXCEPTION));
       return;
@@ -500,7 +467,7 @@ public class DurableLivingDocument {
   }
 
   public void invalidate(Callback<Integer> callback) {
-    ingest(NtClient.NO_ONE, forgeInvalidate(), base.metrics.document_invalidate.wrap(callback), false, true);
+    ingest(NtClient.NO_ONE, LivingDocumentRequest.invalidate(base.time.nowMilliseconds()), base.metrics.document_invalidate.wrap(callback), false, true);
   }
 
   public int getCodeCost() {
@@ -520,17 +487,11 @@ public class DurableLivingDocument {
   }
 
   public void expire(long limit, Callback<Integer> callback) {
-    final var request = forge("expire", null);
-    request.writeObjectFieldIntro("limit");
-    request.writeLong(limit);
-    request.endObject();
-    ingest(NtClient.NO_ONE, request.toString(), base.metrics.document_expire.wrap(callback), true, false);
+    ingest(NtClient.NO_ONE, LivingDocumentRequest.expire(base.time.nowMilliseconds(), limit), base.metrics.document_expire.wrap(callback), true, false);
   }
 
   public void connect(final NtClient who, Callback<Integer> callback) {
-    final var request = forge("connect", who);
-    request.endObject();
-    ingest(who, request.toString(), base.metrics.document_connect.wrap(callback), false, false);
+    ingest(who, LivingDocumentRequest.connect(base.time.nowMilliseconds(), who), base.metrics.document_connect.wrap(callback), false, false);
   }
 
   public boolean isConnected(final NtClient who) {
@@ -554,37 +515,22 @@ public class DurableLivingDocument {
         if (document.__canRemoveFromMemory()) {
           base.map.remove(key);
           base.metrics.inflight_documents.down();
+          base.releaseIfIdle(key);
         }
       }
     }, base.getMillisecondsForCleanupCheck());
   }
 
   public void disconnect(final NtClient who, Callback<Integer> callback) {
-    final var request = forge("disconnect", who);
-    request.endObject();
-    ingest(who, request.toString(), base.metrics.document_disconnect.wrap(callback), true, false);
+    ingest(who, LivingDocumentRequest.disconnect(base.time.nowMilliseconds(), who), base.metrics.document_disconnect.wrap(callback), true, false);
   }
 
   public void send(final CoreRequestContext context, final String marker, final String channel, final String message, Callback<Integer> callback) {
-    final var writer = forgeWithContext("send", context);
-    writer.writeObjectFieldIntro("channel");
-    writer.writeFastString(channel);
-    if (marker != null) {
-      writer.writeObjectFieldIntro("marker");
-      writer.writeString(marker);
-    }
-    writer.writeObjectFieldIntro("message");
-    writer.injectJson(message);
-    writer.endObject();
-    ingest(context.who, writer.toString(), base.metrics.document_send.wrap(callback), false, false);
+    ingest(context.who, LivingDocumentRequest.send(base.time.nowMilliseconds(), context, marker, channel, message), base.metrics.document_send.wrap(callback), false, false);
   }
 
   public void apply(NtClient who, String patch, Callback<Integer> callback) {
-    final var writer = forge("apply", who);
-    writer.writeObjectFieldIntro("patch");
-    writer.injectJson(patch);
-    writer.endObject();
-    ingest(who, writer.toString(), base.metrics.document_apply.wrap(callback), false, false);
+    ingest(who, LivingDocumentRequest.apply(base.time.nowMilliseconds(), who, patch), base.metrics.document_apply.wrap(callback), false, false);
   }
 
   public boolean canAttach(NtClient who) {
@@ -593,11 +539,7 @@ public class DurableLivingDocument {
   }
 
   public void attach(NtClient who, NtAsset asset, Callback<Integer> callback) {
-    final var writer = forge("attach", who);
-    writer.writeObjectFieldIntro("asset");
-    writer.writeNtAsset(asset);
-    writer.endObject();
-    ingest(who, writer.toString(), base.metrics.document_attach.wrap(callback), false, false);
+    ingest(who, LivingDocumentRequest.attach(base.time.nowMilliseconds(), who, asset), base.metrics.document_attach.wrap(callback), false, false);
   }
 
   public String json() {
@@ -615,11 +557,11 @@ public class DurableLivingDocument {
   private static class IngestRequest {
     public final boolean cleanupTest;
     private final NtClient who;
-    private final String request;
+    private final LivingDocumentRequest request;
     private final Callback<Integer> callback;
     private int attempts;
 
-    private IngestRequest(NtClient who, String request, Callback<Integer> callback, boolean cleanup) {
+    private IngestRequest(NtClient who, LivingDocumentRequest request, Callback<Integer> callback, boolean cleanup) {
       this.who = who;
       this.request = request;
       this.callback = callback;
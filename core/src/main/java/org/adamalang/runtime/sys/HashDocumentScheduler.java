@@ -0,0 +1,39 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.sys;
+
+import org.adamalang.runtime.data.Key;
+
+/** pin every document to a base by the hash of its key */
+public class HashDocumentScheduler implements DocumentScheduler {
+  private final DocumentThreadBase[] bases;
+
+  public HashDocumentScheduler(DocumentThreadBase[] bases) {
+    this.bases = bases;
+  }
+
+  @Override
+  public DocumentThreadBase route(Key key) {
+    return bases[key.hashCode() % bases.length];
+  }
+
+  @Override
+  public boolean owns(DocumentThreadBase base, Key key) {
+    return true;
+  }
+
+  @Override
+  public void release(DocumentThreadBase base, Key key) {
+  }
+
+  @Override
+  public void observe(DocumentThreadBase base, Key key, long codeCost) {
+  }
+}
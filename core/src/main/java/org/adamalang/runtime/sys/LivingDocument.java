@@ -22,6 +22,7 @@ import org.adamalang.runtime.delta.secure.AssetIdEncoder;
 import org.adamalang.runtime.exceptions.*;
 import org.adamalang.runtime.json.JsonStreamReader;
 import org.adamalang.runtime.json.JsonStreamWriter;
+import org.adamalang.runtime.json.JsonStreamWriterPool;
 import org.adamalang.runtime.json.PrivateView;
 import org.adamalang.runtime.natives.NtAsset;
 import org.adamalang.runtime.natives.NtClient;
@@ -63,9 +64,14 @@ public abstract class LivingDocument implements RxParent {
   protected ArrayList<Integer> __trace;
   private String __preemptedStateOnNextComputeBlocked = null;
   private String __key;
+  private JsonStreamWriterPool __writers;
+  private PrivateView __sharedDeltaLeader;
+  private final HashSet<PrivateView> __sharedDeltaFollowers;
+  private final HashSet<PrivateView> __sharedDeltaLeaving;
 
   public LivingDocument(final DocumentMonitor __monitor) {
     this.__monitor = __monitor;
+    __writers = new JsonStreamWriterPool(2, 64 * 1024);
     __random = new Random();
     __self = this;
     __state = new RxFastString(this, "");
@@ -89,6 +95,9 @@ public abstract class LivingDocument implements RxParent {
     __goodwillBudget = 100000;
     __goodwillLimitOfBudget = 100000;
     __dedupe = new HashMap<>();
+    __sharedDeltaLeader = null;
+    __sharedDeltaFollowers = new HashSet<>();
+    __sharedDeltaLeaving = new HashSet<>();
   }
 
   /** generate a new auto key for a table; all tables share the space id space */
@@ -111,6 +120,11 @@ public abstract class LivingDocument implements RxParent {
     this.__key = key;
   }
 
+  /** share the scratch writers of the thread which owns this document */
+  public void __setWriterPool(JsonStreamWriterPool writers) {
+    this.__writers = writers;
+  }
+
   /** Document.key(); */
   public String __getKey() {
     return __key;
@@ -124,7 +138,7 @@ public abstract class LivingDocument implements RxParent {
   /** code generate: get strings that are part of the document */
   public abstract Set<String> __get_intern_strings();
 
-  private LivingDocumentChange __commit_trailer(NtClient who, final String request) {
+  private LivingDocumentChange __commit_trailer(NtClient who, final LivingDocumentRequest request) {
     final var forward = new JsonStreamWriter();
     final var reverse = new JsonStreamWriter();
     forward.beginObject();
@@ -144,7 +158,7 @@ public abstract class LivingDocument implements RxParent {
     forward.endObject();
     reverse.endObject();
     List<LivingDocumentChange.Broadcast> broadcasts = __buildBroadcastList();
-    RemoteDocumentUpdate update = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), __state.has(), (int) (__next_time.get() - __time.get()), 0L, UpdateType.Invalidate);
+    RemoteDocumentUpdate update = RemoteDocumentUpdate.lazy(__seq.get(), __seq.get(), who, request::json, forward.toString(), reverse.toString(), __state.has(), (int) (__next_time.get() - __time.get()), 0L, UpdateType.Invalidate);
     return new LivingDocumentChange(update, broadcasts);
   }
 
@@ -185,57 +199,141 @@ public abstract class LivingDocument implements RxParent {
   /** code generated: create a private view for the given person */
   public abstract PrivateView __createPrivateView(NtClient __who, Perspective __perspective, AssetIdEncoder __encoder);
 
-  /** build broadcast for a viewer */
-  public LivingDocumentChange.Broadcast __buildBroadcast(NtClient who, PrivateView pv) {
+  /** code generated: is every delta the same for every viewer (i.e. no policies, bubbles, nor assets are emitted) */
+  public abstract boolean __isViewerIndependent();
+
+  /** compute the data delta for a view; returns null if the view has not changed */
+  private JsonStreamWriter __computeViewDelta(PrivateView pv) {
+    JsonStreamWriter data = __writers.borrow();
+    pv.update(data);
+    if (data.contentEquals("{}")) {
+      __writers.release(data);
+      return null;
+    }
+    return data;
+  }
+
+  /**
+   * a follower skips its own update, so its state is stale until it catches up; running the update
+   * right after it was delivered the shared delta (and discarding the output) brings its state in line
+   * with what its client holds
+   */
+  private void __catchUp(PrivateView pv) {
+    JsonStreamWriter scratch = __writers.borrow();
+    pv.update(scratch);
+    __writers.release(scratch);
+  }
+
+  /**
+   * the view should compute its own deltas (i.e. its viewer state changed); it gets the shared delta on
+   * the next broadcast and catches up, and if it was the leader, then every follower does as well
+   */
+  public void __leaveSharedDelta(PrivateView pv) {
+    if (pv == __sharedDeltaLeader || __sharedDeltaFollowers.contains(pv)) {
+      __sharedDeltaLeaving.add(pv);
+    }
+  }
+
+  /** build broadcast for a viewer given the data delta (which may be shared) and the futures for the view's client */
+  private LivingDocumentChange.Broadcast __buildBroadcast(PrivateView pv, JsonStreamWriter data, String futures, boolean shared) {
     final var writer = new JsonStreamWriter();
     writer.beginObject();
     boolean wroteData = false;
-    { // write out the data if there are changes
-      JsonStreamWriter data = new JsonStreamWriter();
-      pv.update(data);
-      String dataStr = data.toString();
-      if (!"{}".equals(dataStr)) {
-        writer.writeObjectFieldIntro("data");
-        writer.inline(dataStr);
-        writer.force_comma_introduction();
-        wroteData = true;
-      }
+    if (data != null) { // write out the data if there are changes
+      writer.writeObjectFieldIntro("data");
+      writer.inline(data);
+      writer.force_comma_introduction();
+      wroteData = true;
     }
-    { // write out the outstanding and blockers arrays if they have changed for the view
-      JsonStreamWriter futures = new JsonStreamWriter();
-      __futures.dump(futures, who);
-      String futuresStr = futures.toString();
-      if (pv.futures(futuresStr)) {
-        if (wroteData) {
-          writer.force_comma();
-        }
-        writer.inline(futuresStr);
-        writer.force_comma_introduction();
+    if (pv.futures(futures)) { // write out the outstanding and blockers arrays if they have changed for the view
+      if (wroteData) {
+        writer.force_comma();
       }
+      writer.inline(futures);
+      writer.force_comma_introduction();
     }
     writer.writeObjectFieldIntro("seq");
     writer.writeInteger(__seq.get());
     writer.endObject();
-    return new LivingDocumentChange.Broadcast(pv, writer.toString());
+    return new LivingDocumentChange.Broadcast(pv, writer.toString(), shared);
   }
 
-  /** internal: we compute per client */
+  /**
+   * internal: we compute per client such that the futures are computed once per client. When the
+   * deltas are viewer independent, then views which have been brought up to date share one leader
+   * view's delta which is computed once per broadcast rather than once per view.
+   */
   private ArrayList<LivingDocumentChange.Broadcast> __buildBroadcastList() {
     ArrayList<LivingDocumentChange.Broadcast> broadcasts = new ArrayList<>(__trackedViews.size());
-    final var itTrackedViews = __trackedViews.entrySet().iterator();
-    while (itTrackedViews.hasNext()) {
-      final var entryTrackedView = itTrackedViews.next();
-      final var itView = entryTrackedView.getValue().iterator();
-      while (itView.hasNext()) {
-        final var pv = itView.next();
-        if (pv.isAlive()) {
-          broadcasts.add(__buildBroadcast(entryTrackedView.getKey(), pv));
+    final boolean share = __isViewerIndependent();
+    final boolean dissolve = __sharedDeltaLeader != null && __sharedDeltaLeaving.contains(__sharedDeltaLeader);
+    ArrayList<PrivateView> synced = null;
+    boolean leaderComputed = false;
+    JsonStreamWriter leaderData = null;
+    for (Map.Entry<NtClient, ArrayList<PrivateView>> entryTrackedView : __trackedViews.entrySet()) {
+      String futures = null;
+      for (PrivateView pv : entryTrackedView.getValue()) {
+        if (!pv.isAlive()) {
+          continue;
+        }
+        if (futures == null) {
+          JsonStreamWriter futuresWriter = new JsonStreamWriter();
+          __futures.dump(futuresWriter, entryTrackedView.getKey());
+          futures = futuresWriter.toString();
+        }
+        if (share && (pv == __sharedDeltaLeader || __sharedDeltaFollowers.contains(pv))) {
+          if (!leaderComputed) {
+            leaderData = __computeViewDelta(__sharedDeltaLeader);
+            leaderComputed = true;
+          }
+          broadcasts.add(__buildBroadcast(pv, leaderData, futures, pv != __sharedDeltaLeader));
+          if (pv != __sharedDeltaLeader && (dissolve || __sharedDeltaLeaving.contains(pv))) {
+            __catchUp(pv);
+          }
+        } else {
+          JsonStreamWriter data = __computeViewDelta(pv);
+          broadcasts.add(__buildBroadcast(pv, data, futures, false));
+          if (data != null) {
+            __writers.release(data);
+          }
+          if (share) {
+            if (synced == null) {
+              synced = new ArrayList<>();
+            }
+            synced.add(pv);
+          }
         }
       }
     }
+    if (leaderData != null) {
+      __writers.release(leaderData);
+    }
+    if (share) {
+      __rebalanceSharedDeltas(leaderComputed, dissolve, synced);
+    }
     return broadcasts;
   }
 
+  /** internal: drop dead (or leaving) followers and have the views which are now up to date join the leader */
+  private void __rebalanceSharedDeltas(boolean leaderComputed, boolean dissolve, ArrayList<PrivateView> synced) {
+    __sharedDeltaFollowers.removeIf((pv) -> !pv.isAlive() || __sharedDeltaLeaving.contains(pv));
+    __sharedDeltaLeaving.clear();
+    if (!leaderComputed || dissolve) {
+      // the leader has fallen behind the document (or left), so no view can follow it
+      __sharedDeltaLeader = null;
+      __sharedDeltaFollowers.clear();
+    }
+    if (synced != null) {
+      for (PrivateView pv : synced) {
+        if (__sharedDeltaLeader == null) {
+          __sharedDeltaLeader = pv;
+        } else {
+          __sharedDeltaFollowers.add(pv);
+        }
+      }
+    }
+  }
+
   /** code generator: dump the entire thing */
   public abstract void __dump(JsonStreamWriter __writer);
 
@@ -305,6 +403,9 @@ public abstract class LivingDocument implements RxParent {
       entry.getValue().clear();
     }
     __trackedViews.clear();
+    __sharedDeltaLeader = null;
+    __sharedDeltaFollowers.clear();
+    __sharedDeltaLeaving.clear();
   }
 
   /** can we remove this document from memory */
@@ -721,14 +822,46 @@ public abstract class LivingDocument implements RxParent {
       if (timestamp == null) {
         throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_TIMESTAMP);
       }
-      __time.set(timestamp);
+      final var request = LivingDocumentRequest.parsed(command, timestamp, requestJson);
+      request.who = who;
+      request.limit = limit;
+      request.channel = channel;
+      request.marker = marker;
+      request.message = message;
+      request.arg = arg;
+      request.entropy = entropy;
+      request.patch = patch;
+      request.asset = asset;
+      request.origin = origin;
+      request.ip = ip;
+      request.key = key;
+      return __transact(request, factory);
+    } catch (GoodwillExhaustedException gee) {
+      throw new ErrorCodeException(ErrorCodes.API_GOODWILL_EXCEPTION, gee);
+    }
+  }
+
+  /** transaction: execute a typed request without a JSON round trip */
+  public LivingDocumentChange __transact(final LivingDocumentRequest request, LivingDocumentFactory factory) throws ErrorCodeException {
+    try {
+      final var who = request.who;
+      final var channel = request.channel;
+      Object message = request.message;
+      if (message == null && request.messageJson != null) {
+        message = __parse_message(channel, new JsonStreamReader(request.messageJson));
+      }
+      NtMessageBase arg = request.arg;
+      if (arg == null && request.argJson != null) {
+        arg = __parse_construct_arg(new JsonStreamReader(request.argJson));
+      }
+      __time.set(request.timestamp);
 
-      switch (command) {
+      switch (request.command) {
         case "invalidate":
           if (__monitor != null) {
-            return __transaction_invalidate_monitored(who, requestJson);
+            return __transaction_invalidate_monitored(who, request);
           } else {
-            return __transaction_invalidate_body(who, requestJson);
+            return __transaction_invalidate_body(who, request);
           }
         case "construct":
           if (who == null) {
@@ -740,25 +873,25 @@ public abstract class LivingDocument implements RxParent {
           if (arg == null) {
             throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CONSTRUCTOR_ARG);
           }
-          return __transaction_construct(requestJson, who, arg, entropy);
+          return __transaction_construct(request, who, arg, request.entropy);
         case "connect":
           if (who == null) {
             throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
           }
-          return __transaction_connect(requestJson, who);
+          return __transaction_connect(request, who);
         case "disconnect":
           if (who == null) {
             throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
           }
-          return __transaction_disconnect(requestJson, who);
+          return __transaction_disconnect(request, who);
         case "attach":
           if (who == null) {
             throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
           }
-          if (asset == null) {
+          if (request.asset == null) {
             throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_ASSET);
           }
-          return __transaction_attach(requestJson, who, asset);
+          return __transaction_attach(request, who, request.asset);
         case "send":
           if (who == null) {
             throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
@@ -769,24 +902,24 @@ public abstract class LivingDocument implements RxParent {
           if (message == null) {
             throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_CANT_SEND_NO_MESSAGE);
           }
-          if (key == null || origin == null || ip == null) {
+          if (request.key == null || request.origin == null || request.ip == null) {
             throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_CANT_SEND_NO_CONTEXT);
           }
-          CoreRequestContext context = new CoreRequestContext(who, origin, ip, key);
-          return __transaction_send(context, requestJson, who, marker, channel, timestamp, message, factory);
+          CoreRequestContext context = new CoreRequestContext(who, request.origin, request.ip, request.key);
+          return __transaction_send(context, request, who, request.marker, channel, request.timestamp, message, factory);
         case "expire":
-          if (limit == null) {
+          if (request.limit == null) {
             throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_LIMIT);
           }
-          return __transaction_expire(requestJson, limit);
+          return __transaction_expire(request, request.limit);
         case "apply":
           if (who == null) {
             throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_CLIENT_AS_WHO);
           }
-          if (patch == null) {
+          if (request.patch == null) {
             throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_PATCH);
           }
-          return __transaction_apply_patch(requestJson, who, patch);
+          return __transaction_apply_patch(request, who, request.patch);
       }
       throw new ErrorCodeException(ErrorCodes.LIVING_DOCUMENT_TRANSACTION_NO_VALID_COMMAND_FOUND);
     } catch (GoodwillExhaustedException gee) {
@@ -795,7 +928,7 @@ public abstract class LivingDocument implements RxParent {
   }
 
   /** transaction: a person connects to document */
-  private LivingDocumentChange __transaction_attach(final String request, final NtClient who, final NtAsset asset) throws ErrorCodeException {
+  private LivingDocumentChange __transaction_attach(final LivingDocumentRequest request, final NtClient who, final NtAsset asset) throws ErrorCodeException {
     final var startedTime = System.nanoTime();
     var exception = true;
     if (__monitor != null) {
@@ -822,7 +955,7 @@ public abstract class LivingDocument implements RxParent {
       __commit(null, forward, reverse);
       forward.endObject();
 
-      final var update = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), true, 0, asset.size, UpdateType.AddUserData);
+      final var update = RemoteDocumentUpdate.lazy(__seq.get(), __seq.get(), who, request::json, forward.toString(), reverse.toString(), true, 0, asset.size, UpdateType.AddUserData);
       exception = false;
       return new LivingDocumentChange(update, null);
     } finally {
@@ -833,7 +966,7 @@ public abstract class LivingDocument implements RxParent {
   }
 
   /** transaction: a person connects to document */
-  private LivingDocumentChange __transaction_connect(final String request, final NtClient who) throws ErrorCodeException {
+  private LivingDocumentChange __transaction_connect(final LivingDocumentRequest request, final NtClient who) throws ErrorCodeException {
     final var startedTime = System.nanoTime();
     var exception = true;
     if (__monitor != null) {
@@ -870,7 +1003,7 @@ public abstract class LivingDocument implements RxParent {
         reverse.writeNull();
         reverse.endObject();
         reverse.endObject();
-        final var result = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.AddUserData);
+        final var result = RemoteDocumentUpdate.lazy(__seq.get(), __seq.get(), who, request::json, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.AddUserData);
         exception = false;
         return new LivingDocumentChange(result, null);
       } else {
@@ -886,7 +1019,7 @@ public abstract class LivingDocument implements RxParent {
   }
 
   /** transaction: construct the document */
-  private LivingDocumentChange __transaction_construct(final String request, final NtClient who, final NtMessageBase arg, final String entropy) throws ErrorCodeException {
+  private LivingDocumentChange __transaction_construct(final LivingDocumentRequest request, final NtClient who, final NtMessageBase arg, final String entropy) throws ErrorCodeException {
     final var startedTime = System.nanoTime();
     var exception = true;
     if (__monitor != null) {
@@ -906,7 +1039,7 @@ public abstract class LivingDocument implements RxParent {
       __commit(null, forward, reverse);
       forward.endObject();
       reverse.endObject();
-      final var result = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.AddUserData);
+      final var result = RemoteDocumentUpdate.lazy(__seq.get(), __seq.get(), who, request::json, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.AddUserData);
       exception = false;
       return new LivingDocumentChange(result, null);
     } finally {
@@ -917,7 +1050,7 @@ public abstract class LivingDocument implements RxParent {
   }
 
   /** transaction: a person disconnects from the document */
-  private LivingDocumentChange __transaction_disconnect(final String request, final NtClient who) throws ErrorCodeException {
+  private LivingDocumentChange __transaction_disconnect(final LivingDocumentRequest request, final NtClient who) throws ErrorCodeException {
     final var startedTime = System.nanoTime();
     var exception = true;
     if (__monitor != null) {
@@ -950,7 +1083,7 @@ public abstract class LivingDocument implements RxParent {
       reverse.writeNtClient(who);
       reverse.endObject();
       reverse.endObject();
-      final var result = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.AddUserData);
+      final var result = RemoteDocumentUpdate.lazy(__seq.get(), __seq.get(), who, request::json, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.AddUserData);
       exception = false;
       return new LivingDocumentChange(result, null);
     } finally {
@@ -961,13 +1094,13 @@ public abstract class LivingDocument implements RxParent {
   }
 
   /** transaction: apply a data patch to the document */
-  private LivingDocumentChange __transaction_apply_patch(final String request, final NtClient who, String patch) {
+  private LivingDocumentChange __transaction_apply_patch(final LivingDocumentRequest request, final NtClient who, String patch) {
     __patch(new JsonStreamReader(patch));
     return __commit_trailer(who, request);
   }
 
   /** transaction: an invalidation is happening on the document (no monitor) */
-  private LivingDocumentChange __transaction_invalidate_body(NtClient who, final String request) {
+  private LivingDocumentChange __transaction_invalidate_body(NtClient who, final LivingDocumentRequest request) {
     __preemptedStateOnNextComputeBlocked = null;
     final var seedUsed = Long.parseLong(__entropy.get());
     try {
@@ -1014,7 +1147,7 @@ public abstract class LivingDocument implements RxParent {
         __commit(null, forward, reverse);
         forward.endObject();
         reverse.endObject();
-        return new LivingDocumentChange(new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), false, 0, 0L, UpdateType.Internal), broadcasts);
+        return new LivingDocumentChange(RemoteDocumentUpdate.lazy(__seq.get(), __seq.get(), who, request::json, forward.toString(), reverse.toString(), false, 0, 0L, UpdateType.Internal), broadcasts);
       }
     } catch (final RetryProgressException rpe) {
       __futures.restore();
@@ -1038,12 +1171,12 @@ public abstract class LivingDocument implements RxParent {
       __commit(null, forward, reverse);
       forward.endObject();
       reverse.endObject();
-      return new LivingDocumentChange(new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.Internal), null);
+      return new LivingDocumentChange(RemoteDocumentUpdate.lazy(__seq.get(), __seq.get(), who, request::json, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.Internal), null);
     }
   }
 
   /** transaction: an invalidation is happening on the document (use monitor) */
-  private LivingDocumentChange __transaction_invalidate_monitored(final NtClient who, final String request) {
+  private LivingDocumentChange __transaction_invalidate_monitored(final NtClient who, final LivingDocumentRequest request) {
     var exception = true;
     final var startedTime = System.nanoTime();
     __monitor.push("TransactionInvalidate");
@@ -1057,7 +1190,7 @@ public abstract class LivingDocument implements RxParent {
     }
   }
 
-  private LivingDocumentChange __transaction_expire(final String request, final long limit) throws ErrorCodeException {
+  private LivingDocumentChange __transaction_expire(final LivingDocumentRequest request, final long limit) throws ErrorCodeException {
     final var startedTime = System.nanoTime();
     var exception = true;
     if (__monitor != null) {
@@ -1102,7 +1235,7 @@ public abstract class LivingDocument implements RxParent {
       forward.endObject();
       reverse.endObject();
 
-      final var result = new RemoteDocumentUpdate(__seq.get(), __seq.get(), NtClient.NO_ONE, request, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.Internal);
+      final var result = RemoteDocumentUpdate.lazy(__seq.get(), __seq.get(), NtClient.NO_ONE, request::json, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.Internal);
       exception = false;
       return new LivingDocumentChange(result, null);
     } finally {
@@ -1112,7 +1245,7 @@ public abstract class LivingDocument implements RxParent {
     }
   }
 
-  private LivingDocumentChange __transaction_send_commit(final String request, final String dedupeKey, final NtClient who, final String marker, final String channel, final long timestamp, final Object message, final LivingDocumentFactory factory) throws ErrorCodeException {
+  private LivingDocumentChange __transaction_send_commit(final LivingDocumentRequest request, final String dedupeKey, final NtClient who, final String marker, final String channel, final long timestamp, final Object message, final LivingDocumentFactory factory) throws ErrorCodeException {
     final var forward = new JsonStreamWriter();
     final var reverse = new JsonStreamWriter();
     forward.beginObject();
@@ -1129,11 +1262,11 @@ public abstract class LivingDocument implements RxParent {
     forward.endObject();
     reverse.endObject();
     List<LivingDocumentChange.Broadcast> broadcasts = __buildBroadcastList();
-    RemoteDocumentUpdate update = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), __state.has(), (int) Math.max(0, __next_time.get() - __time.get()), 0L, UpdateType.DirectMessageExecute);
+    RemoteDocumentUpdate update = RemoteDocumentUpdate.lazy(__seq.get(), __seq.get(), who, request::json, forward.toString(), reverse.toString(), __state.has(), (int) Math.max(0, __next_time.get() - __time.get()), 0L, UpdateType.DirectMessageExecute);
     return new LivingDocumentChange(update, broadcasts);
   }
 
-  private LivingDocumentChange __transaction_send_enqueue(final String request, final String dedupeKey, final NtClient who, final String marker, final String channel, final long timestamp, final Object message, final LivingDocumentFactory factory) throws ErrorCodeException {
+  private LivingDocumentChange __transaction_send_enqueue(final LivingDocumentRequest request, final String dedupeKey, final NtClient who, final String marker, final String channel, final long timestamp, final Object message, final LivingDocumentFactory factory) throws ErrorCodeException {
     // create the delta
     final var forward = new JsonStreamWriter();
     final var reverse = new JsonStreamWriter();
@@ -1174,12 +1307,12 @@ public abstract class LivingDocument implements RxParent {
     __commit(null, forward, reverse);
     forward.endObject();
     reverse.endObject();
-    final var result = new RemoteDocumentUpdate(__seq.get(), __seq.get(), who, request, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.AddUserData);
+    final var result = RemoteDocumentUpdate.lazy(__seq.get(), __seq.get(), who, request::json, forward.toString(), reverse.toString(), true, 0, 0L, UpdateType.AddUserData);
     return new LivingDocumentChange(result, null);
   }
 
   /** transaction: a person is sending the document a message */
-  private LivingDocumentChange __transaction_send(CoreRequestContext context, final String request, final NtClient who, final String marker, final String channel, final long timestamp, final Object message, final LivingDocumentFactory factory) throws ErrorCodeException {
+  private LivingDocumentChange __transaction_send(CoreRequestContext context, final LivingDocumentRequest request, final NtClient who, final String marker, final String channel, final long timestamp, final Object message, final LivingDocumentFactory factory) throws ErrorCodeException {
     final var startedTime = System.nanoTime();
     var exception = true;
     if (__monitor != null) {
@@ -41,14 +41,28 @@ public class LivingDocumentChange {
     }
   }
 
+  /** account for the broadcasts and how many of them reused a delta computed for another view */
+  public void measure(CoreMetrics metrics) {
+    if (broadcasts != null) {
+      for (Broadcast bc : broadcasts) {
+        metrics.broadcast_views.run();
+        if (bc.shared) {
+          metrics.broadcast_shared_deltas.run();
+        }
+      }
+    }
+  }
+
   /** a closure to combine who to send too */
   public static class Broadcast {
     private final PrivateView view;
     private final String data;
+    public final boolean shared;
 
-    public Broadcast(PrivateView view, String data) {
+    public Broadcast(PrivateView view, String data, boolean shared) {
       this.view = view;
       this.data = data;
+      this.shared = shared;
     }
 
     public void complete() {
@@ -0,0 +1,168 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.sys;
+
+import org.adamalang.runtime.json.JsonStreamWriter;
+import org.adamalang.runtime.natives.NtAsset;
+import org.adamalang.runtime.natives.NtClient;
+import org.adamalang.runtime.natives.NtMessageBase;
+
+/**
+ * a typed request for LivingDocument.__transact; this lets the document skip forging and then
+ * parsing JSON on the same thread. The JSON form is only produced (once) when the resulting update
+ * is to be persisted.
+ */
+public class LivingDocumentRequest {
+  public final String command;
+  public final long timestamp;
+  NtClient who;
+  Long limit;
+  String channel;
+  String marker;
+  String messageJson;
+  Object message;
+  String argJson;
+  NtMessageBase arg;
+  String entropy;
+  String patch;
+  NtAsset asset;
+  String origin;
+  String ip;
+  String key;
+  private String json;
+
+  LivingDocumentRequest(String command, long timestamp) {
+    this.command = command;
+    this.timestamp = timestamp;
+    this.json = null;
+  }
+
+  /** wrap an already serialized request such that json() returns it verbatim */
+  static LivingDocumentRequest parsed(String command, long timestamp, String json) {
+    LivingDocumentRequest request = new LivingDocumentRequest(command, timestamp);
+    request.json = json;
+    return request;
+  }
+
+  public static LivingDocumentRequest construct(long timestamp, NtClient who, String arg, String entropy) {
+    LivingDocumentRequest request = new LivingDocumentRequest("construct", timestamp);
+    request.who = who;
+    request.argJson = arg;
+    request.entropy = entropy;
+    return request;
+  }
+
+  public static LivingDocumentRequest invalidate(long timestamp) {
+    return new LivingDocumentRequest("invalidate", timestamp);
+  }
+
+  public static LivingDocumentRequest expire(long timestamp, long limit) {
+    LivingDocumentRequest request = new LivingDocumentRequest("expire", timestamp);
+    request.limit = limit;
+    return request;
+  }
+
+  public static LivingDocumentRequest connect(long timestamp, NtClient who) {
+    LivingDocumentRequest request = new LivingDocumentRequest("connect", timestamp);
+    request.who = who;
+    return request;
+  }
+
+  public static LivingDocumentRequest disconnect(long timestamp, NtClient who) {
+    LivingDocumentRequest request = new LivingDocumentRequest("disconnect", timestamp);
+    request.who = who;
+    return request;
+  }
+
+  public static LivingDocumentRequest send(long timestamp, CoreRequestContext context, String marker, String channel, String message) {
+    LivingDocumentRequest request = new LivingDocumentRequest("send", timestamp);
+    request.who = context.who;
+    request.key = context.key;
+    request.origin = context.origin;
+    request.ip = context.ip;
+    request.channel = channel;
+    request.marker = marker;
+    request.messageJson = message;
+    return request;
+  }
+
+  public static LivingDocumentRequest apply(long timestamp, NtClient who, String patch) {
+    LivingDocumentRequest request = new LivingDocumentRequest("apply", timestamp);
+    request.who = who;
+    request.patch = patch;
+    return request;
+  }
+
+  public static LivingDocumentRequest attach(long timestamp, NtClient who, NtAsset asset) {
+    LivingDocumentRequest request = new LivingDocumentRequest("attach", timestamp);
+    request.who = who;
+    request.asset = asset;
+    return request;
+  }
+
+  /** the JSON form of the request which is persisted with the update; this is computed once */
+  public String json() {
+    if (json == null) {
+      JsonStreamWriter writer = new JsonStreamWriter();
+      writer.beginObject();
+      writer.writeObjectFieldIntro("command");
+      writer.writeFastString(command);
+      writer.writeObjectFieldIntro("timestamp");
+      writer.writeLong(timestamp);
+      if (who != null) {
+        writer.writeObjectFieldIntro("who");
+        writer.writeNtClient(who);
+      }
+      if (key != null) {
+        writer.writeObjectFieldIntro("key");
+        writer.writeString(key);
+        writer.writeObjectFieldIntro("origin");
+        writer.writeString(origin);
+        writer.writeObjectFieldIntro("ip");
+        writer.writeString(ip);
+      }
+      if (limit != null) {
+        writer.writeObjectFieldIntro("limit");
+        writer.writeLong(limit);
+      }
+      if (argJson != null) {
+        writer.writeObjectFieldIntro("arg");
+        writer.injectJson(argJson);
+      }
+      if (entropy != null) {
+        writer.writeObjectFieldIntro("entropy");
+        writer.writeFastString(entropy);
+      }
+      if (channel != null) {
+        writer.writeObjectFieldIntro("channel");
+        writer.writeFastString(channel);
+      }
+      if (marker != null) {
+        writer.writeObjectFieldIntro("marker");
+        writer.writeString(marker);
+      }
+      if (messageJson != null) {
+        writer.writeObjectFieldIntro("message");
+        writer.injectJson(messageJson);
+      }
+      if (patch != null) {
+        writer.writeObjectFieldIntro("patch");
+        writer.injectJson(patch);
+      }
+      if (asset != null) {
+        writer.writeObjectFieldIntro("asset");
+        writer.writeNtAsset(asset);
+      }
+      writer.endObject();
+      json = writer.toString();
+    }
+    return json;
+  }
+}
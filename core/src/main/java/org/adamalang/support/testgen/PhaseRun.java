@@ -34,7 +34,7 @@ public class PhaseRun {
     final var time = (TimeSource) () -> testTime.get();
     outputFile.append("--JAVA RUNNING-------------------------------------").append("\n");
     DumbDataService dds = new DumbDataService((patch) -> {
-      outputFile.append(patch.request + "-->" + patch.redo + " need:" + patch.requiresFutureInvalidation + " in:" + patch.whenToInvalidateMilliseconds + "\n");
+      outputFile.append(patch.request() + "-->" + patch.redo + " need:" + patch.requiresFutureInvalidation + " in:" + patch.whenToInvalidateMilliseconds + "\n");
       testTime.addAndGet(Math.max(patch.whenToInvalidateMilliseconds / 2, 25));
     });
     DumbDataService.DumbDurableLivingDocumentAcquire acquire = new DumbDataService.DumbDurableLivingDocumentAcquire();
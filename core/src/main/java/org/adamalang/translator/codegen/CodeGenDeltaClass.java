@@ -138,6 +138,7 @@ public class CodeGenDeltaClass {
       sb.append("__code_cost += ").append("" + cost).append(";").writeNewline();
     }
     for (String policy : storage.policiesForVisibility) {
+      environment.viewerDependencies.add(className + ":require:" + policy);
       sb.append("if (!").append(storage.policies.containsKey(policy) ? "__item." : "").append("__POLICY_").append(policy).append("(__writer.who)) {").tabUp().writeNewline();
       sb.append("hide(__writer);").writeNewline();
       sb.append("return;").tabDown().writeNewline();
@@ -158,6 +159,9 @@ public class CodeGenDeltaClass {
       }
       if (fieldType != null) {
         final var closeItUp = fd.policy.writePrivacyCheckGuard(sb, fd, environment);
+        if (closeItUp) {
+          environment.viewerDependencies.add(className + ":policy:" + fd.name);
+        }
         if (isLazy) {
           sb.append("if (__g").append(fd.name).append(" != __item.").append(fd.name).append(".getGeneration()) {").tabUp().writeNewline();
         }
@@ -178,6 +182,7 @@ public class CodeGenDeltaClass {
       }
     }
     if (storage.bubbles.size() > 0) {
+      environment.viewerDependencies.add(className + ":bubbles");
       sb.append("RTx__ViewerType __VIEWER = (RTx__ViewerType) __writer.viewerState;").writeNewline();
       sb.append("long __CHECK = 0;").writeNewline();
       for (final BubbleDefinition bd : storage.bubbles.values()) {
@@ -193,7 +198,19 @@ public class CodeGenDeltaClass {
     writeCommonTrailer(sb);
   }
 
+  /** write whether or not every viewer sees the same deltas; this must be written after every delta class */
+  public static void writeViewerIndependence(final StringBuilderWithTabs sb, final Environment environment) {
+    sb.append("@Override").writeNewline();
+    sb.append("public boolean __isViewerIndependent() {").tabUp().writeNewline();
+    sb.append("return ").append(environment.viewerDependencies.isEmpty() ? "true" : "false").append(";").tabDown().writeNewline();
+    sb.append("}").writeNewline();
+  }
+
   private static void writeShowData(final StringBuilderWithTabs sb, final String deltaObject, final String sourceData, final TyType sourceType, final String targetObjectWriter, final Environment environment, final boolean tabDown) {
+    if (sourceType instanceof TyNativeAsset) {
+      // assets are encrypted per connection
+      environment.viewerDependencies.add("assets");
+    }
     if (sourceType instanceof TySimpleNative || sourceType instanceof TyReactiveRecord || sourceType instanceof TyNativeMessage) {
       sb.append(deltaObject).append(".show(").append(sourceData).append(", ").append(targetObjectWriter).append(");");
       if (tabDown) {
@@ -27,6 +27,7 @@ public class Environment {
   public final Rules rules;
   public final EnvironmentState state;
   public final HashSet<String> interns;
+  public final HashSet<String> viewerDependencies;
   private final Environment parent;
   private final HashSet<String> readonly;
   private final HashMap<String, TyType> variables;
@@ -52,7 +53,9 @@ public class Environment {
     }
     if (parent != null) {
       this.interns = parent.interns;
+      this.viewerDependencies = parent.viewerDependencies;
     } else {
+      this.viewerDependencies = new HashSet<>();
       this.interns = new HashSet<>();
       this.interns.add("\"?\"");
       this.interns.add("\"\"");
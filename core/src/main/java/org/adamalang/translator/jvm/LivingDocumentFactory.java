@@ -27,6 +27,8 @@ import javax.tools.ToolProvider;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
 
 /** responsible for compiling java code into a LivingDocumentFactory */
 public class LivingDocumentFactory {
@@ -39,6 +41,28 @@ public class LivingDocumentFactory {
   public final int maximum_history;
 
   public LivingDocumentFactory(final String className, final String javaSource, String reflection) throws ErrorCodeException {
+    this(className, compile(className, javaSource), reflection);
+  }
+
+  /** bind to already compiled class bytes (i.e. from a cache); the given map is not modified */
+  public LivingDocumentFactory(final String className, final Map<String, byte[]> classBytes, String reflection) throws ErrorCodeException {
+    try {
+      final var loader = new ByteArrayClassLoader(new HashMap<>(classBytes));
+      final Class<?> clazz = Class.forName(className, true, loader);
+      constructor = clazz.getConstructor(DocumentMonitor.class);
+      creationPolicyMethod = clazz.getMethod("__onCanCreate", CoreRequestContext.class);
+      inventionPolicyMethod = clazz.getMethod("__onCanInvent", CoreRequestContext.class);
+      canSendWhileDisconnectPolicyMethod = clazz.getMethod("__onCanSendWhileDisconnected", CoreRequestContext.class);
+      HashMap<String, Object> config = (HashMap<String, Object>) (clazz.getMethod("__config").invoke(null));
+      maximum_history = extractMaximumHistory(config);
+      this.reflection = reflection;
+    } catch (final Exception | LinkageError ex) {
+      throw new ErrorCodeException(ErrorCodes.FACTORY_CANT_BIND_JAVA_CODE, ex);
+    }
+  }
+
+  /** run the system java compiler against the given java source and return the class bytes */
+  public static Map<String, byte[]> compile(final String className, final String javaSource) throws ErrorCodeException {
     final var compiler = ToolProvider.getSystemJavaCompiler();
     final var diagnostics = new DiagnosticCollector<JavaFileObject>();
     final var fileManager = new ByteArrayJavaFileManager(compiler.getStandardFileManager(null, null, null));
@@ -49,21 +73,13 @@ public class LivingDocumentFactory {
       }
       throw new ErrorCodeException(ErrorCodes.FACTORY_CANT_COMPILE_JAVA_CODE);
     }
+    final var classBytes = new TreeMap<>(fileManager.getClasses());
     try {
-      final var classBytes = fileManager.getClasses();
       fileManager.close();
-      final var loader = new ByteArrayClassLoader(classBytes);
-      final Class<?> clazz = Class.forName(className, true, loader);
-      constructor = clazz.getConstructor(DocumentMonitor.class);
-      creationPolicyMethod = clazz.getMethod("__onCanCreate", CoreRequestContext.class);
-      inventionPolicyMethod = clazz.getMethod("__onCanInvent", CoreRequestContext.class);
-      canSendWhileDisconnectPolicyMethod = clazz.getMethod("__onCanSendWhileDisconnected", CoreRequestContext.class);
-      HashMap<String, Object> config = (HashMap<String, Object>) (clazz.getMethod("__config").invoke(null));
-      maximum_history = extractMaximumHistory(config);
-      this.reflection = reflection;
     } catch (final Exception ex) {
       throw new ErrorCodeException(ErrorCodes.FACTORY_CANT_BIND_JAVA_CODE, ex);
     }
+    return classBytes;
   }
 
   public boolean canInvent(CoreRequestContext context) throws ErrorCodeException {
@@ -489,6 +489,7 @@ public class Document implements TopLevelDocumentHandler {
     for (final LatentCodeSnippet lcs : dedupedLatentCodeSnippets.values()) {
       lcs.writeLatentJava(sb);
     }
+    CodeGenDeltaClass.writeViewerIndependence(sb, environment);
     sb.append("/* end of file */").tabDown().writeNewline();
     sb.append("}").writeNewline(); // end file
     return sb.toString();
@@ -782,6 +782,84 @@ public class LivingDocumentTests {
     setup.assertCompare();
   }
 
+  @Test
+  public void viewer_independence() throws Exception {
+    Assert.assertTrue(new RealDocumentSetup("public int x; private int y;").document.document().__isViewerIndependent());
+    Assert.assertTrue(new RealDocumentSetup("record R { public int x; } public R r; public formula f = 1;").document.document().__isViewerIndependent());
+    Assert.assertFalse(new RealDocumentSetup("policy p(c) { return true; } use_policy<p> int x;").document.document().__isViewerIndependent());
+    Assert.assertFalse(new RealDocumentSetup("public client c; viewer_is<c> int x;").document.document().__isViewerIndependent());
+    Assert.assertFalse(new RealDocumentSetup("record R { policy p(c) { return true; } require p; public int x; } public R r;").document.document().__isViewerIndependent());
+    Assert.assertFalse(new RealDocumentSetup("bubble<who> x = 1;").document.document().__isViewerIndependent());
+    Assert.assertFalse(new RealDocumentSetup("public asset a;").document.document().__isViewerIndependent());
+  }
+
+  @Test
+  public void shared_deltas() throws Exception {
+    final var setup = new RealDocumentSetup("public int x; public int y; @connected (who) { return true; }");
+    setup.document.connect(A, new RealDocumentSetup.AssertInt(3));
+    setup.document.connect(B, new RealDocumentSetup.AssertInt(5));
+    RealDocumentSetup.GotView gv1 = new RealDocumentSetup.GotView();
+    RealDocumentSetup.ArrayPerspective a1 = new RealDocumentSetup.ArrayPerspective();
+    setup.document.createPrivateView(A, a1, new JsonStreamReader("{}"), TestKey.ENCODER, gv1);
+    RealDocumentSetup.ArrayPerspective a2 = new RealDocumentSetup.ArrayPerspective();
+    setup.document.createPrivateView(A, a2, new JsonStreamReader("{}"), TestKey.ENCODER, new RealDocumentSetup.GotView());
+    RealDocumentSetup.ArrayPerspective b1 = new RealDocumentSetup.ArrayPerspective();
+    setup.document.createPrivateView(B, b1, new JsonStreamReader("{}"), TestKey.ENCODER, new RealDocumentSetup.GotView());
+    Assert.assertEquals("{\"data\":{\"x\":0,\"y\":0},\"seq\":7}", a2.datum.get(0));
+    Assert.assertEquals("{\"data\":{\"x\":0,\"y\":0},\"seq\":8}", b1.datum.get(0));
+    setup.document.apply(A, "{\"x\":42}", new RealDocumentSetup.AssertInt(9));
+    Assert.assertEquals("{\"data\":{\"x\":42},\"seq\":9}", a1.datum.get(a1.datum.size() - 1));
+    Assert.assertEquals("{\"data\":{\"x\":42},\"seq\":9}", a2.datum.get(a2.datum.size() - 1));
+    Assert.assertEquals("{\"data\":{\"x\":42},\"seq\":9}", b1.datum.get(b1.datum.size() - 1));
+    // the leader goes away, but the followers continue to share its delta
+    gv1.view.kill();
+    Assert.assertEquals(1, setup.document.garbageCollectPrivateViewsFor(A));
+    int a1Size = a1.datum.size();
+    setup.document.apply(B, "{\"y\":100}", new RealDocumentSetup.AssertInt(10));
+    Assert.assertEquals(a1Size, a1.datum.size());
+    Assert.assertEquals("{\"data\":{\"y\":100},\"seq\":10}", a2.datum.get(a2.datum.size() - 1));
+    Assert.assertEquals("{\"data\":{\"y\":100},\"seq\":10}", b1.datum.get(b1.datum.size() - 1));
+    // a late view gets the full picture, and then joins
+    RealDocumentSetup.ArrayPerspective b2 = new RealDocumentSetup.ArrayPerspective();
+    setup.document.createPrivateView(B, b2, new JsonStreamReader("{}"), TestKey.ENCODER, new RealDocumentSetup.GotView());
+    Assert.assertEquals("{\"data\":{\"x\":42,\"y\":100},\"seq\":11}", b2.datum.get(0));
+    setup.document.apply(B, "{\"x\":1,\"y\":2}", new RealDocumentSetup.AssertInt(12));
+    Assert.assertEquals("{\"data\":{\"x\":1,\"y\":2},\"seq\":12}", a2.datum.get(a2.datum.size() - 1));
+    Assert.assertEquals("{\"data\":{\"x\":1,\"y\":2},\"seq\":12}", b1.datum.get(b1.datum.size() - 1));
+    Assert.assertEquals("{\"data\":{\"x\":1,\"y\":2},\"seq\":12}", b2.datum.get(b2.datum.size() - 1));
+  }
+
+  @Test
+  public void shared_deltas_follower_leaves() throws Exception {
+    final var setup = new RealDocumentSetup("public int x; public int y; @connected (who) { return true; }");
+    setup.document.connect(A, new RealDocumentSetup.AssertInt(3));
+    RealDocumentSetup.GotView gv1 = new RealDocumentSetup.GotView();
+    RealDocumentSetup.ArrayPerspective a1 = new RealDocumentSetup.ArrayPerspective();
+    setup.document.createPrivateView(A, a1, new JsonStreamReader("{}"), TestKey.ENCODER, gv1);
+    RealDocumentSetup.GotView gv2 = new RealDocumentSetup.GotView();
+    RealDocumentSetup.ArrayPerspective a2 = new RealDocumentSetup.ArrayPerspective();
+    setup.document.createPrivateView(A, a2, new JsonStreamReader("{}"), TestKey.ENCODER, gv2);
+    Assert.assertEquals("{\"data\":{\"x\":0,\"y\":0},\"seq\":5}", a2.datum.get(0));
+    // the follower shares the leader's delta, so its own state falls behind
+    setup.document.apply(A, "{\"x\":42}", new RealDocumentSetup.AssertInt(6));
+    Assert.assertEquals("{\"data\":{\"x\":42},\"seq\":6}", a2.datum.get(a2.datum.size() - 1));
+    // the follower leaves; it gets the shared delta once more and then catches up
+    setup.document.document().__leaveSharedDelta(gv2.view);
+    setup.document.apply(A, "{\"y\":5}", new RealDocumentSetup.AssertInt(7));
+    Assert.assertEquals("{\"data\":{\"y\":5},\"seq\":7}", a1.datum.get(a1.datum.size() - 1));
+    Assert.assertEquals("{\"data\":{\"y\":5},\"seq\":7}", a2.datum.get(a2.datum.size() - 1));
+    // on its own, the follower sees the change back to what it had when it joined
+    setup.document.apply(A, "{\"x\":0}", new RealDocumentSetup.AssertInt(8));
+    Assert.assertEquals("{\"data\":{\"x\":0},\"seq\":8}", a1.datum.get(a1.datum.size() - 1));
+    Assert.assertEquals("{\"data\":{\"x\":0},\"seq\":8}", a2.datum.get(a2.datum.size() - 1));
+    // the leader leaves, so the group dissolves with every follower caught up
+    setup.document.document().__leaveSharedDelta(gv1.view);
+    setup.document.apply(A, "{\"x\":1,\"y\":1}", new RealDocumentSetup.AssertInt(9));
+    setup.document.apply(A, "{\"x\":0}", new RealDocumentSetup.AssertInt(10));
+    Assert.assertEquals("{\"data\":{\"x\":0},\"seq\":10}", a1.datum.get(a1.datum.size() - 1));
+    Assert.assertEquals("{\"data\":{\"x\":0},\"seq\":10}", a2.datum.get(a2.datum.size() - 1));
+  }
+
   @Test
   public void cant_double_construct() throws Exception {
     String prior;
@@ -56,7 +56,7 @@ public class RealDocumentSetup {
         new DumbDataService(
             (update) -> {
               if (stdout) {
-                System.out.println(" REQ :" + update.request);
+                System.out.println(" REQ :" + update.request());
                 System.out.println("FORWARD:" + update.redo);
                 System.out.println("REVERSE:" + update.undo);
               }
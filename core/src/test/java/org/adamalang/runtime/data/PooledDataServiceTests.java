@@ -0,0 +1,196 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.data;
+
+import org.adamalang.common.Callback;
+import org.adamalang.common.ErrorCodeException;
+import org.adamalang.common.metrics.NoOpMetricsFactory;
+import org.adamalang.runtime.natives.NtClient;
+import org.adamalang.runtime.sys.mocks.MockInstantDataService;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PooledDataServiceTests {
+
+  @Test
+  public void coverage() throws Exception {
+    MockInstantDataService dataService = new MockInstantDataService();
+    PooledDataService ds = new PooledDataService(2, () -> dataService, new NoOpMetricsFactory());
+    Key key = new Key("space", "key");
+    RemoteDocumentUpdate update =
+        new RemoteDocumentUpdate(1, 1, NtClient.NO_ONE, "", "", "", false, 1, 123, UpdateType.AddUserData);
+    CountDownLatch latch = new CountDownLatch(5);
+    ds.get(
+        key,
+        new Callback<LocalDocumentChange>() {
+          @Override
+          public void success(LocalDocumentChange value) {}
+
+          @Override
+          public void failure(ErrorCodeException ex) {
+            latch.countDown();
+          }
+        });
+    ds.initialize(
+        key,
+        update,
+        new Callback<Void>() {
+          @Override
+          public void success(Void value) {
+            latch.countDown();
+          }
+
+          @Override
+          public void failure(ErrorCodeException ex) {}
+        });
+    ds.patch(
+        key,
+        new RemoteDocumentUpdate[] { update },
+        new Callback<Void>() {
+          @Override
+          public void success(Void value) {
+            latch.countDown();
+          }
+
+          @Override
+          public void failure(ErrorCodeException ex) {}
+        });
+    ds.compute(
+        key,
+        ComputeMethod.Rewind,
+        1,
+        new Callback<LocalDocumentChange>() {
+          @Override
+          public void success(LocalDocumentChange value) {
+            latch.countDown();
+          }
+
+          @Override
+          public void failure(ErrorCodeException ex) {}
+        });
+    ds.delete(
+        key,
+        new Callback<Void>() {
+          @Override
+          public void success(Void value) {
+            latch.countDown();
+          }
+
+          @Override
+          public void failure(ErrorCodeException ex) {}
+        });
+    CountDownLatch latchCompacted = new CountDownLatch(1);
+    ds.snapshot(key, 1, "{}",100, new Callback<Integer>() {
+      @Override
+      public void success(Integer value) {
+        latchCompacted.countDown();
+      }
+
+      @Override
+      public void failure(ErrorCodeException ex) {
+
+      }
+    });
+    Assert.assertTrue(latch.await(1000, TimeUnit.MILLISECONDS));
+    Assert.assertTrue(latchCompacted.await(1000, TimeUnit.MILLISECONDS));
+    Assert.assertTrue(ds.shutdown().await(1000, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void per_key_order_and_bounded() throws Exception {
+    OrderingDataService dataService = new OrderingDataService();
+    PooledDataService ds = new PooledDataService(3, () -> dataService, new NoOpMetricsFactory());
+    CountDownLatch latch = new CountDownLatch(10 * 50);
+    for (int seq = 0; seq < 50; seq++) {
+      for (int k = 0; k < 10; k++) {
+        RemoteDocumentUpdate update = new RemoteDocumentUpdate(seq, seq, NtClient.NO_ONE, "", "", "", false, 1, 123, UpdateType.AddUserData);
+        ds.patch(new Key("space", "key-" + k), new RemoteDocumentUpdate[] { update }, new Callback<Void>() {
+          @Override
+          public void success(Void value) {
+            latch.countDown();
+          }
+
+          @Override
+          public void failure(ErrorCodeException ex) {}
+        });
+      }
+    }
+    Assert.assertTrue(latch.await(10000, TimeUnit.MILLISECONDS));
+    Assert.assertTrue(ds.shutdown().await(1000, TimeUnit.MILLISECONDS));
+    Assert.assertFalse(dataService.broken);
+    Assert.assertTrue(dataService.peak.get() <= 3);
+    for (int k = 0; k < 10; k++) {
+      ArrayList<Integer> seqs = dataService.seen.get(new Key("space", "key-" + k));
+      Assert.assertEquals(50, seqs.size());
+      for (int seq = 0; seq < 50; seq++) {
+        Assert.assertEquals(seq, (int) seqs.get(seq));
+      }
+    }
+  }
+
+  /** records the order of patches per key, and detects when a key has two calls running at once */
+  private static class OrderingDataService implements DataService {
+    private final ConcurrentHashMap<Key, ArrayList<Integer>> seen = new ConcurrentHashMap<>();
+    private final HashMap<Key, Integer> running = new HashMap<>();
+    private final AtomicInteger active = new AtomicInteger(0);
+    private final AtomicInteger peak = new AtomicInteger(0);
+    private volatile boolean broken = false;
+
+    @Override
+    public void patch(Key key, RemoteDocumentUpdate[] patches, Callback<Void> callback) {
+      synchronized (running) {
+        if (running.containsKey(key)) {
+          broken = true;
+        }
+        running.put(key, 1);
+      }
+      peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(1);
+      } catch (InterruptedException ie) {
+        broken = true;
+      }
+      seen.computeIfAbsent(key, (k) -> new ArrayList<>()).add(patches[0].seqBegin);
+      active.decrementAndGet();
+      synchronized (running) {
+        running.remove(key);
+      }
+      callback.success(null);
+    }
+
+    @Override
+    public void get(Key key, Callback<LocalDocumentChange> callback) {}
+
+    @Override
+    public void initialize(Key key, RemoteDocumentUpdate patch, Callback<Void> callback) {}
+
+    @Override
+    public void compute(Key key, ComputeMethod method, int seq, Callback<LocalDocumentChange> callback) {}
+
+    @Override
+    public void delete(Key key, Callback<Void> callback) {}
+
+    @Override
+    public void snapshot(Key key, int seq, String snapshot, int history, Callback<Integer> callback) {}
+
+    @Override
+    public void close(Key key, Callback<Void> callback) {}
+
+    @Override
+    public void archive(Key key, ArchiveWriter writer) {}
+  }
+}
@@ -40,6 +40,22 @@ public class RemoteDocumentUpdateTests {
     Assert.assertEquals("{\"x\":5}", output[2].undo);
   }
 
+  @Test
+  public void lazy_request() {
+    int[] calls = new int[1];
+    RemoteDocumentUpdate update = RemoteDocumentUpdate.lazy(2, 2, null, () -> {
+      calls[0]++;
+      return "LAZY";
+    }, "{\"x\":2}", "{\"x\":1}", true, 0, 100, UpdateType.Invalidate);
+    RemoteDocumentUpdate[] output = RemoteDocumentUpdate.compact(new RemoteDocumentUpdate[]{update, UPDATE_3});
+    Assert.assertEquals(1, output.length);
+    Assert.assertEquals(0, calls[0]);
+    Assert.assertEquals("LAZY", output[0].request());
+    Assert.assertEquals("LAZY", output[0].request());
+    Assert.assertEquals("LAZY", update.request());
+    Assert.assertEquals(1, calls[0]);
+  }
+
   @Test
   public void trivial_merge() {
     RemoteDocumentUpdate[] input = new RemoteDocumentUpdate[]{UPDATE_1};
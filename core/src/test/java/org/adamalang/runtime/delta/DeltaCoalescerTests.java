@@ -0,0 +1,140 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.delta;
+
+import org.adamalang.runtime.json.JsonStreamReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+public class DeltaCoalescerTests {
+  @Test
+  public void merges() {
+    DeltaCoalescer coalescer = new DeltaCoalescer();
+    Assert.assertTrue(coalescer.isEmpty());
+    coalescer.add("{\"data\":{\"x\":1,\"z\":{\"a\":1}},\"seq\":1}");
+    coalescer.add("{\"data\":{\"y\":2,\"z\":{\"b\":2}},\"seq\":2}");
+    coalescer.add("{\"data\":{\"x\":null},\"outstanding\":[],\"blockers\":[],\"seq\":3}");
+    Assert.assertFalse(coalescer.isEmpty());
+    Assert.assertEquals(2, coalescer.absorbed());
+    ArrayList<String> result = coalescer.drain();
+    Assert.assertEquals(1, result.size());
+    Assert.assertEquals("{\"data\":{\"x\":null,\"z\":{\"a\":1,\"b\":2},\"y\":2},\"seq\":3,\"outstanding\":[],\"blockers\":[]}", result.get(0));
+    Assert.assertTrue(coalescer.isEmpty());
+  }
+
+  @Test
+  public void object_after_null_cuts() {
+    DeltaCoalescer coalescer = new DeltaCoalescer();
+    coalescer.add("{\"data\":{\"r\":{\"a\":1,\"b\":2}},\"seq\":1}");
+    coalescer.add("{\"data\":{\"r\":null},\"seq\":2}");
+    coalescer.add("{\"data\":{\"r\":{\"a\":3}},\"seq\":3}");
+    coalescer.add("{\"data\":{\"r\":{\"b\":4}},\"seq\":4}");
+    ArrayList<String> result = coalescer.drain();
+    Assert.assertEquals(2, result.size());
+    Assert.assertEquals("{\"data\":{\"r\":null},\"seq\":2}", result.get(0));
+    Assert.assertEquals("{\"data\":{\"r\":{\"a\":3,\"b\":4}},\"seq\":4}", result.get(1));
+  }
+
+  @Test
+  public void ordering_composes() {
+    DeltaCoalescer coalescer = new DeltaCoalescer();
+    coalescer.add("{\"@o\":[[0,2],7]}");
+    coalescer.add("{\"@o\":[2,[0,1],[3,3]]}");
+    Assert.assertEquals("{\"@o\":[2,[0,1],7]}", coalescer.drain().get(0));
+    coalescer.add("{\"x\":{\"@o\":[[0,1]]}}");
+    coalescer.add("{\"x\":{\"@o\":[[0,5]]}}");
+    ArrayList<String> result = coalescer.drain();
+    Assert.assertEquals(2, result.size());
+  }
+
+  @Test
+  public void ordering_agrees_with_sequential() {
+    Random rng = new Random(42);
+    for (int trial = 0; trial < 200; trial++) {
+      ArrayList<Integer> start = randomOrder(rng, new ArrayList<>());
+      ArrayList<Integer> sequential = start;
+      DeltaCoalescer coalescer = new DeltaCoalescer();
+      int steps = 1 + rng.nextInt(6);
+      for (int step = 0; step < steps; step++) {
+        ArrayList<Integer> next = randomOrder(rng, sequential);
+        coalescer.add("{\"@o\":" + encode(sequential, next) + "}");
+        sequential = next;
+      }
+      ArrayList<Integer> coalesced = start;
+      for (String delta : coalescer.drain()) {
+        coalesced = apply(coalesced, delta);
+      }
+      Assert.assertEquals(sequential, coalesced);
+    }
+  }
+
+  /** make a new ordering which mostly keeps runs of the prior ordering */
+  private static ArrayList<Integer> randomOrder(Random rng, ArrayList<Integer> prior) {
+    ArrayList<Integer> next = new ArrayList<>();
+    for (Integer key : prior) {
+      if (rng.nextInt(8) != 0) {
+        next.add(key);
+      }
+    }
+    int adds = rng.nextInt(4);
+    for (int k = 0; k < adds; k++) {
+      next.add(rng.nextInt(next.size() + 1), 100 + rng.nextInt(1000));
+    }
+    if (next.size() > 2 && rng.nextBoolean()) {
+      int from = rng.nextInt(next.size());
+      next.add(rng.nextInt(next.size()), next.remove(from));
+    }
+    return new ArrayList<>(new java.util.LinkedHashSet<>(next));
+  }
+
+  /** encode like DRecordList */
+  private static String encode(ArrayList<Integer> prior, ArrayList<Integer> next) {
+    StringBuilder sb = new StringBuilder("[");
+    for (int k = 0; k < next.size(); k++) {
+      if (k > 0) {
+        sb.append(",");
+      }
+      int at = prior.indexOf(next.get(k));
+      int top = k;
+      while (at >= 0 && top + 1 < next.size() && prior.indexOf(next.get(top + 1)) == at + (top + 1 - k)) {
+        top++;
+      }
+      if (at >= 0 && top - k >= 2) {
+        sb.append("[").append(at).append(",").append(at + top - k).append("]");
+        k = top;
+      } else {
+        sb.append(next.get(k));
+      }
+    }
+    return sb.append("]").toString();
+  }
+
+  /** apply like a client */
+  @SuppressWarnings("unchecked")
+  private static ArrayList<Integer> apply(ArrayList<Integer> prior, String delta) {
+    HashMap<String, Object> tree = (HashMap<String, Object>) new JsonStreamReader(delta).readJavaTree();
+    ArrayList<Integer> next = new ArrayList<>();
+    for (Object element : (ArrayList<Object>) tree.get("@o")) {
+      if (element instanceof ArrayList) {
+        ArrayList<Integer> range = (ArrayList<Integer>) element;
+        for (int k = range.get(0); k <= range.get(1); k++) {
+          next.add(prior.get(k));
+        }
+      } else {
+        next.add((Integer) element);
+      }
+    }
+    return next;
+  }
+}
@@ -10,9 +10,13 @@
 package org.adamalang.runtime.deploy;
 
 import org.adamalang.common.ErrorCodeException;
+import org.adamalang.translator.jvm.LivingDocumentFactory;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class DeploymentFactoryTests {
@@ -70,4 +74,100 @@ public class DeploymentFactoryTests {
         new DeploymentFactory("space", "Space_", new AtomicInteger(1000), null, plan);
     Assert.assertEquals(1, newFactory.spacesAvailable().size());
   }
+
+  @Test
+  public void cacheHitSkipsCompilation() throws Exception {
+    DeploymentPlan plan =
+        new DeploymentPlan(
+            "{\"versions\":{\"x\":\"public int x = 123;\"},\"default\":\"x\",\"plan\":[{\"version\":\"x\",\"percent\":50,\"prefix\":\"k\",\"seed\":\"a2\"}]}",
+            (t, errorCode) -> {});
+    HashMap<String, CachedByteCode> memory = new HashMap<>();
+    AtomicInteger puts = new AtomicInteger(0);
+    ByteCodeCache cache = new ByteCodeCache() {
+      @Override
+      public CachedByteCode get(String key) {
+        return memory.get(key);
+      }
+
+      @Override
+      public void put(String key, CachedByteCode code) {
+        puts.incrementAndGet();
+        memory.put(key, code);
+      }
+    };
+    new DeploymentFactory("space", "Space_", new AtomicInteger(1000), null, plan, cache, null);
+    Assert.assertEquals(1, puts.get());
+    DeploymentFactory second = new DeploymentFactory("space", "Space_", new AtomicInteger(2000), null, plan, cache, null);
+    Assert.assertEquals(1, puts.get());
+    Assert.assertTrue(memory.containsKey(DeploymentFactory.cacheKeyOf("public int x = 123;")));
+    Assert.assertEquals("Space_1000", memory.get(DeploymentFactory.cacheKeyOf("public int x = 123;")).className);
+    Assert.assertEquals(1, second.spacesAvailable().size());
+    // both hits share the cached class name, yet each binds its own class
+    LivingDocumentFactory a = DeploymentFactory.compile("Space_3000", "public int x = 123;", cache);
+    LivingDocumentFactory b = DeploymentFactory.compile("Space_4000", "public int x = 123;", cache);
+    Class<?> classA = a.create(null).getClass();
+    Class<?> classB = b.create(null).getClass();
+    Assert.assertEquals("Space_1000", classA.getName());
+    Assert.assertEquals(classA.getName(), classB.getName());
+    Assert.assertTrue(classA != classB);
+  }
+
+  @Test
+  public void cacheCorruptRecompiles() throws Exception {
+    HashMap<String, byte[]> junk = new HashMap<>();
+    junk.put("Space_1", new byte[] {1, 2, 3});
+    CachedByteCode bad = new CachedByteCode("Space_1", "{}", junk);
+    ByteCodeCache cache = new ByteCodeCache() {
+      @Override
+      public CachedByteCode get(String key) {
+        return bad;
+      }
+
+      @Override
+      public void put(String key, CachedByteCode code) {
+      }
+    };
+    Assert.assertNotNull(DeploymentFactory.compile("Space_2", "public int x = 123;", cache));
+  }
+
+  @Test
+  public void parallel() throws Exception {
+    DeploymentPlan plan =
+        new DeploymentPlan(
+            "{\"versions\":{\"x\":\"public int x = 1;\",\"y\":\"public int x = 2;\",\"z\":\"public int x = 1;\"},\"default\":\"x\",\"plan\":[{\"version\":\"y\",\"percent\":50,\"prefix\":\"k\",\"seed\":\"a2\"}]}",
+            (t, errorCode) -> {});
+    ExecutorService compiler = Executors.newFixedThreadPool(2);
+    try {
+      AtomicInteger ids = new AtomicInteger(0);
+      DeploymentFactory factory = new DeploymentFactory("space", "Space_", ids, null, plan, ByteCodeCache.NONE, compiler);
+      Assert.assertEquals(2, ids.get());
+      Assert.assertEquals(1, factory.spacesAvailable().size());
+    } finally {
+      compiler.shutdown();
+    }
+  }
+
+  @Test
+  public void parallelFailure() throws Exception {
+    DeploymentPlan plan =
+        new DeploymentPlan(
+            "{\"versions\":{\"x\":\"public int x = 1;\",\"y\":\"public int x = true;\"},\"default\":\"x\",\"plan\":[{\"version\":\"y\",\"percent\":50,\"prefix\":\"k\",\"seed\":\"a2\"}]}",
+            (t, errorCode) -> {});
+    ExecutorService compiler = Executors.newFixedThreadPool(2);
+    try {
+      new DeploymentFactory("space", "Space_", new AtomicInteger(0), null, plan, ByteCodeCache.NONE, compiler);
+      Assert.fail();
+    } catch (ErrorCodeException ex) {
+      Assert.assertEquals(132157, ex.code);
+    } finally {
+      compiler.shutdown();
+    }
+  }
+
+  @Test
+  public void fingerprint() throws Exception {
+    String fingerprint = DeploymentFactory.buildFingerprint();
+    Assert.assertFalse(fingerprint.startsWith("unknown-"));
+    Assert.assertEquals(fingerprint, DeploymentFactory.buildFingerprint());
+  }
 }
@@ -0,0 +1,60 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.deploy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.TreeMap;
+
+public class DiskByteCodeCacheTests {
+  @Test
+  public void flow() throws Exception {
+    File root = Files.createTempDirectory("bytecode-cache").toFile();
+    try {
+      DiskByteCodeCache cache = new DiskByteCodeCache(root);
+      Assert.assertNull(cache.get("key"));
+      TreeMap<String, byte[]> bytes = new TreeMap<>();
+      bytes.put("A", new byte[] {1, 2, 3});
+      bytes.put("A$B", new byte[] {4});
+      cache.put("key", new CachedByteCode("A", "{\"x\":1}", bytes));
+      CachedByteCode got = new DiskByteCodeCache(root).get("key");
+      Assert.assertEquals("A", got.className);
+      Assert.assertEquals("{\"x\":1}", got.reflection);
+      Assert.assertEquals(2, got.classBytes.size());
+      Assert.assertArrayEquals(new byte[] {1, 2, 3}, got.classBytes.get("A"));
+      Assert.assertArrayEquals(new byte[] {4}, got.classBytes.get("A$B"));
+      Assert.assertEquals(1, root.listFiles().length);
+    } finally {
+      for (File file : root.listFiles()) {
+        file.delete();
+      }
+      root.delete();
+    }
+  }
+
+  @Test
+  public void corrupt() throws Exception {
+    File root = Files.createTempDirectory("bytecode-cache").toFile();
+    try {
+      Files.write(new File(root, "key.class-cache").toPath(), new byte[] {1, 2, 3, 4, 5});
+      DiskByteCodeCache cache = new DiskByteCodeCache(root);
+      Assert.assertNull(cache.get("key"));
+      Assert.assertFalse(new File(root, "key.class-cache").exists());
+    } finally {
+      for (File file : root.listFiles()) {
+        file.delete();
+      }
+      root.delete();
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.index;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.TreeSet;
+
+public class IntBitmapTests {
+  private static void assertSame(TreeSet<Integer> expected, IntBitmap bitmap) {
+    Assert.assertEquals(expected.size(), bitmap.size());
+    var it = bitmap.iterator();
+    for (int value : expected) {
+      Assert.assertTrue(it.hasNext());
+      Assert.assertEquals(value, it.nextInt());
+      Assert.assertTrue(bitmap.contains(value));
+    }
+    Assert.assertFalse(it.hasNext());
+  }
+
+  @Test
+  public void signed_order() {
+    IntBitmap bitmap = new IntBitmap();
+    TreeSet<Integer> expected = new TreeSet<>();
+    for (int value : new int[] {5, -5, 70000, -70000, Integer.MAX_VALUE, Integer.MIN_VALUE, 0, 5}) {
+      Assert.assertEquals(expected.add(value), bitmap.add(value));
+    }
+    assertSame(expected, bitmap);
+    Assert.assertTrue(bitmap.remove(-70000));
+    Assert.assertFalse(bitmap.remove(-70000));
+    Assert.assertFalse(bitmap.remove(123));
+    expected.remove(-70000);
+    assertSame(expected, bitmap);
+    Assert.assertFalse(bitmap.contains(-70000));
+  }
+
+  @Test
+  public void dense_and_back() {
+    IntBitmap bitmap = new IntBitmap();
+    TreeSet<Integer> expected = new TreeSet<>();
+    for (int k = 0; k < 10000; k += 2) {
+      bitmap.add(k);
+      expected.add(k);
+    }
+    assertSame(expected, bitmap);
+    long dense = bitmap.memory();
+    for (int k = 0; k < 10000; k += 4) {
+      Assert.assertTrue(bitmap.remove(k));
+      expected.remove(k);
+    }
+    assertSame(expected, bitmap);
+    for (int k = 0; k < 6000; k += 4) {
+      Assert.assertTrue(bitmap.remove(k + 2));
+      expected.remove(k + 2);
+    }
+    assertSame(expected, bitmap);
+    Assert.assertTrue(bitmap.memory() < dense);
+    for (int k = 6000; k < 10000; k += 4) {
+      bitmap.remove(k + 2);
+    }
+    Assert.assertTrue(bitmap.isEmpty());
+    Assert.assertFalse(bitmap.iterator().hasNext());
+  }
+
+  @Test
+  public void union_and_intersect() {
+    IntBitmap a = new IntBitmap();
+    IntBitmap b = new IntBitmap();
+    TreeSet<Integer> union = new TreeSet<>();
+    TreeSet<Integer> common = new TreeSet<>();
+    for (int k = 0; k < 200000; k += 3) {
+      a.add(k);
+      union.add(k);
+    }
+    for (int k = 0; k < 300000; k += 5) {
+      b.add(k);
+      if (!union.add(k)) {
+        common.add(k);
+      }
+    }
+    for (int k = 0; k < 50; k++) {
+      b.add(-k);
+      union.add(-k);
+    }
+    assertSame(common, IntBitmap.and(a, b));
+    assertSame(common, IntBitmap.and(b, a));
+    IntBitmap copy = a.copy();
+    copy.or(b);
+    assertSame(union, copy);
+    Assert.assertEquals(66667, a.size());
+    IntBitmap sparse = new IntBitmap();
+    sparse.add(9);
+    sparse.add(10);
+    sparse.add(5000000);
+    TreeSet<Integer> expected = new TreeSet<>();
+    expected.add(9);
+    assertSame(expected, IntBitmap.and(a, sparse));
+    IntBitmap small = new IntBitmap();
+    small.add(1);
+    small.or(sparse);
+    expected.add(1);
+    expected.add(10);
+    expected.add(5000000);
+    assertSame(expected, small);
+  }
+}
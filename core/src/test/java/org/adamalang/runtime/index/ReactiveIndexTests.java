@@ -50,8 +50,28 @@ public class ReactiveIndexTests {
   public void memory() {
     final var unknowns = new TreeSet<MockRecord>();
     final var index = new ReactiveIndex<>(unknowns);
-    Assert.assertEquals(64, index.memory());
+    Assert.assertEquals(112, index.memory());
     index.add(42, MockRecord.make(1));
-    Assert.assertEquals(104, index.memory());
+    Assert.assertEquals(200, index.memory());
+  }
+
+  @Test
+  public void ranges() {
+    final var unknowns = new TreeSet<MockRecord>();
+    final var index = new ReactiveIndex<>(unknowns);
+    for (int k = 0; k < 10; k++) {
+      index.add(k, MockRecord.make(100 + k));
+      index.add(k, MockRecord.make(200 + k));
+    }
+    Assert.assertEquals(6, index.of(3, IndexQuerySet.LookupMode.LessThan).size());
+    Assert.assertEquals(8, index.of(3, IndexQuerySet.LookupMode.LessThanOrEqual).size());
+    Assert.assertEquals(12, index.of(3, IndexQuerySet.LookupMode.GreaterThan).size());
+    Assert.assertEquals(14, index.of(3, IndexQuerySet.LookupMode.GreaterThanOrEqual).size());
+    Assert.assertEquals(0, index.of(-1, IndexQuerySet.LookupMode.LessThan).size());
+    Assert.assertEquals(20, index.of(100, IndexQuerySet.LookupMode.LessThan).size());
+    Assert.assertTrue(index.of(3, IndexQuerySet.LookupMode.LessThan).contains(202));
+    Assert.assertFalse(index.of(3, IndexQuerySet.LookupMode.LessThan).contains(203));
+    Assert.assertTrue(index.of(3, IndexQuerySet.LookupMode.Equals).contains(103));
+    Assert.assertFalse(index.delete(42, MockRecord.make(1)));
   }
 }
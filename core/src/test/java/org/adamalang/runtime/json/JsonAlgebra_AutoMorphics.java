@@ -13,6 +13,9 @@ import org.adamalang.runtime.contracts.AutoMorphicAccumulator;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Random;
+
 public class JsonAlgebra_AutoMorphics {
   @Test
   public void merge_stream() {
@@ -25,4 +28,89 @@ public class JsonAlgebra_AutoMorphics {
     accum.next("{\"x\":4}");
     Assert.assertEquals("{\"x\":4}", accum.finish());
   }
+
+  @Test
+  public void merge_values() {
+    AutoMorphicAccumulator<String> accum = JsonAlgebra.mergeAccumulator();
+    accum.next("null");
+    Assert.assertTrue(accum.empty());
+    Assert.assertEquals("null", accum.finish());
+    accum.next("[1,null]");
+    accum.next("{\"x\":{\"y\":null}}");
+    Assert.assertEquals("{\"x\":{\"y\":null}}", accum.finish());
+    accum.next("null");
+    Assert.assertTrue(accum.empty());
+    accum.next("{\"x\":null}");
+    accum.next("{\"y\":null}");
+    Assert.assertEquals("{\"x\":null,\"y\":null}", accum.finish());
+  }
+
+  @Test
+  public void merge_drops_nulls() {
+    AutoMorphicAccumulator<String> accum = JsonAlgebra.mergeAccumulator(false);
+    accum.next("{\"a\":null,\"b\":{\"c\":null},\"d\":1}");
+    accum.next("{\"d\":null,\"b\":{\"e\":null,\"f\":{\"g\":null}}}");
+    Assert.assertEquals("{\"a\":null,\"b\":{\"c\":null,\"f\":{}}}", accum.finish());
+  }
+
+  @Test
+  public void merge_agrees_with_trees() {
+    for (int seed = 0; seed < 200; seed++) {
+      for (boolean keepNulls : new boolean[] {true, false}) {
+        Random rng = new Random(seed);
+        ArrayList<String> patches = new ArrayList<>();
+        int n = 1 + rng.nextInt(seed < 190 ? 6 : 2000);
+        for (int k = 0; k < n; k++) {
+          JsonStreamWriter writer = new JsonStreamWriter();
+          writer.writeTree(randomObject(rng, 3));
+          patches.add(writer.toString());
+        }
+        AutoMorphicAccumulator<String> accum = JsonAlgebra.mergeAccumulator(keepNulls);
+        Object tree = null;
+        for (String patch : patches) {
+          accum.next(patch);
+          Object next = new JsonStreamReader(patch).readJavaTree();
+          tree = tree == null ? next : JsonAlgebra.merge(tree, next, keepNulls);
+        }
+        String actual = accum.finish();
+        if (n < 100) {
+          JsonStreamWriter expected = new JsonStreamWriter();
+          expected.writeTree(tree);
+          Assert.assertEquals(expected.toString(), actual);
+        } else {
+          // once folded, the field order of introduced objects may differ
+          Assert.assertEquals(tree, new JsonStreamReader(actual).readJavaTree());
+        }
+      }
+    }
+  }
+
+  private static Object randomObject(Random rng, int depth) {
+    java.util.LinkedHashMap<String, Object> obj = new java.util.LinkedHashMap<>();
+    int fields = rng.nextInt(4);
+    for (int k = 0; k < fields; k++) {
+      String key = "k" + rng.nextInt(4);
+      int kind = rng.nextInt(depth > 0 ? 5 : 4);
+      switch (kind) {
+        case 0:
+          obj.put(key, null);
+          break;
+        case 1:
+          obj.put(key, rng.nextInt(100));
+          break;
+        case 2:
+          obj.put(key, "s" + rng.nextInt(10));
+          break;
+        case 3:
+          ArrayList<Object> arr = new ArrayList<>();
+          arr.add(rng.nextBoolean());
+          arr.add(null);
+          obj.put(key, arr);
+          break;
+        default:
+          obj.put(key, randomObject(rng, depth - 1));
+      }
+    }
+    return obj;
+  }
 }
@@ -9,13 +9,17 @@
  */
 package org.adamalang.runtime.json;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.adamalang.runtime.natives.NtAsset;
 import org.adamalang.runtime.natives.NtClient;
 import org.adamalang.runtime.natives.NtComplex;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 
 public class JsonStreamReaderTests {
@@ -286,6 +290,87 @@ public class JsonStreamReaderTests {
     JsonStreamWriter writer = new JsonStreamWriter();
     reader.skipValue(writer);
     Assert.assertEquals(x, writer.toString());
+    JsonStreamReader bytes = new JsonStreamReader(Unpooled.wrappedBuffer(x.getBytes(StandardCharsets.UTF_8)));
+    JsonStreamWriter writerBytes = new JsonStreamWriter();
+    bytes.skipValue(writerBytes);
+    Assert.assertEquals(x, writerBytes.toString());
+  }
+
+  @Test
+  public void bytes() {
+    ByteBuf utf8 = Unpooled.directBuffer();
+    utf8.writeCharSequence("xx{\"name\":\"\u733f\u3082\",\"escaped\":\"a\\nb\",\"n\":-42,\"l\":12345678901,\"d\":-0}yy", StandardCharsets.UTF_8);
+    utf8.readerIndex(2);
+    utf8.writerIndex(utf8.writerIndex() - 2);
+    JsonStreamReader reader = new JsonStreamReader(utf8);
+    Assert.assertTrue(reader.startObject());
+    Assert.assertTrue(reader.notEndOfObject());
+    Assert.assertEquals("name", reader.fieldName());
+    Assert.assertEquals("\u733f\u3082", reader.readString());
+    Assert.assertEquals("escaped", reader.fieldName());
+    Assert.assertEquals("a\nb", reader.readString());
+    Assert.assertEquals("n", reader.fieldName());
+    Assert.assertEquals(-42, reader.readInteger());
+    Assert.assertEquals("l", reader.fieldName());
+    Assert.assertEquals(12345678901L, reader.readLong());
+    Assert.assertEquals("d", reader.fieldName());
+    Assert.assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(reader.readDouble()));
+    Assert.assertFalse(reader.notEndOfObject());
+    Assert.assertTrue(reader.end());
+    Assert.assertEquals(2, utf8.readerIndex());
+    utf8.release();
+  }
+
+  @Test
+  public void dedupe() {
+    String intern = new String("value");
+    JsonStreamReader reader = new JsonStreamReader(Unpooled.wrappedBuffer("[{\"key\":\"value\"},{\"key\":\"value\"}]".getBytes(StandardCharsets.UTF_8)));
+    reader.ingestDedupe(Collections.singleton(intern));
+    Assert.assertTrue(reader.startArray());
+    Assert.assertTrue(reader.startObject());
+    String first = reader.fieldName();
+    Assert.assertSame(intern, reader.readString());
+    Assert.assertFalse(reader.notEndOfObject());
+    Assert.assertTrue(reader.startObject());
+    Assert.assertSame(first, reader.fieldName());
+    Assert.assertSame(intern, reader.readString());
+    Assert.assertFalse(reader.notEndOfObject());
+    Assert.assertFalse(reader.notEndOfArray());
+    Assert.assertTrue(reader.end());
+  }
+
+  @Test
+  public void manyInterns() {
+    StringBuilder sb = new StringBuilder("[");
+    for (int k = 0; k < 1000; k++) {
+      if (k > 0) {
+        sb.append(",");
+      }
+      sb.append("\"s").append(k % 100).append("\"");
+    }
+    sb.append("]");
+    JsonStreamReader reader = new JsonStreamReader(sb.toString());
+    HashMap<String, String> seen = new HashMap<>();
+    Assert.assertTrue(reader.startArray());
+    while (reader.notEndOfArray()) {
+      String value = reader.readString();
+      String prior = seen.putIfAbsent(value, value);
+      if (prior != null) {
+        Assert.assertSame(prior, value);
+      }
+    }
+    Assert.assertEquals(100, seen.size());
+  }
+
+  @Test
+  public void numbersFallBack() {
+    JsonStreamReader reader = new JsonStreamReader("[99999999999,\"17\",1e2,123456789012345678901]");
+    Assert.assertTrue(reader.startArray());
+    Assert.assertEquals(Integer.MAX_VALUE, reader.readInteger());
+    Assert.assertEquals(17, reader.readLong());
+    Assert.assertEquals(100, reader.readInteger());
+    Assert.assertEquals(1.2345678901234568E20, reader.readDouble(), 1e6);
+    Assert.assertFalse(reader.notEndOfArray());
   }
 
   @Test
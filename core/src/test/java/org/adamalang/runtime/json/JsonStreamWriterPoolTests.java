@@ -0,0 +1,51 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JsonStreamWriterPoolTests {
+  @Test
+  public void reuse() {
+    JsonStreamWriterPool pool = new JsonStreamWriterPool(2, 1024);
+    JsonStreamWriter a = pool.borrow();
+    a.beginObject();
+    a.writeObjectFieldIntro("x");
+    a.writeInteger(1);
+    pool.release(a);
+    Assert.assertEquals(1, pool.size());
+    JsonStreamWriter b = pool.borrow();
+    Assert.assertSame(a, b);
+    Assert.assertEquals(0, b.length());
+    b.beginArray();
+    b.writeInteger(1);
+    b.writeInteger(2);
+    b.endArray();
+    Assert.assertEquals("[1,2]", b.toString());
+  }
+
+  @Test
+  public void bounded() {
+    JsonStreamWriterPool pool = new JsonStreamWriterPool(1, 1024);
+    JsonStreamWriter a = pool.borrow();
+    JsonStreamWriter b = pool.borrow();
+    pool.release(a);
+    pool.release(b);
+    Assert.assertEquals(1, pool.size());
+    JsonStreamWriter big = new JsonStreamWriter();
+    for (int k = 0; k < 2000; k++) {
+      big.writeInteger(k);
+    }
+    JsonStreamWriterPool other = new JsonStreamWriterPool(4, 1024);
+    other.release(big);
+    Assert.assertEquals(0, other.size());
+  }
+}
@@ -425,4 +425,17 @@ public class JsonStreamWriterTests {
     writer.writeString("" + (char) (5 * 256) + "" + (char) (40 * 256 + 5));
     Assert.assertEquals("\"\\u0500\\u2805\"", writer.toString());
   }
+
+  @Test
+  public void inlineWriter() {
+    JsonStreamWriter inner = new JsonStreamWriter();
+    inner.beginObject();
+    inner.endObject();
+    Assert.assertTrue(inner.contentEquals("{}"));
+    JsonStreamWriter writer = new JsonStreamWriter();
+    writer.beginArray();
+    writer.inline(inner);
+    writer.endArray();
+    Assert.assertEquals("[{}]", writer.toString());
+  }
 }
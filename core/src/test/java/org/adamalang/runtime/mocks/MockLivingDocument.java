@@ -65,6 +65,11 @@ public class MockLivingDocument extends LivingDocument {
     return null;
   }
 
+  @Override
+  public boolean __isViewerIndependent() {
+    return false;
+  }
+
   @Override
   public void __dump(final JsonStreamWriter __writer) {}
 
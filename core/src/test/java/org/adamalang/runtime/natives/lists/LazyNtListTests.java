@@ -0,0 +1,127 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.natives.lists;
+
+import org.adamalang.runtime.contracts.IndexQuerySet;
+import org.adamalang.runtime.contracts.WhereClause;
+import org.adamalang.runtime.natives.NtList;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LazyNtListTests {
+  private static WhereClause<Integer> even() {
+    return new WhereClause<>() {
+      @Override
+      public int[] getIndices() {
+        return new int[0];
+      }
+
+      @Override
+      public Integer getPrimaryKey() {
+        return null;
+      }
+
+      @Override
+      public void scopeByIndicies(IndexQuerySet __set) {
+      }
+
+      @Override
+      public boolean test(Integer item) {
+        return item % 2 == 0;
+      }
+    };
+  }
+
+  private static ArrayList<Integer> source() {
+    final var list = new ArrayList<Integer>();
+    final var rng = new Random(42);
+    for (int k = 0; k < 1000; k++) {
+      list.add(rng.nextInt(100));
+    }
+    return list;
+  }
+
+  private static String str(NtList<Integer> list) {
+    final var sb = new StringBuilder();
+    for (Integer x : list) {
+      sb.append(x).append(",");
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void top_k_agrees_with_sort() {
+    final var source = source();
+    // order by the tens digit such that there are many ties which must be broken by position
+    final Comparator<Integer> cmp = Comparator.comparingInt(x -> -(x / 10));
+    for (int skip : new int[] {0, 3, 990, 2000}) {
+      for (int limit : new int[] {0, 1, 7, 500, 5000}) {
+        final var eager = new ArrayNtList<>(new ArrayList<>(source)).where(true, even()).orderBy(true, cmp).skip(true, skip).limit(true, limit);
+        final var lazy = new ArrayNtList<>(source).where(false, even()).orderBy(false, cmp).skip(false, skip).limit(true, limit);
+        Assert.assertTrue(lazy instanceof ArrayNtList);
+        Assert.assertEquals(str(eager), str(lazy));
+      }
+    }
+  }
+
+  @Test
+  public void order_then_order() {
+    final var source = source();
+    final Comparator<Integer> first = Comparator.comparingInt(x -> x % 10);
+    final Comparator<Integer> second = Comparator.comparingInt(x -> x / 10);
+    final var eager = new ArrayNtList<>(new ArrayList<>(source)).orderBy(true, first).orderBy(true, second).limit(true, 20);
+    final var lazy = new ArrayNtList<>(source).orderBy(false, first).orderBy(false, second).limit(true, 20);
+    Assert.assertEquals(str(eager), str(lazy));
+  }
+
+  @Test
+  public void limit_stops_early() {
+    final var seen = new AtomicInteger(0);
+    final var source = new ArrayList<Integer>();
+    for (int k = 0; k < 100; k++) {
+      source.add(k);
+    }
+    final var list = new LazyNtList<>(source, x -> {
+      seen.incrementAndGet();
+      return true;
+    });
+    Assert.assertEquals("5,6,7,", str(list.skip(false, 5).limit(true, 3)));
+    Assert.assertEquals(8, seen.get());
+  }
+
+  @Test
+  public void chains_after_paging() {
+    final var source = new ArrayList<Integer>();
+    for (int k = 0; k < 10; k++) {
+      source.add(k);
+    }
+    Assert.assertEquals("2,4,", str(new LazyNtList<>(source).limit(false, 6).skip(false, 1).where(true, even())));
+    Assert.assertEquals("3,2,1,", str(new LazyNtList<>(source).limit(false, 4).orderBy(false, Comparator.reverseOrder()).limit(true, 3)));
+    Assert.assertEquals("4,", str(new LazyNtList<>(source).limit(false, 5).limit(false, 7).skip(true, 4)));
+    final var lazy = new LazyNtList<>(source).where(false, even());
+    Assert.assertEquals(5, lazy.size());
+    Assert.assertEquals(4, (int) lazy.lookup(2).get());
+    Assert.assertEquals("2,4,", str(lazy.skip(false, 1).limit(true, 2)));
+    Assert.assertEquals(5, lazy.toArray(n -> new Integer[n]).length);
+    Assert.assertEquals(5, lazy.transform(x -> x * 2).size());
+    Assert.assertEquals(5, lazy.shuffle(true, new Random(0)).size());
+    Assert.assertEquals(2, lazy.reduce(x -> x % 4, l -> l.size()).size());
+    AtomicInteger sum = new AtomicInteger(0);
+    lazy.map(sum::addAndGet);
+    Assert.assertEquals(20, sum.get());
+    lazy.__delete();
+    Assert.assertTrue(lazy.get() == lazy);
+  }
+}
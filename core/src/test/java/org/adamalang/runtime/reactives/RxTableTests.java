@@ -25,10 +25,10 @@ public class RxTableTests {
   public void memory() {
     final var document = doc(7);
     final var table = new RxTable<>(document, document, "name", MockRecord::new, 1);
-    Assert.assertEquals(176, table.__memory());
+    Assert.assertEquals(224, table.__memory());
     table.__insert(
         new JsonStreamReader("{\"4\":{\"index\":13},\"5\":{\"index\":12},\"6\":{\"index\":13}}"));
-    Assert.assertEquals(462, table.__memory());
+    Assert.assertEquals(586, table.__memory());
   }
 
   private MockLivingDocument doc(int keyStart) {
@@ -237,7 +237,7 @@ public class RxTableTests {
 
               @Override
               public Integer getPrimaryKey() {
-                throw new UnsupportedOperationException();
+                return null;
               }
 
               @Override
@@ -272,7 +272,7 @@ public class RxTableTests {
 
               @Override
               public Integer getPrimaryKey() {
-                throw new UnsupportedOperationException();
+                return null;
               }
 
               @Override
@@ -307,7 +307,7 @@ public class RxTableTests {
 
               @Override
               public Integer getPrimaryKey() {
-                throw new UnsupportedOperationException();
+                return null;
               }
 
               @Override
@@ -343,7 +343,7 @@ public class RxTableTests {
 
               @Override
               public Integer getPrimaryKey() {
-                throw new UnsupportedOperationException();
+                return null;
               }
 
               @Override
@@ -362,6 +362,109 @@ public class RxTableTests {
     Assert.assertEquals(0, records.size());
   }
 
+  @Test
+  public void scanning_primary_key() {
+    final var document = doc(7);
+    final var table = new RxTable<>(document, document, "name", MockRecord::new, 1);
+    table.__insert(
+        new JsonStreamReader("{\"4\":{\"index\":13},\"5\":{\"index\":12},\"6\":{\"index\":13}}"));
+    for (int pk : new int[] {5, 42}) {
+      final var records = new ArrayList<MockRecord>();
+      for (final MockRecord mr :
+          table.scan(
+              new WhereClause<MockRecord>() {
+                @Override
+                public int[] getIndices() {
+                  throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public Integer getPrimaryKey() {
+                  return pk;
+                }
+
+                @Override
+                public void scopeByIndicies(final IndexQuerySet __set) {
+                  throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public boolean test(final MockRecord item) {
+                  return false;
+                }
+              })) {
+        records.add(mr);
+      }
+      Assert.assertEquals(pk == 5 ? 1 : 0, records.size());
+    }
+  }
+
+  @Test
+  public void scanning_plans_by_selectivity() {
+    final var document = doc(7);
+    final var table = new RxTable<>(document, document, "name", MockRecord::new, 1);
+    table.__insert(
+        new JsonStreamReader("{\"4\":{\"index\":13},\"5\":{\"index\":12},\"6\":{\"index\":13},\"7\":{\"index\":13},\"8\":{\"index\":13}}"));
+    final var records = new ArrayList<MockRecord>();
+    // the first probe hits most of the table while the second is selective; only the selective probe matters
+    for (final MockRecord mr :
+        table.scan(
+            new WhereClause<MockRecord>() {
+              @Override
+              public int[] getIndices() {
+                throw new UnsupportedOperationException();
+              }
+
+              @Override
+              public Integer getPrimaryKey() {
+                return null;
+              }
+
+              @Override
+              public void scopeByIndicies(final IndexQuerySet __set) {
+                __set.intersect(0, 12, IndexQuerySet.LookupMode.GreaterThanOrEqual);
+                __set.intersect(0, 12, IndexQuerySet.LookupMode.Equals);
+              }
+
+              @Override
+              public boolean test(final MockRecord item) {
+                return false;
+              }
+            })) {
+      records.add(mr);
+    }
+    Assert.assertEquals(1, records.size());
+    Assert.assertEquals(5, records.get(0).__id());
+    records.clear();
+    // no probe is selective, so the table is walked
+    for (final MockRecord mr :
+        table.scan(
+            new WhereClause<MockRecord>() {
+              @Override
+              public int[] getIndices() {
+                throw new UnsupportedOperationException();
+              }
+
+              @Override
+              public Integer getPrimaryKey() {
+                return null;
+              }
+
+              @Override
+              public void scopeByIndicies(final IndexQuerySet __set) {
+                __set.intersect(0, 12, IndexQuerySet.LookupMode.GreaterThanOrEqual);
+              }
+
+              @Override
+              public boolean test(final MockRecord item) {
+                return false;
+              }
+            })) {
+      records.add(mr);
+    }
+    Assert.assertEquals(5, records.size());
+  }
+
   @Test
   public void scanning_no_filter() {
     final var document = doc(7);
@@ -392,7 +495,7 @@ public class RxTableTests {
 
               @Override
               public Integer getPrimaryKey() {
-                throw new UnsupportedOperationException();
+                return null;
               }
 
               @Override
@@ -0,0 +1,39 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.sys;
+
+import org.adamalang.runtime.natives.NtAsset;
+import org.adamalang.runtime.natives.NtClient;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LivingDocumentRequestTests {
+  private static final NtClient WHO = new NtClient("agent", "auth");
+
+  @Test
+  public void json() {
+    Assert.assertEquals("{\"command\":\"invalidate\",\"timestamp\":\"42\"}", LivingDocumentRequest.invalidate(42).json());
+    Assert.assertEquals("{\"command\":\"expire\",\"timestamp\":\"42\",\"limit\":\"100\"}", LivingDocumentRequest.expire(42, 100).json());
+    Assert.assertEquals("{\"command\":\"connect\",\"timestamp\":\"42\",\"who\":{\"agent\":\"agent\",\"authority\":\"auth\"}}", LivingDocumentRequest.connect(42, WHO).json());
+    Assert.assertEquals("{\"command\":\"disconnect\",\"timestamp\":\"42\",\"who\":{\"agent\":\"agent\",\"authority\":\"auth\"}}", LivingDocumentRequest.disconnect(42, WHO).json());
+    Assert.assertEquals("{\"command\":\"construct\",\"timestamp\":\"42\",\"who\":{\"agent\":\"agent\",\"authority\":\"auth\"},\"arg\":{},\"entropy\":\"123\"}", LivingDocumentRequest.construct(42, WHO, "{}", "123").json());
+    Assert.assertEquals("{\"command\":\"construct\",\"timestamp\":\"42\",\"who\":{\"agent\":\"agent\",\"authority\":\"auth\"},\"arg\":{}}", LivingDocumentRequest.construct(42, WHO, "{}", null).json());
+    Assert.assertEquals("{\"command\":\"send\",\"timestamp\":\"42\",\"who\":{\"agent\":\"agent\",\"authority\":\"auth\"},\"key\":\"key\",\"origin\":\"origin\",\"ip\":\"ip\",\"channel\":\"chan\",\"marker\":\"m\",\"message\":{\"x\":1}}", LivingDocumentRequest.send(42, new CoreRequestContext(WHO, "origin", "ip", "key"), "m", "chan", "{\"x\":1}").json());
+    Assert.assertEquals("{\"command\":\"apply\",\"timestamp\":\"42\",\"who\":{\"agent\":\"agent\",\"authority\":\"auth\"},\"patch\":{\"x\":1}}", LivingDocumentRequest.apply(42, WHO, "{\"x\":1}").json());
+    Assert.assertEquals("{\"command\":\"attach\",\"timestamp\":\"42\",\"who\":{\"agent\":\"agent\",\"authority\":\"auth\"},\"asset\":{\"id\":\"id\",\"size\":\"1\",\"name\":\"name\",\"type\":\"png\",\"md5\":\"md5\",\"sha384\":\"sha\"}}", LivingDocumentRequest.attach(42, WHO, new NtAsset("id", "name", "png", 1, "md5", "sha")).json());
+  }
+
+  @Test
+  public void memoized() {
+    LivingDocumentRequest request = LivingDocumentRequest.invalidate(1);
+    Assert.assertSame(request.json(), request.json());
+    Assert.assertSame("{\"verbatim\":true}", LivingDocumentRequest.parsed("invalidate", 1, "{\"verbatim\":true}").json());
+  }
+}
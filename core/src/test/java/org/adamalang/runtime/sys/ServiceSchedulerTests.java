@@ -0,0 +1,238 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.runtime.sys;
+
+import org.adamalang.common.Callback;
+import org.adamalang.common.ErrorCodeException;
+import org.adamalang.common.NamedRunnable;
+import org.adamalang.common.SimpleExecutor;
+import org.adamalang.common.TimeSource;
+import org.adamalang.common.metrics.NoOpMetricsFactory;
+import org.adamalang.runtime.ContextSupport;
+import org.adamalang.runtime.LivingDocumentTests;
+import org.adamalang.runtime.data.Key;
+import org.adamalang.runtime.mocks.MockTime;
+import org.adamalang.runtime.natives.NtClient;
+import org.adamalang.runtime.sys.mocks.*;
+import org.adamalang.translator.jvm.LivingDocumentFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ServiceSchedulerTests {
+  private static final CoreMetrics METRICS = new CoreMetrics(new NoOpMetricsFactory());
+  private static final String SIMPLE_CODE_MSG =
+      "@static { create(who) { return true; } } public int x; @connected(who) { x = 42; return who == @no_one; } message M {} channel foo(M y) { x += 100; }";
+
+  private static DocumentThreadBase[] bases(int n) {
+    DocumentThreadBase[] bases = new DocumentThreadBase[n];
+    for (int k = 0; k < n; k++) {
+      bases[k] = new DocumentThreadBase(new MockInstantDataService(), METRICS, SimpleExecutor.NOW, new MockTime());
+    }
+    return bases;
+  }
+
+  @Test
+  public void hash() {
+    DocumentThreadBase[] bases = bases(3);
+    HashDocumentScheduler scheduler = new HashDocumentScheduler(bases);
+    Key key = new Key("space", "key");
+    Assert.assertTrue(scheduler.route(key) == bases[key.hashCode() % 3]);
+    Assert.assertTrue(scheduler.owns(bases[0], key));
+    scheduler.release(bases[0], key);
+    scheduler.observe(bases[0], key, 1000000);
+    Assert.assertTrue(scheduler.route(key) == bases[key.hashCode() % 3]);
+  }
+
+  @Test
+  public void balanced_spreads_and_releases() {
+    DocumentThreadBase[] bases = bases(3);
+    BalancedDocumentScheduler scheduler = new BalancedDocumentScheduler(METRICS, bases, 0, 1000);
+    for (DocumentThreadBase base : bases) {
+      base.setScheduler(scheduler);
+    }
+    Key a = new Key("space", "a");
+    Key b = new Key("space", "b");
+    Key c = new Key("space", "c");
+    DocumentThreadBase baseA = scheduler.route(a);
+    DocumentThreadBase baseB = scheduler.route(b);
+    DocumentThreadBase baseC = scheduler.route(c);
+    Assert.assertTrue(baseA != baseB && baseB != baseC && baseA != baseC);
+    Assert.assertTrue(scheduler.route(a) == baseA);
+    Assert.assertTrue(baseA.owns(a));
+    Assert.assertFalse(baseB.owns(a));
+    // the base holds state for the document, so it stays
+    baseA.mapCreationsInflightRetryBuffer.put(a, new java.util.ArrayList<>());
+    baseA.releaseIfIdle(a);
+    Assert.assertTrue(baseA.owns(a));
+    baseA.mapCreationsInflightRetryBuffer.remove(a);
+    baseA.releaseIfIdle(a);
+    Assert.assertFalse(baseA.owns(a));
+    Assert.assertEquals(0, scheduler.residentOn(baseA));
+    // a release from the wrong base is ignored
+    scheduler.release(baseA, b);
+    Assert.assertEquals(1, scheduler.residentOn(baseB));
+    // the next placement picks the empty base
+    Assert.assertTrue(scheduler.route(new Key("space", "d")) == baseA);
+  }
+
+  @Test
+  public void balanced_isolates_hot_documents() {
+    DocumentThreadBase[] bases = bases(3);
+    BalancedDocumentScheduler scheduler = new BalancedDocumentScheduler(METRICS, bases, 1, 1000);
+    Key hot = new Key("space", "hot");
+    for (int k = 0; k < 10; k++) {
+      Assert.assertTrue(scheduler.route(new Key("space", "cold-" + k)) != bases[2]);
+    }
+    DocumentThreadBase first = scheduler.route(hot);
+    Assert.assertTrue(first != bases[2]);
+    scheduler.observe(first, hot, 5000);
+    // it doesn't move while resident
+    Assert.assertTrue(scheduler.route(hot) == first);
+    scheduler.release(first, hot);
+    Assert.assertTrue(scheduler.route(hot) == bases[2]);
+    scheduler.observe(bases[2], hot, 100);
+    scheduler.release(bases[2], hot);
+    Assert.assertTrue(scheduler.route(hot) != bases[2]);
+  }
+
+  @Test
+  public void balanced_forgets_hot_documents_on_unload() {
+    DocumentThreadBase[] bases = bases(3);
+    BalancedDocumentScheduler scheduler = new BalancedDocumentScheduler(METRICS, bases, 1, 1000);
+    Key hot = new Key("space", "hot");
+    DocumentThreadBase first = scheduler.route(hot);
+    scheduler.observe(first, hot, 5000);
+    Assert.assertEquals(1, scheduler.hotResident());
+    scheduler.release(first, hot);
+    Assert.assertEquals(0, scheduler.hotResident());
+    // a late observation from the old base is ignored
+    scheduler.observe(first, hot, 5000);
+    Assert.assertEquals(0, scheduler.hotResident());
+    Assert.assertTrue(scheduler.route(hot) == bases[2]);
+    scheduler.release(bases[2], hot);
+    // it was not observed as hot on the isolated base, so it is placed with everyone else
+    Assert.assertTrue(scheduler.route(hot) != bases[2]);
+  }
+
+  @Test
+  public void balanced_service_flow() throws Exception {
+    LivingDocumentFactory factory = LivingDocumentTests.compile(SIMPLE_CODE_MSG);
+    MockInstantLivingDocumentFactoryFactory factoryFactory = new MockInstantLivingDocumentFactoryFactory(factory);
+    TimeSource time = new MockTime();
+    MockInstantDataService dataService = new MockInstantDataService();
+    CoreService service = new CoreService(METRICS, factoryFactory, (bill) -> {}, dataService, time, 3, (bases) -> new BalancedDocumentScheduler(METRICS, bases, 1, 10000));
+    try {
+      for (int k = 0; k < 5; k++) {
+        Key key = new Key("space", "key-" + k);
+        NullCallbackLatch created = new NullCallbackLatch();
+        service.create(ContextSupport.WRAP(NtClient.NO_ONE), key, "{}", null, created);
+        created.await_success();
+        NullCallbackLatch again = new NullCallbackLatch();
+        service.create(ContextSupport.WRAP(NtClient.NO_ONE), key, "{}", null, again);
+        again.await_failure(667658);
+        MockStreamback streamback = new MockStreamback();
+        Runnable latch = streamback.latchAt(2);
+        service.connect(ContextSupport.WRAP(NtClient.NO_ONE), key, "{}", null, streamback);
+        latch.run();
+        Assert.assertEquals("STATUS:Connected", streamback.get(0));
+        Assert.assertEquals("{\"data\":{\"x\":42},\"seq\":4}", streamback.get(1));
+      }
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  public void balanced_reflect_routes_without_pinning() throws Exception {
+    LivingDocumentFactory factory = LivingDocumentTests.compile(SIMPLE_CODE_MSG);
+    MockInstantLivingDocumentFactoryFactory factoryFactory = new MockInstantLivingDocumentFactoryFactory(factory);
+    AtomicReference<BalancedDocumentScheduler> scheduler = new AtomicReference<>();
+    CoreService service = new CoreService(METRICS, factoryFactory, (bill) -> {}, new MockInstantDataService(), new MockTime(), 3, (bases) -> {
+      scheduler.set(new BalancedDocumentScheduler(METRICS, bases, 1, 10000));
+      return scheduler.get();
+    });
+    try {
+      Key key = new Key("space", "key");
+      CountDownLatch latch = new CountDownLatch(1);
+      AtomicReference<String> reflection = new AtomicReference<>();
+      DocumentThreadBase base = scheduler.get().route(key);
+      scheduler.get().release(base, key);
+      service.reflect(key, new Callback<String>() {
+        @Override
+        public void success(String value) {
+          reflection.set(value);
+          latch.countDown();
+        }
+
+        @Override
+        public void failure(ErrorCodeException ex) {
+        }
+      });
+      Assert.assertTrue(latch.await(2500, TimeUnit.MILLISECONDS));
+      Assert.assertEquals(factory.reflection, reflection.get());
+      // reflecting holds no state, so the base lets go of the document once the fetch is issued
+      CountDownLatch drained = new CountDownLatch(1);
+      base.executor.execute(new NamedRunnable("drain") {
+        @Override
+        public void execute() throws Exception {
+          drained.countDown();
+        }
+      });
+      Assert.assertTrue(drained.await(2500, TimeUnit.MILLISECONDS));
+      Assert.assertFalse(scheduler.get().owns(base, key));
+      Assert.assertEquals(0, scheduler.get().residentOn(base));
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  public void probe_stops() {
+    ArrayList<NamedRunnable> scheduled = new ArrayList<>();
+    SimpleExecutor executor = new SimpleExecutor() {
+      @Override
+      public void execute(NamedRunnable command) {
+        command.run();
+      }
+
+      @Override
+      public Runnable schedule(NamedRunnable command, long milliseconds) {
+        scheduled.add(command);
+        return () -> {};
+      }
+
+      @Override
+      public Runnable scheduleNano(NamedRunnable command, long nanoseconds) {
+        scheduled.add(command);
+        return () -> {};
+      }
+
+      @Override
+      public CountDownLatch shutdown() {
+        return new CountDownLatch(0);
+      }
+    };
+    DocumentThreadBase base = new DocumentThreadBase(new MockInstantDataService(), METRICS, executor, new MockTime());
+    base.kickOffProbe(10);
+    Assert.assertEquals(1, scheduled.size());
+    scheduled.get(0).run();
+    Assert.assertEquals(2, scheduled.size());
+    base.stopProbe();
+    scheduled.get(1).run();
+    Assert.assertEquals(2, scheduled.size());
+    base.kickOffProbe(10);
+    Assert.assertEquals(2, scheduled.size());
+  }
+}
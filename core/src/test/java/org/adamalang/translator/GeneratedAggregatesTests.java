@@ -596,6 +596,10 @@ public class GeneratedAggregatesTests extends GeneratedBase {
     gold.append("\n    protected void __construct_intern(NtClient __who, NtMessageBase __object) {");
     gold.append("\n      __construct_0(__who, __object);");
     gold.append("\n    }");
+    gold.append("\n    @Override");
+    gold.append("\n    public boolean __isViewerIndependent() {");
+    gold.append("\n      return true;");
+    gold.append("\n    }");
     gold.append("\n    /* end of file */");
     gold.append("\n  }");
     gold.append("\n");
@@ -1240,6 +1244,10 @@ public class GeneratedAggregatesTests extends GeneratedBase {
     gold.append("\n  protected void __construct_intern(NtClient __who, NtMessageBase __object) {");
     gold.append("\n    __construct_0(__who, __object);");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -2084,6 +2092,10 @@ public class GeneratedAggregatesTests extends GeneratedBase {
     gold.append("\n  protected void __construct_intern(NtClient __who, NtMessageBase __object) {");
     gold.append("\n    __construct_0(__who, __object);");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -2818,6 +2830,10 @@ public class GeneratedAggregatesTests extends GeneratedBase {
     gold.append("\n  protected void __construct_intern(NtClient __who, NtMessageBase __object) {");
     gold.append("\n    __construct_0(__who, __object);");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -3432,6 +3448,10 @@ public class GeneratedAggregatesTests extends GeneratedBase {
     gold.append("\n  protected void __construct_intern(NtClient __who, NtMessageBase __object) {");
     gold.append("\n    __construct_0(__who, __object);");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -4041,6 +4061,10 @@ public class GeneratedAggregatesTests extends GeneratedBase {
     gold.append("\n  protected void __construct_intern(NtClient __who, NtMessageBase __object) {");
     gold.append("\n    __construct_0(__who, __object);");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -697,6 +697,10 @@ public class GeneratedAnnotationsTests extends GeneratedBase {
     gold.append("\n    __reader.skipValue();");
     gold.append("\n    return NtMessageBase.NULL;");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -873,6 +873,10 @@ public class GeneratedAnonymousTests extends GeneratedBase {
     gold.append("\n  protected void __construct_intern(NtClient __who, NtMessageBase __object) {");
     gold.append("\n    __construct_0(__who, __object);");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -1907,6 +1911,10 @@ public class GeneratedAnonymousTests extends GeneratedBase {
     gold.append("\n  protected void __construct_intern(NtClient __who, NtMessageBase __object) {");
     gold.append("\n    __construct_0(__who, __object);");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -2532,6 +2540,10 @@ public class GeneratedAnonymousTests extends GeneratedBase {
     gold.append("\n  protected void __construct_intern(NtClient __who, NtMessageBase __object) {");
     gold.append("\n    __construct_0(__who, __object);");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
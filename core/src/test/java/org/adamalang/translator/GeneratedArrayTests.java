@@ -445,6 +445,10 @@ public class GeneratedArrayTests extends GeneratedBase {
     gold.append("\n  protected void __construct_intern(NtClient __who, NtMessageBase __object) {");
     gold.append("\n    __construct_0(__who, __object);");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -1249,6 +1253,10 @@ public class GeneratedArrayTests extends GeneratedBase {
     gold.append("\n      return -__a.y.compareTo(__b.y);");
     gold.append("\n    }");
     gold.append("\n  };");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -1746,6 +1754,10 @@ public class GeneratedArrayTests extends GeneratedBase {
     gold.append("\n  protected void __construct_intern(NtClient __who, NtMessageBase __object) {");
     gold.append("\n    __construct_0(__who, __object);");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -530,6 +530,10 @@ public class GeneratedAssetsTests extends GeneratedBase {
     gold.append("\n    __reader.skipValue();");
     gold.append("\n    return NtMessageBase.NULL;");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return false;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -1107,6 +1111,10 @@ public class GeneratedAssetsTests extends GeneratedBase {
     gold.append("\n  protected void __construct_intern(NtClient __who, NtMessageBase __object) {");
     gold.append("\n    __construct_0(__who, __object);");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return false;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -1483,6 +1483,10 @@ public class GeneratedLinqTests extends GeneratedBase {
     gold.append("\n      return z == 42 && u == 13;");
     gold.append("\n    }");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -1495,7 +1499,7 @@ public class GeneratedLinqTests extends GeneratedBase {
     gold.append("\n{\"command\":\"construct\",\"timestamp\":\"0\",\"who\":{\"agent\":\"?\",\"authority\":\"?\"},\"arg\":{},\"entropy\":\"0\"}-->{\"__constructed\":true,\"__entropy\":\"-4962768465676381896\",\"__messages\":null,\"__seq\":1} need:false in:0");
     gold.append("\n{\"command\":\"invalidate\",\"timestamp\":\"25\"}-->{\"__messages\":null,\"__seq\":2,\"__entropy\":\"4804307197456638271\",\"__time\":\"25\"} need:false in:-25");
     gold.append("\nCPU:0");
-    gold.append("\nMEMORY:624");
+    gold.append("\nMEMORY:720");
     gold.append("\n{\"command\":\"invalidate\",\"timestamp\":\"50\"}-->{\"__messages\":null,\"__seq\":3,\"__entropy\":\"-1034601897293430941\",\"__time\":\"50\"} need:false in:-50");
     gold.append("\nNO_ONE: CREATED PRIVATE VIEW");
     gold.append("\n+ NO_ONE DELTA:{\"seq\":3}");
@@ -1509,7 +1513,7 @@ public class GeneratedLinqTests extends GeneratedBase {
     gold.append("\nRANDO|SUCCESS:5");
     gold.append("\n+ NO_ONE DELTA:{\"seq\":5}");
     gold.append("\n+ RANDO DELTA:{\"seq\":5}");
-    gold.append("\nMEMORY:742");
+    gold.append("\nMEMORY:838");
     gold.append("\n--JAVA RESULTS-------------------------------------");
     gold.append("\n{\"itbl\":{},\"__state\":\"\",\"__constructed\":true,\"__next_time\":\"0\",\"__last_expire_time\":\"0\",\"__blocked\":false,\"__seq\":5,\"__entropy\":\"-8929183248358367000\",\"__auto_future_id\":0,\"__connection_id\":0,\"__message_id\":0,\"__time\":\"100\",\"__auto_table_row_id\":0}");
     gold.append("\n--DUMP RESULTS-------------------------------------");
@@ -2295,6 +2299,10 @@ public class GeneratedLinqTests extends GeneratedBase {
     gold.append("\n  protected void __construct_intern(NtClient __who, NtMessageBase __object) {");
     gold.append("\n    __construct_0(__who, __object);");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -3528,6 +3536,10 @@ public class GeneratedLinqTests extends GeneratedBase {
     gold.append("\n      return __a.x.compareTo(__b.x);");
     gold.append("\n    }");
     gold.append("\n  };");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -4654,6 +4666,10 @@ public class GeneratedLinqTests extends GeneratedBase {
     gold.append("\n      return __a.s.compareValues(__b.s, (__x, __y) -> __x.compareTo(__y));");
     gold.append("\n    }");
     gold.append("\n  };");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -5390,6 +5406,10 @@ public class GeneratedLinqTests extends GeneratedBase {
     gold.append("\n      return x == x0 || x == x1;");
     gold.append("\n    }");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -6088,6 +6108,10 @@ public class GeneratedLinqTests extends GeneratedBase {
     gold.append("\n      return x == 1 || x == 2;");
     gold.append("\n    }");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -7006,6 +7030,10 @@ public class GeneratedLinqTests extends GeneratedBase {
     gold.append("\n      return z > 50;");
     gold.append("\n    }");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -7018,7 +7046,7 @@ public class GeneratedLinqTests extends GeneratedBase {
     gold.append("\n{\"command\":\"construct\",\"timestamp\":\"0\",\"who\":{\"agent\":\"?\",\"authority\":\"?\"},\"arg\":{},\"entropy\":\"0\"}-->{\"__constructed\":true,\"__entropy\":\"-4962768465676381896\",\"__auto_table_row_id\":100,\"t\":{\"1\":{\"id\":1,\"z\":0},\"2\":{\"id\":2,\"z\":1},\"3\":{\"id\":3,\"z\":2},\"4\":{\"id\":4,\"z\":3},\"5\":{\"id\":5,\"z\":4},\"6\":{\"id\":6,\"z\":5},\"7\":{\"id\":7,\"z\":6},\"8\":{\"id\":8,\"z\":7},\"9\":{\"id\":9,\"z\":8},\"10\":{\"id\":10,\"z\":9},\"11\":{\"id\":11,\"z\":10},\"12\":{\"id\":12,\"z\":11},\"13\":{\"id\":13,\"z\":12},\"14\":{\"id\":14,\"z\":13},\"15\":{\"id\":15,\"z\":14},\"16\":{\"id\":16,\"z\":15},\"17\":{\"id\":17,\"z\":16},\"18\":{\"id\":18,\"z\":17},\"19\":{\"id\":19,\"z\":18},\"20\":{\"id\":20,\"z\":19},\"21\":{\"id\":21,\"z\":20},\"22\":{\"id\":22,\"z\":21},\"23\":{\"id\":23,\"z\":22},\"24\":{\"id\":24,\"z\":23},\"25\":{\"id\":25,\"z\":24},\"26\":{\"id\":26,\"z\":25},\"27\":{\"id\":27,\"z\":26},\"28\":{\"id\":28,\"z\":27},\"29\":{\"id\":29,\"z\":28},\"30\":{\"id\":30,\"z\":29},\"31\":{\"id\":31,\"z\":30},\"32\":{\"id\":32,\"z\":31},\"33\":{\"id\":33,\"z\":32},\"34\":{\"id\":34,\"z\":33},\"35\":{\"id\":35,\"z\":34},\"36\":{\"id\":36,\"z\":35},\"37\":{\"id\":37,\"z\":36},\"38\":{\"id\":38,\"z\":37},\"39\":{\"id\":39,\"z\":38},\"40\":{\"id\":40,\"z\":39},\"41\":{\"id\":41,\"z\":40},\"42\":{\"id\":42,\"z\":41},\"43\":{\"id\":43,\"z\":42},\"44\":{\"id\":44,\"z\":43},\"45\":{\"id\":45,\"z\":44},\"46\":{\"id\":46,\"z\":45},\"47\":{\"id\":47,\"z\":46},\"48\":{\"id\":48,\"z\":47},\"49\":{\"id\":49,\"z\":48},\"50\":{\"id\":50,\"z\":49},\"51\":{\"id\":51,\"z\":50},\"52\":{\"id\":52,\"z\":51},\"53\":{\"id\":53,\"z\":52},\"54\":{\"id\":54,\"z\":53},\"55\":{\"id\":55,\"z\":54},\"56\":{\"id\":56,\"z\":55},\"57\":{\"id\":57,\"z\":56},\"58\":{\"id\":58,\"z\":57},\"59\":{\"id\":59,\"z\":58},\"60\":{\"id\":60,\"z\":59},\"61\":{\"id\":61,\"z\":60},\"62\":{\"id\":62,\"z\":61},\"63\":{\"id\":63,\"z\":62},\"64\":{\"id\":64,\"z\":63},\"65\":{\"id\":65,\"z\":64},\"66\":{\"id\":66,\"z\":65},\"67\":{\"id\":67,\"z\":66},\"68\":{\"id\":68,\"z\":67},\"69\":{\"id\":69,\"z\":68},\"70\":{\"id\":70,\"z\":69},\"71\":{\"id\":71,\"z\":70},\"72\":{\"id\":72,\"z\":71},\"73\":{\"id\":73,\"z\":72},\"74\":{\"id\":74,\"z\":73},\"75\":{\"id\":75,\"z\":74},\"76\":{\"id\":76,\"z\":75},\"77\":{\"id\":77,\"z\":76},\"78\":{\"id\":78,\"z\":77},\"79\":{\"id\":79,\"z\":78},\"80\":{\"id\":80,\"z\":79},\"81\":{\"id\":81,\"z\":80},\"82\":{\"id\":82,\"z\":81},\"83\":{\"id\":83,\"z\":82},\"84\":{\"id\":84,\"z\":83},\"85\":{\"id\":85,\"z\":84},\"86\":{\"id\":86,\"z\":85},\"87\":{\"id\":87,\"z\":86},\"88\":{\"id\":88,\"z\":87},\"89\":{\"id\":89,\"z\":88},\"90\":{\"id\":90,\"z\":89},\"91\":{\"id\":91,\"z\":90},\"92\":{\"id\":92,\"z\":91},\"93\":{\"id\":93,\"z\":92},\"94\":{\"id\":94,\"z\":93},\"95\":{\"id\":95,\"z\":94},\"96\":{\"id\":96,\"z\":95},\"97\":{\"id\":97,\"z\":96},\"98\":{\"id\":98,\"z\":97},\"99\":{\"id\":99,\"z\":98},\"100\":{\"id\":100,\"z\":99}},\"__messages\":null,\"__seq\":1} need:false in:0");
     gold.append("\n{\"command\":\"invalidate\",\"timestamp\":\"25\"}-->{\"__messages\":null,\"__seq\":2,\"__entropy\":\"4804307197456638271\",\"__time\":\"25\"} need:false in:-25");
     gold.append("\nCPU:302");
-    gold.append("\nMEMORY:20554");
+    gold.append("\nMEMORY:26890");
     gold.append("\n{\"command\":\"invalidate\",\"timestamp\":\"50\"}-->{\"__messages\":null,\"__seq\":3,\"__entropy\":\"-1034601897293430941\",\"__time\":\"50\"} need:false in:-50");
     gold.append("\nNO_ONE: CREATED PRIVATE VIEW");
     gold.append("\n+ NO_ONE DELTA:{\"data\":{\"t_less\":{\"1\":{\"z\":0},\"2\":{\"z\":1},\"3\":{\"z\":2},\"4\":{\"z\":3},\"5\":{\"z\":4},\"6\":{\"z\":5},\"7\":{\"z\":6},\"8\":{\"z\":7},\"9\":{\"z\":8},\"10\":{\"z\":9},\"11\":{\"z\":10},\"12\":{\"z\":11},\"13\":{\"z\":12},\"14\":{\"z\":13},\"15\":{\"z\":14},\"16\":{\"z\":15},\"17\":{\"z\":16},\"18\":{\"z\":17},\"19\":{\"z\":18},\"20\":{\"z\":19},\"21\":{\"z\":20},\"22\":{\"z\":21},\"23\":{\"z\":22},\"24\":{\"z\":23},\"25\":{\"z\":24},\"26\":{\"z\":25},\"27\":{\"z\":26},\"28\":{\"z\":27},\"29\":{\"z\":28},\"30\":{\"z\":29},\"31\":{\"z\":30},\"32\":{\"z\":31},\"33\":{\"z\":32},\"34\":{\"z\":33},\"35\":{\"z\":34},\"36\":{\"z\":35},\"37\":{\"z\":36},\"38\":{\"z\":37},\"39\":{\"z\":38},\"40\":{\"z\":39},\"41\":{\"z\":40},\"42\":{\"z\":41},\"43\":{\"z\":42},\"44\":{\"z\":43},\"45\":{\"z\":44},\"46\":{\"z\":45},\"47\":{\"z\":46},\"48\":{\"z\":47},\"49\":{\"z\":48},\"50\":{\"z\":49},\"@o\":[1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20,21,22,23,24,25,26,27,28,29,30,31,32,33,34,35,36,37,38,39,40,41,42,43,44,45,46,47,48,49,50]},\"t_lesseq\":{\"1\":{\"z\":0},\"2\":{\"z\":1},\"3\":{\"z\":2},\"4\":{\"z\":3},\"5\":{\"z\":4},\"6\":{\"z\":5},\"7\":{\"z\":6},\"8\":{\"z\":7},\"9\":{\"z\":8},\"10\":{\"z\":9},\"11\":{\"z\":10},\"12\":{\"z\":11},\"13\":{\"z\":12},\"14\":{\"z\":13},\"15\":{\"z\":14},\"16\":{\"z\":15},\"17\":{\"z\":16},\"18\":{\"z\":17},\"19\":{\"z\":18},\"20\":{\"z\":19},\"21\":{\"z\":20},\"22\":{\"z\":21},\"23\":{\"z\":22},\"24\":{\"z\":23},\"25\":{\"z\":24},\"26\":{\"z\":25},\"27\":{\"z\":26},\"28\":{\"z\":27},\"29\":{\"z\":28},\"30\":{\"z\":29},\"31\":{\"z\":30},\"32\":{\"z\":31},\"33\":{\"z\":32},\"34\":{\"z\":33},\"35\":{\"z\":34},\"36\":{\"z\":35},\"37\":{\"z\":36},\"38\":{\"z\":37},\"39\":{\"z\":38},\"40\":{\"z\":39},\"41\":{\"z\":40},\"42\":{\"z\":41},\"43\":{\"z\":42},\"44\":{\"z\":43},\"45\":{\"z\":44},\"46\":{\"z\":45},\"47\":{\"z\":46},\"48\":{\"z\":47},\"49\":{\"z\":48},\"50\":{\"z\":49},\"51\":{\"z\":50},\"@o\":[1,2,3,4,5,6,7,8,9,10,11,12,13,14,15,16,17,18,19,20,21,22,23,24,25,26,27,28,29,30,31,32,33,34,35,36,37,38,39,40,41,42,43,44,45,46,47,48,49,50,51]},\"t_eq\":{\"51\":{\"z\":50},\"@o\":[51]},\"t_greateq\":{\"51\":{\"z\":50},\"52\":{\"z\":51},\"53\":{\"z\":52},\"54\":{\"z\":53},\"55\":{\"z\":54},\"56\":{\"z\":55},\"57\":{\"z\":56},\"58\":{\"z\":57},\"59\":{\"z\":58},\"60\":{\"z\":59},\"61\":{\"z\":60},\"62\":{\"z\":61},\"63\":{\"z\":62},\"64\":{\"z\":63},\"65\":{\"z\":64},\"66\":{\"z\":65},\"67\":{\"z\":66},\"68\":{\"z\":67},\"69\":{\"z\":68},\"70\":{\"z\":69},\"71\":{\"z\":70},\"72\":{\"z\":71},\"73\":{\"z\":72},\"74\":{\"z\":73},\"75\":{\"z\":74},\"76\":{\"z\":75},\"77\":{\"z\":76},\"78\":{\"z\":77},\"79\":{\"z\":78},\"80\":{\"z\":79},\"81\":{\"z\":80},\"82\":{\"z\":81},\"83\":{\"z\":82},\"84\":{\"z\":83},\"85\":{\"z\":84},\"86\":{\"z\":85},\"87\":{\"z\":86},\"88\":{\"z\":87},\"89\":{\"z\":88},\"90\":{\"z\":89},\"91\":{\"z\":90},\"92\":{\"z\":91},\"93\":{\"z\":92},\"94\":{\"z\":93},\"95\":{\"z\":94},\"96\":{\"z\":95},\"97\":{\"z\":96},\"98\":{\"z\":97},\"99\":{\"z\":98},\"100\":{\"z\":99},\"@o\":[51,52,53,54,55,56,57,58,59,60,61,62,63,64,65,66,67,68,69,70,71,72,73,74,75,76,77,78,79,80,81,82,83,84,85,86,87,88,89,90,91,92,93,94,95,96,97,98,99,100]},\"t_great\":{\"52\":{\"z\":51},\"53\":{\"z\":52},\"54\":{\"z\":53},\"55\":{\"z\":54},\"56\":{\"z\":55},\"57\":{\"z\":56},\"58\":{\"z\":57},\"59\":{\"z\":58},\"60\":{\"z\":59},\"61\":{\"z\":60},\"62\":{\"z\":61},\"63\":{\"z\":62},\"64\":{\"z\":63},\"65\":{\"z\":64},\"66\":{\"z\":65},\"67\":{\"z\":66},\"68\":{\"z\":67},\"69\":{\"z\":68},\"70\":{\"z\":69},\"71\":{\"z\":70},\"72\":{\"z\":71},\"73\":{\"z\":72},\"74\":{\"z\":73},\"75\":{\"z\":74},\"76\":{\"z\":75},\"77\":{\"z\":76},\"78\":{\"z\":77},\"79\":{\"z\":78},\"80\":{\"z\":79},\"81\":{\"z\":80},\"82\":{\"z\":81},\"83\":{\"z\":82},\"84\":{\"z\":83},\"85\":{\"z\":84},\"86\":{\"z\":85},\"87\":{\"z\":86},\"88\":{\"z\":87},\"89\":{\"z\":88},\"90\":{\"z\":89},\"91\":{\"z\":90},\"92\":{\"z\":91},\"93\":{\"z\":92},\"94\":{\"z\":93},\"95\":{\"z\":94},\"96\":{\"z\":95},\"97\":{\"z\":96},\"98\":{\"z\":97},\"99\":{\"z\":98},\"100\":{\"z\":99},\"@o\":[52,53,54,55,56,57,58,59,60,61,62,63,64,65,66,67,68,69,70,71,72,73,74,75,76,77,78,79,80,81,82,83,84,85,86,87,88,89,90,91,92,93,94,95,96,97,98,99,100]}},\"seq\":3}");
@@ -7032,7 +7060,7 @@ public class GeneratedLinqTests extends GeneratedBase {
     gold.append("\nRANDO|SUCCESS:5");
     gold.append("\n+ NO_ONE DELTA:{\"seq\":5}");
     gold.append("\n+ RANDO DELTA:{\"seq\":5}");
-    gold.append("\nMEMORY:81776");
+    gold.append("\nMEMORY:88112");
     gold.append("\n--JAVA RESULTS-------------------------------------");
     gold.append("\n{\"t\":{\"1\":{\"id\":1,\"z\":0},\"2\":{\"id\":2,\"z\":1},\"3\":{\"id\":3,\"z\":2},\"4\":{\"id\":4,\"z\":3},\"5\":{\"id\":5,\"z\":4},\"6\":{\"id\":6,\"z\":5},\"7\":{\"id\":7,\"z\":6},\"8\":{\"id\":8,\"z\":7},\"9\":{\"id\":9,\"z\":8},\"10\":{\"id\":10,\"z\":9},\"11\":{\"id\":11,\"z\":10},\"12\":{\"id\":12,\"z\":11},\"13\":{\"id\":13,\"z\":12},\"14\":{\"id\":14,\"z\":13},\"15\":{\"id\":15,\"z\":14},\"16\":{\"id\":16,\"z\":15},\"17\":{\"id\":17,\"z\":16},\"18\":{\"id\":18,\"z\":17},\"19\":{\"id\":19,\"z\":18},\"20\":{\"id\":20,\"z\":19},\"21\":{\"id\":21,\"z\":20},\"22\":{\"id\":22,\"z\":21},\"23\":{\"id\":23,\"z\":22},\"24\":{\"id\":24,\"z\":23},\"25\":{\"id\":25,\"z\":24},\"26\":{\"id\":26,\"z\":25},\"27\":{\"id\":27,\"z\":26},\"28\":{\"id\":28,\"z\":27},\"29\":{\"id\":29,\"z\":28},\"30\":{\"id\":30,\"z\":29},\"31\":{\"id\":31,\"z\":30},\"32\":{\"id\":32,\"z\":31},\"33\":{\"id\":33,\"z\":32},\"34\":{\"id\":34,\"z\":33},\"35\":{\"id\":35,\"z\":34},\"36\":{\"id\":36,\"z\":35},\"37\":{\"id\":37,\"z\":36},\"38\":{\"id\":38,\"z\":37},\"39\":{\"id\":39,\"z\":38},\"40\":{\"id\":40,\"z\":39},\"41\":{\"id\":41,\"z\":40},\"42\":{\"id\":42,\"z\":41},\"43\":{\"id\":43,\"z\":42},\"44\":{\"id\":44,\"z\":43},\"45\":{\"id\":45,\"z\":44},\"46\":{\"id\":46,\"z\":45},\"47\":{\"id\":47,\"z\":46},\"48\":{\"id\":48,\"z\":47},\"49\":{\"id\":49,\"z\":48},\"50\":{\"id\":50,\"z\":49},\"51\":{\"id\":51,\"z\":50},\"52\":{\"id\":52,\"z\":51},\"53\":{\"id\":53,\"z\":52},\"54\":{\"id\":54,\"z\":53},\"55\":{\"id\":55,\"z\":54},\"56\":{\"id\":56,\"z\":55},\"57\":{\"id\":57,\"z\":56},\"58\":{\"id\":58,\"z\":57},\"59\":{\"id\":59,\"z\":58},\"60\":{\"id\":60,\"z\":59},\"61\":{\"id\":61,\"z\":60},\"62\":{\"id\":62,\"z\":61},\"63\":{\"id\":63,\"z\":62},\"64\":{\"id\":64,\"z\":63},\"65\":{\"id\":65,\"z\":64},\"66\":{\"id\":66,\"z\":65},\"67\":{\"id\":67,\"z\":66},\"68\":{\"id\":68,\"z\":67},\"69\":{\"id\":69,\"z\":68},\"70\":{\"id\":70,\"z\":69},\"71\":{\"id\":71,\"z\":70},\"72\":{\"id\":72,\"z\":71},\"73\":{\"id\":73,\"z\":72},\"74\":{\"id\":74,\"z\":73},\"75\":{\"id\":75,\"z\":74},\"76\":{\"id\":76,\"z\":75},\"77\":{\"id\":77,\"z\":76},\"78\":{\"id\":78,\"z\":77},\"79\":{\"id\":79,\"z\":78},\"80\":{\"id\":80,\"z\":79},\"81\":{\"id\":81,\"z\":80},\"82\":{\"id\":82,\"z\":81},\"83\":{\"id\":83,\"z\":82},\"84\":{\"id\":84,\"z\":83},\"85\":{\"id\":85,\"z\":84},\"86\":{\"id\":86,\"z\":85},\"87\":{\"id\":87,\"z\":86},\"88\":{\"id\":88,\"z\":87},\"89\":{\"id\":89,\"z\":88},\"90\":{\"id\":90,\"z\":89},\"91\":{\"id\":91,\"z\":90},\"92\":{\"id\":92,\"z\":91},\"93\":{\"id\":93,\"z\":92},\"94\":{\"id\":94,\"z\":93},\"95\":{\"id\":95,\"z\":94},\"96\":{\"id\":96,\"z\":95},\"97\":{\"id\":97,\"z\":96},\"98\":{\"id\":98,\"z\":97},\"99\":{\"id\":99,\"z\":98},\"100\":{\"id\":100,\"z\":99}},\"__state\":\"\",\"__constructed\":true,\"__next_time\":\"0\",\"__last_expire_time\":\"0\",\"__blocked\":false,\"__seq\":5,\"__entropy\":\"-8929183248358367000\",\"__auto_future_id\":0,\"__connection_id\":0,\"__message_id\":0,\"__time\":\"100\",\"__auto_table_row_id\":100}");
     gold.append("\n--DUMP RESULTS-------------------------------------");
@@ -7849,6 +7877,10 @@ public class GeneratedLinqTests extends GeneratedBase {
     gold.append("\n      return z == 50 && z == 50 && z == 50 && z == 50 && id == 42;");
     gold.append("\n    }");
     gold.append("\n  }");
+    gold.append("\n  @Override");
+    gold.append("\n  public boolean __isViewerIndependent() {");
+    gold.append("\n    return true;");
+    gold.append("\n  }");
     gold.append("\n  /* end of file */");
     gold.append("\n}");
     gold.append("\n");
@@ -20,23 +20,84 @@ import org.adamalang.common.Callback;
 import org.adamalang.common.ErrorCodeException;
 import org.adamalang.common.NamedRunnable;
 import org.adamalang.common.SimpleExecutor;
+import org.adamalang.common.metrics.NoOpMetricsFactory;
 import org.adamalang.runtime.data.*;
 
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.function.BiConsumer;
 
 public class CaravanDataService implements DataService {
+  public static final long DEFAULT_MAX_CACHED_BYTES = 256L * 1024 * 1024;
+  private final CaravanMetrics metrics;
   private final FinderService finder;
   private final DurableListStore store;
   private final SimpleExecutor executor;
-  private final HashMap<Long, LocalCache> cache;
+  private final long maxCachedBytes;
+  // the cache in least recently used order; items are evicted when the bytes held exceed maxCachedBytes
+  private final LinkedHashMap<Long, LocalCache> cache;
+  private long residentBytes;
 
   public CaravanDataService(FinderService finder, DurableListStore store, SimpleExecutor executor) {
+    this(new CaravanMetrics(new NoOpMetricsFactory()), finder, store, executor, DEFAULT_MAX_CACHED_BYTES);
+  }
+
+  public CaravanDataService(CaravanMetrics metrics, FinderService finder, DurableListStore store, SimpleExecutor executor, long maxCachedBytes) {
+    this.metrics = metrics;
     this.finder = finder;
     this.store = store;
     this.executor = executor;
-    this.cache = new HashMap();
+    this.maxCachedBytes = maxCachedBytes;
+    this.cache = new LinkedHashMap<>(16, 0.75f, true);
+    this.residentBytes = 0;
+  }
+
+  /** internal: remember a loaded cache; if another load raced ahead, then the cache already held wins */
+  private LocalCache remember(long id, LocalCache loaded) {
+    LocalCache existing = cache.get(id);
+    if (existing != null) {
+      return existing;
+    }
+    cache.put(id, loaded);
+    residentBytes += loaded.measure();
+    metrics.cache_resident_documents.up();
+    return loaded;
+  }
+
+  /** internal: forget the cache for the given id */
+  private void forget(long id) {
+    LocalCache removed = cache.remove(id);
+    if (removed != null) {
+      residentBytes -= removed.measure();
+      metrics.cache_resident_documents.down();
+      metrics.cache_resident_bytes.set(residentBytes);
+    }
+  }
+
+  /** internal: change the cache and account for how the bytes held have changed */
+  private void mutate(long id, LocalCache cached, Runnable change) {
+    long before = cached.measure();
+    change.run();
+    if (cache.get(id) == cached) {
+      residentBytes += cached.measure() - before;
+    }
+  }
+
+  /** internal: evict the least recently used items without writes in-flight until within budget */
+  private void evict() {
+    Iterator<Map.Entry<Long, LocalCache>> it = cache.entrySet().iterator();
+    while (residentBytes > maxCachedBytes && it.hasNext()) {
+      LocalCache cached = it.next().getValue();
+      if (cached.canEvict()) {
+        residentBytes -= cached.measure();
+        it.remove();
+        metrics.cache_evict.run();
+        metrics.cache_resident_documents.down();
+      }
+    }
+    metrics.cache_resident_bytes.set(residentBytes);
   }
 
   /** execute with the translation service and jump into the executor */
@@ -49,15 +110,22 @@ public class CaravanDataService implements DataService {
           @Override
           public void execute() throws Exception {
             LocalCache cached = cache.get(id);
+            if (load) {
+              if (cached == null) {
+                metrics.cache_miss.run();
+              } else {
+                metrics.cache_hit.run();
+              }
+            }
             if (load && cached == null) {
               load(id, new Callback<>() {
                 @Override
-                public void success(LocalCache cached) {
+                public void success(LocalCache loaded) {
                   executor.execute(new NamedRunnable(name, "load") {
                     @Override
                     public void execute() throws Exception {
-                      cache.put(id,cached);
-                      action.accept(id,cached);
+                      action.accept(id, remember(id, loaded));
+                      evict();
                     }
                   });
                 }
@@ -69,6 +137,7 @@ public class CaravanDataService implements DataService {
               });
             } else {
               action.accept(id, cached);
+              evict();
             }
           }
         });
@@ -112,23 +181,8 @@ public class CaravanDataService implements DataService {
 
   @Override
   public void get(Key key, Callback<LocalDocumentChange> callback) {
-    execute("get", key, false, callback, (id, cached) -> {
-      if (cached != null) {
-        callback.success(cached.build());
-        return;
-      }
-      load(id, new Callback<LocalCache>() {
-        @Override
-        public void success(LocalCache builder) {
-          cache.put(id, builder);
-          callback.success(builder.build());
-        }
-
-        @Override
-        public void failure(ErrorCodeException ex) {
-          callback.failure(ex);
-        }
-      });
+    execute("get", key, true, callback, (id, cached) -> {
+      callback.success(cached.build());
     });
   }
 
@@ -156,7 +210,8 @@ public class CaravanDataService implements DataService {
         executor.execute(new NamedRunnable("commit-cache") {
           @Override
           public void execute() throws Exception {
-            cache.put(id, builder);
+            remember(id, builder);
+            evict();
             callback.success(null);
           }
         });
@@ -182,16 +237,22 @@ public class CaravanDataService implements DataService {
         callback.failure(new ErrorCodeException(ErrorCodes.UNIVERSAL_PATCH_FAILURE_HEAD_SEQ_OFF));
         return;
       }
+      cached.pin();
       if (store.append(id, write, () -> {
         executor.execute(new NamedRunnable("patch-commit") {
           @Override
           public void execute() throws Exception {
-            cached.handle(batch);
-            cached.bump();
+            mutate(id, cached, () -> {
+              cached.handle(batch);
+              cached.bump();
+            });
+            cached.unpin();
+            evict();
             callback.success(null);
           }
         });
       }) == null) {
+        cached.unpin();
         callback.failure(new ErrorCodeException(ErrorCodes.CARAVAN_OUT_OF_SPACE_PATCH));
       }
     });
@@ -225,7 +286,7 @@ public class CaravanDataService implements DataService {
     execute("delete", key, false, callback, (id, cached) -> {
       store.delete(id, () -> {});
       callback.success(null);
-      cache.remove(id);
+      forget(id);
     });
   }
 
@@ -250,8 +311,10 @@ public class CaravanDataService implements DataService {
       if (size == null) {
         callback.failure(new ErrorCodeException(ErrorCodes.CARAVAN_OUT_OF_SPACE_SNAPSHOT));
       } else {
-        cached.handle(snap);
-        cached.bump();
+        mutate(id, cached, () -> {
+          cached.handle(snap);
+          cached.bump();
+        });
         int toTrim = Math.min(size - 1, cached.reset()) - history;
         if (toTrim > 0) {
           store.trim(id, toTrim, () -> {});
@@ -272,12 +335,21 @@ public class CaravanDataService implements DataService {
     return latch;
   }
 
+  /** run a slice of defragmentation (moving up to the given bytes) on the executor every period */
+  public void kickOffDefragmentation(long periodMilliseconds, long bytesPerSlice) {
+    executor.schedule(new NamedRunnable("defragment") {
+      @Override
+      public void execute() throws Exception {
+        store.defragment(bytesPerSlice);
+        kickOffDefragmentation(periodMilliseconds, bytesPerSlice);
+      }
+    }, periodMilliseconds);
+  }
+
   @Override
   public void close(Key key, Callback<Void> callback) {
     execute("close", key, false, callback, (id, cached) -> {
-      if (cached != null) {
-        cache.remove(id);
-      }
+      forget(id);
       callback.success(null);
     });
   }
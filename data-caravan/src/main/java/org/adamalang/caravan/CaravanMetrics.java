@@ -0,0 +1,31 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan;
+
+import org.adamalang.common.metrics.Gauge;
+import org.adamalang.common.metrics.Inflight;
+import org.adamalang.common.metrics.MetricsFactory;
+
+/** metrics for the caravan data service */
+public class CaravanMetrics {
+  public final Runnable cache_hit;
+  public final Runnable cache_miss;
+  public final Runnable cache_evict;
+  public final Inflight cache_resident_documents;
+  public final Gauge cache_resident_bytes;
+
+  public CaravanMetrics(MetricsFactory factory) {
+    cache_hit = factory.counter("caravan_cache_hit");
+    cache_miss = factory.counter("caravan_cache_miss");
+    cache_evict = factory.counter("caravan_cache_evict");
+    cache_resident_documents = factory.inflight("caravan_cache_resident_documents");
+    cache_resident_bytes = factory.gauge("caravan_cache_resident_bytes");
+  }
+}
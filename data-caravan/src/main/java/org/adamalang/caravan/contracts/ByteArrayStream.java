@@ -9,12 +9,21 @@
  */
 package org.adamalang.caravan.contracts;
 
+import io.netty.buffer.ByteBuf;
+
 /** for reading a list of byte[] */
 public interface ByteArrayStream {
 
   // a new append was discovered
   void next(int appendIndex, byte[] value);
 
+  // a new append was discovered as a read-only buffer over the store's memory; the buffer is only valid during this call
+  default void next(int appendIndex, ByteBuf value) {
+    byte[] copy = new byte[value.readableBytes()];
+    value.readBytes(copy);
+    next(appendIndex, copy);
+  }
+
   // no more appends were found
   void finished();
 }
@@ -0,0 +1,20 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan.data;
+
+/** how the DurableListStore makes the write-ahead log durable before notifying writers */
+public enum DurabilityMode {
+  /** notify once the log is handed to the operating system; a machine crash may lose notified writes */
+  None,
+  /** fsync the log on every flush, then notify */
+  FsyncPerFlush,
+  /** hold notifications across flushes and fsync once the oldest has waited long enough; this requires periodic flushes */
+  GroupCommit
+}
@@ -14,26 +14,32 @@ import io.netty.buffer.Unpooled;
 import org.adamalang.caravan.contracts.ByteArrayStream;
 import org.adamalang.caravan.entries.Append;
 import org.adamalang.caravan.entries.Delete;
+import org.adamalang.caravan.entries.IndexSegment;
+import org.adamalang.caravan.entries.Move;
 import org.adamalang.caravan.entries.OrganizationSnapshot;
+import org.adamalang.caravan.entries.Release;
 import org.adamalang.caravan.entries.Trim;
 import org.adamalang.caravan.index.Heap;
 import org.adamalang.caravan.index.Index;
 import org.adamalang.caravan.index.Region;
 import org.adamalang.caravan.index.heaps.IndexedHeap;
 import org.adamalang.caravan.index.heaps.SplitHeat;
+import org.adamalang.common.metrics.CallbackMonitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 
 public class DurableListStore {
   private static final Logger LOGGER = LoggerFactory.getLogger(DurableListStore.class);
+  // how many regions a single defragmentation slice will consider
+  private static final int DEFRAG_MAX_EXAMINED = 4096;
   // the data structures to manage the giant linear space
   private final DurableListStoreMetrics metrics;
   private final Index index;
@@ -41,7 +47,7 @@ public class DurableListStore {
 
   // the actual file
   private final RandomAccessFile storage;
-  private final MappedByteBuffer memory;
+  private final SegmentedMemory memory;
 
   // the directory containing the write-ahead log; since we use Files.move, we create temporary files to cut over
   private final File walRoot;
@@ -51,9 +57,11 @@ public class DurableListStore {
   private final ByteBuf buffer;
   private byte[] pageBuffer;
 
-  // the write ahead log stream
+  // the write ahead log stream and the channel to fsync it
   private DataOutputStream output;
+  private FileChannel outputChannel;
   private long bytesWrittenToLog;
+  private boolean outputDirty;
 
   // how many bytes until we introduce a flush
   private final int flushCutOffBytes;
@@ -64,6 +72,19 @@ public class DurableListStore {
   // notifications when the requested action was committed
   private final ArrayList<Runnable> notifications;
 
+  // how (and when) the log is made durable prior to releasing notifications
+  private final DurabilityMode durability;
+  private final long groupCommitMilliseconds;
+  private ArrayList<Runnable> pending;
+  private long pendingSince;
+
+  // defragmentation walks the ids in slices; ids touched since the walk started are hot and left alone
+  private final HashSet<Long> hot;
+  private long[] defragIds;
+  private int defragAt;
+  // regions vacated by moves; these are released only once the moves are written to the log
+  private final ArrayList<Region> vacated;
+
   /**
    * Construct the durable list store!
    *
@@ -76,13 +97,31 @@ public class DurableListStore {
    * @throws IOException
    */
   public DurableListStore(DurableListStoreMetrics metrics, File storeFile, File walRoot, long size, int flushCutOffBytes, long maxLogSize) throws IOException {
+    this(metrics, storeFile, walRoot, size, flushCutOffBytes, maxLogSize, DurabilityMode.None, 0);
+  }
+
+  /**
+   * Construct the durable list store with an explicit durability mode
+   *
+   * @param durability how the log is made durable before notifications are released
+   * @param groupCommitMilliseconds for GroupCommit, how long a notification may wait for an fsync
+   */
+  public DurableListStore(DurableListStoreMetrics metrics, File storeFile, File walRoot, long size, int flushCutOffBytes, long maxLogSize, DurabilityMode durability, long groupCommitMilliseconds) throws IOException {
     this.metrics = metrics;
+    this.durability = durability;
+    this.groupCommitMilliseconds = groupCommitMilliseconds;
+    this.pending = new ArrayList<>();
+    this.pendingSince = 0;
+    this.hot = new HashSet<>();
+    this.defragIds = null;
+    this.defragAt = 0;
+    this.vacated = new ArrayList<>();
     this.index = new Index();
     this.heap = new SplitHeat(new IndexedHeap(size / 4), 8196, size / 4, new IndexedHeap((size * 3) / 4));
 
     this.storage = new RandomAccessFile(storeFile, "rw");
     storage.setLength(size);
-    this.memory = storage.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+    this.memory = new SegmentedMemory(storage.getChannel(), size, SegmentedMemory.DEFAULT_SEGMENT_SIZE);
     this.notifications = new ArrayList<>();
 
     // build the buffer
@@ -108,8 +147,11 @@ public class DurableListStore {
 
   /** internal: open the log for writing */
   private void openLogForWriting() throws IOException {
-    this.output = new DataOutputStream(new FileOutputStream(new File(walRoot, "WAL"), true));
+    FileOutputStream stream = new FileOutputStream(new File(walRoot, "WAL"), true);
+    this.output = new DataOutputStream(stream);
+    this.outputChannel = stream.getChannel();
     this.bytesWrittenToLog = 0;
+    this.outputDirty = false;
   }
 
   /** internal: load and commit the data from the write-ahead log */
@@ -132,7 +174,7 @@ public class DurableListStore {
                   throw new IOException("heap corruption!");
                 }
                 index.append(append.id, region);
-                memory.slice().position((int) region.position).put(append.bytes);
+                memory.put(region.position, append.bytes);
               }
               break;
             case 0x66: // delete
@@ -143,12 +185,31 @@ public class DurableListStore {
             case 0x55: // snapshot
               OrganizationSnapshot.populateAfterTypeId(buf, heap, index);
               break;
+            case 0x57: // a segment of the index following a snapshot
+              IndexSegment.populateAfterTypeId(buf, index);
+              break;
             case 0x13: // trim
               Trim trim = Trim.readAfterTypeId(buf);
               for (Region region : index.trim(trim.id, trim.count)) {
                 heap.free(region);
               }
               break;
+            case 0x31: // move
+              {
+                Move move = Move.readAfterTypeId(buf);
+                Region region = heap.ask(move.size);
+                if (region == null || region.position != move.to) {
+                  throw new IOException("heap corruption!");
+                }
+                memory.put(region.position, move.bytes);
+                index.relocate(move.id, new Region(move.from, move.size), region);
+              }
+              break;
+            case 0x27: // release
+              for (Region region : Release.readAfterTypeId(buf).regions) {
+                heap.free(region);
+              }
+              break;
             default:
               throw new IOException("unrecogized code:" + code);
           }
@@ -162,11 +223,25 @@ public class DurableListStore {
   /** internal: prepare a new write-ahead file */
   private File prepare() throws IOException {
     File newWalFile = new File(walRoot, "WAL.NEW-" + System.currentTimeMillis());
-    DataOutputStream newOutput = new DataOutputStream(new FileOutputStream(newWalFile));
-    ByteBuf first = Unpooled.buffer();
-    new OrganizationSnapshot(heap, index).write(first);
-    writePage(newOutput, first);
+    FileOutputStream newStream = new FileOutputStream(newWalFile);
+    DataOutputStream newOutput = new DataOutputStream(newStream);
+    // the heap, then the index in pages no bigger than a flush such that no single giant buffer is built
+    ByteBuf page = Unpooled.buffer();
+    new OrganizationSnapshot(heap).write(page);
+    writePage(newOutput, page);
+    int cursor = 0;
+    while (cursor >= 0) {
+      page.clear();
+      IndexSegment segment = new IndexSegment(index, cursor, flushCutOffBytes);
+      segment.write(page);
+      writePage(newOutput, page);
+      cursor = segment.next();
+    }
     newOutput.flush();
+    if (durability != DurabilityMode.None) {
+      // the new log replaces the old log, so it must be durable before the move
+      newStream.getChannel().force(true);
+    }
     newOutput.close();
     return newWalFile;
   }
@@ -214,8 +289,8 @@ public class DurableListStore {
       return null;
     }
     this.notifications.add(notification);
-    // Java 13+ has a better API; worth considering...
-    memory.slice().position((int) where.position).put(bytes);
+    hot.add(id);
+    memory.put(where.position, bytes);
     int size = index.append(id, where);
     new Append(id, where.position, bytes).write(buffer);
     if (buffer.writerIndex() > flushCutOffBytes) {
@@ -225,24 +300,52 @@ public class DurableListStore {
     return size;
   }
 
-  /** read the given object by scanning all appends */
+  /**
+   * read the given object by scanning all appends; each append is handed out as a read-only buffer over the mapped memory
+   * (valid only during the callback), and runs of appends which are contiguous in memory are sliced from a single view
+   */
   public void read(long id, ByteArrayStream streamback) {
     Iterator<Region> it = index.get(id);
+    hot.add(id);
+    ArrayList<Region> run = new ArrayList<>();
     int at = 0;
     while (it.hasNext()) {
       Region region = it.next();
-      byte[] mem = new byte[region.size];
-      memory.slice().position((int) region.position).get(mem);
-      streamback.next(at, mem);
-      at++;
+      if (run.size() > 0) {
+        Region last = run.get(run.size() - 1);
+        if (last.position + last.size != region.position) {
+          at = readRun(run, at, streamback);
+        }
+      }
+      run.add(region);
     }
+    readRun(run, at, streamback);
     streamback.finished();
   }
 
+  /** internal: emit a run of contiguous regions from one view of memory */
+  private int readRun(ArrayList<Region> run, int at, ByteArrayStream streamback) {
+    if (run.size() == 0) {
+      return at;
+    }
+    Region first = run.get(0);
+    Region last = run.get(run.size() - 1);
+    ByteBuf view = memory.slice(first.position, (int) (last.position + last.size - first.position));
+    int offset = 0;
+    for (Region region : run) {
+      streamback.next(at, view.slice(offset, region.size));
+      offset += region.size;
+      at++;
+    }
+    run.clear();
+    return at;
+  }
+
   /** remove the $count appends from the head of the object */
   public boolean trim(long id, int count, Runnable notification) {
     ArrayList<Region> regions = index.trim(id, count);
     if (regions != null && regions.size() > 0) {
+      hot.add(id);
       this.notifications.add(notification);
       new Trim(id, regions.size()).write(buffer);
       for (Region region : regions) {
@@ -274,31 +377,125 @@ public class DurableListStore {
     }
   }
 
+  /**
+   * run a slice of defragmentation: live regions of cold ids are relocated toward the start of the file such that free
+   * space coalesces into larger blocks. The slice is bounded by the bytes moved and the regions considered; the moves are
+   * logged, and the vacated regions are released when the log is next written.
+   *
+   * @return the number of bytes moved
+   */
+  public long defragment(long maxBytes) {
+    long moved = 0;
+    int examined = 0;
+    boolean restarted = false;
+    while (moved < maxBytes && examined < DEFRAG_MAX_EXAMINED) {
+      if (defragIds == null || defragAt >= defragIds.length) {
+        if (restarted) {
+          break;
+        }
+        // start a new walk; what was touched during the prior walk is no longer considered hot
+        restarted = true;
+        hot.clear();
+        defragIds = index.ids();
+        defragAt = 0;
+        continue;
+      }
+      long id = defragIds[defragAt++];
+      examined++;
+      if (hot.contains(id)) {
+        continue;
+      }
+      ArrayList<Region> toMove = new ArrayList<>();
+      Iterator<Region> it = index.get(id);
+      while (it.hasNext()) {
+        toMove.add(it.next());
+      }
+      for (Region from : toMove) {
+        examined++;
+        Region to = heap.ask(from.size);
+        if (to == null) {
+          continue;
+        }
+        if (to.position < from.position) {
+          byte[] bytes = new byte[from.size];
+          memory.get(from.position, bytes);
+          memory.put(to.position, bytes);
+          index.relocate(id, from, to);
+          new Move(id, from.position, to.position, bytes).write(buffer);
+          vacated.add(from);
+          moved += from.size;
+          metrics.defrag_moves.run();
+        } else {
+          // the region is already as low as it can go
+          heap.free(to);
+        }
+      }
+    }
+    metrics.report(heap.available(), heap.largest());
+    if (buffer.writerIndex() > flushCutOffBytes) {
+      flush(false);
+    }
+    return moved;
+  }
+
+  /** the fraction of free space which is not within the largest free block (0 is perfect, near 1 is terrible) */
+  public double fragmentation() {
+    long available = heap.available();
+    if (available == 0) {
+      return 0.0;
+    }
+    return 1.0 - heap.largest() / (double) available;
+  }
+
+  /** the size of the largest block which could be allocated */
+  public long largestFreeBlock() {
+    return heap.largest();
+  }
+
   /** does the given id exist within the system */
   public boolean exists(long id) {
     return index.exists(id);
   }
 
-  /** flush to disk */
+  /** flush to disk; notifications are released once the writes are as durable as the durability mode requires */
   public void flush(boolean forceCutOver) {
     try {
       metrics.flush.run();
+      boolean release = vacated.size() > 0;
+      if (release) {
+        // the release shares the page with the moves, so the vacated regions are reused only once the moves are logged
+        new Release(vacated).write(buffer);
+      }
       if (writePage(output, buffer)) {
         output.flush();
+        outputDirty = true;
       }
       buffer.resetReaderIndex();
       buffer.resetWriterIndex();
-
-      if (bytesWrittenToLog >= maxLogSize || forceCutOver) {
-        cutOver();
+      if (release) {
+        for (Region region : vacated) {
+          heap.free(region);
+        }
+        vacated.clear();
       }
 
-      // feels excessive, is it better to copy OR re-init? Could we trust the client to simply _not_ be re-entrant?
-      ArrayList<Runnable> notificationClone = new ArrayList<>(notifications);
-      notifications.clear();
+      if (notifications.size() > 0) {
+        if (pending.size() == 0) {
+          pendingSince = System.currentTimeMillis();
+        }
+        pending.addAll(notifications);
+        notifications.clear();
+      }
 
-      for (Runnable notification : notificationClone) {
-        notification.run();
+      boolean cutOver = bytesWrittenToLog >= maxLogSize || forceCutOver;
+      if (cutOver || durability != DurabilityMode.GroupCommit || System.currentTimeMillis() - pendingSince >= groupCommitMilliseconds) {
+        if (durability != DurabilityMode.None) {
+          fsync();
+        }
+        if (cutOver) {
+          cutOver();
+        }
+        release();
       }
     } catch (IOException ex) {
       LOGGER.error("critical-exception:", ex);
@@ -306,9 +503,37 @@ public class DurableListStore {
     }
   }
 
+  /** internal: force the log to the disk */
+  private void fsync() throws IOException {
+    if (outputDirty) {
+      CallbackMonitor.CallbackMonitorInstance instance = metrics.fsync.start();
+      outputChannel.force(false);
+      instance.success();
+      outputDirty = false;
+    }
+  }
+
+  /** internal: release the notifications which are now durable */
+  private void release() {
+    if (pending.size() == 0) {
+      return;
+    }
+    // we swap the list as the client may be re-entrant
+    ArrayList<Runnable> batch = pending;
+    pending = new ArrayList<>();
+    metrics.notification_batches.run();
+    for (Runnable notification : batch) {
+      metrics.notifications.run();
+      notification.run();
+    }
+  }
+
   public void shutdown() throws IOException {
     output.writeInt(0);
     output.flush();
+    if (durability != DurabilityMode.None) {
+      outputChannel.force(false);
+    }
     output.close();
     memory.force();
     storage.close();
@@ -9,12 +9,32 @@
  */
 package org.adamalang.caravan.data;
 
+import org.adamalang.common.metrics.CallbackMonitor;
+import org.adamalang.common.metrics.Gauge;
 import org.adamalang.common.metrics.MetricsFactory;
 
 public class DurableListStoreMetrics {
   public final Runnable flush;
+  public final CallbackMonitor fsync;
+  public final Runnable notification_batches;
+  public final Runnable notifications;
+  public final Runnable defrag_moves;
+  private final Gauge heap_fragmentation_percent;
+  private final Gauge heap_largest_free_bytes;
 
   public DurableListStoreMetrics(MetricsFactory factory) {
     this.flush = factory.counter("dls_flush");
+    this.fsync = factory.makeCallbackMonitor("dls_fsync");
+    this.notification_batches = factory.counter("dls_notification_batches");
+    this.notifications = factory.counter("dls_notifications");
+    this.defrag_moves = factory.counter("dls_defrag_moves");
+    this.heap_fragmentation_percent = factory.gauge("dls_heap_fragmentation_percent");
+    this.heap_largest_free_bytes = factory.gauge("dls_heap_largest_free_bytes");
+  }
+
+  /** report the state of the heap */
+  public void report(long available, long largest) {
+    heap_fragmentation_percent.set(available == 0 ? 0 : 100 - (largest * 100) / available);
+    heap_largest_free_bytes.set(largest);
   }
 }
@@ -0,0 +1,97 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan.data;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/** a file mapped into memory as a sequence of segments since a single MappedByteBuffer is limited to 2GB; this provides long addressing with reads and writes that may straddle segments */
+public class SegmentedMemory {
+  public static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+  private final MappedByteBuffer[] segments;
+  private final int segmentSize;
+  private final long size;
+
+  public SegmentedMemory(FileChannel channel, long size, int segmentSize) throws IOException {
+    this.segmentSize = segmentSize;
+    this.size = size;
+    int count = (int) ((size + segmentSize - 1) / segmentSize);
+    this.segments = new MappedByteBuffer[count];
+    for (int k = 0; k < count; k++) {
+      long start = ((long) k) * segmentSize;
+      segments[k] = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.min(segmentSize, size - start));
+    }
+  }
+
+  /** the size of the memory */
+  public long size() {
+    return size;
+  }
+
+  /** write the bytes at the given position */
+  public void put(long position, byte[] bytes) {
+    int at = 0;
+    while (at < bytes.length) {
+      ByteBuffer segment = segmentAt(position + at);
+      int length = Math.min(bytes.length - at, segment.remaining());
+      segment.put(bytes, at, length);
+      at += length;
+    }
+  }
+
+  /** read bytes from the given position to fill the given array */
+  public void get(long position, byte[] bytes) {
+    int at = 0;
+    while (at < bytes.length) {
+      ByteBuffer segment = segmentAt(position + at);
+      int length = Math.min(bytes.length - at, segment.remaining());
+      segment.get(bytes, at, length);
+      at += length;
+    }
+  }
+
+  /** a read-only buffer over the given range without copying; a range which straddles segments is a composite */
+  public ByteBuf slice(long position, int length) {
+    ByteBuffer first = segmentAt(position);
+    if (length <= first.remaining()) {
+      first.limit(first.position() + length);
+      return Unpooled.wrappedBuffer(first.asReadOnlyBuffer());
+    }
+    ByteBuffer[] parts = new ByteBuffer[(int) ((position % segmentSize + length + segmentSize - 1) / segmentSize)];
+    int at = 0;
+    for (int k = 0; k < parts.length; k++) {
+      ByteBuffer segment = segmentAt(position + at);
+      int part = Math.min(length - at, segment.remaining());
+      segment.limit(segment.position() + part);
+      parts[k] = segment.asReadOnlyBuffer();
+      at += part;
+    }
+    return Unpooled.wrappedBuffer(parts);
+  }
+
+  /** internal: a view of the segment holding the given position, positioned at it */
+  private ByteBuffer segmentAt(long position) {
+    ByteBuffer segment = segments[(int) (position / segmentSize)].duplicate();
+    segment.position((int) (position % segmentSize));
+    return segment;
+  }
+
+  /** force every segment to disk */
+  public void force() {
+    for (MappedByteBuffer segment : segments) {
+      segment.force();
+    }
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan.entries;
+
+import io.netty.buffer.ByteBuf;
+import org.adamalang.caravan.contracts.WALEntry;
+import org.adamalang.caravan.index.Index;
+
+/** a bounded segment of the index which follows an OrganizationSnapshot; this keeps each page of a snapshot small */
+public class IndexSegment implements WALEntry<IndexSegment> {
+  private final Index index;
+  private final int cursor;
+  private final int maxBytes;
+  private int next;
+
+  public IndexSegment(Index index, int cursor, int maxBytes) {
+    this.index = index;
+    this.cursor = cursor;
+    this.maxBytes = maxBytes;
+    this.next = cursor;
+  }
+
+  public void write(ByteBuf buf) {
+    buf.writeByte(0x57);
+    next = index.snapshot(buf, cursor, maxBytes);
+  }
+
+  /** the cursor for the next segment once written, or -1 if this was the final segment */
+  public int next() {
+    return next;
+  }
+
+  public static void populateAfterTypeId(ByteBuf buf, Index index) {
+    index.loadSegment(buf);
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan.entries;
+
+import io.netty.buffer.ByteBuf;
+import org.adamalang.caravan.contracts.WALEntry;
+
+/** a region of an object was relocated (by defragmentation) from one position to another; the bytes travel with the move since the vacated region may be reused before the log is replayed */
+public class Move implements WALEntry<Move> {
+  public final long id;
+  public final long from;
+  public final long to;
+  public final int size;
+  public final byte[] bytes;
+
+  public Move(long id, long from, long to, byte[] bytes) {
+    this.id = id;
+    this.from = from;
+    this.to = to;
+    this.size = bytes.length;
+    this.bytes = bytes;
+  }
+
+  public void write(ByteBuf buf) {
+    buf.writeByte(0x31);
+    buf.writeLongLE(id);
+    buf.writeLongLE(from);
+    buf.writeLongLE(to);
+    buf.writeIntLE(size);
+    buf.writeBytes(bytes);
+  }
+
+  public static Move readAfterTypeId(ByteBuf buf) {
+    long id = buf.readLongLE();
+    long from = buf.readLongLE();
+    long to = buf.readLongLE();
+    int size = buf.readIntLE();
+    byte[] bytes = new byte[size];
+    buf.readBytes(bytes);
+    return new Move(id, from, to, bytes);
+  }
+}
@@ -14,6 +14,7 @@ import org.adamalang.caravan.contracts.WALEntry;
 import org.adamalang.caravan.index.Heap;
 import org.adamalang.caravan.index.Index;
 
+/** a snapshot of the heap and index; the index may be left empty such that it follows as IndexSegment entries */
 public class OrganizationSnapshot implements WALEntry {
   private final Heap heap;
   private final Index index;
@@ -23,11 +24,20 @@ public class OrganizationSnapshot implements WALEntry {
     this.index = index;
   }
 
+  /** snapshot the heap alone; the index is written in segments after this */
+  public OrganizationSnapshot(Heap heap) {
+    this(heap, null);
+  }
+
   @Override
   public void write(ByteBuf buf) {
     buf.writeByte(0x55);
     heap.snapshot(buf);
-    index.snapshot(buf);
+    if (index != null) {
+      index.snapshot(buf);
+    } else {
+      buf.writeBoolean(false);
+    }
   }
 
   public static void populateAfterTypeId(ByteBuf buf, Heap heap, Index index) {
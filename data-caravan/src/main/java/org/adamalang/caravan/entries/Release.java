@@ -0,0 +1,45 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan.entries;
+
+import io.netty.buffer.ByteBuf;
+import org.adamalang.caravan.contracts.WALEntry;
+import org.adamalang.caravan.index.Region;
+
+import java.util.ArrayList;
+
+/** the regions vacated by moves are returned to the heap; this is written in the same page as the moves */
+public class Release implements WALEntry<Release> {
+  public final ArrayList<Region> regions;
+
+  public Release(ArrayList<Region> regions) {
+    this.regions = regions;
+  }
+
+  public void write(ByteBuf buf) {
+    buf.writeByte(0x27);
+    buf.writeIntLE(regions.size());
+    for (Region region : regions) {
+      buf.writeLongLE(region.position);
+      buf.writeIntLE(region.size);
+    }
+  }
+
+  public static Release readAfterTypeId(ByteBuf buf) {
+    int count = buf.readIntLE();
+    ArrayList<Region> regions = new ArrayList<>(count);
+    for (int k = 0; k < count; k++) {
+      long position = buf.readLongLE();
+      int size = buf.readIntLE();
+      regions.add(new Region(position, size));
+    }
+    return new Release(regions);
+  }
+}
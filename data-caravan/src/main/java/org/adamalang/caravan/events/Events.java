@@ -50,7 +50,7 @@ public interface Events {
         this.agent = update.who.agent;
         this.authority = update.who.authority;
       }
-      this.request = update.request;
+      this.request = update.request();
       this.redo = update.redo;
       this.undo = update.undo;
       this.active = update.requiresFutureInvalidation;
@@ -9,6 +9,7 @@
  */
 package org.adamalang.caravan.events;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import org.adamalang.caravan.contracts.ByteArrayStream;
 import org.adamalang.runtime.contracts.AutoMorphicAccumulator;
@@ -35,6 +36,8 @@ public abstract class LocalCache implements ByteArrayStream, EventCodec.HandlerE
   private final ArrayDeque<SeqString> undos;
   private int seq;
   public SeqString document;
+  private long bytes;
+  private int inflight;
 
   public LocalCache() {
     this.document = null;
@@ -42,12 +45,39 @@ public abstract class LocalCache implements ByteArrayStream, EventCodec.HandlerE
     this.undos = new ArrayDeque<>();
     this.seq = 0;
     this.itemsInRemote = 0;
+    this.bytes = 0;
+    this.inflight = 0;
+  }
+
+  /** the number of bytes held by the cache (i.e. the sum of the redo, undo, and snapshot lengths) */
+  public long measure() {
+    return bytes;
+  }
+
+  /** a write is in-flight against this cache, so it must not be evicted */
+  public void pin() {
+    inflight++;
+  }
+
+  /** the write has landed */
+  public void unpin() {
+    inflight--;
+  }
+
+  /** can this cache be evicted and reloaded from the store */
+  public boolean canEvict() {
+    return inflight == 0;
   }
 
   @Override
   public void next(int appendIndex, byte[] value) {
+    next(appendIndex, Unpooled.wrappedBuffer(value));
+  }
+
+  @Override
+  public void next(int appendIndex, ByteBuf value) {
     this.currentAppendIndex = appendIndex;
-    EventCodec.route(Unpooled.wrappedBuffer(value), this);
+    EventCodec.route(value, this);
     this.itemsInRemote++;
   }
 
@@ -63,15 +93,21 @@ public abstract class LocalCache implements ByteArrayStream, EventCodec.HandlerE
 
   @Override
   public void handle(Events.Snapshot payload) {
+    if (document != null) {
+      bytes -= document.data.length();
+    }
     document = new SeqString(payload.seq, payload.document);
+    bytes += document.data.length();
     Iterator<SeqString> it = redos.iterator();
     while (it.hasNext()) {
-      if (it.next().seq + payload.history <= payload.seq) {
+      SeqString redo = it.next();
+      if (redo.seq + payload.history <= payload.seq) {
+        bytes -= redo.data.length();
         it.remove();
       }
     }
     while (undos.size() > payload.history) {
-      undos.removeLast();
+      bytes -= undos.removeLast().data.length();
     }
   }
 
@@ -86,6 +122,7 @@ public abstract class LocalCache implements ByteArrayStream, EventCodec.HandlerE
   public void handle(Events.Change change) {
     redos.add(new SeqString(change.seq_end, change.redo));
     undos.addFirst(new SeqString(change.seq_begin, change.undo));
+    bytes += change.redo.length() + change.undo.length();
     seq = change.seq_end;
   }
 
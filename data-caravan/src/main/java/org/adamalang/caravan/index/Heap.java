@@ -17,6 +17,12 @@ public interface Heap {
 
   void free(Region region);
 
+  /** how many bytes are free */
+  long available();
+
+  /** the size of the largest contiguous free block */
+  long largest();
+
   void snapshot(ByteBuf buf);
 
   void load(ByteBuf buf);
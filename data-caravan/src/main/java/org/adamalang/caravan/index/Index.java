@@ -11,34 +11,75 @@ package org.adamalang.caravan.index;
 
 import io.netty.buffer.ByteBuf;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
-/** maps longs to lists of regions */
+/** maps longs to lists of regions; each list is a ring buffer of primitives such that trimming the head is O(1) */
 public class Index {
-  private final HashMap<Long, ArrayList<Region>> index;
+  private final LongMap<Regions> index;
 
   public Index() {
-    this.index = new HashMap<>();
+    this.index = new LongMap<>();
   }
 
   /** append a region to an id */
   public int append(long id, Region region) {
-    ArrayList<Region> regions = index.get(id);
+    Regions regions = index.get(id);
     if (regions == null) {
-      regions = new ArrayList<>();
+      regions = new Regions(4);
       index.put(id, regions);
     }
-    regions.add(region);
-    return regions.size();
+    regions.add(region.position, region.size);
+    return regions.count;
   }
 
   /** return the regions bound to an object */
   public Iterator<Region> get(long id) {
-    List<Region> regions = index.get(id);
-    if (regions == null) {
-      regions = Collections.emptyList();
+    Regions regions = index.get(id);
+    return new Iterator<>() {
+      private int at = 0;
+
+      @Override
+      public boolean hasNext() {
+        return regions != null && at < regions.count;
+      }
+
+      @Override
+      public Region next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return regions.get(at++);
+      }
+    };
+  }
+
+  /** the ids within the index (as of now) */
+  public long[] ids() {
+    long[] ids = new long[index.size()];
+    int k = 0;
+    for (int slot = 0; slot < index.capacity(); slot++) {
+      if (index.valueAt(slot) != null) {
+        ids[k++] = index.keyAt(slot);
+      }
+    }
+    return ids;
+  }
+
+  /** replace the region of an object which starts at from's position with the given region */
+  public boolean relocate(long id, Region from, Region to) {
+    Regions regions = index.get(id);
+    if (regions != null) {
+      for (int k = 0; k < regions.count; k++) {
+        if (regions.position(k) == from.position) {
+          regions.set(k, to.position, to.size);
+          return true;
+        }
+      }
     }
-    return regions.iterator();
+    return false;
   }
 
   /** does the index contain the given id */
@@ -48,53 +89,69 @@ public class Index {
 
   /** delete an object by id; return the regions allocated to it */
   public ArrayList<Region> delete(long id) {
-    return index.remove(id);
+    Regions regions = index.remove(id);
+    if (regions == null) {
+      return null;
+    }
+    return regions.trim(regions.count);
   }
 
   /** trim the head of an object (by id) the given count; returned the returned regions */
   public ArrayList<Region> trim(long id, int count) {
-    ArrayList<Region> regions = index.get(id);
+    Regions regions = index.get(id);
     if (regions != null) {
-      ArrayList<Region> trimmed = new ArrayList<>();
-      Iterator<Region> it = regions.iterator();
-      int k = 0;
-      while (k < count && it.hasNext()) {
-        Region region = it.next();
-        trimmed.add(region);
-        it.remove();
-        k++;
-      }
-      return trimmed;
+      return regions.trim(Math.max(0, Math.min(count, regions.count)));
     }
     return null;
   }
 
   /** take a snapshot of the index */
   public void snapshot(ByteBuf buf) {
-    for (Map.Entry<Long, ArrayList<Region>> entry : index.entrySet()) {
-      buf.writeBoolean(true);
-      buf.writeLongLE(entry.getKey());
-      buf.writeIntLE(entry.getValue().size());
-      for (Region region: entry.getValue()) {
-        buf.writeLongLE(region.position);
-        buf.writeIntLE(region.size);
+    snapshot(buf, 0, Integer.MAX_VALUE);
+  }
+
+  /**
+   * take a segment of a snapshot of the index starting at the given cursor (0 to start); the segment is closed once it
+   * exceeds the given bytes. The index must not change between segments.
+   *
+   * @return the cursor for the next segment, or -1 once the snapshot is complete
+   */
+  public int snapshot(ByteBuf buf, int cursor, int maxBytes) {
+    int start = buf.writerIndex();
+    int slot = cursor;
+    while (slot < index.capacity() && buf.writerIndex() - start < maxBytes) {
+      Regions regions = index.valueAt(slot);
+      if (regions != null) {
+        buf.writeBoolean(true);
+        buf.writeLongLE(index.keyAt(slot));
+        buf.writeIntLE(regions.count);
+        for (int k = 0; k < regions.count; k++) {
+          buf.writeLongLE(regions.position(k));
+          buf.writeIntLE(regions.size(k));
+        }
       }
+      slot++;
     }
     buf.writeBoolean(false);
+    return slot < index.capacity() ? slot : -1;
   }
 
   /** load an index from a snapshot */
   public void load(ByteBuf buf) {
     index.clear();
+    loadSegment(buf);
+  }
+
+  /** load a segment of a snapshot into the index */
+  public void loadSegment(ByteBuf buf) {
     while (buf.readBoolean()) {
       long id = buf.readLongLE();
       int count = buf.readIntLE();
-      ArrayList<Region> regions = new ArrayList<>(count);
+      Regions regions = new Regions(Math.max(4, Integer.highestOneBit(Math.max(1, count - 1)) << 1));
       for (int k = 0; k < count; k++) {
         long start = buf.readLongLE();
         int size = buf.readIntLE();
-        Region region = new Region(start, size);
-        regions.add(region);
+        regions.add(start, size);
       }
       index.put(id, regions);
     }
@@ -103,13 +160,89 @@ public class Index {
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder();
-    for (Map.Entry<Long, ArrayList<Region>> entry : index.entrySet()) {
-      sb.append(entry.getKey()).append("=");
-      for (Region region : entry.getValue()) {
-        sb.append(region.toString());
+    long[] ids = ids();
+    Arrays.sort(ids);
+    for (long id : ids) {
+      Regions regions = index.get(id);
+      sb.append(id).append("=");
+      for (int k = 0; k < regions.count; k++) {
+        sb.append(regions.get(k).toString());
       }
       sb.append(";");
     }
     return sb.toString();
   }
+
+  /** a ring buffer of regions held as primitives (12 bytes per region) */
+  private static class Regions {
+    private long[] positions;
+    private int[] sizes;
+    private int head;
+    private int count;
+
+    private Regions(int capacity) {
+      this.positions = new long[capacity];
+      this.sizes = new int[capacity];
+      this.head = 0;
+      this.count = 0;
+    }
+
+    private int at(int k) {
+      return (head + k) & (positions.length - 1);
+    }
+
+    private long position(int k) {
+      return positions[at(k)];
+    }
+
+    private int size(int k) {
+      return sizes[at(k)];
+    }
+
+    private Region get(int k) {
+      int at = at(k);
+      return new Region(positions[at], sizes[at]);
+    }
+
+    private void set(int k, long position, int size) {
+      int at = at(k);
+      positions[at] = position;
+      sizes[at] = size;
+    }
+
+    private void add(long position, int size) {
+      if (count == positions.length) {
+        resize(positions.length * 2);
+      }
+      set(count, position, size);
+      count++;
+    }
+
+    /** remove the given number of regions from the head */
+    private ArrayList<Region> trim(int n) {
+      ArrayList<Region> trimmed = new ArrayList<>(n);
+      for (int k = 0; k < n; k++) {
+        trimmed.add(get(k));
+      }
+      head = at(n);
+      count -= n;
+      if (positions.length > 16 && count * 4 < positions.length) {
+        resize(positions.length / 2);
+      }
+      return trimmed;
+    }
+
+    private void resize(int capacity) {
+      long[] newPositions = new long[capacity];
+      int[] newSizes = new int[capacity];
+      for (int k = 0; k < count; k++) {
+        int at = at(k);
+        newPositions[k] = positions[at];
+        newSizes[k] = sizes[at];
+      }
+      positions = newPositions;
+      sizes = newSizes;
+      head = 0;
+    }
+  }
 }
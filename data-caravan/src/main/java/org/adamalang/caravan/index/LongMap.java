@@ -0,0 +1,128 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan.index;
+
+import java.util.Arrays;
+
+/** an open-addressing hash map from primitive longs to (non-null) values; this avoids boxing keys and entry objects */
+public class LongMap<T> {
+  private long[] keys;
+  private Object[] values;
+  private int mask;
+  private int size;
+
+  public LongMap() {
+    this.keys = new long[16];
+    this.values = new Object[16];
+    this.mask = 15;
+    this.size = 0;
+  }
+
+  private static int hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  /** internal: the slot holding the key, or the empty slot where it would go */
+  private int slot(long key) {
+    int at = hash(key) & mask;
+    while (values[at] != null && keys[at] != key) {
+      at = (at + 1) & mask;
+    }
+    return at;
+  }
+
+  @SuppressWarnings("unchecked")
+  public T get(long key) {
+    return (T) values[slot(key)];
+  }
+
+  public boolean containsKey(long key) {
+    return values[slot(key)] != null;
+  }
+
+  /** bind the key to the (non-null) value */
+  public void put(long key, T value) {
+    int at = slot(key);
+    if (values[at] == null) {
+      if ((size + 1) * 4 > keys.length * 3) {
+        resize(keys.length * 2);
+        at = slot(key);
+      }
+      size++;
+    }
+    keys[at] = key;
+    values[at] = value;
+  }
+
+  /** remove the key; returns the value bound, or null if nothing was bound */
+  @SuppressWarnings("unchecked")
+  public T remove(long key) {
+    int at = slot(key);
+    T result = (T) values[at];
+    if (result == null) {
+      return null;
+    }
+    size--;
+    // shift the following entries of the probe sequence back such that there are no gaps
+    int gap = at;
+    int next = (gap + 1) & mask;
+    while (values[next] != null) {
+      int home = hash(keys[next]) & mask;
+      if (((next - home) & mask) >= ((next - gap) & mask)) {
+        keys[gap] = keys[next];
+        values[gap] = values[next];
+        gap = next;
+      }
+      next = (next + 1) & mask;
+    }
+    values[gap] = null;
+    return result;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public void clear() {
+    Arrays.fill(values, null);
+    size = 0;
+  }
+
+  /** the number of slots; used with keyAt and valueAt to walk the map without allocating */
+  public int capacity() {
+    return keys.length;
+  }
+
+  public long keyAt(int slot) {
+    return keys[slot];
+  }
+
+  /** the value at the given slot, or null if the slot is empty */
+  @SuppressWarnings("unchecked")
+  public T valueAt(int slot) {
+    return (T) values[slot];
+  }
+
+  private void resize(int capacity) {
+    long[] oldKeys = keys;
+    Object[] oldValues = values;
+    keys = new long[capacity];
+    values = new Object[capacity];
+    mask = capacity - 1;
+    for (int k = 0; k < oldKeys.length; k++) {
+      if (oldValues[k] != null) {
+        int at = slot(oldKeys[k]);
+        keys[at] = oldKeys[k];
+        values[at] = oldValues[k];
+      }
+    }
+  }
+}
@@ -114,6 +114,28 @@ public class DoubleLinkedHeap implements Heap {
     }
   }
 
+  @Override
+  public long available() {
+    long sum = 0;
+    FreeSpace current = head;
+    while (current != null) {
+      sum += current.size;
+      current = current.next;
+    }
+    return sum;
+  }
+
+  @Override
+  public long largest() {
+    long max = 0;
+    FreeSpace current = head;
+    while (current != null) {
+      max = Math.max(max, current.size);
+      current = current.next;
+    }
+    return max;
+  }
+
   @Override
   public void snapshot(ByteBuf buf) {
     FreeSpace current = head;
@@ -21,6 +21,7 @@ public class IndexedHeap implements Heap {
   private final HashMap<Long, FreeSpace> left;
   private final HashMap<Long, FreeSpace> right;
   private final TreeMap<Long, TreeMap<Long, FreeSpace>> sized;
+  private long available;
 
   /** a mapping of free space */
   private class FreeSpace implements Comparable<FreeSpace> {
@@ -57,6 +58,7 @@ public class IndexedHeap implements Heap {
     this.left = new HashMap<>();
     this.right = new HashMap<>();
     this.sized = new TreeMap<>();
+    this.available = 0;
     FreeSpace head = new FreeSpace();
     head.start = 0;
     head.size = maximumSize;
@@ -91,6 +93,7 @@ public class IndexedHeap implements Heap {
   }
 
   private void add(FreeSpace space) {
+    available += space.size;
     left.put(space.start, space);
     right.put(space.start + space.size, space);
     TreeMap<Long, FreeSpace> bucket = sized.get(space.size);
@@ -102,6 +105,7 @@ public class IndexedHeap implements Heap {
   }
 
   private void remove(FreeSpace space) {
+    available -= space.size;
     left.remove(space.start);
     right.remove(space.start + space.size);
     TreeMap<Long, FreeSpace> bucket = sized.get(space.size);
@@ -145,6 +149,19 @@ public class IndexedHeap implements Heap {
     }
   }
 
+  @Override
+  public long available() {
+    return available;
+  }
+
+  @Override
+  public long largest() {
+    if (sized.isEmpty()) {
+      return 0;
+    }
+    return sized.lastKey();
+  }
+
   @Override
   public void snapshot(ByteBuf buf) {
     for (FreeSpace current : left.values()) {
@@ -160,6 +177,7 @@ public class IndexedHeap implements Heap {
     left.clear();
     right.clear();
     sized.clear();
+    available = 0;
     while (buf.readBoolean()) {
       FreeSpace current = new FreeSpace();
       current.start = buf.readLongLE();
@@ -51,6 +51,16 @@ public class SplitHeat implements Heap {
     }
   }
 
+  @Override
+  public long available() {
+    return left.available() + right.available();
+  }
+
+  @Override
+  public long largest() {
+    return Math.max(left.largest(), right.largest());
+  }
+
   @Override
   public void snapshot(ByteBuf buf) {
     left.snapshot(buf);
@@ -17,6 +17,9 @@ import org.adamalang.caravan.mocks.SimpleIntCallback;
 import org.adamalang.caravan.mocks.SimpleMockCallback;
 import org.adamalang.common.Callback;
 import org.adamalang.common.SimpleExecutor;
+import org.adamalang.common.metrics.Gauge;
+import org.adamalang.common.metrics.Inflight;
+import org.adamalang.common.metrics.MetricsFactory;
 import org.adamalang.common.metrics.NoOpMetricsFactory;
 import org.adamalang.runtime.data.*;
 import org.adamalang.runtime.natives.NtClient;
@@ -24,6 +27,9 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.TimeUnit;
 
 public class CaravanDataServiceTests {
@@ -50,7 +56,7 @@ public class CaravanDataServiceTests {
     private final CaravanDataService service;
     private final Thread flusher;
 
-    public Setup() throws Exception {
+    public Setup(long maxCachedBytes, MetricsFactory metrics) throws Exception {
       this.executor = SimpleExecutor.create("executor");
       this.root = new File(File.createTempFile("ADAMATEST_", "yyy").getParentFile(), "base-" + System.currentTimeMillis());
       root.delete();
@@ -87,7 +93,7 @@ public class CaravanDataServiceTests {
 
         }
       };
-      this.service = new CaravanDataService(finder, store, executor);
+      this.service = new CaravanDataService(new CaravanMetrics(metrics), finder, store, executor, maxCachedBytes);
       this.flusher = new Thread(new Runnable() {
         @Override
         public void run() {
@@ -113,7 +119,11 @@ public class CaravanDataServiceTests {
   }
 
   private void flow(BadConsumer<Setup> test) throws Exception {
-    Setup setup = new Setup();
+    flow(CaravanDataService.DEFAULT_MAX_CACHED_BYTES, new NoOpMetricsFactory(), test);
+  }
+
+  private void flow(long maxCachedBytes, MetricsFactory metrics, BadConsumer<Setup> test) throws Exception {
+    Setup setup = new Setup(maxCachedBytes, metrics);
     try {
       test.accept(setup);
     } finally {
@@ -364,4 +374,120 @@ public class CaravanDataServiceTests {
 
     });
   }
+
+  @Test
+  public void evicting_everything() throws Exception {
+    HashMap<String, AtomicInteger> counters = new HashMap<>();
+    AtomicInteger documents = new AtomicInteger(0);
+    AtomicLong resident = new AtomicLong(-1);
+    NoOpMetricsFactory metrics = new NoOpMetricsFactory() {
+      @Override
+      public Runnable counter(String name) {
+        AtomicInteger count = new AtomicInteger(0);
+        counters.put(name, count);
+        return () -> count.incrementAndGet();
+      }
+
+      @Override
+      public Inflight inflight(String name) {
+        return new Inflight() {
+          @Override
+          public void up() {
+            documents.incrementAndGet();
+          }
+
+          @Override
+          public void down() {
+            documents.decrementAndGet();
+          }
+        };
+      }
+
+      @Override
+      public Gauge gauge(String name) {
+        return (value) -> resident.set(value);
+      }
+    };
+    // with no budget, every document leaves the cache once its writes land, so each read has to reload from the store
+    flow(0, metrics, (setup) -> {
+      SimpleMockCallback cb_Init = new SimpleMockCallback();
+      setup.service.initialize(KEY1, UPDATE_1, cb_Init);
+      cb_Init.assertSuccess();
+      SimpleMockCallback cb_Patch = new SimpleMockCallback();
+      setup.service.patch(KEY1, new RemoteDocumentUpdate[] { UPDATE_2 }, cb_Patch);
+      cb_Patch.assertSuccess();
+      setup.service.flush(false).await(1000, TimeUnit.MILLISECONDS);
+      int evicted = counters.get("caravan_cache_evict").get();
+      Assert.assertEquals(2, evicted);
+      Assert.assertEquals(0, documents.get());
+      Assert.assertEquals(0, resident.get());
+      SimpleDataCallback cb_GetFirst = new SimpleDataCallback();
+      setup.service.get(KEY1, cb_GetFirst);
+      cb_GetFirst.assertSuccess();
+      setup.service.flush(false).await(1000, TimeUnit.MILLISECONDS);
+      Assert.assertEquals("{\"x\":2,\"y\":4}", cb_GetFirst.value);
+      Assert.assertEquals(2, cb_GetFirst.reads);
+      int misses = counters.get("caravan_cache_miss").get();
+      Assert.assertEquals(2, misses);
+      Assert.assertEquals(0, counters.get("caravan_cache_hit").get());
+      Assert.assertEquals(evicted + 1, counters.get("caravan_cache_evict").get());
+      Assert.assertEquals(0, documents.get());
+      Assert.assertEquals(0, resident.get());
+      SimpleDataCallback cb_GetSecond = new SimpleDataCallback();
+      setup.service.get(KEY1, cb_GetSecond);
+      cb_GetSecond.assertSuccess();
+      setup.service.flush(false).await(1000, TimeUnit.MILLISECONDS);
+      Assert.assertEquals(cb_GetFirst.value, cb_GetSecond.value);
+      Assert.assertEquals(cb_GetFirst.reads, cb_GetSecond.reads);
+      Assert.assertEquals(misses + 1, counters.get("caravan_cache_miss").get());
+      Assert.assertEquals(evicted + 2, counters.get("caravan_cache_evict").get());
+      Assert.assertEquals(0, documents.get());
+      Assert.assertEquals(0, resident.get());
+    });
+  }
+
+  @Test
+  public void eviction() throws Exception {
+    HashMap<String, AtomicInteger> counters = new HashMap<>();
+    NoOpMetricsFactory metrics = new NoOpMetricsFactory() {
+      @Override
+      public Runnable counter(String name) {
+        AtomicInteger count = new AtomicInteger(0);
+        counters.put(name, count);
+        return () -> count.incrementAndGet();
+      }
+    };
+    // the budget is enough for one document, so touching one document evicts the other; eviction runs after the
+    // callback, so the executor is drained (via flush) before counting
+    flow(50, metrics, (setup) -> {
+      SimpleMockCallback cb_Init1 = new SimpleMockCallback();
+      setup.service.initialize(KEY1, UPDATE_1, cb_Init1);
+      cb_Init1.assertSuccess();
+      setup.service.flush(false).await(1000, TimeUnit.MILLISECONDS);
+      SimpleMockCallback cb_Init2 = new SimpleMockCallback();
+      setup.service.initialize(KEY2, UPDATE_1, cb_Init2);
+      cb_Init2.assertSuccess();
+      setup.service.flush(false).await(1000, TimeUnit.MILLISECONDS);
+      Assert.assertEquals(1, counters.get("caravan_cache_evict").get());
+      SimpleMockCallback cb_Patch1 = new SimpleMockCallback();
+      setup.service.patch(KEY1, new RemoteDocumentUpdate[] { UPDATE_2 }, cb_Patch1);
+      cb_Patch1.assertSuccess();
+      setup.service.flush(false).await(1000, TimeUnit.MILLISECONDS);
+      Assert.assertEquals(1, counters.get("caravan_cache_miss").get());
+      Assert.assertEquals(2, counters.get("caravan_cache_evict").get());
+      SimpleDataCallback cb_Get1 = new SimpleDataCallback();
+      setup.service.get(KEY1, cb_Get1);
+      cb_Get1.assertSuccess();
+      setup.service.flush(false).await(1000, TimeUnit.MILLISECONDS);
+      Assert.assertEquals("{\"x\":2,\"y\":4}", cb_Get1.value);
+      Assert.assertEquals(1, counters.get("caravan_cache_hit").get());
+      SimpleDataCallback cb_Get2 = new SimpleDataCallback();
+      setup.service.get(KEY2, cb_Get2);
+      cb_Get2.assertSuccess();
+      setup.service.flush(false).await(1000, TimeUnit.MILLISECONDS);
+      Assert.assertEquals("{\"x\":1,\"y\":4}", cb_Get2.value);
+      Assert.assertEquals(2, counters.get("caravan_cache_miss").get());
+      Assert.assertEquals(3, counters.get("caravan_cache_evict").get());
+    });
+  }
 }
@@ -9,6 +9,8 @@
  */
 package org.adamalang.caravan.data;
 
+import io.netty.buffer.ByteBuf;
+import org.adamalang.caravan.contracts.ByteArrayStream;
 import org.adamalang.caravan.mocks.MockByteArrayStream;
 import org.adamalang.common.metrics.NoOpMetricsFactory;
 import org.junit.Assert;
@@ -88,6 +90,232 @@ public class DurableListStoreTests {
     }
   }
 
+  @Test
+  public void read_in_place() throws Exception {
+    File testRoot = File.createTempFile("flow", "durable_list_store_read_in_place");
+    testRoot.delete();
+    testRoot.mkdirs();
+    try {
+      DurableListStore store = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(testRoot, "storage"), testRoot, 64 * 1024, 64, 1024);
+      Runnable event = () -> {};
+      store.append(1, "A".getBytes(StandardCharsets.UTF_8), event);
+      store.append(1, "BB".getBytes(StandardCharsets.UTF_8), event);
+      store.append(2, "Z".getBytes(StandardCharsets.UTF_8), event);
+      store.append(1, "CCC".getBytes(StandardCharsets.UTF_8), event);
+      StringBuilder sb = new StringBuilder();
+      store.read(1, new ByteArrayStream() {
+        @Override
+        public void next(int appendIndex, byte[] value) {
+          Assert.fail();
+        }
+
+        @Override
+        public void next(int appendIndex, ByteBuf value) {
+          Assert.assertTrue(value.isReadOnly());
+          sb.append("[" + appendIndex + "=" + value.toString(StandardCharsets.UTF_8) + "]");
+        }
+
+        @Override
+        public void finished() {
+          sb.append("FINISHED");
+        }
+      });
+      Assert.assertEquals("[0=A][1=BB][2=CCC]FINISHED", sb.toString());
+      MockByteArrayStream stream = new MockByteArrayStream();
+      store.read(1, stream);
+      stream.assertIs("[0=A][1=BB][2=CCC]FINISHED");
+      store.shutdown();
+    } finally {
+      for (File file : testRoot.listFiles()) {
+        file.delete();
+      }
+      testRoot.delete();
+    }
+  }
+
+  @Test
+  public void defragment() throws Exception {
+    File testRoot = File.createTempFile("flow", "durable_list_store_defragment");
+    testRoot.delete();
+    testRoot.mkdirs();
+    try {
+      Runnable event = () -> {};
+      double fragmented;
+      {
+        DurableListStore store = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(testRoot, "storage"), testRoot, 64 * 1024, 1024 * 1024, 32 * 1024 * 1024);
+        for (int k = 0; k < 200; k++) {
+          store.append(k, ("Value:" + k + "/0123456789012345678901234567890").getBytes(StandardCharsets.UTF_8), event);
+        }
+        for (int k = 0; k < 200; k += 2) {
+          store.delete(k, event);
+        }
+        store.flush(false);
+        fragmented = store.fragmentation();
+        Assert.assertTrue(fragmented > 0.1);
+        long largest = store.largestFreeBlock();
+        // bounded slices
+        long moved = store.defragment(100);
+        Assert.assertTrue(moved > 0 && moved < 200);
+        while (store.defragment(1024) > 0) {
+        }
+        Assert.assertTrue(store.fragmentation() < fragmented);
+        // the largest block lives in the other half of the split heap
+        Assert.assertEquals(largest, store.largestFreeBlock());
+        // appends land after the moves within the log
+        store.append(1, "Hot".getBytes(StandardCharsets.UTF_8), event);
+        store.flush(false);
+        for (int k = 1; k < 200; k += 2) {
+          MockByteArrayStream stream = new MockByteArrayStream();
+          store.read(k, stream);
+          stream.assertIs("[0=Value:" + k + "/0123456789012345678901234567890]" + (k == 1 ? "[1=Hot]" : "") + "FINISHED");
+        }
+        fragmented = store.fragmentation();
+        store.shutdown();
+      }
+      {
+        // the moves are replayed from the log
+        DurableListStore store = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(testRoot, "storage"), testRoot, 64 * 1024, 1024 * 1024, 32 * 1024 * 1024);
+        Assert.assertEquals(fragmented, store.fragmentation(), 0.0001);
+        for (int k = 1; k < 200; k += 2) {
+          MockByteArrayStream stream = new MockByteArrayStream();
+          store.read(k, stream);
+          stream.assertIs("[0=Value:" + k + "/0123456789012345678901234567890]" + (k == 1 ? "[1=Hot]" : "") + "FINISHED");
+        }
+        Assert.assertFalse(store.exists(2));
+        store.shutdown();
+      }
+    } finally {
+      for (File file : testRoot.listFiles()) {
+        file.delete();
+      }
+      testRoot.delete();
+    }
+  }
+
+  @Test
+  public void defragment_then_reuse() throws Exception {
+    File testRoot = File.createTempFile("flow", "durable_list_store_defragment_reuse");
+    testRoot.delete();
+    testRoot.mkdirs();
+    try {
+      Runnable event = () -> {};
+      {
+        DurableListStore store = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(testRoot, "storage"), testRoot, 64 * 1024, 1024 * 1024, 32 * 1024 * 1024);
+        store.append(1, "One".getBytes(StandardCharsets.UTF_8), event);
+        store.append(2, "Two".getBytes(StandardCharsets.UTF_8), event);
+        store.append(3, "Three".getBytes(StandardCharsets.UTF_8), event);
+        store.delete(1, event);
+        // the appends leave the log
+        store.flush(true);
+        Assert.assertTrue(store.defragment(1024) > 0);
+        store.flush(false);
+        // the vacated regions are reused
+        store.append(4, "Six".getBytes(StandardCharsets.UTF_8), event);
+        store.flush(false);
+        store.shutdown();
+      }
+      {
+        DurableListStore store = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(testRoot, "storage"), testRoot, 64 * 1024, 1024 * 1024, 32 * 1024 * 1024);
+        String[] expected = new String[] {null, "Two", "Three", "Six"};
+        for (int k = 2; k <= 4; k++) {
+          MockByteArrayStream stream = new MockByteArrayStream();
+          store.read(k, stream);
+          stream.assertIs("[0=" + expected[k - 1] + "]FINISHED");
+        }
+        store.shutdown();
+      }
+    } finally {
+      for (File file : testRoot.listFiles()) {
+        file.delete();
+      }
+      testRoot.delete();
+    }
+  }
+
+  @Test
+  public void fsync_per_flush() throws Exception {
+    File testRoot = File.createTempFile("flow", "durable_list_store_fsync");
+    testRoot.delete();
+    testRoot.mkdirs();
+    try {
+      DurableListStore store = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(testRoot, "storage"), testRoot, 64 * 1024, 1024, 1024 * 1024, DurabilityMode.FsyncPerFlush, 0);
+      AtomicInteger count = new AtomicInteger(0);
+      Runnable event = () -> { count.incrementAndGet(); };
+      store.append(1, "XYZ".getBytes(StandardCharsets.UTF_8), event);
+      store.append(2, "ABC".getBytes(StandardCharsets.UTF_8), event);
+      Assert.assertEquals(0, count.get());
+      store.flush(false);
+      Assert.assertEquals(2, count.get());
+      store.flush(false);
+      store.delete(1, event);
+      store.flush(true);
+      Assert.assertEquals(3, count.get());
+      store.shutdown();
+      DurableListStore reload = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(testRoot, "storage"), testRoot, 64 * 1024, 1024, 1024 * 1024, DurabilityMode.FsyncPerFlush, 0);
+      Assert.assertFalse(reload.exists(1));
+      MockByteArrayStream stream = new MockByteArrayStream();
+      reload.read(2, stream);
+      stream.assertIs("[0=ABC]FINISHED");
+      reload.shutdown();
+    } finally {
+      for (File file : testRoot.listFiles()) {
+        file.delete();
+      }
+      testRoot.delete();
+    }
+  }
+
+  @Test
+  public void group_commit() throws Exception {
+    File testRoot = File.createTempFile("flow", "durable_list_store_group_commit");
+    testRoot.delete();
+    testRoot.mkdirs();
+    try {
+      DurableListStore store = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(testRoot, "storage"), testRoot, 64 * 1024, 1024, 1024 * 1024, DurabilityMode.GroupCommit, 60000);
+      AtomicInteger count = new AtomicInteger(0);
+      Runnable event = () -> { count.incrementAndGet(); };
+      store.append(1, "XYZ".getBytes(StandardCharsets.UTF_8), event);
+      store.flush(false);
+      store.append(2, "ABC".getBytes(StandardCharsets.UTF_8), event);
+      store.flush(false);
+      // the group has yet to wait long enough
+      Assert.assertEquals(0, count.get());
+      // a cut over forces the group out
+      store.flush(true);
+      Assert.assertEquals(2, count.get());
+      store.shutdown();
+    } finally {
+      for (File file : testRoot.listFiles()) {
+        file.delete();
+      }
+      testRoot.delete();
+    }
+  }
+
+  @Test
+  public void group_commit_timed() throws Exception {
+    File testRoot = File.createTempFile("flow", "durable_list_store_group_commit_timed");
+    testRoot.delete();
+    testRoot.mkdirs();
+    try {
+      DurableListStore store = new DurableListStore(new DurableListStoreMetrics(new NoOpMetricsFactory()), new File(testRoot, "storage"), testRoot, 64 * 1024, 1024, 1024 * 1024, DurabilityMode.GroupCommit, 5);
+      AtomicInteger count = new AtomicInteger(0);
+      Runnable event = () -> { count.incrementAndGet(); };
+      store.append(1, "XYZ".getBytes(StandardCharsets.UTF_8), event);
+      store.flush(false);
+      store.append(2, "ABC".getBytes(StandardCharsets.UTF_8), event);
+      Thread.sleep(10);
+      store.flush(false);
+      Assert.assertEquals(2, count.get());
+      store.shutdown();
+    } finally {
+      for (File file : testRoot.listFiles()) {
+        file.delete();
+      }
+      testRoot.delete();
+    }
+  }
+
   @Test
   public void load() throws Exception {
     File testRoot = File.createTempFile("flow", "durable_list_store_load");
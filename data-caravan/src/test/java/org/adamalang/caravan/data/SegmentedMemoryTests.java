@@ -0,0 +1,64 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan.data;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+
+public class SegmentedMemoryTests {
+  @Test
+  public void straddle() throws Exception {
+    File file = File.createTempFile("segmented", "memory");
+    try (RandomAccessFile storage = new RandomAccessFile(file, "rw")) {
+      storage.setLength(100);
+      SegmentedMemory memory = new SegmentedMemory(storage.getChannel(), 100, 16);
+      Assert.assertEquals(100, memory.size());
+      byte[] message = "this message crosses many segments".getBytes(StandardCharsets.UTF_8);
+      memory.put(10, message);
+      memory.put(90, "0123456789".getBytes(StandardCharsets.UTF_8));
+      byte[] read = new byte[message.length];
+      memory.get(10, read);
+      Assert.assertEquals("this message crosses many segments", new String(read, StandardCharsets.UTF_8));
+      byte[] tail = new byte[10];
+      memory.get(90, tail);
+      Assert.assertEquals("0123456789", new String(tail, StandardCharsets.UTF_8));
+      byte[] exact = new byte[16];
+      memory.get(16, exact);
+      Assert.assertEquals("essage crosses m", new String(exact, StandardCharsets.UTF_8));
+      memory.force();
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void slice() throws Exception {
+    File file = File.createTempFile("segmented", "memory");
+    try (RandomAccessFile storage = new RandomAccessFile(file, "rw")) {
+      storage.setLength(100);
+      SegmentedMemory memory = new SegmentedMemory(storage.getChannel(), 100, 16);
+      memory.put(10, "this message crosses many segments".getBytes(StandardCharsets.UTF_8));
+      ByteBuf inside = memory.slice(10, 4);
+      Assert.assertTrue(inside.isReadOnly());
+      Assert.assertEquals("this", inside.toString(StandardCharsets.UTF_8));
+      ByteBuf across = memory.slice(10, 34);
+      Assert.assertEquals(34, across.readableBytes());
+      Assert.assertEquals("this message crosses many segments", across.toString(StandardCharsets.UTF_8));
+      Assert.assertEquals("essage crosses m", memory.slice(16, 16).toString(StandardCharsets.UTF_8));
+    } finally {
+      file.delete();
+    }
+  }
+}
@@ -0,0 +1,33 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan.entries;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class MoveTests {
+  @Test
+  public void flow() {
+    Move move = new Move(123L, 4000L, 100L, "Moved".getBytes(StandardCharsets.UTF_8));
+    ByteBuf buf = Unpooled.buffer();
+    move.write(buf);
+    Assert.assertEquals(0x31, buf.readByte());
+    Move move2 = Move.readAfterTypeId(buf);
+    Assert.assertEquals(123L, move2.id);
+    Assert.assertEquals(4000L, move2.from);
+    Assert.assertEquals(100L, move2.to);
+    Assert.assertEquals(5, move2.size);
+    Assert.assertEquals("Moved", new String(move2.bytes, StandardCharsets.UTF_8));
+  }
+}
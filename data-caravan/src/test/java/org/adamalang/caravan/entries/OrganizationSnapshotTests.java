@@ -45,4 +45,42 @@ public class OrganizationSnapshotTests {
       Assert.assertEquals(givenIndex, index.toString());
     }
   }
+
+  @Test
+  public void segmented() {
+    ByteBuf buf = Unpooled.buffer();
+    final String givenHeap;
+    final String givenIndex;
+    {
+      Heap heap = new IndexedHeap(4096);
+      Index index = new Index();
+      for (int k = 0; k < 20; k++) {
+        index.append(k, heap.ask(42));
+        index.append(k, heap.ask(10));
+      }
+      givenHeap = heap.toString();
+      givenIndex = index.toString();
+      new OrganizationSnapshot(heap).write(buf);
+      int cursor = 0;
+      while (cursor >= 0) {
+        IndexSegment segment = new IndexSegment(index, cursor, 64);
+        segment.write(buf);
+        cursor = segment.next();
+      }
+    }
+    {
+      Assert.assertEquals(0x55, buf.readByte());
+      Heap heap = new IndexedHeap(4096);
+      Index index = new Index();
+      index.append(1000, heap.ask(1));
+      OrganizationSnapshot.populateAfterTypeId(buf, heap, index);
+      Assert.assertEquals("", index.toString());
+      while (buf.isReadable()) {
+        Assert.assertEquals(0x57, buf.readByte());
+        IndexSegment.populateAfterTypeId(buf, index);
+      }
+      Assert.assertEquals(givenHeap, heap.toString());
+      Assert.assertEquals(givenIndex, index.toString());
+    }
+  }
 }
@@ -0,0 +1,35 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan.entries;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.adamalang.caravan.index.Region;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+public class ReleaseTests {
+  @Test
+  public void flow() {
+    ArrayList<Region> regions = new ArrayList<>();
+    regions.add(new Region(100, 42));
+    regions.add(new Region(4000, 7));
+    Release release = new Release(regions);
+    ByteBuf buf = Unpooled.buffer();
+    release.write(buf);
+    Assert.assertEquals(0x27, buf.readByte());
+    Release release2 = Release.readAfterTypeId(buf);
+    Assert.assertEquals(2, release2.regions.size());
+    Assert.assertEquals("[100,142)", release2.regions.get(0).toString());
+    Assert.assertEquals("[4000,4007)", release2.regions.get(1).toString());
+  }
+}
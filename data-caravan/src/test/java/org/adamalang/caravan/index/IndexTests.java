@@ -15,6 +15,9 @@ import org.adamalang.caravan.index.heaps.IndexedHeap;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+
 public class IndexTests {
   public void assertEquals(String expected, Index index) {
     Assert.assertEquals(expected, index.toString());
@@ -58,6 +61,12 @@ public class IndexTests {
     }
     Assert.assertFalse(index.exists(3));
     assertEquals("1=[0,100)[100,200);2=[200,300)[300,400);4=[606,610);", index);
+    Assert.assertEquals(3, index.ids().length);
+    Assert.assertTrue(index.relocate(4L, new Region(606, 4), new Region(400, 4)));
+    Assert.assertFalse(index.relocate(4L, new Region(606, 4), new Region(400, 4)));
+    Assert.assertFalse(index.relocate(42L, new Region(606, 4), new Region(400, 4)));
+    assertEquals("1=[0,100)[100,200);2=[200,300)[300,400);4=[400,404);", index);
+    Assert.assertTrue(index.relocate(4L, new Region(400, 4), new Region(606, 4)));
 
     for (Region region : index.delete(4)) {
       heap.free(region);
@@ -72,4 +81,53 @@ public class IndexTests {
     Assert.assertEquals("[0,1024)", heap.toString());
     Assert.assertNull(index.trim(500, 1));
   }
+
+  @Test
+  public void long_history_trim() {
+    Index index = new Index();
+    for (int k = 0; k < 10000; k++) {
+      index.append(1L, new Region(k * 10L, 10));
+    }
+    int expectedStart = 0;
+    for (int k = 0; k < 99; k++) {
+      ArrayList<Region> trimmed = index.trim(1L, 100);
+      Assert.assertEquals(100, trimmed.size());
+      Assert.assertEquals(expectedStart * 10L, trimmed.get(0).position);
+      expectedStart += 100;
+      index.append(1L, new Region(100000L + k, 1));
+    }
+    Iterator<Region> it = index.get(1L);
+    Assert.assertEquals(99000L, it.next().position);
+    int count = 1;
+    while (it.hasNext()) {
+      it.next();
+      count++;
+    }
+    Assert.assertEquals(199, count);
+    Assert.assertEquals(200, index.append(1L, new Region(200000L, 1)));
+    Assert.assertEquals(200, index.trim(1L, 1000).size());
+    Assert.assertTrue(index.exists(1L));
+    Assert.assertFalse(index.get(1L).hasNext());
+  }
+
+  @Test
+  public void segmented_snapshot() {
+    Index index = new Index();
+    for (int k = 0; k < 100; k++) {
+      index.append(k, new Region(k * 100L, 10));
+      index.append(k, new Region(k * 100L + 50, 20));
+    }
+    String expected = index.toString();
+    Index copy = new Index();
+    int cursor = 0;
+    int segments = 0;
+    while (cursor >= 0) {
+      ByteBuf buf = Unpooled.buffer();
+      cursor = index.snapshot(buf, cursor, 256);
+      copy.loadSegment(buf);
+      segments++;
+    }
+    Assert.assertTrue(segments > 5);
+    Assert.assertEquals(expected, copy.toString());
+  }
 }
@@ -0,0 +1,67 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.caravan.index;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+public class LongMapTests {
+  @Test
+  public void flow() {
+    LongMap<String> map = new LongMap<>();
+    Assert.assertNull(map.get(0));
+    Assert.assertFalse(map.containsKey(0));
+    map.put(0, "zero");
+    map.put(-1, "negative");
+    map.put(Long.MAX_VALUE, "max");
+    Assert.assertEquals(3, map.size());
+    Assert.assertEquals("zero", map.get(0));
+    Assert.assertEquals("negative", map.get(-1));
+    Assert.assertEquals("max", map.get(Long.MAX_VALUE));
+    map.put(0, "ZERO");
+    Assert.assertEquals(3, map.size());
+    Assert.assertEquals("ZERO", map.remove(0));
+    Assert.assertNull(map.remove(0));
+    Assert.assertEquals(2, map.size());
+    map.clear();
+    Assert.assertEquals(0, map.size());
+    Assert.assertNull(map.get(-1));
+  }
+
+  @Test
+  public void random() {
+    LongMap<Long> map = new LongMap<>();
+    HashMap<Long, Long> expected = new HashMap<>();
+    Random rng = new Random(42);
+    for (int k = 0; k < 100000; k++) {
+      long key = rng.nextInt(2000) * 65536L;
+      if (rng.nextInt(3) == 0) {
+        Assert.assertEquals(expected.remove(key), map.remove(key));
+      } else {
+        long value = rng.nextLong();
+        expected.put(key, value);
+        map.put(key, value);
+      }
+      Assert.assertEquals(expected.size(), map.size());
+    }
+    int found = 0;
+    for (int slot = 0; slot < map.capacity(); slot++) {
+      Long value = map.valueAt(slot);
+      if (value != null) {
+        Assert.assertEquals(expected.get(map.keyAt(slot)), value);
+        found++;
+      }
+    }
+    Assert.assertEquals(expected.size(), found);
+  }
+}
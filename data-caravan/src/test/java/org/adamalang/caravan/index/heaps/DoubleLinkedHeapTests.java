@@ -44,6 +44,8 @@ public class DoubleLinkedHeapTests {
     assetEqualsAfterSnapshot("[97,1024)", heap);
     heap.free(a2);
     assetEqualsAfterSnapshot("[7,83)[97,1024)", heap);
+    Assert.assertEquals(1003, heap.available());
+    Assert.assertEquals(927, heap.largest());
     Region r1 = heap.ask(5);
     assetEqualsAfterSnapshot("[12,83)[97,1024)", heap);
     Region r2 = heap.ask(50);
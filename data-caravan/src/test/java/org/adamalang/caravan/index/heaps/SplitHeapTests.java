@@ -54,6 +54,8 @@ public class SplitHeapTests {
     assetEqualsAfterSnapshot("Split{left=[36,128),+offset128:right=[50,1024)}", heap);
     heap.free(a1);
     assetEqualsAfterSnapshot("Split{left=[0,7)[36,128),+offset128:right=[50,1024)}", heap);
+    Assert.assertEquals(1073, heap.available());
+    Assert.assertEquals(974, heap.largest());
     heap.free(a3);
     assetEqualsAfterSnapshot("Split{left=[0,9)[36,128),+offset128:right=[50,1024)}", heap);
     heap.free(a4);
@@ -54,16 +54,21 @@ public class DiskBase {
   public DocumentMemoryLog getOrCreate(Key key) {
     DocumentMemoryLog log = memory.get(key);
     if (log == null) {
-      File spacePath = new File(dataDirectory, key.space);
-      if (!spacePath.exists()) {
-        spacePath.mkdirs();
-      }
-      log = new DocumentMemoryLog(key, spacePath);
+      log = make(key);
       memory.put(key, log);
     }
     return log;
   }
 
+  /** make a log for the document without tracking it in memory; this is safe to call from any thread */
+  public DocumentMemoryLog make(Key key) {
+    File spacePath = new File(dataDirectory, key.space);
+    if (!spacePath.exists()) {
+      spacePath.mkdirs();
+    }
+    return new DocumentMemoryLog(key, spacePath);
+  }
+
   public void attachFile(File fileToDelete) {
     PostFlushCleanupEvent event = new PostFlushCleanupEvent(metrics.disk_data_open_wal_files, fileToDelete, memory.size());
     for (DocumentMemoryLog log : memory.values()) {
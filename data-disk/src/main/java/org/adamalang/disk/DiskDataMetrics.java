@@ -23,6 +23,10 @@ public class DiskDataMetrics {
   public final Inflight disk_data_open_wal_files;
   public final Runnable disk_data_flush_file;
   public final Runnable disk_data_unload;
+  public final Runnable disk_data_recovery_wal_file;
+  public final Runnable disk_data_recovery_message;
+  public final Runnable disk_data_recovery_flush;
+  public final Inflight disk_data_recovery_documents;
 
   public DiskDataMetrics(MetricsFactory factory) {
     this.disk_data_get = factory.makeCallbackMonitor("disk_data_get");
@@ -34,5 +38,9 @@ public class DiskDataMetrics {
     this.disk_data_open_wal_files = factory.inflight("disk_data_open_wal_files");
     this.disk_data_flush_file = factory.counter("disk_data_flush_file");
     this.disk_data_unload = factory.counter("disk_data_unload");
+    this.disk_data_recovery_wal_file = factory.counter("disk_data_recovery_wal_file");
+    this.disk_data_recovery_message = factory.counter("disk_data_recovery_message");
+    this.disk_data_recovery_flush = factory.counter("disk_data_recovery_flush");
+    this.disk_data_recovery_documents = factory.inflight("disk_data_recovery_documents");
   }
 }
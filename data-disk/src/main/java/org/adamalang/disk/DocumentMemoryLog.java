@@ -12,6 +12,7 @@ package org.adamalang.disk;
 import org.adamalang.ErrorCodes;
 import org.adamalang.common.Callback;
 import org.adamalang.common.ErrorCodeException;
+import org.adamalang.disk.files.DeltaFrame;
 import org.adamalang.disk.files.SnapshotFileStreamEvents;
 import org.adamalang.disk.files.SnapshotHeader;
 import org.adamalang.disk.wal.WriteAheadMessage;
@@ -31,8 +32,18 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.regex.Pattern;
 
+/**
+ * the in-memory state of a document backed by a base SNAPSHOT file and an append-only DELTAS file; flushing appends the new
+ * changes to the delta tail, and the base is only rewritten once the tail is too long relative to the base
+ */
 public class DocumentMemoryLog {
   private static final Logger LOGGER = LoggerFactory.getLogger(DocumentMemoryLog.class);
+  /** rebase once the delta tail is larger than this ratio of the base document */
+  public static final double REBASE_RATIO = 1.0;
+  /** ... but let small documents accumulate at least this many bytes of tail */
+  public static final long REBASE_MINIMUM_TAIL_BYTES = 64 * 1024;
+  /** rebase once the tail has this many changes such that loading stays bounded */
+  public static final int REBASE_MAXIMUM_TAIL_CHANGES = 1024;
   // coordinates for the file on disk
   public final File spacePath;
   public final Key key;
@@ -51,6 +62,13 @@ public class DocumentMemoryLog {
   private ArrayList<Undo> undoHistory;
   private long lastActivity;
   private boolean hasActivityToFlush;
+  // incremental persistence
+  private final ArrayList<DeltaFrame> unflushed;
+  private boolean rebase;
+  private long baseBytes;
+  private long tailBytes;
+  private int tailChanges;
+
   public DocumentMemoryLog(Key key, File spacePath) {
     this.spacePath = spacePath;
     this.key = key;
@@ -68,6 +86,11 @@ public class DocumentMemoryLog {
     cleanup = new ArrayList<>();
     this.lastActivity = System.currentTimeMillis();
     this.hasActivityToFlush = true;
+    this.unflushed = new ArrayList<>();
+    this.rebase = false;
+    this.baseBytes = 0;
+    this.tailBytes = 0;
+    this.tailChanges = 0;
   }
 
   public long age() {
@@ -90,6 +113,8 @@ public class DocumentMemoryLog {
     this.redoLog.clear();
     this.undoStack.clear();
     this.undoHistory.clear();
+    this.unflushed.clear();
+    this.rebase = true;
     resetLastActivity();
   }
 
@@ -118,6 +143,7 @@ public class DocumentMemoryLog {
         undoStack.push(new Undo(change.undo, seq));
         active = change.active;
         assetBytes += change.dAssetBytes;
+        unflushed.add(new DeltaFrame(seq, active, assetBytes, change.redo, change.undo));
       }
     }
     resetLastActivity();
@@ -127,6 +153,7 @@ public class DocumentMemoryLog {
     if (snapshot.seq <= this.seq) {
       this.document = snapshot.document;
       this.history = snapshot.history;
+      this.rebase = true;
       Iterator<Redo> it = redoLog.iterator();
       while (it.hasNext()) {
         Redo redo = it.next();
@@ -147,6 +174,7 @@ public class DocumentMemoryLog {
     this.redoLog.clear();
     this.undoStack.clear();
     this.undoHistory.clear();
+    this.unflushed.clear();
     resetLastActivity();
   }
 
@@ -220,6 +248,7 @@ public class DocumentMemoryLog {
         public boolean onHeader(SnapshotHeader header) throws IOException {
           history = header.history;
           seq = header.seq;
+          baseBytes = header.documentSize;
           active = header.active;
           assetBytes = header.assetBytes;
           return true;
@@ -246,9 +275,68 @@ public class DocumentMemoryLog {
     } finally {
       input.close();
     }
+    replayTail();
     loaded = true;
     resetLastActivity();
+  }
 
+  /** apply the changes within the delta tail to the base */
+  private void replayTail() throws IOException {
+    tailBytes = 0;
+    tailChanges = 0;
+    File deltas = suffixFile("DELTAS");
+    if (!deltas.exists()) {
+      return;
+    }
+    AutoMorphicAccumulator<String> merge = null;
+    ArrayList<Undo> replayed = new ArrayList<>();
+    FileInputStream input = new FileInputStream(deltas);
+    try {
+      DataInputStream data = new DataInputStream(new BufferedInputStream(input));
+      DeltaFrame.Read read;
+      while ((read = DeltaFrame.read(data)) != null) {
+        tailBytes += read.size;
+        tailChanges++;
+        DeltaFrame frame = read.frame;
+        // frames at or before the base are left over from a rebase which did not get to remove the tail
+        if (frame.seq > seq) {
+          if (merge == null) {
+            merge = JsonAlgebra.mergeAccumulator();
+            merge.next(document);
+          }
+          merge.next(frame.redo);
+          seq = frame.seq;
+          active = frame.active;
+          assetBytes = frame.assetBytes;
+          replayed.add(new Undo(frame.undo, frame.seq));
+        }
+      }
+    } finally {
+      input.close();
+    }
+    if (merge != null) {
+      document = merge.finish();
+    }
+    if (tailBytes < deltas.length()) {
+      // the tail was torn by a crash, so cut it such that appends follow the last good frame
+      RandomAccessFile file = new RandomAccessFile(deltas, "rw");
+      try {
+        file.setLength(tailBytes);
+      } finally {
+        file.close();
+      }
+    }
+    ArrayList<Undo> newUndoHistory = new ArrayList<>();
+    for (int k = replayed.size() - 1; k >= 0 && newUndoHistory.size() < history; k--) {
+      newUndoHistory.add(replayed.get(k));
+    }
+    for (Undo undo : undoHistory) {
+      if (newUndoHistory.size() >= history) {
+        break;
+      }
+      newUndoHistory.add(undo);
+    }
+    undoHistory = newUndoHistory;
   }
 
   public boolean ensureLoaded(Callback<?> callback) {
@@ -317,54 +405,105 @@ public class DocumentMemoryLog {
     }
   }
 
-  public void flush() throws IOException {
+  /** persist the document; returns the number of bytes written */
+  public long flush() throws IOException {
     if (reset) {
-      File snapshotToDelete = suffixFile("SNAPSHOT");
-      snapshotToDelete.delete();
+      suffixFile("SNAPSHOT").delete();
+      suffixFile("DELTAS").delete();
       reset = false;
     }
     if (!loaded) {
-      return;
+      return 0;
+    }
+
+    long written;
+    if (rebase || tailChanges >= REBASE_MAXIMUM_TAIL_CHANGES || tailBytes > Math.max(REBASE_MINIMUM_TAIL_BYTES, (long) (baseBytes * REBASE_RATIO))) {
+      written = writeBase();
+    } else {
+      written = appendTail();
+    }
+    for (PostFlushCleanupEvent post : cleanup) {
+      post.finished();
     }
+    cleanup.clear();
+    resetLastActivity();
+    this.hasActivityToFlush = false;
+    return written;
+  }
 
-    // compact the data
+  /** the undo history to keep on disk: the newest undos bounded by the history */
+  private ArrayList<Undo> foldUndo() {
+    ArrayList<Undo> newUndoHistory = new ArrayList<>();
+    Iterator<Undo> undoIt = undoStack.iterator();
+    while (undoIt.hasNext() && newUndoHistory.size() < history) {
+      newUndoHistory.add(undoIt.next());
+    }
+    for (Undo undo : undoHistory) {
+      if (newUndoHistory.size() < history) {
+        newUndoHistory.add(undo);
+      } else {
+        break;
+      }
+    }
+    return newUndoHistory;
+  }
+
+  /** write a new base snapshot (atomically) and then drop the tail */
+  private long writeBase() throws IOException {
     compact();
     File toWrite = suffixFile("SNAPSHOT.temp");
     byte[] documentBytes = document.getBytes(StandardCharsets.UTF_8);
     BufferedOutputStream output = new BufferedOutputStream(new FileOutputStream(toWrite), 64 * 1024);
-    ArrayList<Undo> newUndoHistory = new ArrayList<>();
+    ArrayList<Undo> newUndoHistory = foldUndo();
     try {
       SnapshotFileStreamEvents writer = SnapshotFileStreamEvents.writerFor(new DataOutputStream(output));
       writer.onHeader(new SnapshotHeader(seq, history, documentBytes.length, assetBytes, active));
       writer.onDocument(documentBytes);
-      Iterator<Undo> undoIt = undoStack.iterator();
-      while (undoIt.hasNext() && newUndoHistory.size() < history) {
-        Undo undo = undoIt.next();
+      for (Undo undo : newUndoHistory) {
         writer.onUndo(undo.seq, undo.undo);
-        newUndoHistory.add(undo);
-      }
-      for (Undo undo : undoHistory) {
-        if (newUndoHistory.size() < history) {
-          writer.onUndo(undo.seq, undo.undo);
-          newUndoHistory.add(undo);
-        } else {
-          break;
-        }
       }
       writer.onFinished(true);
     } finally {
       output.close();
     }
-
+    long written = toWrite.length();
     Files.move(toWrite.toPath(), suffixFile("SNAPSHOT").toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    // if we crash before this, then the tail is ignored on load since the base covers it
+    suffixFile("DELTAS").delete();
     undoHistory = newUndoHistory;
     undoStack.clear();
-    for (PostFlushCleanupEvent post : cleanup) {
-      post.finished();
+    unflushed.clear();
+    rebase = false;
+    baseBytes = documentBytes.length;
+    tailBytes = 0;
+    tailChanges = 0;
+    return written;
+  }
+
+  /** append the new changes to the tail */
+  private long appendTail() throws IOException {
+    long written = 0;
+    if (unflushed.size() > 0) {
+      DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(suffixFile("DELTAS"), true), 64 * 1024));
+      try {
+        for (DeltaFrame frame : unflushed) {
+          written += frame.write(output);
+        }
+        output.flush();
+      } catch (IOException ex) {
+        // the tail may now be torn, so the next flush must rewrite everything
+        rebase = true;
+        throw ex;
+      } finally {
+        output.close();
+      }
+      tailBytes += written;
+      tailChanges += unflushed.size();
+      unflushed.clear();
     }
-    cleanup.clear();
-    resetLastActivity();
-    this.hasActivityToFlush = false;
+    undoHistory = foldUndo();
+    undoStack.clear();
+    return written;
   }
 
   private static class Undo {
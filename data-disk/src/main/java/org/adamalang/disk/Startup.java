@@ -11,27 +11,89 @@ package org.adamalang.disk;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import org.adamalang.common.NamedThreadFactory;
 import org.adamalang.disk.wal.WriteAheadMessage;
 import org.adamalang.disk.wal.WriteAheadMessageCodec;
+import org.adamalang.runtime.data.Key;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
 
+/**
+ * replay the write ahead logs left behind into the data directory. The messages are partitioned by document across a pool of
+ * workers which hold the documents in memory across every log, and each document is flushed once at the end (or earlier if
+ * a worker holds too much). The logs are only deleted once every document has been flushed.
+ */
 public class Startup {
   private static final Logger LOGGER = LoggerFactory.getLogger(Startup.class);
+  /** how many bytes of messages the workers may hold (in total) before flushing the documents they hold */
+  public static final long MEMORY_BUDGET_BYTES = 512L * 1024 * 1024;
+  /** how many batches may be waiting for a worker before the reader blocks */
+  private static final int WORKER_QUEUE_SIZE = 64;
+  private static final ArrayList<Replay> END = new ArrayList<>();
 
   public static void transfer(DiskBase base) throws IOException {
+    transfer(base, Runtime.getRuntime().availableProcessors());
+  }
+
+  public static void transfer(DiskBase base, int threads) throws IOException {
+    transfer(base, threads, MEMORY_BUDGET_BYTES);
+  }
+
+  public static void transfer(DiskBase base, int threads, long memoryBudgetBytes) throws IOException {
     File[] walsInOrder = getWalFilesToIngest(base);
+    if (walsInOrder.length == 0) {
+      return;
+    }
+    long started = System.currentTimeMillis();
+    Worker[] workers = new Worker[Math.max(1, threads)];
+    NamedThreadFactory factory = new NamedThreadFactory("disk-recovery");
+    for (int k = 0; k < workers.length; k++) {
+      workers[k] = new Worker(base, memoryBudgetBytes / workers.length);
+      factory.newThread(workers[k]).start();
+    }
+    IOException readFailure = null;
+    try {
+      long bytes = 0;
+      for (File walFile : walsInOrder) {
+        bytes += replay(walFile, base, workers);
+        base.metrics.disk_data_recovery_wal_file.run();
+        LOGGER.info("recovery-replayed:" + walFile.getName() + " (" + bytes + " bytes, " + (System.currentTimeMillis() - started) + " ms)");
+      }
+    } catch (IOException ex) {
+      readFailure = ex;
+    } catch (RuntimeException ex) {
+      readFailure = new IOException("recovery-failed-read", ex);
+    } finally {
+      for (Worker worker : workers) {
+        worker.offer(END);
+      }
+    }
+    IOException failure = readFailure;
+    for (Worker worker : workers) {
+      worker.await();
+      if (failure == null) {
+        failure = worker.failure;
+      }
+    }
+    if (failure != null) {
+      // the logs are left as is such that the next startup will try again
+      throw failure;
+    }
     for (File walFile : walsInOrder) {
-      replay(walFile, base);
-      base.flushAllNow(true);
       walFile.delete();
     }
+    LOGGER.info("recovery-finished:" + walsInOrder.length + " logs in " + (System.currentTimeMillis() - started) + " ms");
   }
 
   private static File[] getWalFilesToIngest(DiskBase base) throws IOException {
@@ -62,10 +124,13 @@ public class Startup {
     return sorted;
   }
 
-  private static void replay(File walFile, DiskBase base) throws IOException {
+  /** read the log and route each message to the worker which owns the document; returns the bytes read */
+  @SuppressWarnings("unchecked")
+  private static long replay(File walFile, DiskBase base, Worker[] workers) throws IOException {
+    long bytes = 0;
     FileInputStream fileInputStream = new FileInputStream(walFile);
     try {
-      DataInputStream read = new DataInputStream(fileInputStream);
+      DataInputStream read = new DataInputStream(new BufferedInputStream(fileInputStream, 1024 * 1024));
       int rd;
       while ((rd = read.read()) > 0) {
         if (rd != 0x42) {
@@ -75,18 +140,144 @@ public class Startup {
         int pageBytes = read.readInt();
         byte[] page = new byte[pageBytes];
         read.readFully(page);
+        bytes += 5 + pageBytes;
         ByteBuf buf = Unpooled.wrappedBuffer(page);
+        ArrayList<Replay>[] batches = new ArrayList[workers.length];
         while (buf.readableBytes() > 0) {
+          int before = buf.readerIndex();
           WriteAheadMessage message = WriteAheadMessageCodec.read_WriteAheadMessage(buf);
-          DocumentMemoryLog log = base.getOrCreate(message.key());
-          if (message.requiresLoad()) {
-            log.loadIfNotLoaded();
+          int owner = Math.floorMod(message.key().hashCode(), workers.length);
+          if (batches[owner] == null) {
+            batches[owner] = new ArrayList<>();
+          }
+          batches[owner].add(new Replay(message, buf.readerIndex() - before));
+          base.metrics.disk_data_recovery_message.run();
+        }
+        for (int k = 0; k < workers.length; k++) {
+          if (batches[k] != null) {
+            workers[k].offer(batches[k]);
           }
-          message.apply(log);
         }
       }
     } finally {
       fileInputStream.close();
     }
+    return bytes;
+  }
+
+  /** a message along with (roughly) how much memory it holds */
+  private static class Replay {
+    private final WriteAheadMessage message;
+    private final int size;
+
+    private Replay(WriteAheadMessage message, int size) {
+      this.message = message;
+      this.size = size;
+    }
+  }
+
+  /** owns a partition of the documents during recovery */
+  private static class Worker implements Runnable {
+    private final DiskBase base;
+    private final long budget;
+    private final ArrayBlockingQueue<ArrayList<Replay>> queue;
+    private final HashMap<Key, DocumentMemoryLog> documents;
+    private final CountDownLatch done;
+    private long held;
+    private IOException failure;
+
+    private Worker(DiskBase base, long budget) {
+      this.base = base;
+      this.budget = budget;
+      this.queue = new ArrayBlockingQueue<>(WORKER_QUEUE_SIZE);
+      this.documents = new HashMap<>();
+      this.done = new CountDownLatch(1);
+      this.held = 0;
+      this.failure = null;
+    }
+
+    private void offer(ArrayList<Replay> batch) throws IOException {
+      try {
+        queue.put(batch);
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw new IOException("interrupted during recovery", ie);
+      }
+    }
+
+    private void await() throws IOException {
+      try {
+        done.await();
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw new IOException("interrupted during recovery", ie);
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (true) {
+          ArrayList<Replay> batch = queue.take();
+          if (batch == END) {
+            break;
+          }
+          if (failure != null) {
+            // keep draining such that the reader never blocks
+            continue;
+          }
+          try {
+            for (Replay replay : batch) {
+              apply(replay);
+            }
+            if (held > budget) {
+              flushAll();
+            }
+          } catch (Throwable ex) {
+            // a bad message (or merge) fails the recovery, but the queue must keep draining
+            fail("recovery-failed", ex);
+          }
+        }
+        if (failure == null) {
+          flushAll();
+        }
+      } catch (InterruptedException ie) {
+        failure = new IOException("interrupted during recovery", ie);
+      } catch (Throwable ex) {
+        fail("recovery-failed-flush", ex);
+      } finally {
+        done.countDown();
+      }
+    }
+
+    private void fail(String event, Throwable ex) {
+      LOGGER.error(event, ex);
+      failure = ex instanceof IOException ? (IOException) ex : new IOException(event, ex);
+    }
+
+    private void apply(Replay replay) throws IOException {
+      Key key = replay.message.key();
+      DocumentMemoryLog log = documents.get(key);
+      if (log == null) {
+        log = base.make(key);
+        documents.put(key, log);
+        base.metrics.disk_data_recovery_documents.up();
+      }
+      if (replay.message.requiresLoad()) {
+        log.loadIfNotLoaded();
+      }
+      replay.message.apply(log);
+      held += replay.size;
+    }
+
+    private void flushAll() throws IOException {
+      for (DocumentMemoryLog log : documents.values()) {
+        log.flush();
+        base.metrics.disk_data_recovery_flush.run();
+        base.metrics.disk_data_recovery_documents.down();
+      }
+      documents.clear();
+      held = 0;
+    }
   }
 }
@@ -25,7 +25,7 @@ public class BatchPatch {
     output.writeInt(updates.length);
     for (int k = 0; k < updates.length; k++) {
       RemoteDocumentUpdate update = updates[k];
-      writeString(output, update.request);
+      writeString(output, update.request());
       writeString(output, update.redo);
       writeString(output, update.undo);
       output.writeInt(update.seqBegin);
@@ -0,0 +1,105 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.disk.files;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/** a change appended to the tail of a document's delta file; frames are checksummed such that a torn write (i.e. a crash) ends the tail */
+public class DeltaFrame {
+  private static final int MAGIC = 0x5E1A7A;
+  private static final int HEADER_SIZE = 12;
+  private static final int MAX_PAYLOAD_SIZE = 256 * 1024 * 1024;
+  public final int seq;
+  public final boolean active;
+  public final long assetBytes;
+  public final String redo;
+  public final String undo;
+
+  public DeltaFrame(int seq, boolean active, long assetBytes, String redo, String undo) {
+    this.seq = seq;
+    this.active = active;
+    this.assetBytes = assetBytes;
+    this.redo = redo;
+    this.undo = undo;
+  }
+
+  /** write the frame; returns the number of bytes written */
+  public int write(DataOutputStream output) throws IOException {
+    byte[] redoBytes = redo.getBytes(StandardCharsets.UTF_8);
+    byte[] undoBytes = undo.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer payload = ByteBuffer.allocate(21 + redoBytes.length + undoBytes.length);
+    payload.putInt(seq);
+    payload.put((byte) (active ? 1 : 0));
+    payload.putLong(assetBytes);
+    payload.putInt(redoBytes.length);
+    payload.put(redoBytes);
+    payload.putInt(undoBytes.length);
+    payload.put(undoBytes);
+    byte[] bytes = payload.array();
+    CRC32 crc = new CRC32();
+    crc.update(bytes);
+    output.writeInt(MAGIC);
+    output.writeInt(bytes.length);
+    output.writeInt((int) crc.getValue());
+    output.write(bytes);
+    return HEADER_SIZE + bytes.length;
+  }
+
+  /** read the next frame; returns null at the end of the tail (either the end of the file or a torn/corrupt frame) */
+  public static Read read(DataInputStream input) throws IOException {
+    byte[] bytes;
+    int expectedCrc;
+    try {
+      if (input.readInt() != MAGIC) {
+        return null;
+      }
+      int length = input.readInt();
+      expectedCrc = input.readInt();
+      if (length < 21 || length > MAX_PAYLOAD_SIZE) {
+        return null;
+      }
+      bytes = new byte[length];
+      input.readFully(bytes);
+    } catch (EOFException eof) {
+      return null;
+    }
+    CRC32 crc = new CRC32();
+    crc.update(bytes);
+    if ((int) crc.getValue() != expectedCrc) {
+      return null;
+    }
+    ByteBuffer payload = ByteBuffer.wrap(bytes);
+    int seq = payload.getInt();
+    boolean active = payload.get() != 0;
+    long assetBytes = payload.getLong();
+    byte[] redoBytes = new byte[payload.getInt()];
+    payload.get(redoBytes);
+    byte[] undoBytes = new byte[payload.getInt()];
+    payload.get(undoBytes);
+    return new Read(new DeltaFrame(seq, active, assetBytes, new String(redoBytes, StandardCharsets.UTF_8), new String(undoBytes, StandardCharsets.UTF_8)), HEADER_SIZE + bytes.length);
+  }
+
+  /** a frame read from disk along with how many bytes it occupied */
+  public static class Read {
+    public final DeltaFrame frame;
+    public final int size;
+
+    private Read(DeltaFrame frame, int size) {
+      this.frame = frame;
+      this.size = size;
+    }
+  }
+}
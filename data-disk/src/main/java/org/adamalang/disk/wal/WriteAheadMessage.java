@@ -90,7 +90,7 @@ public interface WriteAheadMessage {
         this.agent = update.who.agent;
         this.authority = update.who.authority;
       }
-      this.request = update.request;
+      this.request = update.request();
       this.redo = update.redo;
       this.undo = update.undo;
       this.active = update.requiresFutureInvalidation;
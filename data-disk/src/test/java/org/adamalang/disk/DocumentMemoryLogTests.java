@@ -432,4 +432,105 @@ public class DocumentMemoryLogTests {
     });
     assertFile(copy, "{\"x\":4,\"y\":4}", 3);
   }
+
+  private static RemoteDocumentUpdate update(int seq) {
+    return new RemoteDocumentUpdate(seq, seq, null, "REQUEST", "{\"x\":" + seq + "}", "{\"x\":" + (seq - 1) + "}", true, 0, 100, UpdateType.AddUserData);
+  }
+
+  @Test
+  public void tail_appends_and_replays() throws Exception {
+    DocumentMemoryLog log = makeLog();
+    init(log);
+    patch(log, UPDATE_2);
+    log.flush();
+    File snapshot = log.suffixFile("SNAPSHOT");
+    File deltas = log.suffixFile("DELTAS");
+    long baseSize = snapshot.length();
+    Assert.assertFalse(deltas.exists());
+    patch(log, UPDATE_3);
+    long appended = log.flush();
+    Assert.assertEquals(deltas.length(), appended);
+    patch(log, UPDATE_4);
+    log.flush();
+    Assert.assertEquals(0, log.flush());
+    Assert.assertEquals(baseSize, snapshot.length());
+    Assert.assertTrue(deltas.length() > appended);
+    DocumentMemoryLog copy = cleanStateOf(log);
+    copy.load();
+    Assert.assertTrue(copy.canPatch(5));
+    assertGet(copy, "{\"x\":4,\"y\":4}", 4);
+    Assert.assertEquals(log.computeRewind(2), copy.computeRewind(2));
+    Assert.assertEquals("{\"x\":2,\"z\":2}", copy.computeRewind(3));
+  }
+
+  @Test
+  public void torn_tail() throws Exception {
+    DocumentMemoryLog log = makeLog();
+    init(log);
+    log.flush();
+    patch(log, UPDATE_2, UPDATE_3);
+    log.flush();
+    File deltas = log.suffixFile("DELTAS");
+    long good = deltas.length();
+    FileOutputStream output = new FileOutputStream(deltas, true);
+    try {
+      output.write(new byte[]{0, 0x5E, 0x1A, 0x7A, 0, 0, 0, 100, 1, 2});
+    } finally {
+      output.close();
+    }
+    DocumentMemoryLog copy = cleanStateOf(log);
+    copy.load();
+    Assert.assertEquals(good, deltas.length());
+    assertGet(copy, "{\"x\":3,\"y\":4}", 3);
+    patch(copy, UPDATE_4);
+    copy.flush();
+    DocumentMemoryLog again = cleanStateOf(log);
+    again.load();
+    assertGet(again, "{\"x\":4,\"y\":4}", 4);
+  }
+
+  @Test
+  public void stale_tail_after_rebase_is_ignored() throws Exception {
+    DocumentMemoryLog log = makeLog();
+    init(log);
+    log.flush();
+    patch(log, UPDATE_2, UPDATE_3);
+    log.flush();
+    File deltas = log.suffixFile("DELTAS");
+    byte[] stale = java.nio.file.Files.readAllBytes(deltas.toPath());
+    snapshot(log, "{\"x\":10,\"y\":10}", 3, 5);
+    log.flush();
+    Assert.assertFalse(deltas.exists());
+    // simulate a crash between the new base landing and the tail being removed
+    java.nio.file.Files.write(deltas.toPath(), stale);
+    DocumentMemoryLog copy = cleanStateOf(log);
+    copy.load();
+    assertGet(copy, "{\"x\":10,\"y\":10}", 3);
+    Assert.assertTrue(copy.canPatch(4));
+    patch(copy, UPDATE_4);
+    copy.flush();
+    DocumentMemoryLog again = cleanStateOf(log);
+    again.load();
+    assertGet(again, "{\"x\":4,\"y\":10}", 4);
+  }
+
+  @Test
+  public void rebase_when_tail_too_long() throws Exception {
+    DocumentMemoryLog log = makeLog();
+    init(log);
+    log.flush();
+    File deltas = log.suffixFile("DELTAS");
+    int seq = 2;
+    for (int k = 0; k < DocumentMemoryLog.REBASE_MAXIMUM_TAIL_CHANGES; k++) {
+      patch(log, update(seq++));
+      log.flush();
+    }
+    Assert.assertTrue(deltas.exists());
+    patch(log, update(seq));
+    log.flush();
+    Assert.assertFalse(deltas.exists());
+    DocumentMemoryLog copy = cleanStateOf(log);
+    copy.load();
+    assertGet(copy, "{\"x\":" + seq + ",\"y\":4}", seq);
+  }
 }
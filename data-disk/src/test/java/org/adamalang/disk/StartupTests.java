@@ -22,6 +22,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 
 public class StartupTests {
@@ -46,69 +47,136 @@ public class StartupTests {
 
   @Test
   public void startup_resurrects() throws Exception {
-    {
-      File root = new File(File.createTempFile("ADAMATEST_", "SUFF").getParentFile(), "wal_test_" + System.currentTimeMillis());
-      root.mkdir();
-      SimpleExecutor realExecutor = SimpleExecutor.create("real");
-      try {
+    resurrect((base) -> Startup.transfer(base));
+  }
 
-        {
-          SimpleExecutor executor = new FilteredSimpleExecutor(realExecutor) {
-            @Override
-            public boolean test(NamedRunnable runnable) {
-              return !"scanner-state-machine".equals(runnable.name);
-            }
-          };
-          DiskBase base = new DiskBase(new DiskDataMetrics(new NoOpMetricsFactory()), executor, root);
-          WriteAheadLog log = new WriteAheadLog(base, 1024, 5000, 16 * 1024);
-          DiskDataService service = new DiskDataService(base, log);
-          int keys = 10;
-          {
-            ArrayList<SimpleMockCallback> callbacks = new ArrayList<>();
-            for (int k = 0; k < keys; k++) {
-              SimpleMockCallback initcb = new SimpleMockCallback();
-              callbacks.add(initcb);
-              service.initialize(new Key("space", "key-" + k), INIT, initcb);
-            }
-            for (SimpleMockCallback callback : callbacks) {
-              callback.assertSuccess();
-            }
-          }
-          for (int n = 2; n < 100; n++) {
-            ArrayList<SimpleMockCallback> callbacks = new ArrayList<>();
-            for (int k = 0; k < keys; k++) {
-              SimpleMockCallback patch = new SimpleMockCallback();
-              callbacks.add(patch);
-              service.patch(new Key("space", "key-" + k), new RemoteDocumentUpdate[]{UPDATE(n)}, patch);
-            }
-            for (SimpleMockCallback callback : callbacks) {
-              callback.assertSuccess();
-            }
+  @Test
+  public void startup_resurrects_serially() throws Exception {
+    resurrect((base) -> Startup.transfer(base, 1));
+  }
+
+  @Test
+  public void startup_resurrects_with_tight_memory() throws Exception {
+    resurrect((base) -> Startup.transfer(base, 3, 1));
+  }
+
+  @Test(timeout = 60000)
+  public void startup_keeps_logs_when_a_document_fails() throws Exception {
+    File root = new File(File.createTempFile("ADAMATEST_", "SUFF").getParentFile(), "wal_test_bad_" + System.currentTimeMillis());
+    root.mkdir();
+    SimpleExecutor realExecutor = SimpleExecutor.create("real");
+    try {
+      {
+        SimpleExecutor executor = new FilteredSimpleExecutor(realExecutor) {
+          @Override
+          public boolean test(NamedRunnable runnable) {
+            return !"scanner-state-machine".equals(runnable.name);
           }
-          log.close().run();
+        };
+        DiskBase base = new DiskBase(new DiskDataMetrics(new NoOpMetricsFactory()), executor, root);
+        WriteAheadLog log = new WriteAheadLog(base, 1024, 5000, 16 * 1024);
+        DiskDataService service = new DiskDataService(base, log);
+        SimpleMockCallback initcb = new SimpleMockCallback();
+        service.initialize(new Key("space", "key"), INIT, initcb);
+        initcb.assertSuccess();
+        // a redo which isn't JSON fails once the document is merged
+        SimpleMockCallback badcb = new SimpleMockCallback();
+        service.patch(new Key("space", "key"), new RemoteDocumentUpdate[]{new RemoteDocumentUpdate(2, 2, null, "REQUEST", "{\"x\":", "{}", false, 0, 100, UpdateType.AddUserData)}, badcb);
+        badcb.assertSuccess();
+        // enough pages to fill the worker's queue
+        for (int n = 3; n < 500; n++) {
+          SimpleMockCallback patch = new SimpleMockCallback();
+          service.patch(new Key("space", "key"), new RemoteDocumentUpdate[]{UPDATE(n)}, patch);
+          patch.assertSuccess();
+        }
+        log.close().run();
+      }
+      int logs = new File(root, "wal").listFiles().length;
+      Assert.assertTrue(logs > 0);
+      {
+        DiskBase base = new DiskBase(new DiskDataMetrics(new NoOpMetricsFactory()), realExecutor, root);
+        try {
+          Startup.transfer(base, 1, 1);
+          Assert.fail();
+        } catch (IOException expected) {
         }
+      }
+      Assert.assertEquals(logs, new File(root, "wal").listFiles().length);
+    } finally {
+      nuke(root);
+    }
+  }
 
-        System.err.println(root.getAbsolutePath());
-        Assert.assertEquals(0, new File(new File(root, "data"), "space").listFiles().length);
+  private interface Transfer {
+    void transfer(DiskBase base) throws Exception;
+  }
 
+  private void resurrect(Transfer transfer) throws Exception {
+    File root = new File(File.createTempFile("ADAMATEST_", "SUFF").getParentFile(), "wal_test_" + System.currentTimeMillis());
+    root.mkdir();
+    SimpleExecutor realExecutor = SimpleExecutor.create("real");
+    try {
+
+      {
+        SimpleExecutor executor = new FilteredSimpleExecutor(realExecutor) {
+          @Override
+          public boolean test(NamedRunnable runnable) {
+            return !"scanner-state-machine".equals(runnable.name);
+          }
+        };
+        DiskBase base = new DiskBase(new DiskDataMetrics(new NoOpMetricsFactory()), executor, root);
+        WriteAheadLog log = new WriteAheadLog(base, 1024, 5000, 16 * 1024);
+        DiskDataService service = new DiskDataService(base, log);
+        int keys = 10;
         {
-          DiskBase base = new DiskBase(new DiskDataMetrics(new NoOpMetricsFactory()), realExecutor, root);
-          Startup.transfer(base);
+          ArrayList<SimpleMockCallback> callbacks = new ArrayList<>();
+          for (int k = 0; k < keys; k++) {
+            SimpleMockCallback initcb = new SimpleMockCallback();
+            callbacks.add(initcb);
+            service.initialize(new Key("space", "key-" + k), INIT, initcb);
+          }
+          for (SimpleMockCallback callback : callbacks) {
+            callback.assertSuccess();
+          }
+        }
+        for (int n = 2; n < 100; n++) {
+          ArrayList<SimpleMockCallback> callbacks = new ArrayList<>();
+          for (int k = 0; k < keys; k++) {
+            SimpleMockCallback patch = new SimpleMockCallback();
+            callbacks.add(patch);
+            service.patch(new Key("space", "key-" + k), new RemoteDocumentUpdate[]{UPDATE(n)}, patch);
+          }
+          for (SimpleMockCallback callback : callbacks) {
+            callback.assertSuccess();
+          }
         }
+        log.close().run();
+      }
 
-        {
-          DiskBase base = new DiskBase(new DiskDataMetrics(new NoOpMetricsFactory()), realExecutor, root);
-          DocumentMemoryLog log = base.getOrCreate(new Key("space", "key-5"));
+      System.err.println(root.getAbsolutePath());
+      Assert.assertEquals(0, new File(new File(root, "data"), "space").listFiles().length);
+      Assert.assertTrue(new File(root, "wal").listFiles().length > 1);
+
+      {
+        DiskBase base = new DiskBase(new DiskDataMetrics(new NoOpMetricsFactory()), realExecutor, root);
+        transfer.transfer(base);
+      }
+      Assert.assertEquals(0, new File(root, "wal").listFiles().length);
+
+      {
+        DiskBase base = new DiskBase(new DiskDataMetrics(new NoOpMetricsFactory()), realExecutor, root);
+        for (int k = 0; k < 10; k++) {
+          DocumentMemoryLog log = base.getOrCreate(new Key("space", "key-" + k));
           log.ensureLoaded(new SimpleMockCallback());
           Assert.assertEquals("{\"x\":99,\"y\":4}", log.get().patch);
           Assert.assertEquals("{\"x\":24}", log.computeRewind(25));
           Assert.assertEquals("{\"x\":49}", log.computeRewind(50));
           Assert.assertEquals("{\"x\":74}", log.computeRewind(75));
         }
-
-      } finally {
-        nuke(root);
       }
+
+    } finally {
+      nuke(root);
     }
   }
 }
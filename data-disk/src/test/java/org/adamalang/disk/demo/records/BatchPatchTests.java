@@ -71,7 +71,7 @@ public class BatchPatchTests {
     Assert.assertEquals(1, updates1[0].seqBegin);
     Assert.assertEquals(10, updates1[0].seqEnd);
     Assert.assertNull(updates1[0].who);
-    Assert.assertEquals("request", updates1[0].request);
+    Assert.assertEquals("request", updates1[0].request());
     Assert.assertEquals("redo", updates1[0].redo);
     Assert.assertEquals("undo", updates1[0].undo);
     Assert.assertTrue(updates1[0]. requiresFutureInvalidation);
@@ -83,7 +83,7 @@ public class BatchPatchTests {
     Assert.assertEquals(15, updates2[0].seqEnd);
     Assert.assertEquals("yes", updates2[0].who.agent);
     Assert.assertEquals("auth", updates2[0].who.authority);
-    Assert.assertEquals("1", updates2[0].request);
+    Assert.assertEquals("1", updates2[0].request());
     Assert.assertEquals("2", updates2[0].redo);
     Assert.assertEquals("3", updates2[0].undo);
     Assert.assertFalse(updates2[0]. requiresFutureInvalidation);
@@ -106,7 +106,7 @@ public class BatchPatchTests {
       Assert.assertEquals(1, updates[0].seqBegin);
       Assert.assertEquals(10, updates[0].seqEnd);
       Assert.assertNull(updates[0].who);
-      Assert.assertEquals("request", updates[0].request);
+      Assert.assertEquals("request", updates[0].request());
       Assert.assertEquals("redo", updates[0].redo);
       Assert.assertEquals("undo", updates[0].undo);
       Assert.assertTrue(updates[0].requiresFutureInvalidation);
@@ -116,7 +116,7 @@ public class BatchPatchTests {
       Assert.assertEquals(15, updates[1].seqEnd);
       Assert.assertEquals("yes", updates[1].who.agent);
       Assert.assertEquals("auth", updates[1].who.authority);
-      Assert.assertEquals("1", updates[1].request);
+      Assert.assertEquals("1", updates[1].request());
       Assert.assertEquals("2", updates[1].redo);
       Assert.assertEquals("3", updates[1].undo);
       Assert.assertFalse(updates[1].requiresFutureInvalidation);
@@ -126,7 +126,7 @@ public class BatchPatchTests {
       Assert.assertEquals(1, updates[2].seqBegin);
       Assert.assertEquals(10, updates[2].seqEnd);
       Assert.assertNull(updates[2].who);
-      Assert.assertEquals("request", updates[2].request);
+      Assert.assertEquals("request", updates[2].request());
       Assert.assertEquals("redo", updates[2].redo);
       Assert.assertEquals("undo", updates[2].undo);
       Assert.assertTrue(updates[2].requiresFutureInvalidation);
@@ -136,7 +136,7 @@ public class BatchPatchTests {
       Assert.assertEquals(15, updates[3].seqEnd);
       Assert.assertEquals("yes", updates[3].who.agent);
       Assert.assertEquals("auth", updates[3].who.authority);
-      Assert.assertEquals("1", updates[3].request);
+      Assert.assertEquals("1", updates[3].request());
       Assert.assertEquals("2", updates[3].redo);
       Assert.assertEquals("3", updates[3].undo);
       Assert.assertFalse(updates[3].requiresFutureInvalidation);
@@ -140,7 +140,7 @@ public class BlockingDataService implements DataService {
           statement.setString(1 + offset, "?");
           statement.setString(2 + offset, "adama");
         }
-        statement.setString(3 + offset, patch.request);
+        statement.setString(3 + offset, patch.request());
         statement.setString(4 + offset, patch.redo);
         statement.setString(5 + offset, patch.undo);
         offset += 5;
@@ -166,7 +166,7 @@ public class BlockingDataService implements DataService {
       long deltaBytesGain = 0;
       long assetBytesGain = 0;
       for (RemoteDocumentUpdate patch : patches) {
-        deltaBytesGain += patch.redo.length() + patch.undo.length() + patch.request.length();
+        deltaBytesGain += patch.redo.length() + patch.undo.length() + patch.request().length();
         assetBytesGain += patch.assetBytes;
       }
 
@@ -72,6 +72,8 @@ public class ErrorCodes {
 
   public static final int UNCAUGHT_EXCEPTION_WEB_SOCKET = 295116;
   public static final int ONLY_ACCEPTS_TEXT_FRAMES = 213711;
+  public static final int WEB_ASSET_CACHE_WRITE_FAILED = 114881;
+  public static final int WEB_ASSET_CACHE_READ_FAILED = 187586;
   public static final int USERLAND_REQUEST_NO_METHOD_PROPERTY = 213708;
   public static final int USERLAND_REQUEST_NO_ID_PROPERTY = 233120;
 
@@ -150,9 +152,11 @@ public class ErrorCodes {
   public static final int DEPLOYMENT_UNKNOWN_FIELD_ROOT = 143430;
   public static final int DEPLOYMENT_UNKNOWN_FIELD_STAGE = 116812;
   public static final int DEPLOYMENT_UNKNOWN_EXCEPTION = 146561;
+  public static final int DEPLOYMENT_COMPILE_INTERRUPTED = 133308;
+  public static final int DEPLOYMENT_COMPILE_UNKNOWN_EXCEPTION = 129727;
 
   /**
-   * 133308 129727 114881 187586 127169 197827 168131 161987
+   * 127169 197827 168131 161987
    * 146115 194752 121027 130242 144583 146631 183498 199883 116936 115917 127692 199886 109775
    * 139469 128208 114384 145627 113884 197852 199907 191713 180978 147186 120048 177395 110832
    * 193267 193264 111347 197872 193265 131825 127732 162036 127736 133371 145659 134399 120060
@@ -0,0 +1,263 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.net.client;
+
+import io.netty.buffer.ByteBuf;
+import org.adamalang.ErrorCodes;
+import org.adamalang.common.Callback;
+import org.adamalang.common.ErrorCodeException;
+import org.adamalang.common.NamedRunnable;
+import org.adamalang.common.SimpleExecutor;
+import org.adamalang.common.net.ByteStream;
+import org.adamalang.common.net.ChannelClient;
+import org.adamalang.common.net.Lifecycle;
+import org.adamalang.common.net.NetBase;
+import org.adamalang.common.queue.ItemAction;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/** a single connection to a target which reconnects with backoff; streams opened via the lane are counted such that work can go to the least loaded lane */
+public class ChannelLane {
+  private final NetBase base;
+  private final String target;
+  private final SimpleExecutor executor;
+  private final ClientMetrics metrics;
+  private final ChannelMetrics channelMetrics;
+  private final AtomicBoolean alive;
+  private final Consumer<ChannelClient> onConnected;
+  private Runnable onReady;
+  private ChannelClient channel;
+  private int streams;
+  private int backoff;
+
+  public ChannelLane(NetBase base, ClientMetrics metrics, ChannelMetrics channelMetrics, String target, SimpleExecutor executor, AtomicBoolean alive, Consumer<ChannelClient> onConnected) {
+    this.base = base;
+    this.target = target;
+    this.executor = executor;
+    this.metrics = metrics;
+    this.channelMetrics = channelMetrics;
+    this.alive = alive;
+    this.onConnected = onConnected;
+    this.onReady = () -> {};
+    this.channel = null;
+    this.streams = 0;
+    this.backoff = 1;
+  }
+
+  /** is the channel connected (executor only) */
+  public boolean isReady() {
+    return channel != null;
+  }
+
+  /** how many streams are open on the channel (executor only) */
+  public int streams() {
+    return streams;
+  }
+
+  /** the pool is told (within the executor) when the lane becomes ready such that waiting work can move to it */
+  void setOnReady(Runnable onReady) {
+    this.onReady = onReady;
+  }
+
+  /** open a stream on the connected channel and count it until either side ends it (executor only, and the lane must be ready) */
+  public void open(ByteStream downstream, Callback<ByteStream> opened) {
+    streams++;
+    channelMetrics.streams.up();
+    channelMetrics.opened.run();
+    AtomicBoolean ended = new AtomicBoolean(false);
+    Runnable end = () -> {
+      if (ended.compareAndSet(false, true) && alive.get()) {
+        executor.execute(new NamedRunnable("channel-stream-ended") {
+          @Override
+          public void execute() throws Exception {
+            streams--;
+            channelMetrics.streams.down();
+          }
+        });
+      }
+    };
+    // a lost connection both errors the registered downstream and fails the initiation, so only the first is reported
+    AtomicBoolean signalled = new AtomicBoolean(false);
+    channel.open(new CountedByteStream(downstream, end, signalled), new Callback<>() {
+      @Override
+      public void success(ByteStream upstream) {
+        opened.success(new CountedByteStream(upstream, end, null));
+      }
+
+      @Override
+      public void failure(ErrorCodeException ex) {
+        end.run();
+        if (signalled.compareAndSet(false, true)) {
+          opened.failure(ex);
+        }
+      }
+    });
+  }
+
+  /** start connecting */
+  public void start() {
+    retryConnection();
+  }
+
+  /** the channel connected (executor only) */
+  void ready(ChannelClient channel) {
+    backoff = 1;
+    if (alive.get()) {
+      this.channel = channel;
+      onReady.run();
+    } else {
+      channel.close();
+    }
+  }
+
+  /** close the channel (executor only) */
+  public void close() {
+    ItemAction<ChannelClient> close = new ItemAction<>(ErrorCodes.ADAMA_NET_CLOSE_TIMEOUT, ErrorCodes.ADAMA_NET_CLOSE_REJECTED, metrics.client_close.start()) {
+      @Override
+      protected void executeNow(ChannelClient client) {
+        client.close();
+      }
+
+      @Override
+      protected void failure(int code) {
+        // don't care
+      }
+    };
+    if (channel != null) {
+      close.execute(channel);
+    } else {
+      close.killDueToReject();
+    }
+    channel = null;
+  }
+
+  private void retryConnection() {
+    if (alive.get() && base.alive()) {
+      base.connect(target, new Lifecycle() {
+        @Override
+        public void connected(ChannelClient channel) {
+          metrics.client_connection_alive.up();
+          channelMetrics.alive.up();
+          if (!alive.get()) {
+            // the client closed while connecting, and the executor may be gone
+            channel.close();
+            return;
+          }
+          if (onConnected != null) {
+            onConnected.accept(channel);
+          }
+          executor.execute(new NamedRunnable("channel-client-ready") {
+            @Override
+            public void execute() throws Exception {
+              ready(channel);
+            }
+          });
+        }
+
+        @Override
+        public void failed(ErrorCodeException ex) {
+          if (!alive.get()) {
+            return;
+          }
+          executor.execute(new NamedRunnable("channel-client-failed") {
+            @Override
+            public void execute() throws Exception {
+              channel = null;
+              scheduleWithinExecutor();
+            }
+          });
+        }
+
+        @Override
+        public void disconnected() {
+          metrics.client_connection_alive.down();
+          channelMetrics.alive.down();
+          if (!alive.get()) {
+            // closing the client shuts down the executor, so there is nothing to retry
+            return;
+          }
+          executor.execute(new NamedRunnable("channel-client-disconnect") {
+            @Override
+            public void execute() throws Exception {
+              channel = null;
+              scheduleWithinExecutor();
+            }
+          });
+        }
+
+        private void scheduleWithinExecutor() {
+          if (alive.get()) {
+            metrics.client_retry.run();
+            channelMetrics.retry.run();
+            backoff = (int) (5 + backoff + backoff * Math.random());
+            if (backoff > 500) {
+              backoff = (int) (250 + 250 * Math.random());
+            }
+            executor.schedule(new NamedRunnable("client-retry") {
+              @Override
+              public void execute() throws Exception {
+                retryConnection();
+              }
+            }, backoff);
+          }
+        }
+      });
+    }
+  }
+
+  /** a stream which signals (once) when either side ends it; when signalled is given, only the first terminal signal reaches the delegate */
+  private static class CountedByteStream implements ByteStream {
+    private final ByteStream delegate;
+    private final Runnable end;
+    private final AtomicBoolean signalled;
+
+    private CountedByteStream(ByteStream delegate, Runnable end, AtomicBoolean signalled) {
+      this.delegate = delegate;
+      this.end = end;
+      this.signalled = signalled;
+    }
+
+    private boolean first() {
+      return signalled == null || signalled.compareAndSet(false, true);
+    }
+
+    @Override
+    public void request(int bytes) {
+      delegate.request(bytes);
+    }
+
+    @Override
+    public ByteBuf create(int bestGuessForSize) {
+      return delegate.create(bestGuessForSize);
+    }
+
+    @Override
+    public void next(ByteBuf buf) {
+      delegate.next(buf);
+    }
+
+    @Override
+    public void completed() {
+      end.run();
+      if (first()) {
+        delegate.completed();
+      }
+    }
+
+    @Override
+    public void error(int errorCode) {
+      end.run();
+      if (first()) {
+        delegate.error(errorCode);
+      }
+    }
+  }
+}
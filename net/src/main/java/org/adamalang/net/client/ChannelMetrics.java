@@ -0,0 +1,29 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.net.client;
+
+import org.adamalang.common.metrics.Inflight;
+import org.adamalang.common.metrics.MetricsFactory;
+
+/** metrics for a single channel within the pool of channels to each target; these are shared by every target */
+public class ChannelMetrics {
+  public final Inflight alive;
+  public final Inflight streams;
+  public final Runnable opened;
+  public final Runnable retry;
+
+  public ChannelMetrics(MetricsFactory factory, String lane, int index) {
+    String prefix = "client_channel_" + lane + "_" + index;
+    alive = factory.inflight(prefix + "_alive");
+    streams = factory.inflight(prefix + "_streams");
+    opened = factory.counter(prefix + "_opened");
+    retry = factory.counter(prefix + "_retry");
+  }
+}
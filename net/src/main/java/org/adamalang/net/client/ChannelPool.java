@@ -0,0 +1,85 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.net.client;
+
+import org.adamalang.common.SimpleExecutor;
+import org.adamalang.common.queue.ItemAction;
+import org.adamalang.common.queue.ItemQueue;
+
+/** a pool of channels (lanes) to a target; work is assigned to the connected lane with the fewest open streams */
+public class ChannelPool {
+  public final SimpleExecutor executor;
+  private final ChannelLane[] lanes;
+  private final ItemQueue<ChannelLane> waiting;
+  private int next;
+
+  public ChannelPool(SimpleExecutor executor, ClientConfig config, ChannelLane[] lanes) {
+    this.executor = executor;
+    this.lanes = lanes;
+    this.waiting = new ItemQueue<>(executor, config.getClientQueueSize(), config.getClientQueueTimeoutMS());
+    this.next = 0;
+    for (ChannelLane lane : lanes) {
+      lane.setOnReady(() -> {
+        // whichever lane connects first takes everything waiting
+        waiting.ready(lane);
+        waiting.unready();
+      });
+    }
+  }
+
+  /** run the action on the connected lane with the fewest open streams; if no lane is connected, then the action waits (bounded per pool) for the first lane to connect (executor only) */
+  public void add(ItemAction<ChannelLane> action) {
+    ChannelLane lane = pick();
+    if (lane != null) {
+      action.execute(lane);
+    } else {
+      waiting.add(action);
+    }
+  }
+
+  /** run the action with a custom timeout for waiting (executor only) */
+  public void add(ItemAction<ChannelLane> action, int timeout) {
+    ChannelLane lane = pick();
+    if (lane != null) {
+      action.execute(lane);
+    } else {
+      waiting.add(action, timeout);
+    }
+  }
+
+  /** pick the connected lane with the fewest open streams, or null if no lane is connected (executor only) */
+  public ChannelLane pick() {
+    int start = next;
+    next = (next + 1) % lanes.length;
+    ChannelLane best = null;
+    for (int k = 0; k < lanes.length; k++) {
+      ChannelLane lane = lanes[(start + k) % lanes.length];
+      if (lane.isReady() && (best == null || lane.streams() < best.streams())) {
+        best = lane;
+      }
+    }
+    return best;
+  }
+
+  /** start connecting every lane */
+  public void start() {
+    for (ChannelLane lane : lanes) {
+      lane.start();
+    }
+  }
+
+  /** close every lane and reject anything waiting (executor only) */
+  public void close() {
+    for (ChannelLane lane : lanes) {
+      lane.close();
+    }
+    waiting.nuke();
+  }
+}
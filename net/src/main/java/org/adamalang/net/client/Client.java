@@ -41,7 +41,7 @@ public class Client {
     this.base = base;
     this.config = config;
     this.metrics = metrics;
-    this.routingExecutor = SimpleExecutor.create("routing");
+    this.routingExecutor = metrics.executors.makeSingle("routing");
     this.engine = new RoutingEngine(metrics, routingExecutor, new SpaceTrackingEvents() {
       @Override
       public void gainInterestInSpace(String space) {
@@ -54,9 +54,9 @@ public class Client {
       @Override
       public void lostInterestInSpace(String space) {
       }
-    }, 250, 250);
-    this.finder = new InstanceClientFinder(base, config, metrics, monitor, SimpleExecutorFactory.DEFAULT, 4, engine, ExceptionLogger.FOR(Client.class));
-    this.executors = SimpleExecutorFactory.DEFAULT.makeMany("connections", 2);
+    }, 250, 250, config.isLegacyRouting());
+    this.finder = new InstanceClientFinder(base, config, metrics, monitor, metrics.executors, 4, engine, ExceptionLogger.FOR(Client.class));
+    this.executors = metrics.executors.makeMany("connections", 2);
     this.rng = new Random();
   }
 
@@ -18,6 +18,9 @@ public class ClientConfig {
   protected int connectionMaximumBackoffConnectionFailuresMS;
   protected int connectionMaximumBackoffFindingClientFailuresMS;
   protected int sendRetryDelayMS;
+  protected int interactiveChannelsPerTarget;
+  protected int bulkChannelsPerTarget;
+  protected boolean legacyRouting;
 
   public ClientConfig() {
     this.clientQueueSize = 1024;
@@ -27,6 +30,9 @@ public class ClientConfig {
     this.connectionMaximumBackoffConnectionFailuresMS = 2500;
     this.connectionMaximumBackoffFindingClientFailuresMS = 2500;
     this.sendRetryDelayMS = 100;
+    this.interactiveChannelsPerTarget = 2;
+    this.bulkChannelsPerTarget = 1;
+    this.legacyRouting = true;
   }
 
   public int getClientQueueSize() {
@@ -56,4 +62,26 @@ public class ClientConfig {
   public int getSendRetryDelayMS() {
     return sendRetryDelayMS;
   }
+
+  /** how many channels to a target carry documents streams, creates, and other small requests */
+  public int getInteractiveChannelsPerTarget() {
+    return Math.max(1, interactiveChannelsPerTarget);
+  }
+
+  /** how many channels to a target carry the proxy (DataService) traffic; zero shares the interactive channels */
+  public int getBulkChannelsPerTarget() {
+    return Math.max(0, bulkChannelsPerTarget);
+  }
+
+  /**
+   * route keys with the MD5 rendezvous hash rather than the 64-bit one. The two hashes map keys to different targets, so every
+   * client must use the same one; this stays on until every client runs code which has both, and then is flipped together
+   */
+  public boolean isLegacyRouting() {
+    return legacyRouting;
+  }
+
+  public void setLegacyRouting(boolean legacyRouting) {
+    this.legacyRouting = legacyRouting;
+  }
 }
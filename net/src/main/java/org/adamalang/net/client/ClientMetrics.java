@@ -9,8 +9,11 @@
  */
 package org.adamalang.net.client;
 
+import org.adamalang.common.SimpleExecutorFactory;
 import org.adamalang.common.metrics.*;
 
+import java.util.HashMap;
+
 public class ClientMetrics {
   public final Inflight client_connection_alive;
   public final Inflight client_state_machines_alive;
@@ -44,8 +47,14 @@ public class ClientMetrics {
   public final Runnable client_notify_deploy_failure_find;
 
   public final ItemActionMonitor client_proxy;
+  public final SimpleExecutorFactory executors;
+  private final MetricsFactory factory;
+  private final HashMap<String, ChannelMetrics> channels;
 
   public ClientMetrics(MetricsFactory factory) {
+    this.factory = factory;
+    this.channels = new HashMap<>();
+    executors = SimpleExecutorFactory.instrumented(factory);
     client_connection_alive = factory.inflight("client_connection_alive");
     client_state_machines_alive = factory.inflight("client_state_machines_alive");
     client_notify_deploy_success = factory.counter("client_notify_deploy_success");
@@ -75,4 +84,15 @@ public class ClientMetrics {
     client_info_failed_ask = factory.counter("client_info_failed_ask");
     client_proxy = factory.makeItemActionMonitor("client_proxy");
   }
+
+  /** get the metrics for the given channel of a lane */
+  public synchronized ChannelMetrics channel(String lane, int index) {
+    String name = lane + "/" + index;
+    ChannelMetrics result = channels.get(name);
+    if (result == null) {
+      result = new ChannelMetrics(factory, lane, index);
+      channels.put(name, result);
+    }
+    return result;
+  }
 }
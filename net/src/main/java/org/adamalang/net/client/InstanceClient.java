@@ -16,7 +16,6 @@ import org.adamalang.common.net.ByteStream;
 import org.adamalang.common.net.ChannelClient;
 import org.adamalang.common.net.NetBase;
 import org.adamalang.common.queue.ItemAction;
-import org.adamalang.common.queue.ItemQueue;
 import org.adamalang.net.client.bidi.DocumentExchange;
 import org.adamalang.net.client.bidi.MeteringExchange;
 import org.adamalang.net.client.contracts.Events;
@@ -49,113 +48,70 @@ public class InstanceClient implements AutoCloseable {
   private final Random rng;
   private final ExceptionLogger logger;
   private final AtomicBoolean alive;
-  private final ItemQueue<ChannelClient> client;
-  private final ClientConfig config;
-  private int backoff;
+  private final ChannelPool interactive;
+  private final ChannelPool bulk;
   private final ProxyDataService proxy;
 
   public InstanceClient(NetBase base, ClientConfig config, ClientMetrics metrics, HeatMonitor monitor, RoutingTarget routing, String target, SimpleExecutor executor, ExceptionLogger logger) throws Exception {
     this.base = base;
-    this.config = config;
     this.target = target;
     this.executor = executor;
     this.metrics = metrics;
     this.monitor = monitor;
     this.routing = routing;
     this.rng = new Random();
-    this.client = new ItemQueue<>(executor, config.getClientQueueSize(), config.getClientQueueTimeoutMS());
     this.logger = logger;
     this.alive = new AtomicBoolean(true);
-    this.backoff = 1;
-    this.proxy = new ProxyDataService(metrics, client);
-    retryConnection();
+    ChannelLane[] interactiveLanes = new ChannelLane[config.getInteractiveChannelsPerTarget()];
+    for (int k = 0; k < interactiveLanes.length; k++) {
+      // only the first channel listens to the inventory and heat of the target
+      interactiveLanes[k] = new ChannelLane(base, metrics, metrics.channel("interactive", k), target, executor, alive, k == 0 ? this::openInfo : null);
+    }
+    this.interactive = new ChannelPool(executor, config, interactiveLanes);
+    if (config.getBulkChannelsPerTarget() > 0) {
+      ChannelLane[] bulkLanes = new ChannelLane[config.getBulkChannelsPerTarget()];
+      for (int k = 0; k < bulkLanes.length; k++) {
+        bulkLanes[k] = new ChannelLane(base, metrics, metrics.channel("bulk", k), target, executor, alive, null);
+      }
+      this.bulk = new ChannelPool(executor, config, bulkLanes);
+    } else {
+      this.bulk = interactive;
+    }
+    this.proxy = new ProxyDataService(metrics, bulk);
+    interactive.start();
+    if (bulk != interactive) {
+      bulk.start();
+    }
   }
 
   public ProxyDataService getProxy() {
     return proxy;
   }
 
-  private void retryConnection() {
-    if (alive.get() && base.alive()) {
-      base.connect(this.target, new org.adamalang.common.net.Lifecycle() {
-        @Override
-        public void connected(ChannelClient channel) {
-          metrics.client_connection_alive.up();
-          metrics.client_info_start.run();
-          channel.open(new ServerCodec.StreamInfo() {
-            @Override
-            public void handle(ServerMessage.InventoryHeartbeat payload) {
-              routing.integrate(InstanceClient.this.target, Arrays.asList(payload.spaces));
-            }
-
-            @Override
-            public void handle(ServerMessage.HeatPayload heat) {
-              monitor.heat(target, heat.cpu, heat.mem);
-            }
-
-            @Override
-            public void completed() {
-              metrics.client_info_completed.run();
-            }
-
-            @Override
-            public void error(int errorCode) {
-              logger.convertedToErrorCode(new NullPointerException("base.connect error:" + errorCode), errorCode);
-              metrics.client_info_failed_downstream.run();
-            }
-          }, new CallbackByteStreamInfo(monitor, metrics));
-
-          executor.execute(new NamedRunnable("channel-client-ready") {
-            @Override
-            public void execute() throws Exception {
-              backoff = 1;
-              if (alive.get()) {
-                client.ready(channel);
-              }
-            }
-          });
-        }
+  private void openInfo(ChannelClient channel) {
+    metrics.client_info_start.run();
+    channel.open(new ServerCodec.StreamInfo() {
+      @Override
+      public void handle(ServerMessage.InventoryHeartbeat payload) {
+        routing.integrate(InstanceClient.this.target, Arrays.asList(payload.spaces));
+      }
 
-        @Override
-        public void failed(ErrorCodeException ex) {
-          executor.execute(new NamedRunnable("channel-client-failed") {
-            @Override
-            public void execute() throws Exception {
-              client.unready();
-              scheduleWithinExecutor();
-            }
-          });
-        }
+      @Override
+      public void handle(ServerMessage.HeatPayload heat) {
+        monitor.heat(target, heat.cpu, heat.mem);
+      }
 
-        @Override
-        public void disconnected() {
-          metrics.client_connection_alive.down();
-          executor.execute(new NamedRunnable("channel-client-disconnect") {
-            @Override
-            public void execute() throws Exception {
-              client.unready();
-              scheduleWithinExecutor();
-            }
-          });
-        }
+      @Override
+      public void completed() {
+        metrics.client_info_completed.run();
+      }
 
-        private void scheduleWithinExecutor() {
-          if (alive.get()) {
-            metrics.client_retry.run();
-            backoff = (int) (5 + backoff + backoff * Math.random());
-            if (backoff > 500) {
-              backoff = (int) (250 + 250 * Math.random());
-            }
-            executor.schedule(new NamedRunnable("client-retry") {
-              @Override
-              public void execute() throws Exception {
-                retryConnection();
-              }
-            }, backoff);
-          }
-        }
-      });
-    }
+      @Override
+      public void error(int errorCode) {
+        logger.convertedToErrorCode(new NullPointerException("base.connect error:" + errorCode), errorCode);
+        metrics.client_info_failed_downstream.run();
+      }
+    }, new CallbackByteStreamInfo(monitor, metrics));
   }
 
   /** block the current thread to ensure the client is connected right now */
@@ -165,10 +121,10 @@ public class InstanceClient implements AutoCloseable {
     executor.execute(new NamedRunnable("execute-ping") {
       @Override
       public void execute() throws Exception {
-        client.add(new ItemAction<>(ErrorCodes.ADAMA_NET_PING_TIMEOUT, ErrorCodes.ADAMA_NET_PING_REJECTED, metrics.client_ping.start()) {
+        interactive.add(new ItemAction<>(ErrorCodes.ADAMA_NET_PING_TIMEOUT, ErrorCodes.ADAMA_NET_PING_REJECTED, metrics.client_ping.start()) {
           @Override
-          protected void executeNow(ChannelClient client) {
-            client.open(new ServerCodec.StreamPing() {
+          protected void executeNow(ChannelLane lane) {
+            lane.open(new ServerCodec.StreamPing() {
               @Override
               public void handle(ServerMessage.PingResponse payload) {
                 success.set(true);
@@ -215,10 +171,10 @@ public class InstanceClient implements AutoCloseable {
     executor.execute(new NamedRunnable("execute-create") {
       @Override
       public void execute() throws Exception {
-        client.add(new ItemAction<ChannelClient>(ErrorCodes.ADAMA_NET_CREATE_TIMEOUT, ErrorCodes.ADAMA_NET_CREATE_REJECTED, metrics.client_create.start()) {
+        interactive.add(new ItemAction<ChannelLane>(ErrorCodes.ADAMA_NET_CREATE_TIMEOUT, ErrorCodes.ADAMA_NET_CREATE_REJECTED, metrics.client_create.start()) {
           @Override
-          protected void executeNow(ChannelClient client) {
-            client.open(new ServerCodec.StreamCreation() {
+          protected void executeNow(ChannelLane lane) {
+            lane.open(new ServerCodec.StreamCreation() {
               @Override
               public void handle(ServerMessage.CreateResponse payload) {
                 callback.success(null);
@@ -265,10 +221,10 @@ public class InstanceClient implements AutoCloseable {
     executor.execute(new NamedRunnable("execute-reflect") {
       @Override
       public void execute() throws Exception {
-        client.add(new ItemAction<ChannelClient>(ErrorCodes.ADAMA_NET_CREATE_TIMEOUT, ErrorCodes.ADAMA_NET_CREATE_REJECTED, metrics.client_create.start()) {
+        interactive.add(new ItemAction<ChannelLane>(ErrorCodes.ADAMA_NET_CREATE_TIMEOUT, ErrorCodes.ADAMA_NET_CREATE_REJECTED, metrics.client_create.start()) {
           @Override
-          protected void executeNow(ChannelClient client) {
-            client.open(new ServerCodec.StreamReflection() {
+          protected void executeNow(ChannelLane lane) {
+            lane.open(new ServerCodec.StreamReflection() {
               @Override
               public void handle(ServerMessage.ReflectResponse payload) {
                 callback.success(payload.schema);
@@ -309,11 +265,11 @@ public class InstanceClient implements AutoCloseable {
     executor.execute(new NamedRunnable("metering-exchange") {
       @Override
       public void execute() throws Exception {
-        client.add(new ItemAction<>(ErrorCodes.ADAMA_NET_METERING_TIMEOUT, ErrorCodes.ADAMA_NET_METERING_REJECTED, metrics.client_metering_exchange.start()) {
+        interactive.add(new ItemAction<>(ErrorCodes.ADAMA_NET_METERING_TIMEOUT, ErrorCodes.ADAMA_NET_METERING_REJECTED, metrics.client_metering_exchange.start()) {
           @Override
-          protected void executeNow(ChannelClient client) {
+          protected void executeNow(ChannelLane lane) {
             MeteringExchange exchange = new MeteringExchange(target, meteringStream);
-            client.open(exchange, exchange);
+            lane.open(exchange, exchange);
           }
 
           @Override
@@ -330,10 +286,10 @@ public class InstanceClient implements AutoCloseable {
     executor.execute(new NamedRunnable("execute-scan") {
       @Override
       public void execute() throws Exception {
-        client.add(new ItemAction<ChannelClient>(ErrorCodes.ADAMA_NET_SCAN_DEPLOYMENT_TIMEOUT, ErrorCodes.ADAMA_NET_SCAN_DEPLOYMENT_REJECTED, metrics.client_scan_deployment.start()) {
+        interactive.add(new ItemAction<ChannelLane>(ErrorCodes.ADAMA_NET_SCAN_DEPLOYMENT_TIMEOUT, ErrorCodes.ADAMA_NET_SCAN_DEPLOYMENT_REJECTED, metrics.client_scan_deployment.start()) {
           @Override
-          protected void executeNow(ChannelClient client) {
-            client.open(new ServerCodec.StreamDeployment() {
+          protected void executeNow(ChannelLane lane) {
+            lane.open(new ServerCodec.StreamDeployment() {
               @Override
               public void handle(ServerMessage.ScanDeploymentResponse payload) {
                 callback.success(null);
@@ -382,11 +338,11 @@ public class InstanceClient implements AutoCloseable {
     executor.execute(new NamedRunnable("document-exchange") {
       @Override
       public void execute() throws Exception {
-        client.add(new ItemAction<ChannelClient>(ErrorCodes.ADAMA_NET_CONNECT_DOCUMENT_TIMEOUT, ErrorCodes.ADAMA_NET_CONNECT_DOCUMENT_REJECTED, metrics.client_document_exchange.start()) {
+        interactive.add(new ItemAction<ChannelLane>(ErrorCodes.ADAMA_NET_CONNECT_DOCUMENT_TIMEOUT, ErrorCodes.ADAMA_NET_CONNECT_DOCUMENT_REJECTED, metrics.client_document_exchange.start()) {
           @Override
-          protected void executeNow(ChannelClient client) {
+          protected void executeNow(ChannelLane lane) {
             DocumentExchange exchange = new DocumentExchange(connectMessage, events);
-            client.open(exchange, exchange);
+            lane.open(exchange, exchange);
           }
 
           @Override
@@ -404,19 +360,10 @@ public class InstanceClient implements AutoCloseable {
     executor.execute(new NamedRunnable("close-connection") {
       @Override
       public void execute() throws Exception {
-        client.add(new ItemAction<ChannelClient>(ErrorCodes.ADAMA_NET_CLOSE_TIMEOUT, ErrorCodes.ADAMA_NET_CLOSE_REJECTED, metrics.client_close.start()) {
-          @Override
-          protected void executeNow(ChannelClient client) {
-            client.close();
-          }
-
-          @Override
-          protected void failure(int code) {
-            // don't care
-          }
-        });
-        client.unready();
-        client.nuke();
+        interactive.close();
+        if (bulk != interactive) {
+          bulk.close();
+        }
       }
     });
   }
@@ -10,6 +10,7 @@
 package org.adamalang.net.client.bidi;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.adamalang.ErrorCodes;
 import org.adamalang.common.Callback;
 import org.adamalang.common.ErrorCodeException;
@@ -21,11 +22,14 @@ import org.adamalang.net.codec.ClientMessage;
 import org.adamalang.net.codec.ServerCodec;
 import org.adamalang.net.codec.ServerMessage;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 
 public class DocumentExchange extends ServerCodec.StreamDocument implements Callback<ByteStream>, Remote {
   public static final int MAX_ATTEMPTS_TO_CREATE_OP = 1024;
+  /** how many bytes of deltas the server may have in flight to us */
+  public static final int DELTA_CREDIT = 256 * 1024;
   private final HashMap<Integer, Callback<?>> opHandlers;
   public ClientMessage.StreamConnect connectMessage;
   public Events events;
@@ -33,6 +37,7 @@ public class DocumentExchange extends ServerCodec.StreamDocument implements Call
   private int nextOp;
   private boolean dead;
   private boolean shouldSendDisconnect;
+  private int consumed;
 
   public DocumentExchange(ClientMessage.StreamConnect connectMessage, Events events) {
     this.connectMessage = connectMessage;
@@ -41,6 +46,7 @@ public class DocumentExchange extends ServerCodec.StreamDocument implements Call
     opHandlers = new HashMap<>();
     dead = false;
     shouldSendDisconnect = true;
+    consumed = 0;
   }
 
   @Override // From Callback<ByteStream> which happens when the stream is created on both sides
@@ -49,6 +55,7 @@ public class DocumentExchange extends ServerCodec.StreamDocument implements Call
     ByteBuf toWrite = upstream.create(connectMessage.agent.length() + connectMessage.authority.length() + connectMessage.viewerState.length() + connectMessage.key.length() + connectMessage.space.length() + connectMessage.origin.length() + 40);
     ClientCodec.write(toWrite, connectMessage);
     upstream.next(toWrite);
+    upstream.request(DELTA_CREDIT);
     connectMessage = null;
   }
 
@@ -132,6 +139,16 @@ public class DocumentExchange extends ServerCodec.StreamDocument implements Call
   @Override // From ServerCodec.StreamDocument
   public void handle(ServerMessage.StreamData payload) {
     events.delta(payload.delta);
+    grant(payload.delta.length());
+  }
+
+  /** internal: return credit to the server in batches as deltas are delivered */
+  private void grant(int bytes) {
+    consumed += bytes;
+    if (consumed >= DELTA_CREDIT / 4 && upstream != null) {
+      upstream.request(consumed);
+      consumed = 0;
+    }
   }
 
   @Override // From ServerCodec.StreamDocument
@@ -215,8 +232,8 @@ public class DocumentExchange extends ServerCodec.StreamDocument implements Call
   @Override // From Remote
   public void update(String viewerState) {
     ClientMessage.StreamUpdate update = new ClientMessage.StreamUpdate();
-    update.viewerState = viewerState;
-    ByteBuf toWrite = upstream.create(viewerState.length() + 4);
+    update.viewerState = Unpooled.wrappedBuffer(viewerState.getBytes(StandardCharsets.UTF_8));
+    ByteBuf toWrite = upstream.create(update.viewerState.readableBytes() + 8);
     ClientCodec.write(toWrite, update);
     upstream.next(toWrite);
   }
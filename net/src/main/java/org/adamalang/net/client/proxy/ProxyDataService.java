@@ -13,10 +13,11 @@ import io.netty.buffer.ByteBuf;
 import org.adamalang.ErrorCodes;
 import org.adamalang.common.Callback;
 import org.adamalang.common.ErrorCodeException;
+import org.adamalang.common.NamedRunnable;
 import org.adamalang.common.net.ByteStream;
-import org.adamalang.common.net.ChannelClient;
 import org.adamalang.common.queue.ItemAction;
-import org.adamalang.common.queue.ItemQueue;
+import org.adamalang.net.client.ChannelLane;
+import org.adamalang.net.client.ChannelPool;
 import org.adamalang.net.client.ClientMetrics;
 import org.adamalang.net.codec.ClientCodec;
 import org.adamalang.net.codec.ClientMessage;
@@ -28,11 +29,11 @@ import java.util.function.Consumer;
 
 public class ProxyDataService implements DataService {
   private final ClientMetrics metrics;
-  private final ItemQueue<ChannelClient> client;
+  private final ChannelPool pool;
 
-  public ProxyDataService(ClientMetrics metrics, ItemQueue<ChannelClient> client) {
+  public ProxyDataService(ClientMetrics metrics, ChannelPool pool) {
     this.metrics = metrics;
-    this.client = client;
+    this.pool = pool;
   }
 
   private ByteStream wrapLocalDataChange(Callback<LocalDocumentChange> callback) {
@@ -93,26 +94,31 @@ public class ProxyDataService implements DataService {
   }
 
   private <T> void execute(Consumer<ByteStream> execute, ByteStream responder) {
-    client.add(new ItemAction<ChannelClient>(ErrorCodes.PROXY_TIMEOUT, ErrorCodes.PROXY_REJECTED, metrics.client_proxy.start()) {
+    pool.executor.execute(new NamedRunnable("proxy-execute") {
       @Override
-      protected void executeNow(ChannelClient item) {
-        item.open(responder, new Callback<ByteStream>() {
+      public void execute() throws Exception {
+        pool.add(new ItemAction<ChannelLane>(ErrorCodes.PROXY_TIMEOUT, ErrorCodes.PROXY_REJECTED, metrics.client_proxy.start()) {
           @Override
-          public void success(ByteStream value) {
-            execute.accept(value);
+          protected void executeNow(ChannelLane lane) {
+            lane.open(responder, new Callback<ByteStream>() {
+              @Override
+              public void success(ByteStream value) {
+                execute.accept(value);
+              }
+
+              @Override
+              public void failure(ErrorCodeException ex) {
+                responder.error(ex.code);
+              }
+            });
           }
 
           @Override
-          public void failure(ErrorCodeException ex) {
-            responder.error(ex.code);
+          protected void failure(int code) {
+            responder.error(code);
           }
         });
       }
-
-      @Override
-      protected void failure(int code) {
-        responder.error(code);
-      }
     });
   }
 
@@ -131,7 +137,7 @@ public class ProxyDataService implements DataService {
   @Override
   public void initialize(Key key, RemoteDocumentUpdate patch, Callback<Void> callback) {
     execute((channel) -> {
-      ByteBuf buf = channel.create(key.space.length() + key.key.length() + patch.redo.length() + patch.undo.length() + patch.request.length() + 64);
+      ByteBuf buf = channel.create(key.space.length() + key.key.length() + patch.redo.length() + patch.undo.length() + patch.request().length() + 64);
       ClientMessage.ProxyInitialize init = new ClientMessage.ProxyInitialize();
       init.space = key.space;
       init.key = key.key;
@@ -29,9 +29,13 @@ public class RoutingEngine implements RoutingTarget {
   private boolean broadcastInflight;
 
   public RoutingEngine(ClientMetrics metrics, SimpleExecutor executor, SpaceTrackingEvents events, int broadcastDelayOffset, int broadcastDelayJitter) {
+    this(metrics, executor, events, broadcastDelayOffset, broadcastDelayJitter, false);
+  }
+
+  public RoutingEngine(ClientMetrics metrics, SimpleExecutor executor, SpaceTrackingEvents events, int broadcastDelayOffset, int broadcastDelayJitter, boolean legacyHashing) {
     this.metrics = metrics;
     this.executor = executor;
-    this.table = new RoutingTable(events);
+    this.table = new RoutingTable(events, legacyHashing);
     this.broadcastInflight = false;
     this.broadcastDelayOffset = broadcastDelayOffset;
     this.broadcastDelayJitter = broadcastDelayJitter;
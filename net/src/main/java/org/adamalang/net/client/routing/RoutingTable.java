@@ -25,8 +25,15 @@ public class RoutingTable {
   private final HashMap<String, SpaceState> routing;
 
   private final Random rng;
+  /** see SpaceState */
+  private final boolean legacyHashing;
 
   public RoutingTable(SpaceTrackingEvents events) {
+    this(events, false);
+  }
+
+  public RoutingTable(SpaceTrackingEvents events, boolean legacyHashing) {
+    this.legacyHashing = legacyHashing;
     this.history = new HashMap<>();
     this.routing = new HashMap<>();
     this.events = events;
@@ -40,7 +47,7 @@ public class RoutingTable {
   private SpaceState getOrCreateSpaceState(String space) {
     SpaceState state = routing.get(space);
     if (state == null) {
-      state = new SpaceState();
+      state = new SpaceState(legacyHashing);
       routing.put(space, state);
       events.gainInterestInSpace(space);
     }
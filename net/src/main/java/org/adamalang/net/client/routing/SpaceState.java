@@ -14,6 +14,7 @@ import org.adamalang.common.Hashing;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -21,28 +22,61 @@ import java.util.function.Consumer;
 
 /** the collection of targets for a single space; core element of the routing table */
 public class SpaceState {
+  /** how many key to target decisions are cached */
+  private static final int MAX_CACHED_PICKS = 1024;
+  /** pick with the MD5 rendezvous hash which predates the 64-bit one; every client must agree, so this is a rollout gate */
+  private final boolean legacy;
   private final TreeSet<String> targets;
   private final HashMap<String, HashMap<Long, TargetSubscriber>> subscribers;
   private long idgen;
   private boolean invalid;
+  // the targets with their precomputed hash seeds; rebuilt when the targets change
+  private String[] ordered;
+  private long[] seeds;
+  // recent picks; these are thrown away when the targets change
+  private final LinkedHashMap<String, String> picks;
 
   public SpaceState() {
+    this(false);
+  }
+
+  public SpaceState(boolean legacy) {
+    this.legacy = legacy;
     this.targets = new TreeSet<>();
     this.subscribers = new HashMap<>();
     this.invalid = false;
     this.idgen = 0;
+    this.ordered = null;
+    this.seeds = null;
+    this.picks = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+        return size() > MAX_CACHED_PICKS;
+      }
+    };
   }
 
   public void subtract(String target) {
-    targets.remove(target);
+    if (targets.remove(target)) {
+      changed();
+    }
     invalid = true;
   }
 
   public void add(String target) {
-    targets.add(target);
+    if (targets.add(target)) {
+      changed();
+    }
     invalid = true;
   }
 
+  /** internal: the targets have changed, so the seeds and cached picks are stale */
+  private void changed() {
+    ordered = null;
+    seeds = null;
+    picks.clear();
+  }
+
   public TreeSet<String> list() {
     return new TreeSet<>(targets);
   }
@@ -65,7 +99,43 @@ public class SpaceState {
     return count == 0;
   }
 
+  /** pick the target for the key via rendezvous hashing: every target scores the key, and the highest score wins */
   public String pick(String key) {
+    if (targets.size() == 0) {
+      return null;
+    }
+    String cached = picks.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    if (legacy) {
+      String winner = legacyPick(key);
+      picks.put(key, winner);
+      return winner;
+    }
+    if (seeds == null) {
+      ordered = targets.toArray(new String[targets.size()]);
+      seeds = new long[ordered.length];
+      for (int k = 0; k < ordered.length; k++) {
+        seeds[k] = Hashing.hash64(ordered[k]);
+      }
+    }
+    long keyHash = Hashing.hash64(key);
+    int winner = 0;
+    long winningScore = Long.MIN_VALUE;
+    for (int k = 0; k < seeds.length; k++) {
+      long score = Hashing.mix64(seeds[k] ^ keyHash);
+      if (score > winningScore) {
+        winner = k;
+        winningScore = score;
+      }
+    }
+    picks.put(key, ordered[winner]);
+    return ordered[winner];
+  }
+
+  /** internal: the MD5 rendezvous hash which clients used prior to the 64-bit hash */
+  private String legacyPick(String key) {
     String winner = null;
     String winningHash = "";
     byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
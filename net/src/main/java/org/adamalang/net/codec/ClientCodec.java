@@ -505,7 +505,7 @@ public class ClientCodec {
 
 
   private static StreamUpdate readBody_14345(ByteBuf buf, StreamUpdate o) {
-    o.viewerState = Helper.readString(buf);
+    o.viewerState = Helper.readBuffer(buf);
     return o;
   }
 
@@ -786,7 +786,7 @@ public class ClientCodec {
       return;
     }
     buf.writeIntLE(14345);
-    Helper.writeString(buf, o.viewerState);;
+    Helper.writeBuffer(buf, o.viewerState);;
   }
 
   public static void write(ByteBuf buf, StreamSend o) {
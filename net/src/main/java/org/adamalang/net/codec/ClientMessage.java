@@ -9,6 +9,7 @@
  */
 package org.adamalang.net.codec;
 
+import io.netty.buffer.ByteBuf;
 import org.adamalang.common.codec.FieldOrder;
 import org.adamalang.common.codec.Flow;
 import org.adamalang.common.codec.TypeId;
@@ -112,7 +113,7 @@ public class ClientMessage {
   @Flow("Server")
   public static class StreamUpdate {
     @FieldOrder(1)
-    public String viewerState;
+    public ByteBuf viewerState;
   }
 
   @TypeId(13335)
@@ -203,7 +204,7 @@ public class ClientMessage {
         this.agent = update.who.agent;
         this.authority = update.who.authority;
       }
-      this.request = update.request;
+      this.request = update.request();
       this.redo = update.redo;
       this.undo = update.undo;
       this.active = update.requiresFutureInvalidation;
@@ -0,0 +1,102 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.net.server;
+
+import org.adamalang.runtime.delta.DeltaCoalescer;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * credit based flow control for the deltas of a document stream. Once the client grants credit (in bytes), deltas are only sent
+ * against the credit and the deltas which arrive while the client is out of credit are coalesced into a backlog which is sent
+ * once the client grants more. A client which never grants credit gets every delta as it happens. Independent of credit, deltas
+ * are also held while the channel is not writable such that a slow peer backs up into the (bounded) backlog rather than into
+ * netty's outbound buffer.
+ */
+public class DeltaFlow {
+  private final ServerMetrics metrics;
+  private final Consumer<String> send;
+  private final BooleanSupplier writable;
+  private final DeltaCoalescer backlog;
+  private boolean enabled;
+  private long credit;
+  private boolean closed;
+
+  public DeltaFlow(ServerMetrics metrics, Consumer<String> send, BooleanSupplier writable) {
+    this.metrics = metrics;
+    this.send = send;
+    this.writable = writable;
+    this.backlog = new DeltaCoalescer();
+    this.enabled = false;
+    this.credit = 0;
+    this.closed = false;
+  }
+
+  /** a delta from the document */
+  public synchronized void next(String delta) {
+    if (closed) {
+      return;
+    }
+    if (backlog.isEmpty() && (!enabled || credit > 0) && writable.getAsBoolean()) {
+      credit -= delta.length();
+      send.accept(delta);
+      return;
+    }
+    if (backlog.isEmpty()) {
+      metrics.server_stream_backlogged.up();
+    }
+    int before = backlog.absorbed();
+    backlog.add(delta);
+    if (backlog.absorbed() > before) {
+      metrics.server_stream_delta_coalesced.run();
+    }
+  }
+
+  /** the client granted more credit */
+  public synchronized void grant(int bytes) {
+    if (closed) {
+      return;
+    }
+    enabled = true;
+    credit += bytes;
+    drain();
+  }
+
+  /** the channel became writable again */
+  public synchronized void writable() {
+    if (closed) {
+      return;
+    }
+    drain();
+  }
+
+  /** internal: send the backlog if the client has credit and the channel has room */
+  private void drain() {
+    if (!backlog.isEmpty() && (!enabled || credit > 0) && writable.getAsBoolean()) {
+      metrics.server_stream_backlogged.down();
+      for (String delta : backlog.drain()) {
+        credit -= delta.length();
+        send.accept(delta);
+      }
+    }
+  }
+
+  /** the stream is done, so drop the backlog */
+  public synchronized void close() {
+    if (!closed) {
+      closed = true;
+      if (!backlog.isEmpty()) {
+        metrics.server_stream_backlogged.down();
+        backlog.drain();
+      }
+    }
+  }
+}
@@ -17,6 +17,8 @@ import org.adamalang.common.ErrorCodeException;
 import org.adamalang.common.jvm.MachineHeat;
 import org.adamalang.common.metrics.StreamMonitor;
 import org.adamalang.common.net.ByteStream;
+import org.adamalang.common.net.Remote;
+import org.adamalang.common.net.WritabilityListener;
 import org.adamalang.net.codec.ClientCodec;
 import org.adamalang.net.codec.ClientMessage;
 import org.adamalang.net.codec.ServerCodec;
@@ -37,8 +39,9 @@ import org.adamalang.runtime.sys.metering.MeterReading;
 import java.util.ArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 
-public class Handler implements ByteStream, ClientCodec.HandlerServer, Streamback {
+public class Handler implements ByteStream, ClientCodec.HandlerServer, Streamback, WritabilityListener {
   private static final ServerMessage.CreateResponse SHARED_CREATE_RESPONSE_EMPTY = new ServerMessage.CreateResponse();
   private final ServerNexus nexus;
   private final ByteStream upstream;
@@ -46,6 +49,7 @@ public class Handler implements ByteStream, ClientCodec.HandlerServer, Streambac
   private CoreStream stream;
   private ScheduledFuture<?> futureHeat;
   private StreamMonitor.StreamMonitorInstance monitorStreamback;
+  private final DeltaFlow flow;
 
   public Handler(ServerNexus nexus, ByteStream upstream) {
     this.nexus = nexus;
@@ -54,14 +58,26 @@ public class Handler implements ByteStream, ClientCodec.HandlerServer, Streambac
     this.alive = new AtomicBoolean(true);
     nexus.metrics.server_handlers_active.up();
     this.monitorStreamback = null;
+    this.flow = new DeltaFlow(nexus.metrics, this::write, writabilityOf(upstream));
+  }
+
+  /** internal: deltas wait while the channel to the client is backed up */
+  private static BooleanSupplier writabilityOf(ByteStream upstream) {
+    if (upstream instanceof Remote) {
+      return ((Remote) upstream)::isWritable;
+    }
+    return () -> true;
+  }
+
+  @Override
+  public void writable() {
+    flow.writable();
   }
 
   @Override
   public void request(int bytes) {
-    // proxy to the appropriate thing; if stream, then send to the core stream
-    if (stream != null) {
-      // TODO: proxy flow control to the stream
-    }
+    // the client has capacity for more deltas
+    flow.grant(bytes);
   }
 
   // IGNORE
@@ -79,6 +95,7 @@ public class Handler implements ByteStream, ClientCodec.HandlerServer, Streambac
   public void completed() {
     nexus.metrics.server_handlers_active.down();
     alive.set(false);
+    flow.close();
     if (stream != null) {
       stream.disconnect();
       stream = null;
@@ -454,6 +471,11 @@ public class Handler implements ByteStream, ClientCodec.HandlerServer, Streambac
   @Override
   public void next(String data) {
     monitorStreamback.progress();
+    flow.next(data);
+  }
+
+  /** write the delta to the client */
+  private void write(String data) {
     ByteBuf buffer = upstream.create(16 + data.length());
     ServerMessage.StreamData dataToUse = new ServerMessage.StreamData();
     dataToUse.delta = data;
@@ -25,6 +25,8 @@ public class ServerMetrics {
   public final Runnable server_stream_update;
   public final Runnable server_stream_disconnect;
   public final StreamMonitor server_stream;
+  public final Inflight server_stream_backlogged;
+  public final Runnable server_stream_delta_coalesced;
 
   public final Runnable server_metering_begin;
   public final Runnable server_metering_delete_batch;
@@ -43,6 +45,8 @@ public class ServerMetrics {
     server_stream_disconnect = factory.counter("server_stream_disconnect");
 
     server_stream = factory.makeStreamMonitor("server_stream");
+    server_stream_backlogged = factory.inflight("server_stream_backlogged");
+    server_stream_delta_coalesced = factory.counter("server_stream_delta_coalesced");
 
     server_metering_begin = factory.counter("server_metering_begin");
     server_metering_delete_batch = factory.counter("server_metering_delete_batch");
@@ -0,0 +1,170 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.net.client;
+
+import io.netty.buffer.ByteBuf;
+import org.adamalang.ErrorCodes;
+import org.adamalang.common.Callback;
+import org.adamalang.common.ErrorCodeException;
+import org.adamalang.common.SimpleExecutor;
+import org.adamalang.common.metrics.NoOpMetricsFactory;
+import org.adamalang.common.net.ByteStream;
+import org.adamalang.common.net.ChannelClient;
+import org.adamalang.common.queue.ItemAction;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ChannelPoolTests {
+  private static ChannelLane[] lanes(int n, ClientMetrics metrics) {
+    ChannelLane[] lanes = new ChannelLane[n];
+    for (int k = 0; k < n; k++) {
+      lanes[k] = new ChannelLane(null, metrics, metrics.channel("test", k), "target", SimpleExecutor.NOW, new AtomicBoolean(true), null);
+    }
+    return lanes;
+  }
+
+  @Test
+  public void nothing_when_nothing_is_connected() {
+    ClientMetrics metrics = new ClientMetrics(new NoOpMetricsFactory());
+    ChannelLane[] lanes = lanes(3, metrics);
+    ChannelPool pool = new ChannelPool(SimpleExecutor.NOW, new TestClientConfig(), lanes);
+    for (int k = 0; k < 4; k++) {
+      Assert.assertNull(pool.pick());
+    }
+    for (ChannelLane lane : lanes) {
+      Assert.assertFalse(lane.isReady());
+      Assert.assertEquals(0, lane.streams());
+    }
+  }
+
+  @Test
+  public void close_rejects_waiting() {
+    ClientMetrics metrics = new ClientMetrics(new NoOpMetricsFactory());
+    ChannelPool pool = new ChannelPool(SimpleExecutor.NOW, new TestClientConfig(), lanes(2, metrics));
+    AtomicInteger rejected = new AtomicInteger(0);
+    for (int k = 0; k < 4; k++) {
+      pool.add(new ItemAction<>(ErrorCodes.ADAMA_NET_PING_TIMEOUT, ErrorCodes.ADAMA_NET_PING_REJECTED, metrics.client_ping.start()) {
+        @Override
+        protected void executeNow(ChannelLane item) {
+          Assert.fail();
+        }
+
+        @Override
+        protected void failure(int code) {
+          Assert.assertEquals(ErrorCodes.ADAMA_NET_PING_REJECTED, code);
+          rejected.incrementAndGet();
+        }
+      });
+    }
+    pool.close();
+    Assert.assertEquals(4, rejected.get());
+  }
+
+  @Test
+  public void waiting_moves_to_whichever_lane_connects() {
+    ClientMetrics metrics = new ClientMetrics(new NoOpMetricsFactory());
+    ChannelLane[] lanes = lanes(3, metrics);
+    ChannelPool pool = new ChannelPool(SimpleExecutor.NOW, new TestClientConfig(), lanes);
+    ArrayList<ChannelLane> ran = new ArrayList<>();
+    for (int k = 0; k < 3; k++) {
+      pool.add(new ItemAction<>(ErrorCodes.ADAMA_NET_PING_TIMEOUT, ErrorCodes.ADAMA_NET_PING_REJECTED, metrics.client_ping.start()) {
+        @Override
+        protected void executeNow(ChannelLane lane) {
+          ran.add(lane);
+        }
+
+        @Override
+        protected void failure(int code) {
+          Assert.fail();
+        }
+      });
+    }
+    Assert.assertEquals(0, ran.size());
+    lanes[2].ready(new ChannelClient(null));
+    Assert.assertEquals(3, ran.size());
+    for (ChannelLane lane : ran) {
+      Assert.assertTrue(lane == lanes[2]);
+    }
+    Assert.assertTrue(pool.pick() == lanes[2]);
+    // nothing is left waiting for the other lanes
+    lanes[0].ready(new ChannelClient(null));
+    Assert.assertEquals(3, ran.size());
+  }
+
+  @Test
+  public void lost_connection_fails_open_once() {
+    ClientMetrics metrics = new ClientMetrics(new NoOpMetricsFactory());
+    ChannelLane lane = lanes(1, metrics)[0];
+    // when the connection drops, the channel both errors the registered stream and fails the initiation
+    lane.ready(new ChannelClient(null) {
+      @Override
+      public void open(ByteStream downstream, Callback<ByteStream> opened) {
+        downstream.error(ErrorCodes.NET_DISCONNECT);
+        opened.failure(new ErrorCodeException(ErrorCodes.NET_FAILED_INITIATION));
+      }
+    });
+    AtomicInteger failures = new AtomicInteger(0);
+    lane.open(new ByteStream() {
+      @Override
+      public void request(int bytes) {
+      }
+
+      @Override
+      public ByteBuf create(int bestGuessForSize) {
+        return null;
+      }
+
+      @Override
+      public void next(ByteBuf buf) {
+      }
+
+      @Override
+      public void completed() {
+        Assert.fail();
+      }
+
+      @Override
+      public void error(int errorCode) {
+        Assert.assertEquals(ErrorCodes.NET_DISCONNECT, errorCode);
+        failures.incrementAndGet();
+      }
+    }, new Callback<>() {
+      @Override
+      public void success(ByteStream value) {
+        Assert.fail();
+      }
+
+      @Override
+      public void failure(ErrorCodeException ex) {
+        failures.incrementAndGet();
+      }
+    });
+    Assert.assertEquals(1, failures.get());
+    Assert.assertEquals(0, lane.streams());
+  }
+
+  @Test
+  public void channel_metrics_are_shared() {
+    ClientMetrics metrics = new ClientMetrics(new NoOpMetricsFactory());
+    Assert.assertTrue(metrics.channel("bulk", 0) == metrics.channel("bulk", 0));
+    Assert.assertFalse(metrics.channel("bulk", 0) == metrics.channel("interactive", 0));
+  }
+
+  @Test
+  public void config() {
+    ClientConfig config = new ClientConfig();
+    Assert.assertEquals(2, config.getInteractiveChannelsPerTarget());
+    Assert.assertEquals(1, config.getBulkChannelsPerTarget());
+  }
+}
@@ -40,7 +40,7 @@ public class RoutingEngineTests {
     CountDownLatch becameWAgain = new CountDownLatch(2);
 
     engine.subscribe(
-        new Key("space", "key"),
+        new Key("space", "key-132921"),
         (target) -> {
           System.err.println(target);
           if ("z".equals(target)) {
@@ -56,7 +56,7 @@ public class RoutingEngineTests {
           latchGotCancel.countDown();
         });
     Assert.assertTrue(latchGotCancel.await(10000, TimeUnit.MILLISECONDS));
-    // NOTE: this list was built to be adversarial, so each one will trigger an immediate change
+    // NOTE: this list (with the key) was built to be adversarial, so each one will trigger an immediate change
     // without the broadcast delay
     // you can play with this by increase the thread sleep to 200 and each thing will pop out
     for (String inj : new String[] {"y", "3", "t", "4", "w", "2", "1", "x", "z"}) {
@@ -117,7 +117,7 @@ public class RoutingEngineTests {
       {
         CountDownLatch latch = new CountDownLatch(1);
         AtomicBoolean success = new AtomicBoolean(false);
-        engine.get("space", "key", new Consumer<String>() {
+        engine.get("space", "key-132921", new Consumer<String>() {
           @Override
           public void accept(String s) {
             // given the irregularity of the broadcast, can't assert much... hrmm
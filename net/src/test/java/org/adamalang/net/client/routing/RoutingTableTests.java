@@ -54,11 +54,11 @@ public class RoutingTableTests {
     table.integrate("t2", Collections.singleton("space"));
     table.integrate("t3", Collections.singleton("space"));
     Assert.assertEquals(3, table.targetsFor("space").size());
-    Assert.assertEquals("t3", table.get("space", "key"));
+    Assert.assertEquals("t1", table.get("space", "key"));
     table.broadcast();
     unsubscribe = table.subscribe(new Key("space", "key"), (x) -> decisions.add(x));
     Assert.assertEquals(3, decisions.size());
-    Assert.assertEquals("t3", decisions.get(2));
+    Assert.assertEquals("t1", decisions.get(2));
     table.integrate("t1", Collections.emptyList());
     table.integrate("t2", Collections.emptyList());
     table.integrate("t3", Collections.emptyList());
@@ -87,13 +87,13 @@ public class RoutingTableTests {
     Assert.assertEquals(0, decisions.size());
     table.broadcast();
     Assert.assertEquals(1, decisions.size());
-    Assert.assertEquals("t3", decisions.get(0));
-    table.remove("t3");
+    Assert.assertEquals("t1", decisions.get(0));
+    table.remove("t1");
     Assert.assertEquals(1, decisions.size());
     table.broadcast();
     Assert.assertEquals(2, decisions.size());
     Assert.assertEquals("t2", decisions.get(1));
-    events.assertHistory("[GAIN:space][SHARE:space=t1,t2,t3][SHARE:space=t1,t2]");
+    events.assertHistory("[GAIN:space][SHARE:space=t1,t2,t3][SHARE:space=t2,t3]");
   }
 
   @Test
@@ -129,15 +129,15 @@ public class RoutingTableTests {
           Assert.fail();
         }
       }
-      Assert.assertEquals(31, t1Count);
-      Assert.assertEquals(32, t2Count);
-      Assert.assertEquals(37, t3Count);
+      Assert.assertEquals(40, t1Count);
+      Assert.assertEquals(34, t2Count);
+      Assert.assertEquals(26, t3Count);
     }
     decisions.clear();
     table.remove("t3");
     Assert.assertEquals(0, decisions.size());
     table.broadcast();
-    Assert.assertEquals(37, decisions.size());
+    Assert.assertEquals(26, decisions.size());
     {
       int t1Count = 0;
       int t2Count = 0;
@@ -150,8 +150,8 @@ public class RoutingTableTests {
           Assert.fail();
         }
       }
-      Assert.assertEquals(19, t1Count);
-      Assert.assertEquals(18, t2Count);
+      Assert.assertEquals(14, t1Count);
+      Assert.assertEquals(12, t2Count);
     }
     events.assertHistory("[GAIN:space][SHARE:space=t1,t2,t3][SHARE:space=t1,t2]");
   }
@@ -189,15 +189,15 @@ public class RoutingTableTests {
           Assert.fail();
         }
       }
-      Assert.assertEquals(31, t1Count);
-      Assert.assertEquals(32, t2Count);
-      Assert.assertEquals(37, t3Count);
+      Assert.assertEquals(40, t1Count);
+      Assert.assertEquals(34, t2Count);
+      Assert.assertEquals(26, t3Count);
     }
     decisions.clear();
     table.integrate("t3", Collections.emptyList());
     Assert.assertEquals(0, decisions.size());
     table.broadcast();
-    Assert.assertEquals(37, decisions.size());
+    Assert.assertEquals(26, decisions.size());
     {
       int t1Count = 0;
       int t2Count = 0;
@@ -210,8 +210,8 @@ public class RoutingTableTests {
           Assert.fail();
         }
       }
-      Assert.assertEquals(19, t1Count);
-      Assert.assertEquals(18, t2Count);
+      Assert.assertEquals(14, t1Count);
+      Assert.assertEquals(12, t2Count);
     }
     events.assertHistory("[GAIN:space][SHARE:space=t1,t2,t3][SHARE:space=t1,t2]");
   }
@@ -245,14 +245,14 @@ public class RoutingTableTests {
           Assert.fail();
         }
       }
-      Assert.assertEquals(50, t1Count);
-      Assert.assertEquals(50, t2Count);
+      Assert.assertEquals(54, t1Count);
+      Assert.assertEquals(46, t2Count);
     }
     decisions.clear();
     table.integrate("t3", Collections.singleton("space"));
     Assert.assertEquals(0, decisions.size());
     table.broadcast();
-    Assert.assertEquals(37, decisions.size());
+    Assert.assertEquals(26, decisions.size());
     {
       int t1Count = 0;
       int t2Count = 0;
@@ -270,7 +270,7 @@ public class RoutingTableTests {
       }
       Assert.assertEquals(0, t1Count);
       Assert.assertEquals(0, t2Count);
-      Assert.assertEquals(37, t3Count);
+      Assert.assertEquals(26, t3Count);
     }
     events.assertHistory("[GAIN:space][SHARE:space=t1,t2][SHARE:space=t1,t2,t3]");
   }
@@ -63,6 +63,43 @@ public class SpaceStateTests {
     Assert.assertEquals(4, pub.size());
     state.subscribe("key", pub::add);
     Assert.assertEquals(5, pub.size());
-    Assert.assertEquals("x", pub.get(4));
+    Assert.assertEquals("t", pub.get(4));
+  }
+
+  @Test
+  public void picks_are_cached_until_targets_change() {
+    SpaceState state = new SpaceState();
+    Assert.assertNull(state.pick("key-132921"));
+    for (String target : new String[] {"y", "3", "t", "4"}) {
+      state.add(target);
+    }
+    Assert.assertEquals("4", state.pick("key-132921"));
+    Assert.assertEquals("4", state.pick("key-132921"));
+    // adding an existing target changes nothing
+    state.add("4");
+    Assert.assertEquals("4", state.pick("key-132921"));
+    state.add("w");
+    Assert.assertEquals("w", state.pick("key-132921"));
+    state.subtract("w");
+    Assert.assertEquals("4", state.pick("key-132921"));
+    state.subtract("nope");
+    Assert.assertEquals("4", state.pick("key-132921"));
+    for (int k = 0; k < 5000; k++) {
+      String target = state.pick("k-" + k);
+      Assert.assertEquals(target, state.pick("k-" + k));
+    }
+  }
+
+  @Test
+  public void legacy_hashing_keeps_the_old_picks() {
+    SpaceState legacy = new SpaceState(true);
+    SpaceState fast = new SpaceState(false);
+    for (String target : new String[] {"t", "x"}) {
+      legacy.add(target);
+      fast.add(target);
+    }
+    Assert.assertEquals("x", legacy.pick("key"));
+    Assert.assertEquals("x", legacy.pick("key"));
+    Assert.assertEquals("t", fast.pick("key"));
   }
 }
@@ -11,8 +11,12 @@ package org.adamalang.net.codec;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import org.adamalang.common.codec.Helper;
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
+
 public class ClientCodecTests {
   @Test
   public void flow() {
@@ -49,4 +53,18 @@ public class ClientCodecTests {
     ClientCodec.write(buf, requestInventoryHeartbeat);
     */
   }
+
+  @Test
+  public void stream_update_keeps_the_string_framing() {
+    ClientMessage.StreamUpdate update = new ClientMessage.StreamUpdate();
+    update.viewerState = Unpooled.wrappedBuffer("{\"x\":\"\u733f\"}".getBytes(StandardCharsets.UTF_8));
+    ByteBuf buf = Unpooled.buffer();
+    ClientCodec.write(buf, update);
+    ByteBuf expected = Unpooled.buffer();
+    expected.writeIntLE(14345);
+    Helper.writeString(expected, "{\"x\":\"\u733f\"}");
+    Assert.assertEquals(expected, buf);
+    ClientMessage.StreamUpdate read = ClientCodec.read_StreamUpdate(buf);
+    Assert.assertEquals("{\"x\":\"\u733f\"}", read.viewerState.toString(StandardCharsets.UTF_8));
+  }
 }
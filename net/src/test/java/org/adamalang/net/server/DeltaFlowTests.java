@@ -0,0 +1,84 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.net.server;
+
+import org.adamalang.common.metrics.NoOpMetricsFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class DeltaFlowTests {
+  @Test
+  public void legacy_sends_everything() {
+    ArrayList<String> sent = new ArrayList<>();
+    DeltaFlow flow = new DeltaFlow(new ServerMetrics(new NoOpMetricsFactory()), sent::add, () -> true);
+    flow.next("{\"data\":{\"x\":1}}");
+    flow.next("{\"data\":{\"x\":2}}");
+    Assert.assertEquals(2, sent.size());
+  }
+
+  @Test
+  public void holds_and_coalesces_without_credit() {
+    ArrayList<String> sent = new ArrayList<>();
+    DeltaFlow flow = new DeltaFlow(new ServerMetrics(new NoOpMetricsFactory()), sent::add, () -> true);
+    flow.grant(20);
+    flow.next("{\"data\":{\"x\":1,\"y\":1}}");
+    Assert.assertEquals(1, sent.size());
+    flow.next("{\"data\":{\"x\":2}}");
+    flow.next("{\"data\":{\"x\":3}}");
+    Assert.assertEquals(1, sent.size());
+    flow.grant(100);
+    Assert.assertEquals(2, sent.size());
+    Assert.assertEquals("{\"data\":{\"x\":3}}", sent.get(1));
+    flow.next("{\"data\":{\"x\":4}}");
+    Assert.assertEquals(3, sent.size());
+  }
+
+  @Test
+  public void close_drops_backlog() {
+    ArrayList<String> sent = new ArrayList<>();
+    DeltaFlow flow = new DeltaFlow(new ServerMetrics(new NoOpMetricsFactory()), sent::add, () -> true);
+    flow.grant(1);
+    flow.next("{\"data\":{\"x\":1}}");
+    flow.next("{\"data\":{\"x\":2}}");
+    flow.close();
+    flow.grant(100);
+    flow.next("{\"data\":{\"x\":3}}");
+    Assert.assertEquals(1, sent.size());
+  }
+
+  @Test
+  public void holds_while_not_writable() {
+    ArrayList<String> sent = new ArrayList<>();
+    AtomicBoolean writable = new AtomicBoolean(false);
+    DeltaFlow flow = new DeltaFlow(new ServerMetrics(new NoOpMetricsFactory()), sent::add, writable::get);
+    flow.next("{\"data\":{\"x\":1}}");
+    flow.next("{\"data\":{\"x\":2}}");
+    Assert.assertEquals(0, sent.size());
+    flow.writable();
+    Assert.assertEquals(0, sent.size());
+    writable.set(true);
+    flow.writable();
+    Assert.assertEquals(1, sent.size());
+    Assert.assertEquals("{\"data\":{\"x\":2}}", sent.get(0));
+    flow.next("{\"data\":{\"x\":3}}");
+    Assert.assertEquals(2, sent.size());
+    // credit is still honored once granted
+    writable.set(false);
+    flow.grant(100);
+    flow.next("{\"data\":{\"x\":4}}");
+    Assert.assertEquals(2, sent.size());
+    writable.set(true);
+    flow.writable();
+    Assert.assertEquals(3, sent.size());
+  }
+}
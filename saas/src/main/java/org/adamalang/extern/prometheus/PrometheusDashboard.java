@@ -336,6 +336,23 @@ public class PrometheusDashboard implements MetricsFactory {
     return null;
   }
 
+  @Override
+  public Gauge gauge(String name) {
+    String graphId = makeId();
+    current.append("<b>").append(name).append("</b>\n");
+    current.append("<div id=\"").append(graphId).append("\"></div><script>\n");
+    current.append("new PromConsole.Graph({\n");
+    current.append("  node: document.querySelector(\"#").append(graphId).append("\"),\n");
+    current.append("  expr: \"gauge_").append(name).append("\",\n");
+    current.append("  yAxisFormatter: PromConsole.NumberFormatter.humanizeNoSmallPrefix,\n");
+    current.append("  yHoverFormatter: PromConsole.NumberFormatter.humanizeNoSmallPrefix,\n");
+    current.append("  name: function(v) { return v.instance + \"(\" + v.service + \")\";  },\n");
+    current.append("  yTitle: '").append(name).append("'\n");
+    current.append("});\n");
+    current.append("</script>");
+    return null;
+  }
+
   @Override
   public ItemActionMonitor makeItemActionMonitor(String name) {
     {
@@ -89,6 +89,11 @@ public class PrometheusMetricsFactory implements MetricsFactory {
         .toLowerCase(Locale.ROOT);
   }
 
+  /** replace what Prometheus rejects within a metric name */
+  private static String legal(String name) {
+    return name.replaceAll("[^A-Za-z0-9_:]", "_");
+  }
+
   @Override
   public StreamMonitor makeStreamMonitor(String nameRaw) {
     String name = makeNameCompatibleWithPrometheus(nameRaw);
@@ -144,7 +149,8 @@ public class PrometheusMetricsFactory implements MetricsFactory {
   }
 
   @Override
-  public ItemActionMonitor makeItemActionMonitor(String name) {
+  public ItemActionMonitor makeItemActionMonitor(String nameRaw) {
+    String name = legal(nameRaw);
     Counter start = Counter.build().name("im_" + name + "_start").help("Item Monitor started for " + name).register();
     Counter executed = Counter.build().name("im_" + name + "_executed").help("Item Monitor executed for " + name).register();
     Counter rejected = Counter.build().name("im_" + name + "_rejected").help("Item Monitor rejected for " + name).register();
@@ -182,7 +188,8 @@ public class PrometheusMetricsFactory implements MetricsFactory {
   }
 
   @Override
-  public CallbackMonitor makeCallbackMonitor(String name) {
+  public CallbackMonitor makeCallbackMonitor(String nameRaw) {
+    String name = legal(nameRaw);
     Counter start = Counter.build().name("cb_" + name + "_start").help("Callback started for " + name).register();
     Counter success = Counter.build().name("cb_" + name + "_success").help("Callback success for " + name).register();
     Counter failure = Counter.build().name("cb_" + name + "_failure").help("Callback failure for " + name).register();
@@ -222,7 +229,8 @@ public class PrometheusMetricsFactory implements MetricsFactory {
   }
 
   @Override
-  public Runnable counter(String name) {
+  public Runnable counter(String nameRaw) {
+    String name = legal(nameRaw);
     Counter start = Counter.build().name("raw_" + name).help("Raw counter for " + name).register();
     return () -> {
       start.inc();
@@ -230,7 +238,8 @@ public class PrometheusMetricsFactory implements MetricsFactory {
   }
 
   @Override
-  public Inflight inflight(String name) {
+  public Inflight inflight(String nameRaw) {
+    String name = legal(nameRaw);
     Gauge inflight = Gauge.build().name("inf_" + name).help("Inflight measure for " + name).register();
     return new Inflight() {
       @Override
@@ -245,6 +254,15 @@ public class PrometheusMetricsFactory implements MetricsFactory {
     };
   }
 
+  @Override
+  public org.adamalang.common.metrics.Gauge gauge(String nameRaw) {
+    String name = legal(nameRaw);
+    Gauge gauge = Gauge.build().name("gauge_" + name).help("Gauge for " + name).register();
+    return (value) -> {
+      gauge.set(value);
+    };
+  }
+
   @Override
   public void page(String name, String title) {
   }
@@ -9,7 +9,10 @@
  */
 package org.adamalang.extern.prometheus;
 
+import io.prometheus.client.CollectorRegistry;
+import org.adamalang.common.NamedRunnable;
 import org.adamalang.common.metrics.*;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.File;
@@ -50,6 +53,22 @@ public class PrometheusMetricsFactoryTests {
       sm_i1.finish();
       StreamMonitor.StreamMonitorInstance sm_i2 = sm.start();
       sm_i2.failure(-1);
+      // names with characters which Prometheus rejects
+      pmf.counter("with-dash").run();
+      pmf.inflight("with/slash").up();
+      ExecutorMetrics executor = new ExecutorMetrics("core-0", pmf);
+      executor.queued(new NamedRunnable("deploy-1", "space") {
+        @Override
+        public void execute() throws Exception {
+        }
+      }).run();
+      executor.timed(new NamedRunnable("deploy-1", "other") {
+        @Override
+        public void execute() throws Exception {
+        }
+      }).run();
+      Assert.assertEquals(2, executor.runtimes().get("deploy-1").count());
+      Assert.assertTrue(CollectorRegistry.defaultRegistry.getSampleValue("cb_executor_core_0_run_deploy_1_success_total") >= 2.0);
     } finally {
       pmf.shutdown();
     }
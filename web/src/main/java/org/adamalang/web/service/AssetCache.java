@@ -0,0 +1,274 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.web.service;
+
+import org.adamalang.ErrorCodes;
+import org.adamalang.common.Callback;
+import org.adamalang.common.ErrorCodeException;
+import org.adamalang.common.Hashing;
+import org.adamalang.web.contracts.AssetDownloader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * a local on-disk LRU cache of assets in front of an AssetDownloader (i.e. S3). Assets are immutable, so an entry is good until
+ * it is evicted. Concurrent requests for the same asset share one download, and each download is written to a file before it is
+ * served such that large assets never sit in the heap. Assets are handed out opened (under the lock) such that an eviction
+ * which deletes the file can't race the send. The index lives in memory, so the files the cache made are wiped on start.
+ */
+public class AssetCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(AssetCache.class);
+  private final File root;
+  private final long maxBytes;
+  private final AssetDownloader source;
+  private final WebMetrics metrics;
+  private final LinkedHashMap<String, Entry> entries;
+  private final HashMap<String, ArrayList<Callback<Handle>>> downloading;
+  private long bytes;
+
+  public AssetCache(File root, long maxBytes, AssetDownloader source, WebMetrics metrics) {
+    this.root = root;
+    this.maxBytes = maxBytes;
+    this.source = source;
+    this.metrics = metrics;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    this.downloading = new HashMap<>();
+    this.bytes = 0;
+    root.mkdirs();
+    File[] files = root.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        // the root may be shared, so only remove what the cache made
+        String name = file.getName();
+        if (name.endsWith(".asset") || name.startsWith("download") && name.endsWith(".tmp")) {
+          file.delete();
+        }
+      }
+    }
+  }
+
+  /** a cached asset */
+  public static class Entry {
+    public final File file;
+    public final long length;
+    public final String contentType;
+
+    private Entry(File file, long length, String contentType) {
+      this.file = file;
+      this.length = length;
+      this.contentType = contentType;
+    }
+  }
+
+  /** an opened cached asset; the holder must close it */
+  public static class Handle implements Closeable {
+    public final Entry entry;
+    public final RandomAccessFile file;
+
+    private Handle(Entry entry, RandomAccessFile file) {
+      this.entry = entry;
+      this.file = file;
+    }
+
+    @Override
+    public void close() {
+      try {
+        file.close();
+      } catch (IOException ignore) {
+      }
+    }
+  }
+
+  /** the entity tag of an asset; the id is unique per upload and assets are never changed, so the tag is strong */
+  public static String etagOf(AssetRequest request) {
+    return "\"" + request.id + "\"";
+  }
+
+  private static String nameOf(String id) {
+    MessageDigest digest = Hashing.md5();
+    digest.update(id.getBytes(StandardCharsets.UTF_8));
+    return Hashing.finishAndEncode(digest).replaceAll("[/+=]", "_") + ".asset";
+  }
+
+  /** get the asset as an opened local file; this either hits the cache or downloads it */
+  public void get(AssetRequest request, Callback<Handle> callback) {
+    String id = request.space + "/" + request.key + "/" + request.id;
+    Handle hit = null;
+    synchronized (this) {
+      Entry entry = entries.get(id);
+      if (entry != null) {
+        try {
+          hit = new Handle(entry, new RandomAccessFile(entry.file, "r"));
+          metrics.webhandler_assets_cache_hit.run();
+        } catch (FileNotFoundException lost) {
+          // the file was lost from underneath the cache
+          remove(id);
+        }
+      }
+      if (hit == null) {
+        metrics.webhandler_assets_cache_miss.run();
+        ArrayList<Callback<Handle>> waiting = downloading.get(id);
+        if (waiting != null) {
+          waiting.add(callback);
+          return;
+        }
+        waiting = new ArrayList<>();
+        waiting.add(callback);
+        downloading.put(id, waiting);
+      }
+    }
+    if (hit != null) {
+      callback.success(hit);
+      return;
+    }
+    source.request(request, new AssetDownloader.AssetStream() {
+      private File temp = null;
+      private FileOutputStream output = null;
+      private String contentType = null;
+      private long length = 0;
+      private boolean done = false;
+
+      @Override
+      public void headers(long length, String contentType) {
+        this.contentType = contentType;
+        try {
+          temp = File.createTempFile("download", ".tmp", root);
+          output = new FileOutputStream(temp);
+        } catch (IOException ex) {
+          fail(ErrorCodes.WEB_ASSET_CACHE_WRITE_FAILED, ex);
+          return;
+        }
+        if (length == 0) {
+          // an empty asset has no body
+          body(new byte[0], 0, 0, true);
+        }
+      }
+
+      @Override
+      public void body(byte[] chunk, int offset, int length, boolean last) {
+        if (done) {
+          return;
+        }
+        try {
+          output.write(chunk, offset, length);
+          this.length += length;
+          if (last) {
+            output.close();
+            File file = new File(root, nameOf(id));
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            done = true;
+            finish(id, new Entry(file, this.length, contentType), null);
+          }
+        } catch (IOException ex) {
+          fail(ErrorCodes.WEB_ASSET_CACHE_WRITE_FAILED, ex);
+        }
+      }
+
+      @Override
+      public void failure(int code) {
+        fail(code, null);
+      }
+
+      private void fail(int code, IOException ex) {
+        if (done) {
+          return;
+        }
+        done = true;
+        if (ex != null) {
+          LOGGER.error("failed-writing-asset-cache:" + id, ex);
+        }
+        try {
+          if (output != null) {
+            output.close();
+          }
+        } catch (IOException ignore) {
+        }
+        if (temp != null) {
+          temp.delete();
+        }
+        finish(id, null, new ErrorCodeException(code));
+      }
+    });
+  }
+
+  /** the download finished, so tell everyone waiting */
+  private void finish(String id, Entry entry, ErrorCodeException failure) {
+    ArrayList<Callback<Handle>> waiting;
+    ArrayList<Handle> handles = new ArrayList<>();
+    synchronized (this) {
+      waiting = downloading.remove(id);
+      if (entry != null) {
+        remove(id);
+        entries.put(id, entry);
+        bytes += entry.length;
+        // open for everyone waiting prior to evicting
+        for (int k = 0; k < waiting.size(); k++) {
+          try {
+            handles.add(new Handle(entry, new RandomAccessFile(entry.file, "r")));
+          } catch (FileNotFoundException ex) {
+            LOGGER.error("failed-opening-asset-cache:" + id, ex);
+            handles.add(null);
+          }
+        }
+        evict();
+      }
+    }
+    for (int k = 0; k < waiting.size(); k++) {
+      Callback<Handle> callback = waiting.get(k);
+      Handle handle = entry != null ? handles.get(k) : null;
+      if (handle != null) {
+        callback.success(handle);
+      } else {
+        callback.failure(failure != null ? failure : new ErrorCodeException(ErrorCodes.WEB_ASSET_CACHE_READ_FAILED));
+      }
+    }
+  }
+
+  /** evict the least recently used entries until the cache fits (the newest entry is kept regardless of size) */
+  private void evict() {
+    Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+    while (bytes > maxBytes && entries.size() > 1) {
+      Entry entry = it.next().getValue();
+      it.remove();
+      bytes -= entry.length;
+      // a file being served remains readable after it is deleted
+      entry.file.delete();
+      metrics.webhandler_assets_cache_evict.run();
+    }
+  }
+
+  private void remove(String id) {
+    Entry prior = entries.remove(id);
+    if (prior != null) {
+      bytes -= prior.length;
+    }
+  }
+
+  /** how many bytes are held */
+  public synchronized long bytes() {
+    return bytes;
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.web.service;
+
+/** a single byte range (RFC7233) of an asset; multiple ranges are not supported, so they get the entire asset */
+public class AssetRange {
+  /** the range can't be satisfied by the asset */
+  public static final AssetRange UNSATISFIABLE = new AssetRange(-1, -1);
+  public final long start;
+  public final long end;
+
+  private AssetRange(long start, long end) {
+    this.start = start;
+    this.end = end;
+  }
+
+  /** how many bytes are in the range */
+  public long length() {
+    return end - start + 1;
+  }
+
+  /** the Content-Range header of the range */
+  public String contentRange(long size) {
+    return "bytes " + start + "-" + end + "/" + size;
+  }
+
+  /** parse the Range header against an asset of the given size; returns null when the header should be ignored */
+  public static AssetRange parse(String header, long size) {
+    if (header == null || !header.startsWith("bytes=")) {
+      return null;
+    }
+    String spec = header.substring(6).trim();
+    int dash = spec.indexOf('-');
+    if (dash < 0 || spec.indexOf(',') >= 0) {
+      return null;
+    }
+    try {
+      String first = spec.substring(0, dash).trim();
+      String last = spec.substring(dash + 1).trim();
+      if (first.isEmpty()) {
+        // a suffix: the last N bytes
+        long suffix = Long.parseLong(last);
+        if (suffix <= 0 || size == 0) {
+          return UNSATISFIABLE;
+        }
+        return new AssetRange(Math.max(0, size - suffix), size - 1);
+      }
+      long start = Long.parseLong(first);
+      long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+      if (start < 0 || start >= size) {
+        return UNSATISFIABLE;
+      }
+      if (end < start) {
+        return null;
+      }
+      return new AssetRange(start, end);
+    } catch (NumberFormatException nfe) {
+      return null;
+    }
+  }
+}
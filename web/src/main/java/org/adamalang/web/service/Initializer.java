@@ -18,11 +18,14 @@ import io.netty.handler.codec.http.websocketx.extensions.compression.WebSocketSe
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.timeout.IdleStateHandler;
 import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.adamalang.web.contracts.AssetDownloader;
 import org.adamalang.web.contracts.ServiceBase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.util.concurrent.TimeUnit;
 
 public class Initializer extends ChannelInitializer<SocketChannel> {
@@ -31,6 +34,7 @@ public class Initializer extends ChannelInitializer<SocketChannel> {
   private final WebMetrics metrics;
   private final ServiceBase base;
   private final SslContext context;
+  private final AssetCache assets;
 
   public Initializer(final WebConfig webConfig, final WebMetrics metrics, final ServiceBase base, SslContext context) {
     this.logger = LoggerFactory.getLogger("Initializer");
@@ -38,6 +42,8 @@ public class Initializer extends ChannelInitializer<SocketChannel> {
     this.metrics = metrics;
     this.base = base;
     this.context = context;
+    AssetDownloader downloader = base.downloader();
+    this.assets = downloader != null ? new AssetCache(new File(webConfig.assetCacheRoot), webConfig.assetCacheMaxBytes, downloader, metrics) : null;
   }
 
   @Override
@@ -54,7 +60,8 @@ public class Initializer extends ChannelInitializer<SocketChannel> {
     pipeline.addLast(new HttpObjectAggregator(webConfig.maxContentLengthSize));
     pipeline.addLast(new WebSocketServerCompressionHandler());
     pipeline.addLast(new WebSocketServerProtocolHandler("/s", null, true, webConfig.maxWebSocketFrameSize, false, true, webConfig.timeoutWebsocketHandshake));
-    pipeline.addLast(new WebHandler(webConfig, metrics, base.http(), base.downloader()));
+    pipeline.addLast(new ChunkedWriteHandler());
+    pipeline.addLast(new WebHandler(webConfig, metrics, base.http(), assets));
     pipeline.addLast(new WebSocketHandler(webConfig, metrics, base));
   }
 }
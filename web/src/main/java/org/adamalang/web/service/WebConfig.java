@@ -11,6 +11,8 @@ package org.adamalang.web.service;
 
 import org.adamalang.common.ConfigObject;
 
+import java.io.File;
+
 public class WebConfig {
   public final String healthCheckPath;
   public final int maxContentLengthSize;
@@ -25,6 +27,8 @@ public class WebConfig {
   public final int idleAllSeconds;
   public final int bossThreads;
   public final int workerThreads;
+  public final String assetCacheRoot;
+  public final long assetCacheMaxBytes;
 
   public WebConfig(ConfigObject config) {
     // HTTP properties
@@ -42,5 +46,8 @@ public class WebConfig {
     this.heartbeatTimeMilliseconds = config.intOf("websocket_heart_beat_ms", 1000);
     this.bossThreads = config.intOf("http_boss_threads", 2);
     this.workerThreads = config.intOf("http_worker_threads", 16);
+    // Asset properties
+    this.assetCacheRoot = config.strOf("asset_cache_root", new File(System.getProperty("java.io.tmpdir"), "adama-asset-cache").getPath());
+    this.assetCacheMaxBytes = config.intOf("asset_cache_max_mb", 1024) * 1024L * 1024L;
   }
 }
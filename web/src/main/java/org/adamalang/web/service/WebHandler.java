@@ -10,30 +10,36 @@
 package org.adamalang.web.service;
 
 import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.DefaultFileRegion;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.*;
 import io.netty.handler.codec.http.cookie.CookieHeaderNames;
 import io.netty.handler.codec.http.cookie.DefaultCookie;
 import io.netty.handler.codec.http.cookie.ServerCookieEncoder;
-import org.adamalang.web.contracts.AssetDownloader;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.stream.ChunkedFile;
+import org.adamalang.common.Callback;
+import org.adamalang.common.ErrorCodeException;
 import org.adamalang.web.contracts.HttpHandler;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 
 public class WebHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+  private static final int ASSET_CHUNK_SIZE = 64 * 1024;
   private final WebConfig webConfig;
   private final WebMetrics metrics;
   private final HttpHandler httpHandler;
-  private final AssetDownloader downloader;
+  private final AssetCache assets;
 
-  public WebHandler(WebConfig webConfig, WebMetrics metrics, HttpHandler httpHandler, AssetDownloader downloader) {
+  public WebHandler(WebConfig webConfig, WebMetrics metrics, HttpHandler httpHandler, AssetCache assets) {
     this.webConfig = webConfig;
     this.metrics = metrics;
     this.httpHandler = httpHandler;
-    this.downloader = downloader;
+    this.assets = assets;
   }
 
   @Override
@@ -86,50 +92,27 @@ public class WebHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
           String encryptedId = req.uri().substring("/assets/".length());
           metrics.webhandler_assets_start.run();
           AssetRequest assetRequest = AssetRequest.parse(encryptedId, assetKey);
-          downloader.request(assetRequest, new AssetDownloader.AssetStream() {
-            private boolean started = false;
-            private String contentType = null;
-
-            @Override
-            public void headers(long length, String contentType) {
-              this.contentType = contentType;
-            }
-
+          String etag = AssetCache.etagOf(assetRequest);
+          if (matches(req.headers().get(HttpHeaderNames.IF_NONE_MATCH), etag)) {
+            metrics.webhandler_assets_not_modified.run();
+            final FullHttpResponse res = new DefaultFullHttpResponse(req.protocolVersion(), HttpResponseStatus.NOT_MODIFIED);
+            res.headers().set(HttpHeaderNames.ETAG, etag);
+            sendWithKeepAlive(webConfig, ctx, req, res);
+            return;
+          }
+          assets.get(assetRequest, new Callback<>() {
             @Override
-            public void body(byte[] chunk, int offset, int length, boolean last) {
-              if (!started && last) {
-                byte[] content = Arrays.copyOfRange(chunk, offset, length);
-                final FullHttpResponse res = new DefaultFullHttpResponse(req.protocolVersion(), HttpResponseStatus.OK, Unpooled.wrappedBuffer(content));
-                HttpUtil.setContentLength(res, content.length);
-                res.headers().set(HttpHeaderNames.CONTENT_TYPE, this.contentType);
-                sendWithKeepAlive(webConfig, ctx, req, res);
-              } else {
-                if (!started) {
-                  DefaultHttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
-                  response.headers().set(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED);
-                  response.headers().set(HttpHeaderNames.CONTENT_TYPE, this.contentType);
-                  ctx.write(response);
-                  started = true;
-                }
-                ctx.write(new DefaultHttpContent(Unpooled.wrappedBuffer(Arrays.copyOfRange(chunk, offset, length))));
-                if (last) {
-                  ctx.writeAndFlush(new DefaultLastHttpContent());
-                }
+            public void success(AssetCache.Handle handle) {
+              try {
+                ctx.executor().execute(() -> sendAsset(ctx, req, handle, etag));
+              } catch (RuntimeException ex) {
+                handle.close();
               }
             }
 
             @Override
-            public void failure(int code) {
-              if (started) {
-                ctx.close();
-              } else {
-                byte[] content = ("Download asset failure:" + code).getBytes(StandardCharsets.UTF_8);
-                final FullHttpResponse res = new DefaultFullHttpResponse(req.protocolVersion(), HttpResponseStatus.SERVICE_UNAVAILABLE, Unpooled.wrappedBuffer(content));
-                res.headers().set("x-adama", "" + code);
-                HttpUtil.setContentLength(res, content.length);
-                res.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/plain");
-                sendWithKeepAlive(webConfig, ctx, req, res);
-              }
+            public void failure(ErrorCodeException ex) {
+              ctx.executor().execute(() -> sendAssetFailure(ctx, req, ex.code));
             }
           });
           return;
@@ -174,9 +157,86 @@ public class WebHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
     sendWithKeepAlive(webConfig, ctx, req, res);
   }
 
+  /** does the If-None-Match header match the entity tag */
+  private static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.startsWith("W/")) {
+        tag = tag.substring(2);
+      }
+      if ("*".equals(tag) || etag.equals(tag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** send the cached asset (or the requested range of it) from the opened file; this avoids copying through the heap */
+  private void sendAsset(final ChannelHandlerContext ctx, final FullHttpRequest req, final AssetCache.Handle handle, final String etag) {
+    final AssetCache.Entry entry = handle.entry;
+    long offset = 0;
+    long length = entry.length;
+    AssetRange range = AssetRange.parse(req.headers().get(HttpHeaderNames.RANGE), entry.length);
+    if (range == AssetRange.UNSATISFIABLE) {
+      handle.close();
+      final FullHttpResponse res = new DefaultFullHttpResponse(req.protocolVersion(), HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+      res.headers().set(HttpHeaderNames.CONTENT_RANGE, "bytes */" + entry.length);
+      HttpUtil.setContentLength(res, 0);
+      sendWithKeepAlive(webConfig, ctx, req, res);
+      return;
+    }
+    final DefaultHttpResponse res = new DefaultHttpResponse(req.protocolVersion(), HttpResponseStatus.OK);
+    if (range != null) {
+      metrics.webhandler_assets_range.run();
+      offset = range.start;
+      length = range.length();
+      res.setStatus(HttpResponseStatus.PARTIAL_CONTENT);
+      res.headers().set(HttpHeaderNames.CONTENT_RANGE, range.contentRange(entry.length));
+    }
+    HttpUtil.setContentLength(res, length);
+    if (entry.contentType != null) {
+      res.headers().set(HttpHeaderNames.CONTENT_TYPE, entry.contentType);
+    }
+    res.headers().set(HttpHeaderNames.ETAG, etag);
+    res.headers().set(HttpHeaderNames.ACCEPT_RANGES, HttpHeaderValues.BYTES);
+    final var keepAlive = HttpUtil.isKeepAlive(req);
+    HttpUtil.setKeepAlive(res, keepAlive);
+    ctx.write(res);
+    final ChannelFuture future;
+    try {
+      if (ctx.pipeline().get(SslHandler.class) == null) {
+        // zero-copy via sendfile; the region closes the file once sent
+        ctx.write(new DefaultFileRegion(handle.file.getChannel(), offset, length));
+        future = ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+      } else {
+        // TLS needs the bytes, so chunk the file as the channel becomes writable
+        future = ctx.writeAndFlush(new HttpChunkedInput(new ChunkedFile(handle.file, offset, length, ASSET_CHUNK_SIZE)));
+      }
+    } catch (IOException ex) {
+      handle.close();
+      ctx.close();
+      return;
+    }
+    if (!keepAlive) {
+      future.addListener(ChannelFutureListener.CLOSE);
+    }
+  }
+
+  private void sendAssetFailure(final ChannelHandlerContext ctx, final FullHttpRequest req, int code) {
+    byte[] content = ("Download asset failure:" + code).getBytes(StandardCharsets.UTF_8);
+    final FullHttpResponse res = new DefaultFullHttpResponse(req.protocolVersion(), HttpResponseStatus.SERVICE_UNAVAILABLE, Unpooled.wrappedBuffer(content));
+    res.headers().set("x-adama", "" + code);
+    HttpUtil.setContentLength(res, content.length);
+    res.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/plain");
+    sendWithKeepAlive(webConfig, ctx, req, res);
+  }
+
   private static void sendWithKeepAlive(final WebConfig webConfig, final ChannelHandlerContext ctx, final FullHttpRequest req, final FullHttpResponse res) {
     final var responseStatus = res.status();
-    final var keepAlive = HttpUtil.isKeepAlive(req) && responseStatus.code() == 200;
+    final var keepAlive = HttpUtil.isKeepAlive(req) && (responseStatus.code() == 200 || responseStatus.code() == 304);
     HttpUtil.setKeepAlive(res, keepAlive);
     final var future = ctx.writeAndFlush(res);
     if (!keepAlive) {
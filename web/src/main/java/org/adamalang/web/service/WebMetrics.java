@@ -31,6 +31,11 @@ public class WebMetrics {
   public final Runnable webhandler_assets_invalid_uri;
   public final Runnable webhandler_assets_start;
   public final Runnable webhandler_assets_failed_start;
+  public final Runnable webhandler_assets_cache_hit;
+  public final Runnable webhandler_assets_cache_miss;
+  public final Runnable webhandler_assets_cache_evict;
+  public final Runnable webhandler_assets_not_modified;
+  public final Runnable webhandler_assets_range;
 
   public final Runnable websockets_start;
   public final Runnable websockets_end;
@@ -52,6 +57,11 @@ public class WebMetrics {
     this.webhandler_assets_invalid_uri = factory.counter("webhandler_assets_invalid_uri");
     this.webhandler_assets_start = factory.counter("webhandler_assets_start");
     this.webhandler_assets_failed_start = factory.counter("webhandler_assets_failed_start");
+    this.webhandler_assets_cache_hit = factory.counter("webhandler_assets_cache_hit");
+    this.webhandler_assets_cache_miss = factory.counter("webhandler_assets_cache_miss");
+    this.webhandler_assets_cache_evict = factory.counter("webhandler_assets_cache_evict");
+    this.webhandler_assets_not_modified = factory.counter("webhandler_assets_not_modified");
+    this.webhandler_assets_range = factory.counter("webhandler_assets_range");
 
     this.webhandler_get = factory.counter("webhandler_get");
     this.webhandler_post = factory.counter("webhandler_post");
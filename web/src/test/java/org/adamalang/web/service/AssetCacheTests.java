@@ -0,0 +1,179 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.web.service;
+
+import org.adamalang.common.Callback;
+import org.adamalang.common.ErrorCodeException;
+import org.adamalang.common.metrics.NoOpMetricsFactory;
+import org.adamalang.runtime.delta.secure.SecureAssetUtil;
+import org.adamalang.web.contracts.AssetDownloader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+
+public class AssetCacheTests {
+  /** a local stand-in for S3 which holds the streams until they are released */
+  private static class LocalStore implements AssetDownloader {
+    private final ArrayList<Runnable> pending = new ArrayList<>();
+    private int requests = 0;
+
+    @Override
+    public void request(AssetRequest request, AssetStream stream) {
+      requests++;
+      pending.add(() -> {
+        if (request.key.equals("fail")) {
+          stream.headers(-1, "text/plain");
+          stream.failure(42);
+          return;
+        }
+        byte[] bytes = (request.key + ":" + request.id).getBytes(StandardCharsets.UTF_8);
+        stream.headers(bytes.length, "text/plain");
+        stream.body(bytes, 0, 2, false);
+        stream.body(bytes, 2, bytes.length - 2, true);
+      });
+    }
+
+    private void release() {
+      ArrayList<Runnable> copy = new ArrayList<>(pending);
+      pending.clear();
+      copy.forEach(Runnable::run);
+    }
+  }
+
+  private static class Result implements Callback<AssetCache.Handle> {
+    private AssetCache.Handle handle = null;
+    private AssetCache.Entry entry = null;
+    private Integer code = null;
+
+    @Override
+    public void success(AssetCache.Handle value) {
+      this.handle = value;
+      this.entry = value.entry;
+    }
+
+    @Override
+    public void failure(ErrorCodeException ex) {
+      this.code = ex.code;
+    }
+
+    /** read from the opened handle (and not the path) as the path may have been evicted */
+    private String read() throws Exception {
+      byte[] bytes = new byte[(int) handle.file.length()];
+      handle.file.seek(0);
+      handle.file.readFully(bytes);
+      handle.close();
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+  }
+
+  private static AssetRequest request(String key, String id) {
+    String keyHeader = SecureAssetUtil.makeAssetKeyHeader();
+    return AssetRequest.parse("space/" + key + "/id=" + SecureAssetUtil.encryptToBase64(SecureAssetUtil.secretKeyOf(keyHeader), id), keyHeader);
+  }
+
+  private static File root(String name) throws Exception {
+    File root = new File(File.createTempFile("asset-cache", "tests").getParentFile(), "asset-cache-tests-" + name);
+    root.mkdirs();
+    Files.writeString(new File(root, "stale.asset").toPath(), "stale");
+    Files.writeString(new File(root, "download123.tmp").toPath(), "stale");
+    Files.writeString(new File(root, "unrelated.txt").toPath(), "keep");
+    return root;
+  }
+
+  @Test
+  public void hit_and_share() throws Exception {
+    File root = root("hit");
+    LocalStore store = new LocalStore();
+    AssetCache cache = new AssetCache(root, 1024, store, new WebMetrics(new NoOpMetricsFactory()));
+    Assert.assertFalse(new File(root, "stale.asset").exists());
+    Assert.assertFalse(new File(root, "download123.tmp").exists());
+    // the root may be shared, so files the cache didn't make are kept
+    Assert.assertTrue(new File(root, "unrelated.txt").exists());
+    Result a = new Result();
+    Result b = new Result();
+    cache.get(request("k", "1"), a);
+    cache.get(request("k", "1"), b);
+    Assert.assertEquals(1, store.requests);
+    Assert.assertNull(a.entry);
+    store.release();
+    Assert.assertEquals("k:1", a.read());
+    Assert.assertTrue(a.entry == b.entry);
+    Assert.assertEquals("k:1", b.read());
+    Assert.assertEquals(3, a.entry.length);
+    Assert.assertEquals("text/plain", a.entry.contentType);
+    Result c = new Result();
+    cache.get(request("k", "1"), c);
+    Assert.assertTrue(a.entry == c.entry);
+    c.handle.close();
+    Assert.assertEquals(1, store.requests);
+    Assert.assertEquals(3, cache.bytes());
+    // a file lost from underneath the cache is downloaded again
+    a.entry.file.delete();
+    Result d = new Result();
+    cache.get(request("k", "1"), d);
+    Assert.assertEquals(2, store.requests);
+    store.release();
+    Assert.assertEquals("k:1", d.read());
+    Assert.assertEquals(3, cache.bytes());
+  }
+
+  @Test
+  public void failure() throws Exception {
+    LocalStore store = new LocalStore();
+    AssetCache cache = new AssetCache(root("failure"), 1024, store, new WebMetrics(new NoOpMetricsFactory()));
+    Result a = new Result();
+    cache.get(request("fail", "1"), a);
+    store.release();
+    Assert.assertEquals(42, (int) a.code);
+    Result b = new Result();
+    cache.get(request("fail", "1"), b);
+    Assert.assertEquals(2, store.requests);
+    Assert.assertEquals(0, cache.bytes());
+  }
+
+  @Test
+  public void evicts_least_recently_used() throws Exception {
+    LocalStore store = new LocalStore();
+    AssetCache cache = new AssetCache(root("evict"), 8, store, new WebMetrics(new NoOpMetricsFactory()));
+    Result a = new Result();
+    cache.get(request("a", "1"), a);
+    store.release();
+    Result b = new Result();
+    cache.get(request("b", "1"), b);
+    store.release();
+    // touch a such that b is the oldest
+    Result touch = new Result();
+    cache.get(request("a", "1"), touch);
+    touch.handle.close();
+    Result c = new Result();
+    cache.get(request("c", "1"), c);
+    store.release();
+    Assert.assertEquals(6, cache.bytes());
+    Assert.assertTrue(a.entry.file.exists());
+    Assert.assertFalse(b.entry.file.exists());
+    // an opened handle survives the eviction of its file
+    Assert.assertEquals("b:1", b.read());
+    Assert.assertTrue(c.entry.file.exists());
+    // an asset bigger than the cache is still served
+    Result big = new Result();
+    cache.get(request("big-asset", "1"), big);
+    store.release();
+    Assert.assertEquals("big-asset:1", big.read());
+    Assert.assertEquals(11, cache.bytes());
+    Assert.assertFalse(a.entry.file.exists());
+    Assert.assertFalse(c.entry.file.exists());
+    Assert.assertEquals("a:1", a.read());
+    Assert.assertEquals("c:1", c.read());
+  }
+}
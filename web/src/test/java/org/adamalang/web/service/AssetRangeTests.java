@@ -0,0 +1,51 @@
+/*
+ * This file is subject to the terms and conditions outlined in the file 'LICENSE' (hint: it's MIT); this file is located in the root directory near the README.md which you should also read.
+ *
+ * This file is part of the 'Adama' project which is a programming language and document store for board games; however, it can be so much more.
+ *
+ * See http://www.adama-lang.org/ for more information.
+ *
+ * (c) 2020 - 2022 by Jeffrey M. Barber (http://jeffrey.io)
+ */
+package org.adamalang.web.service;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AssetRangeTests {
+  @Test
+  public void ranges() {
+    AssetRange range = AssetRange.parse("bytes=0-99", 1000);
+    Assert.assertEquals(0, range.start);
+    Assert.assertEquals(99, range.end);
+    Assert.assertEquals(100, range.length());
+    Assert.assertEquals("bytes 0-99/1000", range.contentRange(1000));
+    range = AssetRange.parse("bytes=900-", 1000);
+    Assert.assertEquals(900, range.start);
+    Assert.assertEquals(999, range.end);
+    range = AssetRange.parse("bytes=900-5000", 1000);
+    Assert.assertEquals(999, range.end);
+    range = AssetRange.parse("bytes=-10", 1000);
+    Assert.assertEquals(990, range.start);
+    Assert.assertEquals(999, range.end);
+    range = AssetRange.parse("bytes=-5000", 1000);
+    Assert.assertEquals(0, range.start);
+  }
+
+  @Test
+  public void unsatisfiable() {
+    Assert.assertTrue(AssetRange.UNSATISFIABLE == AssetRange.parse("bytes=1000-", 1000));
+    Assert.assertTrue(AssetRange.UNSATISFIABLE == AssetRange.parse("bytes=-0", 1000));
+    Assert.assertTrue(AssetRange.UNSATISFIABLE == AssetRange.parse("bytes=-10", 0));
+  }
+
+  @Test
+  public void ignored() {
+    Assert.assertNull(AssetRange.parse(null, 1000));
+    Assert.assertNull(AssetRange.parse("items=0-10", 1000));
+    Assert.assertNull(AssetRange.parse("bytes=0-10,20-30", 1000));
+    Assert.assertNull(AssetRange.parse("bytes=10-5", 1000));
+    Assert.assertNull(AssetRange.parse("bytes=x-5", 1000));
+    Assert.assertNull(AssetRange.parse("bytes=5", 1000));
+  }
+}
@@ -96,7 +96,7 @@ public class WebHandlerTests {
             .get("/assets/space/incomplete/id=" + SecureAssetUtil.encryptToBase64(key, "1"))
             .execute(callback);
         callback.awaitFirst();
-        callback.assertData("Chunk");
+        callback.assertData("Download asset failure:1234");
       }
 
       {
@@ -125,6 +125,48 @@ public class WebHandlerTests {
         callback.assertData("Chunk1Chunk2Chunk3");
       }
 
+      {
+        String keyHeader = SecureAssetUtil.makeAssetKeyHeader();
+        SecretKey key = SecureAssetUtil.secretKeyOf(keyHeader);
+        TestClientCallback callback = new TestClientCallback();
+        TestClientRequestBuilder.start(group)
+            .server("localhost", webConfig.port)
+            .header("Cookie", ClientCookieEncoder.STRICT.encode("SAK", keyHeader))
+            .header("Range", "bytes=6-11")
+            .get("/assets/space/3/id=" + SecureAssetUtil.encryptToBase64(key, "1"))
+            .execute(callback);
+        callback.awaitFirst();
+        callback.assertData("Chunk2");
+      }
+
+      {
+        String keyHeader = SecureAssetUtil.makeAssetKeyHeader();
+        SecretKey key = SecureAssetUtil.secretKeyOf(keyHeader);
+        TestClientCallback callback = new TestClientCallback();
+        TestClientRequestBuilder.start(group)
+            .server("localhost", webConfig.port)
+            .header("Cookie", ClientCookieEncoder.STRICT.encode("SAK", keyHeader))
+            .header("Range", "bytes=100-")
+            .get("/assets/space/3/id=" + SecureAssetUtil.encryptToBase64(key, "1"))
+            .execute(callback);
+        callback.awaitFirst();
+        callback.assertData("");
+      }
+
+      {
+        String keyHeader = SecureAssetUtil.makeAssetKeyHeader();
+        SecretKey key = SecureAssetUtil.secretKeyOf(keyHeader);
+        TestClientCallback callback = new TestClientCallback();
+        TestClientRequestBuilder.start(group)
+            .server("localhost", webConfig.port)
+            .header("Cookie", ClientCookieEncoder.STRICT.encode("SAK", keyHeader))
+            .header("If-None-Match", "\"1\"")
+            .get("/assets/space/3/id=" + SecureAssetUtil.encryptToBase64(key, "1"))
+            .execute(callback);
+        callback.awaitFirst();
+        callback.assertData("");
+      }
+
       {
         TestClientCallback callback = new TestClientCallback();
         TestClientRequestBuilder.start(group)